@@ -8,6 +8,7 @@ package com.caba.caba_pro.DTOs;
 import java.time.LocalDateTime;
 
 public class ChatMessageDto {
+  private Long id; // Secuencia del mensaje dentro de la conversación, asignada al guardarlo
   private String remitente;
   private String destinatario;
   private String content; // Cambié de 'contenido' a 'content' para coincidir con JS
@@ -27,6 +28,14 @@ public class ChatMessageDto {
   }
 
   // Getters y Setters
+  public Long getId() {
+    return id;
+  }
+
+  public void setId(Long id) {
+    this.id = id;
+  }
+
   public String getRemitente() {
     return remitente;
   }
@@ -0,0 +1,56 @@
+/**
+ * Archivo: ChatPresenceDto.java Autores: Diego.Gonzalez Fecha última modificación: 17.10.2026
+ * Descripción: DTO para el estado de conexión de un usuario del chat Proyecto: CABA Pro - Sistema
+ * de Gestión Integral de Arbitraje
+ */
+package com.caba.caba_pro.DTOs;
+
+public class ChatPresenceDto {
+  private String role; // ADMIN o ARBITRO
+  private Long id;
+  private String username;
+  private boolean online;
+
+  // Constructores
+  public ChatPresenceDto() {}
+
+  public ChatPresenceDto(String role, Long id, String username, boolean online) {
+    this.role = role;
+    this.id = id;
+    this.username = username;
+    this.online = online;
+  }
+
+  // Getters y Setters
+  public String getRole() {
+    return role;
+  }
+
+  public void setRole(String role) {
+    this.role = role;
+  }
+
+  public Long getId() {
+    return id;
+  }
+
+  public void setId(Long id) {
+    this.id = id;
+  }
+
+  public String getUsername() {
+    return username;
+  }
+
+  public void setUsername(String username) {
+    this.username = username;
+  }
+
+  public boolean isOnline() {
+    return online;
+  }
+
+  public void setOnline(boolean online) {
+    this.online = online;
+  }
+}
@@ -0,0 +1,56 @@
+/**
+ * Archivo: ChatSearchResultDto.java Autores: Diego.Gonzalez Fecha última modificación: 17.10.2026
+ * Descripción: DTO para un resultado de la búsqueda en el historial de chat Proyecto: CABA Pro -
+ * Sistema de Gestión Integral de Arbitraje
+ */
+package com.caba.caba_pro.DTOs;
+
+public class ChatSearchResultDto {
+  private Long adminId;
+  private Long arbitroId;
+  private double score; // Relevancia: mayor es mejor
+  private ChatMessageDto message;
+
+  // Constructores
+  public ChatSearchResultDto() {}
+
+  public ChatSearchResultDto(Long adminId, Long arbitroId, double score, ChatMessageDto message) {
+    this.adminId = adminId;
+    this.arbitroId = arbitroId;
+    this.score = score;
+    this.message = message;
+  }
+
+  // Getters y Setters
+  public Long getAdminId() {
+    return adminId;
+  }
+
+  public void setAdminId(Long adminId) {
+    this.adminId = adminId;
+  }
+
+  public Long getArbitroId() {
+    return arbitroId;
+  }
+
+  public void setArbitroId(Long arbitroId) {
+    this.arbitroId = arbitroId;
+  }
+
+  public double getScore() {
+    return score;
+  }
+
+  public void setScore(double score) {
+    this.score = score;
+  }
+
+  public ChatMessageDto getMessage() {
+    return message;
+  }
+
+  public void setMessage(ChatMessageDto message) {
+    this.message = message;
+  }
+}
@@ -0,0 +1,46 @@
+/**
+ * Archivo: ChatUnreadDto.java Autores: Diego.Gonzalez Fecha última modificación: 17.10.2026
+ * Descripción: DTO para el cambio en los mensajes sin leer de una conversación Proyecto: CABA Pro -
+ * Sistema de Gestión Integral de Arbitraje
+ */
+package com.caba.caba_pro.DTOs;
+
+public class ChatUnreadDto {
+  private Long adminId;
+  private Long arbitroId;
+  private int delta; // +1 por mensaje nuevo, negativo al leer la conversación
+
+  // Constructores
+  public ChatUnreadDto() {}
+
+  public ChatUnreadDto(Long adminId, Long arbitroId, int delta) {
+    this.adminId = adminId;
+    this.arbitroId = arbitroId;
+    this.delta = delta;
+  }
+
+  // Getters y Setters
+  public Long getAdminId() {
+    return adminId;
+  }
+
+  public void setAdminId(Long adminId) {
+    this.adminId = adminId;
+  }
+
+  public Long getArbitroId() {
+    return arbitroId;
+  }
+
+  public void setArbitroId(Long arbitroId) {
+    this.arbitroId = arbitroId;
+  }
+
+  public int getDelta() {
+    return delta;
+  }
+
+  public void setDelta(int delta) {
+    this.delta = delta;
+  }
+}
@@ -5,6 +5,7 @@
  */
 package com.caba.caba_pro.DTOs;
 
+import java.util.HashMap;
 import java.util.Map;
 
 public class EstadisticasArbitrosDto {
@@ -17,6 +18,15 @@ public class EstadisticasArbitrosDto {
 
   public EstadisticasArbitrosDto() {}
 
+  // Copia con sus propios mapas
+  public EstadisticasArbitrosDto(EstadisticasArbitrosDto otro) {
+    this.totalActivos = otro.totalActivos;
+    this.cantidadPorEspecialidad =
+        otro.cantidadPorEspecialidad != null ? new HashMap<>(otro.cantidadPorEspecialidad) : null;
+    this.cantidadPorEscalafon =
+        otro.cantidadPorEscalafon != null ? new HashMap<>(otro.cantidadPorEscalafon) : null;
+  }
+
   public int getTotalActivos() {
     return totalActivos;
   }
@@ -19,6 +19,14 @@ public class EstadisticasAsignacionesDto {
 
   public EstadisticasAsignacionesDto() {}
 
+  public EstadisticasAsignacionesDto(EstadisticasAsignacionesDto otro) {
+    this.totalAsignaciones = otro.totalAsignaciones;
+    this.aceptadas = otro.aceptadas;
+    this.rechazadas = otro.rechazadas;
+    this.porcentajeAceptadas = otro.porcentajeAceptadas;
+    this.porcentajeRechazadas = otro.porcentajeRechazadas;
+  }
+
   public int getTotalAsignaciones() {
     return totalAsignaciones;
   }
@@ -5,6 +5,7 @@
  */
 package com.caba.caba_pro.DTOs;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public class TopArbitrosDto {
@@ -13,6 +14,14 @@ public class TopArbitrosDto {
 
   public TopArbitrosDto() {}
 
+  // Copia con su propia lista y sus propios elementos
+  public TopArbitrosDto(TopArbitrosDto otro) {
+    this.topArbitros =
+        otro.topArbitros != null
+            ? new ArrayList<>(otro.topArbitros.stream().map(ArbitroActividadDto::new).toList())
+            : null;
+  }
+
   public List<ArbitroActividadDto> getTopArbitros() {
     return topArbitros;
   }
@@ -29,6 +38,12 @@ public class TopArbitrosDto {
 
     public ArbitroActividadDto() {}
 
+    public ArbitroActividadDto(ArbitroActividadDto otro) {
+      this.idArbitro = otro.idArbitro;
+      this.nombreCompleto = otro.nombreCompleto;
+      this.cantidadAsignaciones = otro.cantidadAsignaciones;
+    }
+
     public Long getIdArbitro() {
       return idArbitro;
     }
@@ -0,0 +1,51 @@
+package com.caba.caba_pro.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Archivo: CacheConsultasProperties.java Autores: Diego.Gonzalez Fecha última modificación:
+ * 17.10.2026 Descripción: Configuración de la caché de resultados de estadísticas, panel y
+ * liquidaciones Proyecto: CABA Pro - Sistema de Gestión Integral de Arbitraje
+ */
+@Configuration
+@ConfigurationProperties(prefix = "caba-pro.cache-consultas")
+public class CacheConsultasProperties {
+
+  /** Con {@code false} cada consulta se calcula siempre (útil para depurar). */
+  private boolean enabled = true;
+
+  /**
+   * Vida máxima de un resultado. Los cambios de asignaciones y árbitros invalidan antes; el
+   * vencimiento cubre lo que no publica eventos (partidos, torneos, datos de prueba).
+   */
+  private Duration ttl = Duration.ofMinutes(10);
+
+  /** Resultados guardados como máximo; al superarlo se expulsa el usado hace más tiempo. */
+  private int maxEntradas = 500;
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  public Duration getTtl() {
+    return ttl;
+  }
+
+  public void setTtl(Duration ttl) {
+    this.ttl = ttl;
+  }
+
+  public int getMaxEntradas() {
+    return maxEntradas;
+  }
+
+  public void setMaxEntradas(int maxEntradas) {
+    this.maxEntradas = maxEntradas;
+  }
+}
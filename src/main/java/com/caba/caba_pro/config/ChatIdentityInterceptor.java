@@ -0,0 +1,47 @@
+/**
+ * Archivo: ChatIdentityInterceptor.java Autores: Diego.Gonzalez Fecha última modificación:
+ * 17.10.2026 Descripción: Interceptor STOMP que resuelve la identidad del usuario al conectar
+ * Proyecto: CABA Pro - Sistema de Gestión Integral de Arbitraje
+ */
+package com.caba.caba_pro.config;
+
+import com.caba.caba_pro.services.ChatIdentityService;
+import java.util.Map;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+
+/**
+ * En el CONNECT de STOMP resuelve una sola vez el rol e id del usuario autenticado y los guarda en
+ * los atributos de la sesión WebSocket, de donde los toma cada mensaje enviado.
+ */
+@Component
+public class ChatIdentityInterceptor implements ChannelInterceptor {
+
+  private final ChatIdentityService chatIdentityService;
+
+  public ChatIdentityInterceptor(ChatIdentityService chatIdentityService) {
+    this.chatIdentityService = chatIdentityService;
+  }
+
+  @Override
+  public Message<?> preSend(Message<?> message, MessageChannel channel) {
+    StompHeaderAccessor accessor =
+        MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+    if (accessor != null && StompCommand.CONNECT.equals(accessor.getCommand())) {
+      Map<String, Object> attributes = accessor.getSessionAttributes();
+      if (accessor.getUser() != null && attributes != null) {
+        ChatIdentityService.ChatIdentity identity =
+            chatIdentityService.resolve(accessor.getUser().getName());
+        if (identity != null) {
+          attributes.put(ChatIdentityService.SESSION_ATTRIBUTE, identity);
+        }
+      }
+    }
+    return message;
+  }
+}
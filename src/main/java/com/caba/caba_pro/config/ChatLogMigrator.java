@@ -0,0 +1,49 @@
+/**
+ * Archivo: ChatLogMigrator.java Autores: Diego.Gonzalez Fecha última modificación: 17.10.2026
+ * Descripción: Migración única de los chats en archivos JSON al log segmentado Proyecto: CABA Pro -
+ * Sistema de Gestión Integral de Arbitraje
+ */
+package com.caba.caba_pro.config;
+
+import com.caba.caba_pro.services.JsonStorageService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Migra al iniciar la aplicación los archivos {@code chat_adminX_arbitroY.json} al log segmentado.
+ * Cada archivo migrado se renombra a {@code .json.migrated}, por lo que no se vuelve a procesar.
+ * Antes, si el índice de conversaciones aún no existe, se construye a partir de los logs; después
+ * se indexan para la búsqueda los mensajes que aún no estén en el índice guardado.
+ */
+@Configuration
+public class ChatLogMigrator {
+
+  private static final Logger logger = LoggerFactory.getLogger(ChatLogMigrator.class);
+
+  /**
+   * Ejecuta la migración de chats en formato anterior.
+   *
+   * @param jsonStorageService Servicio de almacenamiento de chats
+   * @return CommandLineRunner que se ejecuta al inicio
+   */
+  @Bean
+  public CommandLineRunner migrateLegacyChats(JsonStorageService jsonStorageService) {
+    return args -> {
+      int indexed = jsonStorageService.rebuildConversationIndexIfMissing();
+      if (indexed > 0) {
+        logger.info("✅ {} conversaciones agregadas al índice de conversaciones", indexed);
+      }
+      int migrated = jsonStorageService.migrateLegacyChats();
+      if (migrated > 0) {
+        logger.info("✅ {} conversaciones migradas al log segmentado", migrated);
+      }
+      long searchable = jsonStorageService.catchUpSearchIndex();
+      if (searchable > 0) {
+        logger.info("✅ {} mensajes de chat agregados al índice de búsqueda", searchable);
+      }
+    };
+  }
+}
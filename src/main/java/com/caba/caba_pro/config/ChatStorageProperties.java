@@ -0,0 +1,185 @@
+package com.caba.caba_pro.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Archivo: ChatStorageProperties.java Autores: Diego.Gonzalez Fecha última modificación: 17.10.2026
+ * Descripción: Configuración del almacenamiento de mensajes de chat en segmentos de log Proyecto:
+ * CABA Pro - Sistema de Gestión Integral de Arbitraje
+ */
+@Configuration
+@ConfigurationProperties(prefix = "caba-pro.chat")
+public class ChatStorageProperties {
+
+  /** Política de sincronización a disco de los segmentos de chat. */
+  public enum FsyncPolicy {
+    /** fsync después de cada escritura (más seguro, más lento). */
+    ALWAYS,
+    /** fsync solo al cerrar un segmento; el resto lo decide el sistema operativo. */
+    ON_ROLL,
+    /** Nunca se fuerza fsync. */
+    NEVER
+  }
+
+  /** Formato en que se codifica cada mensaje dentro de los segmentos. */
+  public enum Codec {
+    /** JSON de texto, legible con cualquier herramienta. */
+    JSON,
+    /** Smile, JSON binario de Jackson: algo más compacto y más rápido de leer. */
+    SMILE,
+    /** Binario propio con varints y sin nombres de campo: el más compacto. */
+    BINARY
+  }
+
+  /** Directorio raíz donde se guardan las conversaciones. */
+  private String directory = "data/chats";
+
+  /** Número de mensajes que caben en un segmento antes de cerrarlo y abrir uno nuevo. */
+  private int segmentMaxMessages = 500;
+
+  /** Política de fsync al escribir mensajes. */
+  private FsyncPolicy fsync = FsyncPolicy.ALWAYS;
+
+  /**
+   * Formato de los mensajes nuevos. Al leer se detecta el formato de cada mensaje, así que
+   * cambiarlo no requiere migrar los segmentos existentes.
+   */
+  private Codec codec = Codec.BINARY;
+
+  /** Si es true, los mensajes se encolan y un hilo escritor los persiste en lotes. */
+  private boolean writeBehind = true;
+
+  /** Capacidad de la cola de escritura; al llenarse, quien envía espera (backpressure). */
+  private int writeQueueCapacity = 10000;
+
+  /** Máximo de mensajes que el escritor toma de la cola en cada lote. */
+  private int writeBatchSize = 256;
+
+  /** Número de locks entre los que se reparten las conversaciones. */
+  private int lockStripes = 64;
+
+  /** Memoria máxima (estimada) de la caché de últimos mensajes por conversación. */
+  private DataSize cacheMaxSize = DataSize.ofMegabytes(32);
+
+  /** Mensajes recientes que se guardan en caché por conversación. */
+  private int cacheTailMessages = 200;
+
+  /** Antigüedad a partir de la cual los segmentos cerrados se comprimen en archivos. */
+  private Duration archiveAfter = Duration.ofDays(30);
+
+  /** Cron del archivado de conversaciones antiguas ("-" lo deshabilita). */
+  private String archiveCron = "0 30 3 * * *";
+
+  /**
+   * Cada cuánto se guarda en disco el índice de conversaciones (último mensaje y no leídos). Entre
+   * guardados vive en memoria; también se guarda al detener la aplicación.
+   */
+  private Duration indexFlushInterval = Duration.ofSeconds(5);
+
+  public String getDirectory() {
+    return directory;
+  }
+
+  public void setDirectory(String directory) {
+    this.directory = directory;
+  }
+
+  public int getSegmentMaxMessages() {
+    return segmentMaxMessages;
+  }
+
+  public void setSegmentMaxMessages(int segmentMaxMessages) {
+    this.segmentMaxMessages = segmentMaxMessages;
+  }
+
+  public FsyncPolicy getFsync() {
+    return fsync;
+  }
+
+  public void setFsync(FsyncPolicy fsync) {
+    this.fsync = fsync;
+  }
+
+  public Codec getCodec() {
+    return codec;
+  }
+
+  public void setCodec(Codec codec) {
+    this.codec = codec;
+  }
+
+  public boolean isWriteBehind() {
+    return writeBehind;
+  }
+
+  public void setWriteBehind(boolean writeBehind) {
+    this.writeBehind = writeBehind;
+  }
+
+  public int getWriteQueueCapacity() {
+    return writeQueueCapacity;
+  }
+
+  public void setWriteQueueCapacity(int writeQueueCapacity) {
+    this.writeQueueCapacity = writeQueueCapacity;
+  }
+
+  public int getWriteBatchSize() {
+    return writeBatchSize;
+  }
+
+  public void setWriteBatchSize(int writeBatchSize) {
+    this.writeBatchSize = writeBatchSize;
+  }
+
+  public int getLockStripes() {
+    return lockStripes;
+  }
+
+  public void setLockStripes(int lockStripes) {
+    this.lockStripes = lockStripes;
+  }
+
+  public DataSize getCacheMaxSize() {
+    return cacheMaxSize;
+  }
+
+  public void setCacheMaxSize(DataSize cacheMaxSize) {
+    this.cacheMaxSize = cacheMaxSize;
+  }
+
+  public int getCacheTailMessages() {
+    return cacheTailMessages;
+  }
+
+  public void setCacheTailMessages(int cacheTailMessages) {
+    this.cacheTailMessages = cacheTailMessages;
+  }
+
+  public Duration getArchiveAfter() {
+    return archiveAfter;
+  }
+
+  public void setArchiveAfter(Duration archiveAfter) {
+    this.archiveAfter = archiveAfter;
+  }
+
+  public String getArchiveCron() {
+    return archiveCron;
+  }
+
+  public void setArchiveCron(String archiveCron) {
+    this.archiveCron = archiveCron;
+  }
+
+  public Duration getIndexFlushInterval() {
+    return indexFlushInterval;
+  }
+
+  public void setIndexFlushInterval(Duration indexFlushInterval) {
+    this.indexFlushInterval = indexFlushInterval;
+  }
+}
@@ -0,0 +1,31 @@
+/**
+ * Archivo: EstadisticaDiariaInitializer.java Autores: Diego.Gonzalez Fecha última modificación:
+ * 17.10.2026 Descripción: Verificación al iniciar del acumulado diario de asignaciones Proyecto:
+ * CABA Pro - Sistema de Gestión Integral de Arbitraje
+ */
+package com.caba.caba_pro.config;
+
+import com.caba.caba_pro.services.EstadisticaDiariaService;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+
+/**
+ * Reconstruye el acumulado diario si no cuadra con las asignaciones. Se hace cuando la aplicación
+ * ya está lista, es decir, después de los {@code CommandLineRunner} (el {@link DataSeeder} guarda
+ * asignaciones sin pasar por los servicios).
+ */
+@Configuration
+public class EstadisticaDiariaInitializer {
+
+  private final EstadisticaDiariaService estadisticaDiariaService;
+
+  public EstadisticaDiariaInitializer(EstadisticaDiariaService estadisticaDiariaService) {
+    this.estadisticaDiariaService = estadisticaDiariaService;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void verificarAcumulado() {
+    estadisticaDiariaService.reconstruirSiDesfasado();
+  }
+}
@@ -0,0 +1,69 @@
+package com.caba.caba_pro.config;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Archivo: ExcelExportProperties.java Autores: Diego.Gonzalez Fecha última modificación: 17.10.2026
+ * Descripción: Configuración de las exportaciones a Excel Proyecto: CABA Pro - Sistema de Gestión
+ * Integral de Arbitraje
+ */
+@Configuration
+@ConfigurationProperties(prefix = "caba-pro.excel-export")
+public class ExcelExportProperties {
+
+  /** Cómo se calcula el ancho de las columnas de una hoja exportada. */
+  public enum AnchoColumnas {
+    /**
+     * {@code autoSizeColumn} de POI: mide cada celda con la fuente real; lento en hojas grandes.
+     */
+    AUTO,
+    /** Largo del texto más largo de cada columna, contado al escribir todas las filas. */
+    ESTIMADO,
+    /** Como {@link #ESTIMADO} pero mirando solo las primeras {@code filas-muestra} filas. */
+    MUESTRA
+  }
+
+  /** Modo de ancho de columnas de las exportaciones que no tienen uno propio. */
+  private AnchoColumnas anchoColumnas = AnchoColumnas.ESTIMADO;
+
+  /** Filas de datos que se miran en el modo {@code MUESTRA}. */
+  private int filasMuestra = 1000;
+
+  /**
+   * Modo por exportación ({@code arbitros}, {@code partidos}, {@code torneos}, {@code liquidacion},
+   * {@code completa}); reemplaza a {@code ancho-columnas}.
+   */
+  private Map<String, AnchoColumnas> exportaciones = new HashMap<>();
+
+  // Modo que corresponde a la exportación
+  public AnchoColumnas anchoColumnasPara(String exportacion) {
+    return exportaciones.getOrDefault(exportacion, anchoColumnas);
+  }
+
+  public AnchoColumnas getAnchoColumnas() {
+    return anchoColumnas;
+  }
+
+  public void setAnchoColumnas(AnchoColumnas anchoColumnas) {
+    this.anchoColumnas = anchoColumnas;
+  }
+
+  public int getFilasMuestra() {
+    return filasMuestra;
+  }
+
+  public void setFilasMuestra(int filasMuestra) {
+    this.filasMuestra = filasMuestra;
+  }
+
+  public Map<String, AnchoColumnas> getExportaciones() {
+    return exportaciones;
+  }
+
+  public void setExportaciones(Map<String, AnchoColumnas> exportaciones) {
+    this.exportaciones = exportaciones;
+  }
+}
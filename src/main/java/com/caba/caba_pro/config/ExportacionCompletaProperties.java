@@ -0,0 +1,39 @@
+package com.caba.caba_pro.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Archivo: ExportacionCompletaProperties.java Autores: Diego.Gonzalez Fecha última modificación:
+ * 17.10.2026 Descripción: Configuración de la exportación completa en paralelo Proyecto: CABA Pro -
+ * Sistema de Gestión Integral de Arbitraje
+ */
+@Configuration
+@ConfigurationProperties(prefix = "caba-pro.exportacion-completa")
+public class ExportacionCompletaProperties {
+
+  /**
+   * Hilos que leen partes a la vez, cada uno con su conexión; con 5 una exportación lee todas sus
+   * partes en paralelo.
+   */
+  private int poolSize = 5;
+
+  /** Partes que pueden esperar turno; con la cola llena se rechazan las exportaciones nuevas. */
+  private int queueCapacity = 10;
+
+  public int getPoolSize() {
+    return poolSize;
+  }
+
+  public void setPoolSize(int poolSize) {
+    this.poolSize = poolSize;
+  }
+
+  public int getQueueCapacity() {
+    return queueCapacity;
+  }
+
+  public void setQueueCapacity(int queueCapacity) {
+    this.queueCapacity = queueCapacity;
+  }
+}
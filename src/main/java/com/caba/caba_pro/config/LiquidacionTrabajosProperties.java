@@ -0,0 +1,73 @@
+package com.caba.caba_pro.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Archivo: LiquidacionTrabajosProperties.java Autores: Diego.Gonzalez Fecha última modificación:
+ * 17.10.2026 Descripción: Configuración de los trabajos asíncronos de liquidación Proyecto: CABA
+ * Pro - Sistema de Gestión Integral de Arbitraje
+ */
+@Configuration
+@ConfigurationProperties(prefix = "caba-pro.liquidacion-trabajos")
+public class LiquidacionTrabajosProperties {
+
+  /**
+   * Directorio base; los archivos generados se guardan en su subdirectorio {@code trabajos} hasta
+   * que vencen.
+   */
+  private String directory = "data/liquidaciones";
+
+  /** Hilos que generan liquidaciones a la vez. */
+  private int poolSize = 2;
+
+  /** Trabajos que pueden esperar turno; con la cola llena se rechazan los nuevos. */
+  private int queueCapacity = 10;
+
+  /** Tiempo que se conserva un resultado (o un error) después de terminar. */
+  private Duration ttl = Duration.ofHours(1);
+
+  /** Cada cuánto se borran los trabajos vencidos. */
+  private Duration purgeInterval = Duration.ofMinutes(1);
+
+  public String getDirectory() {
+    return directory;
+  }
+
+  public void setDirectory(String directory) {
+    this.directory = directory;
+  }
+
+  public int getPoolSize() {
+    return poolSize;
+  }
+
+  public void setPoolSize(int poolSize) {
+    this.poolSize = poolSize;
+  }
+
+  public int getQueueCapacity() {
+    return queueCapacity;
+  }
+
+  public void setQueueCapacity(int queueCapacity) {
+    this.queueCapacity = queueCapacity;
+  }
+
+  public Duration getTtl() {
+    return ttl;
+  }
+
+  public void setTtl(Duration ttl) {
+    this.ttl = ttl;
+  }
+
+  public Duration getPurgeInterval() {
+    return purgeInterval;
+  }
+
+  public void setPurgeInterval(Duration purgeInterval) {
+    this.purgeInterval = purgeInterval;
+  }
+}
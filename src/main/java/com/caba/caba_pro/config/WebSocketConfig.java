@@ -5,19 +5,55 @@
  */
 package com.caba.caba_pro.config;
 
+import java.util.concurrent.ThreadPoolExecutor;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.simp.config.StompBrokerRelayRegistration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+  private final ChatIdentityInterceptor chatIdentityInterceptor;
+  private final WebSocketProperties properties;
+
+  public WebSocketConfig(
+      ChatIdentityInterceptor chatIdentityInterceptor, WebSocketProperties properties) {
+    this.chatIdentityInterceptor = chatIdentityInterceptor;
+    this.properties = properties;
+  }
+
   @Override
   public void configureMessageBroker(MessageBrokerRegistry config) {
-    config.enableSimpleBroker("/topic", "/queue", "/user");
+    // "/user" no va como prefijo del broker: lo traduce UserDestinationMessageHandler a la cola de
+    // cada sesión, y si el broker también registrara la suscripción original con el mismo id, la
+    // traducida se descartaría y los mensajes privados no llegarían
+    WebSocketProperties.Broker broker = properties.getBroker();
+    if (broker.getMode() == WebSocketProperties.BrokerMode.RELAY) {
+      // Varios nodos: los usuarios que no están en este nodo se resuelven por el broker
+      StompBrokerRelayRegistration relay =
+          config
+              .enableStompBrokerRelay("/topic", "/queue")
+              .setRelayHost(broker.getRelayHost())
+              .setRelayPort(broker.getRelayPort())
+              .setClientLogin(broker.getClientLogin())
+              .setClientPasscode(broker.getClientPasscode())
+              .setSystemLogin(broker.getSystemLogin())
+              .setSystemPasscode(broker.getSystemPasscode())
+              .setUserDestinationBroadcast(broker.getUserDestinationBroadcast())
+              .setUserRegistryBroadcast(broker.getUserRegistryBroadcast());
+      if (broker.getVirtualHost() != null && !broker.getVirtualHost().isBlank()) {
+        relay.setVirtualHost(broker.getVirtualHost());
+      }
+    } else {
+      config.enableSimpleBroker("/topic", "/queue");
+    }
     config.setApplicationDestinationPrefixes("/app");
     config.setUserDestinationPrefix("/user");
   }
@@ -27,4 +63,36 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     // Registrar el endpoint de WebSocket
     registry.addEndpoint("/ws").setAllowedOriginPatterns("*").withSockJS();
   }
+
+  @Override
+  public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+    registration.setSendTimeLimit((int) properties.getSendTimeLimit().toMillis());
+    registration.setSendBufferSizeLimit(properties.getSendBufferSizeLimit());
+  }
+
+  @Override
+  public void configureClientInboundChannel(ChannelRegistration registration) {
+    // Resolver la identidad del usuario una sola vez, al conectar
+    registration.interceptors(chatIdentityInterceptor);
+    registration.executor(channelExecutor("ws-inbound-", properties.getInbound()));
+  }
+
+  @Override
+  public void configureClientOutboundChannel(ChannelRegistration registration) {
+    registration.executor(channelExecutor("ws-outbound-", properties.getOutbound()));
+  }
+
+  // Pool acotado; si se satura, quien publica ejecuta la tarea (backpressure)
+  private ThreadPoolTaskExecutor channelExecutor(
+      String threadNamePrefix, WebSocketProperties.ChannelExecutor config) {
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setThreadNamePrefix(threadNamePrefix);
+    executor.setCorePoolSize(config.getCorePoolSize());
+    executor.setMaxPoolSize(config.getMaxPoolSize());
+    executor.setQueueCapacity(config.getQueueCapacity());
+    executor.setKeepAliveSeconds(config.getKeepAliveSeconds());
+    executor.setAllowCoreThreadTimeOut(true);
+    executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+    return executor;
+  }
 }
@@ -0,0 +1,256 @@
+package com.caba.caba_pro.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Archivo: WebSocketProperties.java Autores: Diego.Gonzalez Fecha última modificación: 17.10.2026
+ * Descripción: Configuración de los pools de hilos de los canales STOMP del chat Proyecto: CABA Pro
+ * - Sistema de Gestión Integral de Arbitraje
+ */
+@Configuration
+@ConfigurationProperties(prefix = "caba-pro.websocket")
+public class WebSocketProperties {
+
+  /** Broker al que se entregan los mensajes de /topic y /queue. */
+  public enum BrokerMode {
+    /** Broker en memoria: solo llega a las sesiones conectadas a este nodo. */
+    SIMPLE,
+    /** Relay STOMP a un broker externo (RabbitMQ, ActiveMQ...): permite varios nodos. */
+    RELAY
+  }
+
+  /** Broker de mensajes del chat. */
+  private Broker broker = new Broker();
+
+  /** Pool del canal de entrada: mensajes de los clientes y handlers {@code @MessageMapping}. */
+  private ChannelExecutor inbound = new ChannelExecutor(16, 64, 1000);
+
+  /** Pool del canal de salida: envío de mensajes a las sesiones WebSocket. */
+  private ChannelExecutor outbound = new ChannelExecutor(8, 32, 1000);
+
+  /**
+   * Tiempo máximo que puede tardar un envío a una sesión antes de cerrarla. Un administrador recibe
+   * los mensajes de todos sus árbitros, así que se deja más margen que el de Spring (10 s).
+   */
+  private Duration sendTimeLimit = Duration.ofSeconds(20);
+
+  /** Bytes pendientes de envío por sesión antes de cerrarla (Spring usa 512 KB). */
+  private int sendBufferSizeLimit = 2 * 1024 * 1024;
+
+  public Broker getBroker() {
+    return broker;
+  }
+
+  public void setBroker(Broker broker) {
+    this.broker = broker;
+  }
+
+  public ChannelExecutor getInbound() {
+    return inbound;
+  }
+
+  public void setInbound(ChannelExecutor inbound) {
+    this.inbound = inbound;
+  }
+
+  public ChannelExecutor getOutbound() {
+    return outbound;
+  }
+
+  public void setOutbound(ChannelExecutor outbound) {
+    this.outbound = outbound;
+  }
+
+  public Duration getSendTimeLimit() {
+    return sendTimeLimit;
+  }
+
+  public void setSendTimeLimit(Duration sendTimeLimit) {
+    this.sendTimeLimit = sendTimeLimit;
+  }
+
+  public int getSendBufferSizeLimit() {
+    return sendBufferSizeLimit;
+  }
+
+  public void setSendBufferSizeLimit(int sendBufferSizeLimit) {
+    this.sendBufferSizeLimit = sendBufferSizeLimit;
+  }
+
+  /**
+   * Pool acotado de un canal. Con la cola y los hilos al máximo, el mensaje se procesa en el hilo
+   * que lo publica, lo que frena a ese cliente (backpressure) en lugar de descartar mensajes.
+   */
+  public static class ChannelExecutor {
+
+    /** Hilos que se mantienen siempre. */
+    private int corePoolSize;
+
+    /** Hilos máximos; se crean solo cuando la cola está llena. */
+    private int maxPoolSize;
+
+    /** Mensajes que pueden esperar en cola. */
+    private int queueCapacity;
+
+    /** Segundos que un hilo por encima del mínimo espera trabajo antes de terminar. */
+    private int keepAliveSeconds = 60;
+
+    public ChannelExecutor() {}
+
+    public ChannelExecutor(int corePoolSize, int maxPoolSize, int queueCapacity) {
+      this.corePoolSize = corePoolSize;
+      this.maxPoolSize = maxPoolSize;
+      this.queueCapacity = queueCapacity;
+    }
+
+    public int getCorePoolSize() {
+      return corePoolSize;
+    }
+
+    public void setCorePoolSize(int corePoolSize) {
+      this.corePoolSize = corePoolSize;
+    }
+
+    public int getMaxPoolSize() {
+      return maxPoolSize;
+    }
+
+    public void setMaxPoolSize(int maxPoolSize) {
+      this.maxPoolSize = maxPoolSize;
+    }
+
+    public int getQueueCapacity() {
+      return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+      this.queueCapacity = queueCapacity;
+    }
+
+    public int getKeepAliveSeconds() {
+      return keepAliveSeconds;
+    }
+
+    public void setKeepAliveSeconds(int keepAliveSeconds) {
+      this.keepAliveSeconds = keepAliveSeconds;
+    }
+  }
+
+  /**
+   * Conexión al broker. En modo {@code RELAY} cada nodo reenvía las suscripciones y envíos de sus
+   * clientes al broker externo, y los nodos comparten por él qué usuarios tiene conectados cada uno
+   * para que {@code convertAndSendToUser} llegue aunque el destinatario esté en otro nodo.
+   */
+  public static class Broker {
+
+    /** Broker en memoria o relay a uno externo. */
+    private BrokerMode mode = BrokerMode.SIMPLE;
+
+    /** Host del broker STOMP externo. */
+    private String relayHost = "localhost";
+
+    /** Puerto STOMP del broker externo. */
+    private int relayPort = 61613;
+
+    /** Credenciales de las conexiones abiertas en nombre de cada cliente. */
+    private String clientLogin = "guest";
+
+    private String clientPasscode = "guest";
+
+    /** Credenciales de la conexión compartida del nodo (mensajes del servidor y registro). */
+    private String systemLogin = "guest";
+
+    private String systemPasscode = "guest";
+
+    /** Virtual host del broker; vacío para usar el predeterminado. */
+    private String virtualHost;
+
+    /** Tópico por el que se reenvían los mensajes a usuarios que no están en este nodo. */
+    private String userDestinationBroadcast = "/topic/unresolved-user-destination";
+
+    /** Tópico por el que los nodos publican periódicamente sus usuarios conectados. */
+    private String userRegistryBroadcast = "/topic/simp-user-registry";
+
+    public BrokerMode getMode() {
+      return mode;
+    }
+
+    public void setMode(BrokerMode mode) {
+      this.mode = mode;
+    }
+
+    public String getRelayHost() {
+      return relayHost;
+    }
+
+    public void setRelayHost(String relayHost) {
+      this.relayHost = relayHost;
+    }
+
+    public int getRelayPort() {
+      return relayPort;
+    }
+
+    public void setRelayPort(int relayPort) {
+      this.relayPort = relayPort;
+    }
+
+    public String getClientLogin() {
+      return clientLogin;
+    }
+
+    public void setClientLogin(String clientLogin) {
+      this.clientLogin = clientLogin;
+    }
+
+    public String getClientPasscode() {
+      return clientPasscode;
+    }
+
+    public void setClientPasscode(String clientPasscode) {
+      this.clientPasscode = clientPasscode;
+    }
+
+    public String getSystemLogin() {
+      return systemLogin;
+    }
+
+    public void setSystemLogin(String systemLogin) {
+      this.systemLogin = systemLogin;
+    }
+
+    public String getSystemPasscode() {
+      return systemPasscode;
+    }
+
+    public void setSystemPasscode(String systemPasscode) {
+      this.systemPasscode = systemPasscode;
+    }
+
+    public String getVirtualHost() {
+      return virtualHost;
+    }
+
+    public void setVirtualHost(String virtualHost) {
+      this.virtualHost = virtualHost;
+    }
+
+    public String getUserDestinationBroadcast() {
+      return userDestinationBroadcast;
+    }
+
+    public void setUserDestinationBroadcast(String userDestinationBroadcast) {
+      this.userDestinationBroadcast = userDestinationBroadcast;
+    }
+
+    public String getUserRegistryBroadcast() {
+      return userRegistryBroadcast;
+    }
+
+    public void setUserRegistryBroadcast(String userRegistryBroadcast) {
+      this.userRegistryBroadcast = userRegistryBroadcast;
+    }
+  }
+}
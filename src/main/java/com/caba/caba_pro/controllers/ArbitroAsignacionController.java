@@ -11,10 +11,13 @@ import com.caba.caba_pro.models.Arbitro;
 import com.caba.caba_pro.models.Asignacion;
 import com.caba.caba_pro.repositories.AsignacionRepository;
 import com.caba.caba_pro.services.ArbitroService;
+import com.caba.caba_pro.services.AsignacionCambiadaEvent;
+import com.caba.caba_pro.services.PartidoService;
 import java.security.Principal;
 import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -36,18 +39,24 @@ public class ArbitroAsignacionController {
   private final com.caba.caba_pro.services.NotificacionService notificacionService;
   private final com.caba.caba_pro.repositories.AdministradorRepository administradorRepository;
   private final MessageSource messageSource;
+  private final ApplicationEventPublisher eventPublisher;
+  private final PartidoService partidoService;
 
   public ArbitroAsignacionController(
       ArbitroService arbitroService,
       AsignacionRepository asignacionRepository,
       com.caba.caba_pro.services.NotificacionService notificacionService,
       com.caba.caba_pro.repositories.AdministradorRepository administradorRepository,
-      MessageSource messageSource) {
+      MessageSource messageSource,
+      ApplicationEventPublisher eventPublisher,
+      PartidoService partidoService) {
     this.arbitroService = arbitroService;
     this.asignacionRepository = asignacionRepository;
     this.notificacionService = notificacionService;
     this.administradorRepository = administradorRepository;
     this.messageSource = messageSource;
+    this.eventPublisher = eventPublisher;
+    this.partidoService = partidoService;
   }
 
   // Mostrar asignaciones del árbitro autenticado
@@ -91,6 +100,8 @@ public class ArbitroAsignacionController {
       asignacion.setEstado(AsignacionEstado.ACEPTADA);
       asignacion.setRespondidoEn(java.time.LocalDateTime.now());
       asignacionRepository.save(asignacion);
+      eventPublisher.publishEvent(
+          AsignacionCambiadaEvent.cambioDeEstado(asignacion, AsignacionEstado.PENDIENTE));
       ra.addFlashAttribute(
           "success",
           messageSource.getMessage(
@@ -178,6 +189,8 @@ public class ArbitroAsignacionController {
       asignacion.setRespondidoEn(ahora);
       asignacion.setActivo(false);
       asignacionRepository.save(asignacion);
+      eventPublisher.publishEvent(
+          AsignacionCambiadaEvent.cambioDeEstado(asignacion, AsignacionEstado.PENDIENTE));
       ra.addFlashAttribute(
           "success",
           messageSource.getMessage(
@@ -226,32 +239,7 @@ public class ArbitroAsignacionController {
       @PathVariable Long id, Principal principal, RedirectAttributes ra) {
     try {
       Arbitro arbitro = arbitroService.buscarPorUsername(principal.getName());
-      Asignacion asignacion =
-          asignacionRepository
-              .findById(id)
-              .orElseThrow(() -> new BusinessException("Asignación no encontrada"));
-
-      if (!asignacion.getArbitro().getId().equals(arbitro.getId())) {
-        throw new BusinessException("No tienes permiso para modificar esta asignación");
-      }
-
-      if (asignacion.getEstado() != AsignacionEstado.ACEPTADA) {
-        throw new BusinessException("Solo puedes completar asignaciones aceptadas");
-      }
-
-      // Verificar que el partido ya haya pasado
-      java.time.LocalDateTime ahora = java.time.LocalDateTime.now();
-      java.time.LocalDateTime fechaPartido = asignacion.getPartido().getFechaHora();
-
-      if (fechaPartido.isAfter(ahora)) {
-        ra.addFlashAttribute(
-            "error",
-            "No puedes marcar como completada una asignación de un partido que aún no ha comenzado.");
-        return "redirect:/arbitro/asignaciones";
-      }
-
-      asignacion.setEstado(AsignacionEstado.COMPLETADA);
-      asignacionRepository.save(asignacion);
+      Asignacion asignacion = partidoService.completarAsignacion(id, arbitro.getId());
 
       ra.addFlashAttribute(
           "success", "Asignación marcada como completada. Ya es elegible para liquidación.");
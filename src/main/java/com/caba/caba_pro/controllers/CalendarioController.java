@@ -47,38 +47,29 @@ public class CalendarioController {
     return "arbitro/calendario/calendario";
   }
 
-  // Obtener eventos (Partidos y asignaciones) en formato JSON para FullCalendar
+  // Obtener eventos (Partidos y asignaciones) en formato JSON para FullCalendar; start y end son
+  // la ventana visible que envía FullCalendar al cambiar de vista
   @GetMapping("/eventos")
   @ResponseBody
   public ResponseEntity<List<CalendarioDto>> obtenerEventos(
       Authentication authentication,
+      @RequestParam(required = false) String start,
+      @RequestParam(required = false) String end,
       @RequestParam(required = false) String fechaInicio,
       @RequestParam(required = false) String fechaFin,
       @RequestParam(required = false) Long torneoId) {
 
     String username = authentication.getName();
-    List<CalendarioDto> eventos;
 
-    // Determinar rol del usuario
-    if (authentication.getAuthorities().contains(new SimpleGrantedAuthority("ROLE_ADMIN"))) {
-      // Es administrador - ver todos los eventos
-      if (fechaInicio != null || fechaFin != null || torneoId != null) {
-        eventos =
-            calendarioService.obtenerEventosConFiltros(
-                username, "ADMIN", fechaInicio, fechaFin, torneoId);
-      } else {
-        eventos = calendarioService.obtenerEventosAdmin();
-      }
-    } else {
-      // Es árbitro - ver solo sus asignaciones
-      if (fechaInicio != null || fechaFin != null || torneoId != null) {
-        eventos =
-            calendarioService.obtenerEventosConFiltros(
-                username, "ARBITRO", fechaInicio, fechaFin, torneoId);
-      } else {
-        eventos = calendarioService.obtenerEventosArbitro(username);
-      }
-    }
+    // Determinar rol del usuario: el administrador ve todos los eventos y el árbitro solo sus
+    // asignaciones
+    String rol =
+        authentication.getAuthorities().contains(new SimpleGrantedAuthority("ROLE_ADMIN"))
+            ? "ADMIN"
+            : "ARBITRO";
+    List<CalendarioDto> eventos =
+        calendarioService.obtenerEventosConFiltros(
+            username, rol, start, end, fechaInicio, fechaFin, torneoId);
 
     return ResponseEntity.ok(eventos);
   }
@@ -6,10 +6,13 @@
 package com.caba.caba_pro.controllers;
 
 import com.caba.caba_pro.DTOs.ChatMessageDto;
+import com.caba.caba_pro.DTOs.ChatPresenceDto;
+import com.caba.caba_pro.DTOs.ChatSearchResultDto;
 import com.caba.caba_pro.models.Administrador;
 import com.caba.caba_pro.models.Arbitro;
 import com.caba.caba_pro.repositories.AdministradorRepository;
 import com.caba.caba_pro.services.ArbitroService;
+import com.caba.caba_pro.services.ChatPresenceService;
 import com.caba.caba_pro.services.ChatService;
 import java.util.HashMap;
 import java.util.List;
@@ -21,6 +24,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -28,28 +33,42 @@ import org.springframework.web.bind.annotation.RestController;
 public class ChatController {
 
   private static final Logger logger = LoggerFactory.getLogger(ChatController.class);
+  private static final int DEFAULT_HISTORY_PAGE = 50;
+  private static final int MAX_HISTORY_PAGE = 200;
+  private static final int DEFAULT_SEARCH_RESULTS = 20;
+  private static final int MAX_SEARCH_RESULTS = 100;
 
   private final ChatService chatService;
   private final ArbitroService arbitroService;
   private final AdministradorRepository administradorRepository;
+  private final ChatPresenceService chatPresenceService;
 
   public ChatController(
       ChatService chatService,
       ArbitroService arbitroService,
-      AdministradorRepository administradorRepository) {
+      AdministradorRepository administradorRepository,
+      ChatPresenceService chatPresenceService) {
     this.chatService = chatService;
     this.arbitroService = arbitroService;
     this.administradorRepository = administradorRepository;
+    this.chatPresenceService = chatPresenceService;
   }
 
-  //
+  // Endpoint para obtener el historial paginado: los 'limit' mensajes anteriores a 'before' (o los
+  // más recientes si no se envía), en orden cronológico
+
   @GetMapping("/chat/history/{userId}")
   @ResponseBody
   public ResponseEntity<List<ChatMessageDto>> getChatHistory(
-      @PathVariable Long userId, Authentication authentication) {
+      @PathVariable Long userId,
+      @RequestParam(required = false) Long before,
+      @RequestParam(defaultValue = "" + DEFAULT_HISTORY_PAGE) int limit,
+      Authentication authentication) {
     try {
       String currentUsername = authentication.getName();
-      List<ChatMessageDto> messages = chatService.getChatHistory(currentUsername, userId);
+      int pageSize = Math.max(1, Math.min(limit, MAX_HISTORY_PAGE));
+      List<ChatMessageDto> messages =
+          chatService.getChatHistory(currentUsername, userId, before, pageSize);
 
       logger.info(
           "Historial de chat obtenido para usuario {} con {}: {} mensajes",
@@ -65,20 +84,81 @@ public class ChatController {
     }
   }
 
-  // Endpoint para obtener conversaciones activas (solo para administradores)
+  // Endpoint para marcar como leída la conversación abierta cuando llega un mensaje nuevo; el
+  // descuento de no leídos llega por /user/queue/unread
+
+  @PostMapping("/chat/read/{userId}")
+  @ResponseBody
+  public ResponseEntity<Map<String, Integer>> markConversationRead(
+      @PathVariable Long userId, Authentication authentication) {
+    try {
+      return ResponseEntity.ok(
+          Map.of("read", chatService.markConversationRead(authentication.getName(), userId)));
+    } catch (Exception e) {
+      logger.error("Error marcando como leída la conversación con {}: {}", userId, e.getMessage());
+      return ResponseEntity.internalServerError().build();
+    }
+  }
+
+  // Endpoint de búsqueda de texto en el historial de las conversaciones del usuario
+
+  @GetMapping("/chat/search")
+  @ResponseBody
+  public ResponseEntity<List<ChatSearchResultDto>> searchMessages(
+      @RequestParam("q") String query,
+      @RequestParam(defaultValue = "" + DEFAULT_SEARCH_RESULTS) int limit,
+      Authentication authentication) {
+    try {
+      int maxResults = Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS));
+      return ResponseEntity.ok(
+          chatService.searchMessages(authentication.getName(), query, maxResults));
+    } catch (Exception e) {
+      logger.error("Error buscando en el historial de chat: {}", e.getMessage());
+      return ResponseEntity.internalServerError().build();
+    }
+  }
+
+  // Endpoint para obtener las conversaciones del usuario (último mensaje y no leídos)
 
   @GetMapping("/chat/conversations")
   @ResponseBody
   public ResponseEntity<List<Map<String, Object>>> getConversations(Authentication authentication) {
     try {
-      // Por ahora devolvemos lista vacía
-      return ResponseEntity.ok(List.of());
+      return ResponseEntity.ok(chatService.getConversations(authentication.getName()));
     } catch (Exception e) {
       logger.error("Error obteniendo conversaciones: {}", e.getMessage());
       return ResponseEntity.internalServerError().build();
     }
   }
 
+  // Endpoint para obtener el total de no leídos; los cambios llegan después por /user/queue/unread
+
+  @GetMapping("/chat/unread")
+  @ResponseBody
+  public ResponseEntity<Map<String, Integer>> getUnreadCount(Authentication authentication) {
+    try {
+      return ResponseEntity.ok(
+          Map.of("total", chatService.getUnreadCount(authentication.getName())));
+    } catch (Exception e) {
+      logger.error("Error obteniendo mensajes sin leer: {}", e.getMessage());
+      return ResponseEntity.internalServerError().build();
+    }
+  }
+
+  // Endpoint para obtener quién del otro rol está conectado; los cambios llegan después por
+  // /user/queue/presence
+
+  @GetMapping("/chat/presence")
+  @ResponseBody
+  public ResponseEntity<List<ChatPresenceDto>> getPresence(Authentication authentication) {
+    try {
+      return ResponseEntity.ok(chatPresenceService.getOnlineCounterparts(authentication.getName()));
+    } catch (Exception e) {
+      logger.error("Error obteniendo usuarios conectados: {}", e.getMessage());
+      return ResponseEntity.internalServerError().build();
+    }
+  }
+
   // Endpoint para obtener lista de administradores activos (para árbitros)
 
   @GetMapping("/chat/admins")
@@ -6,8 +6,10 @@
 package com.caba.caba_pro.controllers;
 
 import com.caba.caba_pro.DTOs.ChatMessageDto;
+import com.caba.caba_pro.services.ChatIdentityService;
 import com.caba.caba_pro.services.ChatService;
 import java.security.Principal;
+import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.messaging.handler.annotation.DestinationVariable;
@@ -44,7 +46,7 @@ public class ChatWebSocketController {
 
     try {
       // Procesar el mensaje con el ID del árbitro
-      chatService.processMessage(message, principal.getName(), Long.parseLong(arbitroId));
+      processMessage(message, headerAccessor, principal, Long.parseLong(arbitroId));
 
     } catch (NumberFormatException e) {
       logger.error("Error al convertir arbitroId a Long: {}", arbitroId, e);
@@ -72,7 +74,7 @@ public class ChatWebSocketController {
 
       // Procesar el mensaje con el ID del admin
 
-      chatService.processMessage(message, principal.getName(), Long.parseLong(adminId));
+      processMessage(message, headerAccessor, principal, Long.parseLong(adminId));
 
     } catch (NumberFormatException e) {
       logger.error("Error al convertir adminId a Long: {}", adminId, e);
@@ -80,4 +82,20 @@ public class ChatWebSocketController {
       logger.error("Error al procesar mensaje de árbitro", e);
     }
   }
+
+  // Usa la identidad resuelta al conectar (atributo de sesión); si falta, la resuelve por username
+  private void processMessage(
+      ChatMessageDto message,
+      SimpMessageHeaderAccessor headerAccessor,
+      Principal principal,
+      Long targetUserId) {
+    Map<String, Object> attributes = headerAccessor.getSessionAttributes();
+    Object identity =
+        attributes != null ? attributes.get(ChatIdentityService.SESSION_ATTRIBUTE) : null;
+    if (identity instanceof ChatIdentityService.ChatIdentity sender) {
+      chatService.processMessage(message, sender, targetUserId);
+    } else {
+      chatService.processMessage(message, principal.getName(), targetUserId);
+    }
+  }
 }
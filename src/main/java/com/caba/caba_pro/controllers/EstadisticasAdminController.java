@@ -8,22 +8,34 @@ package com.caba.caba_pro.controllers;
 import com.caba.caba_pro.DTOs.EstadisticasArbitrosDto;
 import com.caba.caba_pro.DTOs.EstadisticasAsignacionesDto;
 import com.caba.caba_pro.DTOs.TopArbitrosDto;
+import com.caba.caba_pro.services.EstadisticaDiariaService;
 import com.caba.caba_pro.services.EstadisticasService;
 import java.time.LocalDate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.MessageSource;
+import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 @Controller
 public class EstadisticasAdminController {
 
   private final EstadisticasService estadisticasService;
+  private final EstadisticaDiariaService estadisticaDiariaService;
+  private final MessageSource messageSource;
 
   @Autowired
-  public EstadisticasAdminController(EstadisticasService estadisticasService) {
+  public EstadisticasAdminController(
+      EstadisticasService estadisticasService,
+      EstadisticaDiariaService estadisticaDiariaService,
+      MessageSource messageSource) {
     this.estadisticasService = estadisticasService;
+    this.estadisticaDiariaService = estadisticaDiariaService;
+    this.messageSource = messageSource;
   }
 
   @GetMapping("/admin/estadisticas")
@@ -47,4 +59,15 @@ public class EstadisticasAdminController {
     model.addAttribute("hasta", hasta);
     return "admin/estadisticas";
   }
+
+  // Recalcula el acumulado diario desde las asignaciones
+  @PostMapping("/admin/estadisticas/reconstruir")
+  public String reconstruirEstadisticas(RedirectAttributes ra) {
+    int filas = estadisticaDiariaService.reconstruir();
+    ra.addFlashAttribute(
+        "success",
+        messageSource.getMessage(
+            "estadisticas.reconstruidas", new Object[] {filas}, LocaleContextHolder.getLocale()));
+    return "redirect:/admin/estadisticas";
+  }
 }
@@ -5,15 +5,20 @@
  */
 package com.caba.caba_pro.controllers;
 
+import com.caba.caba_pro.exceptions.BusinessException;
 import com.caba.caba_pro.services.ArbitroService;
 import com.caba.caba_pro.services.ExcelExportService;
+import com.caba.caba_pro.services.ExportacionCompletaService;
 import com.caba.caba_pro.services.PartidoService;
 import com.caba.caba_pro.services.TorneoService;
 import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Locale;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -22,6 +27,8 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 @Controller
@@ -35,6 +42,7 @@ public class ExcelExportController {
   private final ArbitroService arbitroService;
   private final PartidoService partidoService;
   private final TorneoService torneoService;
+  private final ExportacionCompletaService exportacionCompletaService;
   private final MessageSource messageSource;
 
   public ExcelExportController(
@@ -42,113 +50,117 @@ public class ExcelExportController {
       ArbitroService arbitroService,
       PartidoService partidoService,
       TorneoService torneoService,
+      ExportacionCompletaService exportacionCompletaService,
       MessageSource messageSource) {
     this.excelExportService = excelExportService;
     this.arbitroService = arbitroService;
     this.partidoService = partidoService;
     this.torneoService = torneoService;
+    this.exportacionCompletaService = exportacionCompletaService;
     this.messageSource = messageSource;
   }
 
   @GetMapping("/arbitros")
-  public ResponseEntity<byte[]> exportarArbitros(RedirectAttributes redirectAttributes) {
-    try {
-      logger.info("Iniciando exportación de árbitros a Excel");
-
-      var arbitros = arbitroService.buscarTodosActivos();
-      byte[] excelData = excelExportService.exportarArbitros(arbitros);
-      String filename = excelExportService.generateFilename("Arbitros");
-
-      HttpHeaders headers = new HttpHeaders();
-      headers.setContentType(
-          MediaType.parseMediaType(
-              "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"));
-      headers.setContentDispositionFormData("attachment", filename);
-      headers.setContentLength(excelData.length);
-
-      logger.info("Exportación de árbitros completada exitosamente. Archivo: {}", filename);
-      return new ResponseEntity<>(excelData, headers, HttpStatus.OK);
+  public ResponseEntity<StreamingResponseBody> exportarArbitros(
+      RedirectAttributes redirectAttributes) {
+    logger.info("Iniciando exportación de árbitros a Excel");
 
-    } catch (IOException e) {
-      logger.error("Error al exportar árbitros a Excel: {}", e.getMessage(), e);
-      String mensaje =
-          messageSource.getMessage("excel.error.generar", null, LocaleContextHolder.getLocale());
-      redirectAttributes.addFlashAttribute("error", mensaje);
-      return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
-    } catch (Exception e) {
-      logger.error("Error inesperado al exportar árbitros: {}", e.getMessage(), e);
+    var arbitros = arbitroService.buscarTodosActivos();
+    if (arbitros.isEmpty()) {
+      logger.warn("Lista de árbitros está vacía");
       String mensaje =
           messageSource.getMessage("excel.error.inesperado", null, LocaleContextHolder.getLocale());
       redirectAttributes.addFlashAttribute("error", mensaje);
       return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
     }
+    return descarga("Arbitros", out -> excelExportService.exportarArbitros(arbitros, out));
   }
 
   @GetMapping("/partidos")
-  public ResponseEntity<byte[]> exportarPartidos(RedirectAttributes redirectAttributes) {
-    try {
-      logger.info("Iniciando exportación de partidos a Excel");
+  public ResponseEntity<StreamingResponseBody> exportarPartidos() {
+    logger.info("Iniciando exportación de partidos a Excel");
 
-      var partidos = partidoService.buscarTodos();
-      byte[] excelData = excelExportService.exportarPartidos(partidos);
-      String filename = excelExportService.generateFilename("Partidos");
-
-      HttpHeaders headers = new HttpHeaders();
-      headers.setContentType(
-          MediaType.parseMediaType(
-              "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"));
-      headers.setContentDispositionFormData("attachment", filename);
-      headers.setContentLength(excelData.length);
-
-      logger.info("Exportación de partidos completada exitosamente. Archivo: {}", filename);
-      return new ResponseEntity<>(excelData, headers, HttpStatus.OK);
-
-    } catch (IOException e) {
-      logger.error("Error al exportar partidos a Excel: {}", e.getMessage(), e);
-      String mensaje =
-          messageSource.getMessage("excel.error.generar", null, LocaleContextHolder.getLocale());
-      redirectAttributes.addFlashAttribute("error", mensaje);
-      return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
-    } catch (Exception e) {
-      logger.error("Error inesperado al exportar partidos: {}", e.getMessage(), e);
-      String mensaje =
-          messageSource.getMessage("excel.error.inesperado", null, LocaleContextHolder.getLocale());
-      redirectAttributes.addFlashAttribute("error", mensaje);
-      return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
-    }
+    var partidos = partidoService.buscarTodos();
+    return descarga("Partidos", out -> excelExportService.exportarPartidos(partidos, out));
   }
 
   @GetMapping("/torneos")
-  public ResponseEntity<byte[]> exportarTorneos(RedirectAttributes redirectAttributes) {
-    try {
-      logger.info("Iniciando exportación de torneos a Excel");
+  public ResponseEntity<StreamingResponseBody> exportarTorneos() {
+    logger.info("Iniciando exportación de torneos a Excel");
 
-      var torneos = torneoService.buscarTodos();
-      byte[] excelData = excelExportService.exportarTorneos(torneos);
-      String filename = excelExportService.generateFilename("Torneos");
+    var torneos = torneoService.buscarTodos();
+    return descarga("Torneos", out -> excelExportService.exportarTorneos(torneos, out));
+  }
 
+  // Todas las partes en una descarga (libro o zip de CSV); con período incluye la liquidación
+  @GetMapping("/completo")
+  public ResponseEntity<StreamingResponseBody> exportarCompleto(
+      @RequestParam(defaultValue = "excel") String formato,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+          LocalDate fechaInicio,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+          LocalDate fechaFin) {
+    logger.info("Iniciando exportación completa en {}", formato);
+
+    ExportacionCompletaService.Exportacion exportacion;
+    try {
+      exportacion =
+          exportacionCompletaService.iniciar(
+              ExportacionCompletaService.Formato.valueOf(formato.toUpperCase(Locale.ROOT)),
+              fechaInicio,
+              fechaFin);
+    } catch (IllegalArgumentException e) {
+      logger.warn("Exportación completa rechazada: {}", e.getMessage());
+      return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+    } catch (BusinessException e) {
+      logger.warn("Exportación completa rechazada: {}", e.getMessage());
       HttpHeaders headers = new HttpHeaders();
-      headers.setContentType(
-          MediaType.parseMediaType(
-              "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"));
-      headers.setContentDispositionFormData("attachment", filename);
-      headers.setContentLength(excelData.length);
+      headers.set(HttpHeaders.RETRY_AFTER, "60");
+      return new ResponseEntity<>(headers, HttpStatus.SERVICE_UNAVAILABLE);
+    }
 
-      logger.info("Exportación de torneos completada exitosamente. Archivo: {}", filename);
-      return new ResponseEntity<>(excelData, headers, HttpStatus.OK);
+    String filename =
+        excelExportService
+            .generateFilename("Completo")
+            .replace(".xlsx", "." + exportacion.getFormato().getExtension());
+    StreamingResponseBody body =
+        out -> {
+          try (exportacion) {
+            exportacion.escribir(out);
+            logger.info("Exportación completa terminada. Archivo: {}", filename);
+          } catch (IOException | RuntimeException e) {
+            logger.error("Error en la exportación completa: {}", e.getMessage(), e);
+            throw e;
+          }
+        };
+
+    HttpHeaders headers = new HttpHeaders();
+    headers.setContentType(MediaType.parseMediaType(exportacion.getFormato().getContentType()));
+    headers.setContentDispositionFormData("attachment", filename);
+    return new ResponseEntity<>(body, headers, HttpStatus.OK);
+  }
 
-    } catch (IOException e) {
-      logger.error("Error al exportar torneos a Excel: {}", e.getMessage(), e);
-      String mensaje =
-          messageSource.getMessage("excel.error.generar", null, LocaleContextHolder.getLocale());
-      redirectAttributes.addFlashAttribute("error", mensaje);
-      return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
-    } catch (Exception e) {
-      logger.error("Error inesperado al exportar torneos: {}", e.getMessage(), e);
-      String mensaje =
-          messageSource.getMessage("excel.error.inesperado", null, LocaleContextHolder.getLocale());
-      redirectAttributes.addFlashAttribute("error", mensaje);
-      return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
-    }
+  // El libro se escribe directamente en la respuesta, fuera del hilo de la petición; un error a
+  // mitad de la descarga ya no puede cambiar el estado HTTP y solo se registra
+  private ResponseEntity<StreamingResponseBody> descarga(
+      String tipo, StreamingResponseBody cuerpo) {
+    String filename = excelExportService.generateFilename(tipo);
+    StreamingResponseBody body =
+        out -> {
+          try {
+            cuerpo.writeTo(out);
+            logger.info("Exportación de {} completada exitosamente. Archivo: {}", tipo, filename);
+          } catch (IOException | RuntimeException e) {
+            logger.error("Error al exportar {} a Excel: {}", tipo, e.getMessage(), e);
+            throw e;
+          }
+        };
+
+    HttpHeaders headers = new HttpHeaders();
+    headers.setContentType(
+        MediaType.parseMediaType(
+            "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"));
+    headers.setContentDispositionFormData("attachment", filename);
+    return new ResponseEntity<>(body, headers, HttpStatus.OK);
   }
 }
@@ -6,6 +6,7 @@
 package com.caba.caba_pro.controllers;
 
 import com.caba.caba_pro.dto.LiquidacionDTO;
+import com.caba.caba_pro.services.CierreLiquidacionService;
 import com.caba.caba_pro.services.LiquidacionService;
 import java.security.Principal;
 import java.time.LocalDate;
@@ -22,9 +23,12 @@ public class LiquidacionController {
   private static final Logger logger = LoggerFactory.getLogger(LiquidacionController.class);
 
   private final LiquidacionService liquidacionService;
+  private final CierreLiquidacionService cierreLiquidacionService;
 
-  public LiquidacionController(LiquidacionService liquidacionService) {
+  public LiquidacionController(
+      LiquidacionService liquidacionService, CierreLiquidacionService cierreLiquidacionService) {
     this.liquidacionService = liquidacionService;
+    this.cierreLiquidacionService = cierreLiquidacionService;
   }
 
   @GetMapping("/admin/liquidaciones")
@@ -40,9 +44,15 @@ public class LiquidacionController {
       try {
         logger.info("Generando liquidación para período {} - {}", fechaInicio, fechaFin);
 
+        // Si el período está cerrado se muestra la liquidación congelada
         LiquidacionDTO liquidacion =
-            liquidacionService.generarLiquidacion(
-                fechaInicio.atStartOfDay(), fechaFin.atTime(23, 59, 59));
+            cierreLiquidacionService
+                .buscar(fechaInicio, fechaFin)
+                .map(cierreLiquidacionService::leer)
+                .orElseGet(
+                    () ->
+                        liquidacionService.generarLiquidacion(
+                            fechaInicio.atStartOfDay(), fechaFin.atTime(23, 59, 59)));
 
         model.addAttribute("liquidacion", liquidacion);
         model.addAttribute("mostrarResultados", true);
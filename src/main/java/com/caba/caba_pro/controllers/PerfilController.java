@@ -14,6 +14,7 @@ import com.caba.caba_pro.models.Administrador;
 import com.caba.caba_pro.models.Arbitro;
 import com.caba.caba_pro.repositories.AdministradorRepository;
 import com.caba.caba_pro.repositories.ArbitroRepository;
+import com.caba.caba_pro.services.ArbitroCambiadoEvent;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpSession;
 import jakarta.validation.Valid;
@@ -24,6 +25,7 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.security.core.Authentication;
@@ -50,17 +52,20 @@ public class PerfilController {
   private final ArbitroRepository arbitroRepository;
   private final PasswordEncoder passwordEncoder;
   private final MessageSource messageSource;
+  private final ApplicationEventPublisher eventPublisher;
 
   // 3. Constructores
   public PerfilController(
       AdministradorRepository administradorRepository,
       ArbitroRepository arbitroRepository,
       PasswordEncoder passwordEncoder,
-      MessageSource messageSource) {
+      MessageSource messageSource,
+      ApplicationEventPublisher eventPublisher) {
     this.administradorRepository = administradorRepository;
     this.arbitroRepository = arbitroRepository;
     this.passwordEncoder = passwordEncoder;
     this.messageSource = messageSource;
+    this.eventPublisher = eventPublisher;
   }
 
   // 4. Métodos públicos
@@ -318,6 +323,7 @@ public class PerfilController {
           fotoPerfil, arbitro.getUrlFotoPerfil(), url -> arbitro.setUrlFotoPerfil(url));
 
       arbitroRepository.save(arbitro);
+      eventPublisher.publishEvent(new ArbitroCambiadoEvent(arbitro.getId()));
 
       String mensaje =
           messageSource.getMessage(
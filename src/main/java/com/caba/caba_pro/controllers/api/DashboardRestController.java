@@ -1,11 +1,10 @@
 package com.caba.caba_pro.controllers.api;
 
 import com.caba.caba_pro.enums.AsignacionEstado;
-import com.caba.caba_pro.models.Asignacion;
 import com.caba.caba_pro.repositories.AsignacionRepository;
+import com.caba.caba_pro.services.CacheConsultas;
 import java.math.BigDecimal;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -15,45 +14,26 @@ import org.springframework.web.bind.annotation.*;
 public class DashboardRestController {
 
   private final AsignacionRepository asignacionRepository;
+  private final CacheConsultas cacheConsultas;
 
-  public DashboardRestController(AsignacionRepository asignacionRepository) {
+  public DashboardRestController(
+      AsignacionRepository asignacionRepository, CacheConsultas cacheConsultas) {
     this.asignacionRepository = asignacionRepository;
+    this.cacheConsultas = cacheConsultas;
   }
 
   @GetMapping("/arbitro/{arbitroId}")
   public ResponseEntity<Map<String, Object>> getDashboardData(@PathVariable Long arbitroId) {
     Map<String, Object> response = new HashMap<>();
     try {
-      List<Asignacion> todasAsignaciones =
-          asignacionRepository.findByArbitroIdAndActivoTrue(arbitroId);
-
-      // Contar por estado
-      long pendientes =
-          todasAsignaciones.stream()
-              .filter(a -> a.getEstado() == AsignacionEstado.PENDIENTE)
-              .count();
-      long aceptadas =
-          todasAsignaciones.stream()
-              .filter(a -> a.getEstado() == AsignacionEstado.ACEPTADA)
-              .count();
-      long completadas =
-          todasAsignaciones.stream()
-              .filter(a -> a.getEstado() == AsignacionEstado.COMPLETADA)
-              .count();
-
-      // Calcular total ganado
-      BigDecimal totalGanado =
-          todasAsignaciones.stream()
-              .filter(a -> a.getEstado() == AsignacionEstado.COMPLETADA)
-              .map(Asignacion::getMontoPago)
-              .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-      Map<String, Object> estadisticas = new HashMap<>();
-      estadisticas.put("totalAsignaciones", todasAsignaciones.size());
-      estadisticas.put("asignacionesPendientes", pendientes);
-      estadisticas.put("asignacionesAceptadas", aceptadas);
-      estadisticas.put("asignacionesCompletadas", completadas);
-      estadisticas.put("totalGanado", totalGanado);
+      Map<String, Object> estadisticas =
+          cacheConsultas.obtener(
+              CacheConsultas.Consulta.PANEL_ARBITRO,
+              arbitroId,
+              null,
+              null,
+              () -> calcularEstadisticas(arbitroId),
+              HashMap::new);
 
       response.put("success", true);
       response.put("message", "Estadísticas obtenidas correctamente");
@@ -65,4 +45,34 @@ public class DashboardRestController {
       return ResponseEntity.status(500).body(response);
     }
   }
+
+  // Conteos por estado y total ganado de las asignaciones activas del árbitro, con una sola
+  // consulta agrupada (a lo sumo una fila por estado)
+  private Map<String, Object> calcularEstadisticas(Long arbitroId) {
+    long total = 0;
+    long pendientes = 0;
+    long aceptadas = 0;
+    long completadas = 0;
+    BigDecimal totalGanado = BigDecimal.ZERO;
+    for (AsignacionRepository.ConteoPorEstado conteo :
+        asignacionRepository.contarPorEstadoDeArbitro(arbitroId)) {
+      total += conteo.getCantidad();
+      if (conteo.getEstado() == AsignacionEstado.PENDIENTE) {
+        pendientes = conteo.getCantidad();
+      } else if (conteo.getEstado() == AsignacionEstado.ACEPTADA) {
+        aceptadas = conteo.getCantidad();
+      } else if (conteo.getEstado() == AsignacionEstado.COMPLETADA) {
+        completadas = conteo.getCantidad();
+        totalGanado = conteo.getMonto();
+      }
+    }
+
+    Map<String, Object> estadisticas = new HashMap<>();
+    estadisticas.put("totalAsignaciones", total);
+    estadisticas.put("asignacionesPendientes", pendientes);
+    estadisticas.put("asignacionesAceptadas", aceptadas);
+    estadisticas.put("asignacionesCompletadas", completadas);
+    estadisticas.put("totalGanado", totalGanado);
+    return estadisticas;
+  }
 }
@@ -0,0 +1,158 @@
+/**
+ * Archivo: ExportacionRestController.java Autores: Diego.Gonzalez Fecha última modificación:
+ * 17.10.2026 Descripción: API de exportaciones planas en CSV y NDJSON Proyecto: CABA Pro - Sistema
+ * de Gestión Integral de Arbitraje
+ */
+package com.caba.caba_pro.controllers.api;
+
+import com.caba.caba_pro.services.ExportacionDatosService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@RestController
+@RequestMapping("/api/exportaciones")
+@Tag(name = "Exportaciones", description = "Exportaciones planas para nómina y BI")
+public class ExportacionRestController {
+
+  private static final Logger logger = LoggerFactory.getLogger(ExportacionRestController.class);
+
+  // 2. Variables de instancia
+  private final ExportacionDatosService exportacionDatosService;
+
+  // 3. Constructores
+  public ExportacionRestController(ExportacionDatosService exportacionDatosService) {
+    this.exportacionDatosService = exportacionDatosService;
+  }
+
+  // 4. Métodos públicos
+
+  @Operation(
+      summary = "Exportar un conjunto de datos en CSV o NDJSON",
+      description =
+          "Escribe arbitros, partidos, torneos, asignaciones o liquidacion fila a fila mientras se"
+              + " leen de la base. Asignaciones admite un período opcional y liquidacion lo"
+              + " requiere. Si el cliente acepta gzip la respuesta va comprimida")
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Exportación generada",
+            content = {
+              @Content(mediaType = "text/csv"),
+              @Content(mediaType = "application/x-ndjson")
+            }),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Conjunto, formato o fechas inválidos",
+            content = @Content)
+      })
+  @GetMapping("/{conjunto}")
+  @PreAuthorize("hasRole('ADMIN')")
+  public ResponseEntity<StreamingResponseBody> exportar(
+      @Parameter(
+              description = "arbitros, partidos, torneos, asignaciones o liquidacion",
+              required = true)
+          @PathVariable
+          String conjunto,
+      @Parameter(description = "Formato de salida: csv o ndjson")
+          @RequestParam(defaultValue = "csv")
+          String formato,
+      @Parameter(description = "Fecha de inicio del período (formato: yyyy-MM-dd)")
+          @RequestParam(required = false)
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+          LocalDate fechaInicio,
+      @Parameter(description = "Fecha de fin del período (formato: yyyy-MM-dd)")
+          @RequestParam(required = false)
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+          LocalDate fechaFin,
+      @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+
+    ExportacionDatosService.Conjunto datos;
+    ExportacionDatosService.Formato salida;
+    try {
+      datos = ExportacionDatosService.Conjunto.valueOf(conjunto.toUpperCase(Locale.ROOT));
+      salida = ExportacionDatosService.Formato.valueOf(formato.toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
+    }
+    // Se valida antes de empezar a escribir: después ya no se puede cambiar el estado
+    if (datos == ExportacionDatosService.Conjunto.LIQUIDACION
+        && (fechaInicio == null || fechaFin == null)) {
+      return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
+    }
+    if (fechaInicio != null && fechaFin != null && fechaInicio.isAfter(fechaFin)) {
+      logger.error("Fecha de inicio posterior a fecha de fin: {} > {}", fechaInicio, fechaFin);
+      return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
+    }
+
+    boolean gzip =
+        acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains("gzip");
+    HttpHeaders headers = new HttpHeaders();
+    headers.setContentType(MediaType.parseMediaType(salida.getContentType()));
+    headers.setContentDispositionFormData(
+        "attachment", nombreArchivo(datos, salida, fechaInicio, fechaFin));
+    headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    if (gzip) {
+      headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+    }
+
+    StreamingResponseBody cuerpo =
+        out -> {
+          try {
+            if (gzip) {
+              GZIPOutputStream comprimido = new GZIPOutputStream(out, 8192);
+              exportacionDatosService.exportar(datos, salida, fechaInicio, fechaFin, comprimido);
+              comprimido.finish();
+            } else {
+              exportacionDatosService.exportar(datos, salida, fechaInicio, fechaFin, out);
+            }
+          } catch (IOException | RuntimeException e) {
+            logger.error("Error al escribir la exportación de {}: {}", datos, e.getMessage(), e);
+            throw e;
+          }
+        };
+    return ResponseEntity.ok().headers(headers).body(cuerpo);
+  }
+
+  // 5. Métodos privados
+
+  private static String nombreArchivo(
+      ExportacionDatosService.Conjunto conjunto,
+      ExportacionDatosService.Formato formato,
+      LocalDate fechaInicio,
+      LocalDate fechaFin) {
+    StringBuilder nombre = new StringBuilder(conjunto.name().toLowerCase(Locale.ROOT));
+    DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    if (fechaInicio != null) {
+      nombre.append('_').append(fechaInicio.format(formatter));
+    }
+    if (fechaFin != null) {
+      nombre.append('_').append(fechaFin.format(formatter));
+    }
+    return nombre.append('.').append(formato.getExtension()).toString();
+  }
+}
@@ -5,10 +5,16 @@
  */
 package com.caba.caba_pro.controllers.api;
 
+import com.caba.caba_pro.dto.LiquidacionCierreDTO;
 import com.caba.caba_pro.dto.LiquidacionDTO;
 import com.caba.caba_pro.exceptions.BusinessException;
+import com.caba.caba_pro.models.LiquidacionCerrada;
+import com.caba.caba_pro.services.CierreLiquidacionService;
 import com.caba.caba_pro.services.ExcelExportService;
+import com.caba.caba_pro.services.LiquidacionEscritor;
+import com.caba.caba_pro.services.LiquidacionJsonEscritor;
 import com.caba.caba_pro.services.LiquidacionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -16,8 +22,11 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import java.io.IOException;
+import java.security.Principal;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -28,9 +37,12 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/liquidaciones")
@@ -42,12 +54,19 @@ public class LiquidacionRestController {
   // 2. Variables de instancia
   private final LiquidacionService liquidacionService;
   private final ExcelExportService excelExportService;
+  private final ObjectMapper objectMapper;
+  private final CierreLiquidacionService cierreLiquidacionService;
 
   // 3. Constructores
   public LiquidacionRestController(
-      LiquidacionService liquidacionService, ExcelExportService excelExportService) {
+      LiquidacionService liquidacionService,
+      ExcelExportService excelExportService,
+      ObjectMapper objectMapper,
+      CierreLiquidacionService cierreLiquidacionService) {
     this.liquidacionService = liquidacionService;
     this.excelExportService = excelExportService;
+    this.objectMapper = objectMapper;
+    this.cierreLiquidacionService = cierreLiquidacionService;
   }
 
   // 4. Métodos públicos
@@ -56,13 +75,18 @@ public class LiquidacionRestController {
       summary = "Generar liquidación para todos los árbitros",
       description =
           "Genera un reporte de liquidación para todos los árbitros en un rango de fechas"
-              + " específico")
+              + " específico. Si el período está cerrado devuelve la liquidación congelada con"
+              + " su hash como ETag (responde 304 a If-None-Match)")
   @ApiResponses(
       value = {
         @ApiResponse(
             responseCode = "200",
             description = "Liquidación generada exitosamente",
             content = @Content(mediaType = "application/json")),
+        @ApiResponse(
+            responseCode = "304",
+            description = "Período cerrado sin cambios respecto al ETag enviado",
+            content = @Content),
         @ApiResponse(
             responseCode = "400",
             description = "Parámetros inválidos (fechas incorrectas)",
@@ -82,7 +106,8 @@ public class LiquidacionRestController {
       @Parameter(description = "Fecha de fin del período (formato: yyyy-MM-dd)", required = true)
           @RequestParam
           @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
-          LocalDate fechaFin) {
+          LocalDate fechaFin,
+      WebRequest request) {
 
     try {
       logger.info("Generando liquidación para período {} - {}", fechaInicio, fechaFin);
@@ -93,6 +118,17 @@ public class LiquidacionRestController {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
       }
 
+      // Período cerrado: la copia congelada, sin recalcular
+      Optional<LiquidacionCerrada> cerrada = cierreLiquidacionService.buscar(fechaInicio, fechaFin);
+      if (cerrada.isPresent()) {
+        if (request.checkNotModified(cerrada.get().getHash())) {
+          return null; // 304
+        }
+        return ResponseEntity.ok()
+            .eTag(cerrada.get().getHash())
+            .body(cierreLiquidacionService.leer(cerrada.get()));
+      }
+
       LiquidacionDTO liquidacion =
           liquidacionService.generarLiquidacion(
               fechaInicio.atStartOfDay(), fechaFin.atTime(23, 59, 59));
@@ -108,6 +144,96 @@ public class LiquidacionRestController {
     }
   }
 
+  @Operation(
+      summary = "Generar liquidación en streaming",
+      description =
+          "Genera la liquidación de todos los árbitros escribiéndola en la respuesta a medida que"
+              + " se calcula, en JSON o Excel. Pensado para períodos largos (temporada completa):"
+              + " la memoria usada no crece con el largo del período")
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Liquidación en curso de envío",
+            content = {
+              @Content(mediaType = "application/json"),
+              @Content(
+                  mediaType = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet")
+            }),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Parámetros inválidos (fechas o formato)",
+            content = @Content)
+      })
+  @GetMapping("/stream")
+  @PreAuthorize("hasRole('ADMIN')")
+  public ResponseEntity<StreamingResponseBody> generarLiquidacionStreaming(
+      @Parameter(description = "Fecha de inicio del período (formato: yyyy-MM-dd)", required = true)
+          @RequestParam
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+          LocalDate fechaInicio,
+      @Parameter(description = "Fecha de fin del período (formato: yyyy-MM-dd)", required = true)
+          @RequestParam
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+          LocalDate fechaFin,
+      @Parameter(description = "Formato de salida: json o excel")
+          @RequestParam(defaultValue = "json")
+          String formato) {
+
+    boolean excel = "excel".equalsIgnoreCase(formato);
+    if (fechaInicio.isAfter(fechaFin) || (!excel && !"json".equalsIgnoreCase(formato))) {
+      logger.error(
+          "Parámetros inválidos para la liquidación en streaming: {} - {} ({})",
+          fechaInicio,
+          fechaFin,
+          formato);
+      return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
+    }
+
+    logger.info(
+        "Generando liquidación en streaming ({}) para período {} - {}",
+        formato,
+        fechaInicio,
+        fechaFin);
+
+    // Se ejecuta fuera del hilo de la petición, cuando ya se enviaron los encabezados
+    StreamingResponseBody body =
+        out -> {
+          try (LiquidacionEscritor escritor =
+              excel
+                  ? excelExportService.escritorLiquidacion(out)
+                  : new LiquidacionJsonEscritor(out, objectMapper)) {
+            // Período cerrado: la copia congelada, como el resto de las liquidaciones
+            Optional<LiquidacionCerrada> cerrada =
+                cierreLiquidacionService.buscar(fechaInicio, fechaFin);
+            if (cerrada.isPresent()) {
+              escritor.escribir(cierreLiquidacionService.leer(cerrada.get()));
+            } else {
+              liquidacionService.exportarLiquidacion(
+                  fechaInicio.atStartOfDay(), fechaFin.atTime(23, 59, 59), escritor);
+            }
+          } catch (IOException | RuntimeException e) {
+            logger.error("Error al generar liquidación en streaming: {}", e.getMessage(), e);
+            throw e;
+          }
+        };
+
+    HttpHeaders headers = new HttpHeaders();
+    if (excel) {
+      DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+      headers.setContentType(
+          MediaType.parseMediaType(
+              "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"));
+      headers.setContentDispositionFormData(
+          "attachment",
+          String.format(
+              "liquidacion_%s_%s.xlsx", fechaInicio.format(formatter), fechaFin.format(formatter)));
+    } else {
+      headers.setContentType(MediaType.APPLICATION_JSON);
+    }
+    return ResponseEntity.ok().headers(headers).body(body);
+  }
+
   @Operation(
       summary = "Generar liquidación para un árbitro específico",
       description = "Genera un reporte de liquidación para un árbitro en un rango de fechas")
@@ -142,7 +268,8 @@ public class LiquidacionRestController {
       @Parameter(description = "Fecha de fin del período (formato: yyyy-MM-dd)", required = true)
           @RequestParam
           @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
-          LocalDate fechaFin) {
+          LocalDate fechaFin,
+      WebRequest request) {
 
     try {
       logger.info(
@@ -157,6 +284,22 @@ public class LiquidacionRestController {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
       }
 
+      // Período cerrado: el árbitro dentro de la copia congelada
+      Optional<LiquidacionCerrada> cerrada = cierreLiquidacionService.buscar(fechaInicio, fechaFin);
+      if (cerrada.isPresent()) {
+        String etag = cerrada.get().getHash() + "-" + arbitroId;
+        if (request.checkNotModified(etag)) {
+          return null; // 304
+        }
+        LiquidacionDTO.LiquidacionArbitroDTO congelada =
+            arbitroDe(cierreLiquidacionService.leer(cerrada.get()), arbitroId);
+        if (congelada == null) {
+          logger.warn("El árbitro {} no está en la liquidación cerrada del período", arbitroId);
+          return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(congelada);
+      }
+
       LiquidacionDTO.LiquidacionArbitroDTO liquidacion =
           liquidacionService.generarLiquidacionPorArbitro(
               arbitroId, fechaInicio.atStartOfDay(), fechaFin.atTime(23, 59, 59));
@@ -198,7 +341,7 @@ public class LiquidacionRestController {
       })
   @GetMapping("/excel")
   @PreAuthorize("hasRole('ADMIN')")
-  public ResponseEntity<byte[]> descargarLiquidacionExcel(
+  public ResponseEntity<StreamingResponseBody> descargarLiquidacionExcel(
       @Parameter(description = "Fecha de inicio del período (formato: yyyy-MM-dd)", required = true)
           @RequestParam
           @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
@@ -206,7 +349,8 @@ public class LiquidacionRestController {
       @Parameter(description = "Fecha de fin del período (formato: yyyy-MM-dd)", required = true)
           @RequestParam
           @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
-          LocalDate fechaFin) {
+          LocalDate fechaFin,
+      WebRequest request) {
 
     try {
       logger.info(
@@ -218,13 +362,22 @@ public class LiquidacionRestController {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
       }
 
-      // Generar liquidación
+      // Generar liquidación (o leerla congelada si el período está cerrado)
+      Optional<LiquidacionCerrada> cerrada = cierreLiquidacionService.buscar(fechaInicio, fechaFin);
+      String etag = cerrada.map(c -> c.getHash() + "-xlsx").orElse(null);
+      if (etag != null && request.checkNotModified(etag)) {
+        return null; // 304
+      }
       LiquidacionDTO liquidacion =
-          liquidacionService.generarLiquidacion(
-              fechaInicio.atStartOfDay(), fechaFin.atTime(23, 59, 59));
-
-      // Exportar a Excel (ya retorna bytes)
-      byte[] bytes = excelExportService.exportarLiquidacion(liquidacion);
+          cerrada.isPresent()
+              ? cierreLiquidacionService.leer(cerrada.get())
+              : liquidacionService.generarLiquidacion(
+                  fechaInicio.atStartOfDay(), fechaFin.atTime(23, 59, 59));
+
+      if (liquidacion.getArbitros().isEmpty()) {
+        logger.warn("No hay datos de liquidación para exportar en {} - {}", fechaInicio, fechaFin);
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
+      }
 
       // Generar nombre de archivo
       DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
@@ -232,19 +385,20 @@ public class LiquidacionRestController {
           String.format(
               "liquidacion_%s_%s.xlsx", fechaInicio.format(formatter), fechaFin.format(formatter));
 
-      logger.info("Archivo Excel generado exitosamente: {}", filename);
+      // El libro se escribe directamente en la respuesta
+      StreamingResponseBody body = excelDe(liquidacion, filename);
 
       // Configurar headers para descarga
       HttpHeaders headers = new HttpHeaders();
       headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
       headers.setContentDispositionFormData("attachment", filename);
       headers.setCacheControl("must-revalidate, post-check=0, pre-check=0");
+      if (etag != null) {
+        headers.setETag("\"" + etag + "\"");
+      }
 
-      return ResponseEntity.ok().headers(headers).body(bytes);
+      return ResponseEntity.ok().headers(headers).body(body);
 
-    } catch (IOException e) {
-      logger.error("Error de I/O al generar archivo Excel: {}", e.getMessage(), e);
-      return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
     } catch (Exception e) {
       logger.error("Error al generar archivo Excel de liquidación: {}", e.getMessage(), e);
       return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
@@ -280,7 +434,7 @@ public class LiquidacionRestController {
   @GetMapping("/arbitro/{arbitroId}/excel")
   @PreAuthorize(
       "hasRole('ADMIN') or (hasRole('ARBITRO') and #arbitroId == authentication.principal.id)")
-  public ResponseEntity<byte[]> descargarLiquidacionArbitroExcel(
+  public ResponseEntity<StreamingResponseBody> descargarLiquidacionArbitroExcel(
       @Parameter(description = "ID del árbitro", required = true) @PathVariable Long arbitroId,
       @Parameter(description = "Fecha de inicio del período (formato: yyyy-MM-dd)", required = true)
           @RequestParam
@@ -289,7 +443,8 @@ public class LiquidacionRestController {
       @Parameter(description = "Fecha de fin del período (formato: yyyy-MM-dd)", required = true)
           @RequestParam
           @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
-          LocalDate fechaFin) {
+          LocalDate fechaFin,
+      WebRequest request) {
 
     try {
       logger.info(
@@ -304,10 +459,17 @@ public class LiquidacionRestController {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
       }
 
-      // Generar liquidación del árbitro
+      // Generar liquidación del árbitro (o leerla congelada si el período está cerrado)
+      Optional<LiquidacionCerrada> cerrada = cierreLiquidacionService.buscar(fechaInicio, fechaFin);
+      String etag = cerrada.map(c -> c.getHash() + "-" + arbitroId).orElse(null);
+      if (etag != null && request.checkNotModified(etag)) {
+        return null; // 304
+      }
       LiquidacionDTO.LiquidacionArbitroDTO arbitroLiquidacion =
-          liquidacionService.generarLiquidacionPorArbitro(
-              arbitroId, fechaInicio.atStartOfDay(), fechaFin.atTime(23, 59, 59));
+          cerrada.isPresent()
+              ? arbitroDe(cierreLiquidacionService.leer(cerrada.get()), arbitroId)
+              : liquidacionService.generarLiquidacionPorArbitro(
+                  arbitroId, fechaInicio.atStartOfDay(), fechaFin.atTime(23, 59, 59));
 
       if (arbitroLiquidacion == null) {
         logger.warn("No hay liquidación para el árbitro {} en el período especificado", arbitroId);
@@ -322,9 +484,6 @@ public class LiquidacionRestController {
       liquidacion.setTotalGeneral(arbitroLiquidacion.getTotalAPagar());
       liquidacion.setTotalAsignaciones(arbitroLiquidacion.getCantidadPartidos());
 
-      // Exportar a Excel (ya retorna bytes)
-      byte[] bytes = excelExportService.exportarLiquidacion(liquidacion);
-
       // Generar nombre de archivo
       DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
       String filename =
@@ -332,22 +491,23 @@ public class LiquidacionRestController {
               "liquidacion_arbitro_%d_%s_%s.xlsx",
               arbitroId, fechaInicio.format(formatter), fechaFin.format(formatter));
 
-      logger.info("Archivo Excel generado exitosamente: {}", filename);
+      // El libro se escribe directamente en la respuesta
+      StreamingResponseBody body = excelDe(liquidacion, filename);
 
       // Configurar headers para descarga
       HttpHeaders headers = new HttpHeaders();
       headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
       headers.setContentDispositionFormData("attachment", filename);
       headers.setCacheControl("must-revalidate, post-check=0, pre-check=0");
+      if (etag != null) {
+        headers.setETag("\"" + etag + "\"");
+      }
 
-      return ResponseEntity.ok().headers(headers).body(bytes);
+      return ResponseEntity.ok().headers(headers).body(body);
 
     } catch (BusinessException e) {
       logger.error("Error de negocio al generar liquidación: {}", e.getMessage());
       return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
-    } catch (IOException e) {
-      logger.error("Error de I/O al generar archivo Excel: {}", e.getMessage(), e);
-      return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
     } catch (Exception e) {
       logger.error(
           "Error al generar archivo Excel de liquidación para árbitro {}: {}",
@@ -357,4 +517,78 @@ public class LiquidacionRestController {
       return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
     }
   }
+
+  @Operation(
+      summary = "Cerrar un período de pago",
+      description =
+          "Congela la liquidación del período: desde entonces se sirve la copia guardada y se"
+              + " rechazan los cambios en asignaciones de partidos de ese período")
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            responseCode = "201",
+            description = "Período cerrado",
+            content = @Content(mediaType = "application/json")),
+        @ApiResponse(
+            responseCode = "409",
+            description = "Fechas inválidas o período solapado con otro ya cerrado",
+            content = @Content)
+      })
+  @PostMapping("/cierres")
+  @PreAuthorize("hasRole('ADMIN')")
+  public ResponseEntity<LiquidacionCierreDTO> cerrarPeriodo(
+      @Parameter(description = "Fecha de inicio del período (formato: yyyy-MM-dd)", required = true)
+          @RequestParam
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+          LocalDate fechaInicio,
+      @Parameter(description = "Fecha de fin del período (formato: yyyy-MM-dd)", required = true)
+          @RequestParam
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+          LocalDate fechaFin,
+      Principal principal) {
+    try {
+      LiquidacionCerrada cerrada =
+          cierreLiquidacionService.cerrarPeriodo(fechaInicio, fechaFin, principal.getName());
+      return ResponseEntity.status(HttpStatus.CREATED)
+          .eTag(cerrada.getHash())
+          .body(new LiquidacionCierreDTO(cerrada));
+    } catch (BusinessException e) {
+      logger.warn(
+          "No se pudo cerrar el período {} - {}: {}", fechaInicio, fechaFin, e.getMessage());
+      return ResponseEntity.status(HttpStatus.CONFLICT).body(null);
+    }
+  }
+
+  @Operation(summary = "Listar los períodos de pago cerrados")
+  @GetMapping("/cierres")
+  @PreAuthorize("hasRole('ADMIN')")
+  public ResponseEntity<List<LiquidacionCierreDTO>> listarCierres() {
+    return ResponseEntity.ok(
+        cierreLiquidacionService.listar().stream().map(LiquidacionCierreDTO::new).toList());
+  }
+
+  // 5. Métodos privados
+
+  // Cuerpo de descarga que escribe el Excel de la liquidación fuera del hilo de la petición
+  private StreamingResponseBody excelDe(LiquidacionDTO liquidacion, String filename) {
+    return out -> {
+      try {
+        excelExportService.exportarLiquidacion(liquidacion, out);
+        logger.info("Archivo Excel generado exitosamente: {}", filename);
+      } catch (IOException | RuntimeException e) {
+        logger.error("Error al escribir el archivo Excel {}: {}", filename, e.getMessage(), e);
+        throw e;
+      }
+    };
+  }
+
+  private static LiquidacionDTO.LiquidacionArbitroDTO arbitroDe(
+      LiquidacionDTO liquidacion, Long arbitroId) {
+    for (LiquidacionDTO.LiquidacionArbitroDTO arbitro : liquidacion.getArbitros()) {
+      if (arbitro.getArbitroId().equals(arbitroId)) {
+        return arbitro;
+      }
+    }
+    return null;
+  }
 }
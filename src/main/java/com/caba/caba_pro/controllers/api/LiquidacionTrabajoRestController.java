@@ -0,0 +1,191 @@
+/**
+ * Archivo: LiquidacionTrabajoRestController.java Autores: Diego.Gonzalez Fecha última modificación:
+ * 17.10.2026 Descripción: API de liquidaciones generadas en segundo plano Proyecto: CABA Pro -
+ * Sistema de Gestión Integral de Arbitraje
+ */
+package com.caba.caba_pro.controllers.api;
+
+import com.caba.caba_pro.dto.LiquidacionTrabajoDTO;
+import com.caba.caba_pro.exceptions.BusinessException;
+import com.caba.caba_pro.services.LiquidacionTrabajoService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.net.URI;
+import java.security.Principal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/liquidaciones/trabajos")
+@Tag(name = "Liquidaciones", description = "Endpoints para generación de liquidaciones de pago")
+public class LiquidacionTrabajoRestController {
+
+  private static final Logger logger =
+      LoggerFactory.getLogger(LiquidacionTrabajoRestController.class);
+
+  // 2. Variables de instancia
+  private final LiquidacionTrabajoService liquidacionTrabajoService;
+
+  // 3. Constructores
+  public LiquidacionTrabajoRestController(LiquidacionTrabajoService liquidacionTrabajoService) {
+    this.liquidacionTrabajoService = liquidacionTrabajoService;
+  }
+
+  // 4. Métodos públicos
+
+  @Operation(
+      summary = "Encolar una liquidación en segundo plano",
+      description =
+          "Encola la generación de la liquidación del período y responde de inmediato con el id"
+              + " del trabajo; el progreso se consulta en la URL del encabezado Location")
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            responseCode = "202",
+            description = "Trabajo encolado",
+            content = @Content(mediaType = "application/json")),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Parámetros inválidos (fechas o formato)",
+            content = @Content),
+        @ApiResponse(
+            responseCode = "503",
+            description = "Demasiados trabajos en proceso",
+            content = @Content)
+      })
+  @PostMapping
+  @PreAuthorize("hasRole('ADMIN')")
+  public ResponseEntity<LiquidacionTrabajoDTO> enviar(
+      @Parameter(description = "Fecha de inicio del período (formato: yyyy-MM-dd)", required = true)
+          @RequestParam
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+          LocalDate fechaInicio,
+      @Parameter(description = "Fecha de fin del período (formato: yyyy-MM-dd)", required = true)
+          @RequestParam
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+          LocalDate fechaFin,
+      @Parameter(description = "Formato de salida: json o excel")
+          @RequestParam(defaultValue = "excel")
+          String formato,
+      Principal principal) {
+
+    LiquidacionTrabajoService.Formato salida;
+    if ("excel".equalsIgnoreCase(formato)) {
+      salida = LiquidacionTrabajoService.Formato.EXCEL;
+    } else if ("json".equalsIgnoreCase(formato)) {
+      salida = LiquidacionTrabajoService.Formato.JSON;
+    } else {
+      return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
+    }
+    if (fechaInicio.isAfter(fechaFin)) {
+      logger.error("Fecha de inicio posterior a fecha de fin: {} > {}", fechaInicio, fechaFin);
+      return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
+    }
+
+    try {
+      LiquidacionTrabajoService.Trabajo trabajo =
+          liquidacionTrabajoService.enviar(fechaInicio, fechaFin, salida, principal.getName());
+      return ResponseEntity.accepted()
+          .location(URI.create("/api/liquidaciones/trabajos/" + trabajo.getId()))
+          .body(new LiquidacionTrabajoDTO(trabajo));
+    } catch (BusinessException e) {
+      logger.warn("Trabajo de liquidación rechazado: {}", e.getMessage());
+      return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+          .header(HttpHeaders.RETRY_AFTER, "60")
+          .body(null);
+    }
+  }
+
+  @Operation(
+      summary = "Consultar un trabajo de liquidación",
+      description = "Estado y progreso (porcentaje de árbitros escritos) del trabajo")
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Estado del trabajo",
+            content = @Content(mediaType = "application/json")),
+        @ApiResponse(
+            responseCode = "404",
+            description = "Trabajo inexistente o vencido",
+            content = @Content)
+      })
+  @GetMapping("/{id}")
+  @PreAuthorize("hasRole('ADMIN')")
+  public ResponseEntity<LiquidacionTrabajoDTO> obtener(
+      @Parameter(description = "ID del trabajo", required = true) @PathVariable String id) {
+    return liquidacionTrabajoService
+        .obtener(id)
+        .map(trabajo -> ResponseEntity.ok(new LiquidacionTrabajoDTO(trabajo)))
+        .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(null));
+  }
+
+  @Operation(
+      summary = "Descargar el resultado de un trabajo de liquidación",
+      description = "Archivo generado por el trabajo; disponible hasta que vence")
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Archivo de la liquidación",
+            content = {
+              @Content(mediaType = "application/json"),
+              @Content(
+                  mediaType = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet")
+            }),
+        @ApiResponse(
+            responseCode = "404",
+            description = "Trabajo inexistente o vencido",
+            content = @Content),
+        @ApiResponse(
+            responseCode = "409",
+            description = "El trabajo aún no terminó o falló",
+            content = @Content)
+      })
+  @GetMapping("/{id}/archivo")
+  @PreAuthorize("hasRole('ADMIN')")
+  public ResponseEntity<Resource> descargar(
+      @Parameter(description = "ID del trabajo", required = true) @PathVariable String id) {
+    Optional<LiquidacionTrabajoService.Trabajo> encontrado = liquidacionTrabajoService.obtener(id);
+    if (encontrado.isEmpty()) {
+      return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
+    }
+    LiquidacionTrabajoService.Trabajo trabajo = encontrado.get();
+    if (trabajo.getEstado() != LiquidacionTrabajoService.Estado.TERMINADO) {
+      return ResponseEntity.status(HttpStatus.CONFLICT).body(null);
+    }
+
+    DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    String filename =
+        String.format(
+            "liquidacion_%s_%s.%s",
+            trabajo.getFechaInicio().format(formatter),
+            trabajo.getFechaFin().format(formatter),
+            trabajo.getFormato().getExtension());
+    HttpHeaders headers = new HttpHeaders();
+    headers.setContentType(MediaType.parseMediaType(trabajo.getFormato().getContentType()));
+    headers.setContentDispositionFormData("attachment", filename);
+    return ResponseEntity.ok().headers(headers).body(new FileSystemResource(trabajo.getArchivo()));
+  }
+}
@@ -0,0 +1,49 @@
+/**
+ * Archivo: LiquidacionCierreDTO.java Autores: Diego.Gonzalez Fecha última modificación: 17.10.2026
+ * Descripción: Datos de un período de liquidación cerrado (sin el contenido) Proyecto: CABA Pro -
+ * Sistema de Gestión Integral de Arbitraje
+ */
+package com.caba.caba_pro.dto;
+
+import com.caba.caba_pro.models.LiquidacionCerrada;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/** Resumen de un cierre de período para la API: fechas, hash del contenido y quién lo cerró. */
+public class LiquidacionCierreDTO {
+
+  private final LocalDate fechaInicio;
+  private final LocalDate fechaFin;
+  private final String hash;
+  private final LocalDateTime cerradaEn;
+  private final String cerradaPor;
+
+  public LiquidacionCierreDTO(LiquidacionCerrada cerrada) {
+    this.fechaInicio = cerrada.getFechaInicio();
+    this.fechaFin = cerrada.getFechaFin();
+    this.hash = cerrada.getHash();
+    this.cerradaEn = cerrada.getCerradaEn();
+    this.cerradaPor = cerrada.getCerradaPor();
+  }
+
+  // Getters
+  public LocalDate getFechaInicio() {
+    return fechaInicio;
+  }
+
+  public LocalDate getFechaFin() {
+    return fechaFin;
+  }
+
+  public String getHash() {
+    return hash;
+  }
+
+  public LocalDateTime getCerradaEn() {
+    return cerradaEn;
+  }
+
+  public String getCerradaPor() {
+    return cerradaPor;
+  }
+}
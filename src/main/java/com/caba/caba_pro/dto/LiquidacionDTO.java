@@ -29,6 +29,20 @@ public class LiquidacionDTO {
     this.totalAsignaciones = 0;
   }
 
+  /** Copia con sus propias listas de árbitros y partidos */
+  public LiquidacionDTO(LiquidacionDTO otra) {
+    this.fechaGeneracion = otra.fechaGeneracion;
+    this.fechaInicio = otra.fechaInicio;
+    this.fechaFin = otra.fechaFin;
+    this.arbitros = new ArrayList<>(otra.arbitros.size());
+    for (LiquidacionArbitroDTO arbitro : otra.arbitros) {
+      this.arbitros.add(new LiquidacionArbitroDTO(arbitro));
+    }
+    this.totalGeneral = otra.totalGeneral;
+    this.totalPartidos = otra.totalPartidos;
+    this.totalAsignaciones = otra.totalAsignaciones;
+  }
+
   // Getters y Setters
   public LocalDateTime getFechaGeneracion() {
     return fechaGeneracion;
@@ -102,6 +116,20 @@ public class LiquidacionDTO {
       this.cantidadPartidos = 0;
     }
 
+    /** Copia con su propia lista de partidos */
+    public LiquidacionArbitroDTO(LiquidacionArbitroDTO otro) {
+      this.arbitroId = otro.arbitroId;
+      this.nombreCompleto = otro.nombreCompleto;
+      this.numeroIdentificacion = otro.numeroIdentificacion;
+      this.escalafon = otro.escalafon;
+      this.partidos = new ArrayList<>(otro.partidos.size());
+      for (DetallePartidoDTO partido : otro.partidos) {
+        this.partidos.add(new DetallePartidoDTO(partido));
+      }
+      this.totalAPagar = otro.totalAPagar;
+      this.cantidadPartidos = otro.cantidadPartidos;
+    }
+
     // Getters y Setters
     public Long getArbitroId() {
       return arbitroId;
@@ -170,6 +198,18 @@ public class LiquidacionDTO {
     private BigDecimal montoPago;
     private String estado;
 
+    public DetallePartidoDTO() {}
+
+    public DetallePartidoDTO(DetallePartidoDTO otro) {
+      this.partidoId = otro.partidoId;
+      this.nombrePartido = otro.nombrePartido;
+      this.torneo = otro.torneo;
+      this.fechaPartido = otro.fechaPartido;
+      this.posicion = otro.posicion;
+      this.montoPago = otro.montoPago;
+      this.estado = otro.estado;
+    }
+
     // Getters y Setters
     public Long getPartidoId() {
       return partidoId;
@@ -0,0 +1,110 @@
+/**
+ * Archivo: LiquidacionFilaDTO.java Autores: Diego.Gonzalez Fecha última modificación: 17.10.2026
+ * Descripción: Fila plana (asignación, árbitro, partido y torneo) leída para armar la liquidación
+ * Proyecto: CABA Pro - Sistema de Gestión Integral de Arbitraje
+ */
+package com.caba.caba_pro.dto;
+
+import com.caba.caba_pro.enums.AsignacionEstado;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Columnas de una asignación completada con las de su árbitro, partido y torneo, obtenidas en una
+ * sola consulta para no recorrer las relaciones perezosas fila por fila.
+ */
+public class LiquidacionFilaDTO {
+
+  private final Long asignacionId;
+  private final Long arbitroId;
+  private final String nombreArbitro;
+  private final String apellidosArbitro;
+  private final String numeroIdentificacion;
+  private final String escalafon;
+  private final Long partidoId;
+  private final String nombrePartido;
+  private final String torneo;
+  private final LocalDateTime fechaPartido;
+  private final String posicion;
+  private final BigDecimal montoPago;
+  private final AsignacionEstado estado;
+
+  public LiquidacionFilaDTO(
+      Long asignacionId,
+      Long arbitroId,
+      String nombreArbitro,
+      String apellidosArbitro,
+      String numeroIdentificacion,
+      String escalafon,
+      Long partidoId,
+      String nombrePartido,
+      String torneo,
+      LocalDateTime fechaPartido,
+      String posicion,
+      BigDecimal montoPago,
+      AsignacionEstado estado) {
+    this.asignacionId = asignacionId;
+    this.arbitroId = arbitroId;
+    this.nombreArbitro = nombreArbitro;
+    this.apellidosArbitro = apellidosArbitro;
+    this.numeroIdentificacion = numeroIdentificacion;
+    this.escalafon = escalafon;
+    this.partidoId = partidoId;
+    this.nombrePartido = nombrePartido;
+    this.torneo = torneo;
+    this.fechaPartido = fechaPartido;
+    this.posicion = posicion;
+    this.montoPago = montoPago;
+    this.estado = estado;
+  }
+
+  // Getters
+  public Long getAsignacionId() {
+    return asignacionId;
+  }
+
+  public Long getArbitroId() {
+    return arbitroId;
+  }
+
+  // Igual que Arbitro.getNombreCompleto
+  public String getNombreCompleto() {
+    return nombreArbitro + " " + apellidosArbitro;
+  }
+
+  public String getNumeroIdentificacion() {
+    return numeroIdentificacion;
+  }
+
+  public String getEscalafon() {
+    return escalafon;
+  }
+
+  public Long getPartidoId() {
+    return partidoId;
+  }
+
+  public String getNombrePartido() {
+    return nombrePartido;
+  }
+
+  public String getTorneo() {
+    return torneo;
+  }
+
+  public LocalDateTime getFechaPartido() {
+    return fechaPartido;
+  }
+
+  public String getPosicion() {
+    return posicion;
+  }
+
+  public BigDecimal getMontoPago() {
+    return montoPago;
+  }
+
+  public AsignacionEstado getEstado() {
+    return estado;
+  }
+}
@@ -0,0 +1,85 @@
+/**
+ * Archivo: LiquidacionTrabajoDTO.java Autores: Diego.Gonzalez Fecha última modificación: 17.10.2026
+ * Descripción: Estado de un trabajo de liquidación en segundo plano Proyecto: CABA Pro - Sistema de
+ * Gestión Integral de Arbitraje
+ */
+package com.caba.caba_pro.dto;
+
+import com.caba.caba_pro.services.LiquidacionTrabajoService;
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Estado de un trabajo para la API: período, formato, progreso y, al terminar, la ruta de descarga
+ * o el error.
+ */
+public class LiquidacionTrabajoDTO {
+
+  private final String id;
+  private final LocalDate fechaInicio;
+  private final LocalDate fechaFin;
+  private final String formato;
+  private final String estado;
+  private final int progreso;
+  private final Instant creadoEn;
+  private final Instant terminadoEn;
+  private final String error;
+  private final String descarga;
+
+  public LiquidacionTrabajoDTO(LiquidacionTrabajoService.Trabajo trabajo) {
+    this.id = trabajo.getId();
+    this.fechaInicio = trabajo.getFechaInicio();
+    this.fechaFin = trabajo.getFechaFin();
+    this.formato = trabajo.getFormato().name().toLowerCase();
+    this.estado = trabajo.getEstado().name();
+    this.progreso = trabajo.getProgreso();
+    this.creadoEn = trabajo.getCreadoEn();
+    this.terminadoEn = trabajo.getTerminadoEn();
+    this.error = trabajo.getError();
+    this.descarga =
+        trabajo.getEstado() == LiquidacionTrabajoService.Estado.TERMINADO
+            ? "/api/liquidaciones/trabajos/" + trabajo.getId() + "/archivo"
+            : null;
+  }
+
+  // Getters
+  public String getId() {
+    return id;
+  }
+
+  public LocalDate getFechaInicio() {
+    return fechaInicio;
+  }
+
+  public LocalDate getFechaFin() {
+    return fechaFin;
+  }
+
+  public String getFormato() {
+    return formato;
+  }
+
+  public String getEstado() {
+    return estado;
+  }
+
+  public int getProgreso() {
+    return progreso;
+  }
+
+  public Instant getCreadoEn() {
+    return creadoEn;
+  }
+
+  public Instant getTerminadoEn() {
+    return terminadoEn;
+  }
+
+  public String getError() {
+    return error;
+  }
+
+  public String getDescarga() {
+    return descarga;
+  }
+}
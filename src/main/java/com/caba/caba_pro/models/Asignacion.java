@@ -14,6 +14,7 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -21,7 +22,13 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "asignacion")
+@Table(
+    name = "asignacion",
+    indexes = {
+      // Conteos de estadísticas por estado y partido
+      @Index(name = "idx_asignacion_estado_partido", columnList = "estado, partido_id"),
+      @Index(name = "idx_asignacion_arbitro", columnList = "arbitro_id")
+    })
 public class Asignacion {
 
   // 1. Constantes estáticas
@@ -0,0 +1,39 @@
+/**
+ * Archivo: CandadoLiquidacion.java Autores: Diego.Gonzalez Fecha última modificación: 17.10.2026
+ * Descripción: Fila única que serializa los cierres de período con los cambios a lo pagado
+ * Proyecto: CABA Pro - Sistema de Gestión Integral de Arbitraje
+ */
+package com.caba.caba_pro.models;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Fila única de {@code liquidacion_candado}. Cerrar un período y completar o reprogramar lo que ya
+ * cuenta en una liquidación la bloquean para escritura en su propia transacción, así que un cambio
+ * que pasó la verificación del período abierto se confirma antes de que el cierre tome su foto, o
+ * espera a que el cierre termine y entonces se rechaza.
+ */
+@Entity
+@Table(name = "liquidacion_candado")
+public class CandadoLiquidacion {
+
+  // 1. Constantes estáticas
+  public static final Long UNICO = 1L;
+
+  // 2. Variables de instancia
+  @Id private Long id;
+
+  // 3. Constructores
+  protected CandadoLiquidacion() {}
+
+  public CandadoLiquidacion(Long id) {
+    this.id = id;
+  }
+
+  // 4. Métodos públicos
+  public Long getId() {
+    return id;
+  }
+}
@@ -0,0 +1,105 @@
+/**
+ * Archivo: EstadisticaDiaria.java Autores: Diego.Gonzalez Fecha última modificación: 17.10.2026
+ * Descripción: Acumulado diario de asignaciones por árbitro y estado para las estadísticas
+ * Proyecto: CABA Pro - Sistema de Gestión Integral de Arbitraje
+ */
+package com.caba.caba_pro.models;
+
+import com.caba.caba_pro.enums.AsignacionEstado;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Una fila por día del partido, árbitro y estado de la asignación, con la cantidad de asignaciones
+ * y la suma de sus montos. Se mantiene al crear o responder asignaciones y se puede reconstruir
+ * desde la tabla de asignaciones en cualquier momento.
+ */
+@Entity
+@Table(
+    name = "estadistica_diaria",
+    uniqueConstraints =
+        @UniqueConstraint(
+            name = "uk_estadistica_diaria",
+            columnNames = {"fecha", "arbitro_id", "estado"}))
+public class EstadisticaDiaria {
+
+  // 2. Variables de instancia
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(nullable = false)
+  private LocalDate fecha;
+
+  // Sin relación JPA: el acumulado no debe bloquear ni cargar al árbitro
+  @Column(name = "arbitro_id", nullable = false)
+  private Long arbitroId;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false, length = 20)
+  private AsignacionEstado estado;
+
+  @Column(nullable = false)
+  private long cantidad;
+
+  @Column(nullable = false)
+  private BigDecimal montoTotal;
+
+  // 3. Constructores
+  public EstadisticaDiaria() {}
+
+  public EstadisticaDiaria(
+      LocalDate fecha,
+      Long arbitroId,
+      AsignacionEstado estado,
+      long cantidad,
+      BigDecimal montoTotal) {
+    this.fecha = fecha;
+    this.arbitroId = arbitroId;
+    this.estado = estado;
+    this.cantidad = cantidad;
+    this.montoTotal = montoTotal;
+  }
+
+  // 4. Métodos públicos
+  public Long getId() {
+    return id;
+  }
+
+  public LocalDate getFecha() {
+    return fecha;
+  }
+
+  public Long getArbitroId() {
+    return arbitroId;
+  }
+
+  public AsignacionEstado getEstado() {
+    return estado;
+  }
+
+  public long getCantidad() {
+    return cantidad;
+  }
+
+  public void setCantidad(long cantidad) {
+    this.cantidad = cantidad;
+  }
+
+  public BigDecimal getMontoTotal() {
+    return montoTotal;
+  }
+
+  public void setMontoTotal(BigDecimal montoTotal) {
+    this.montoTotal = montoTotal;
+  }
+}
@@ -0,0 +1,117 @@
+/**
+ * Archivo: LiquidacionCerrada.java Autores: Diego.Gonzalez Fecha última modificación: 17.10.2026
+ * Descripción: Liquidación congelada de un período de pago cerrado Proyecto: CABA Pro - Sistema de
+ * Gestión Integral de Arbitraje
+ */
+package com.caba.caba_pro.models;
+
+import jakarta.persistence.CollectionTable;
+import jakarta.persistence.Column;
+import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Copia inmutable de la liquidación de un período cerrado: el JSON del {@code LiquidacionDTO} tal
+ * como se calculó al cerrar y su hash SHA-256, que sirve de ETag. No tiene setters: una vez
+ * guardada no se modifica.
+ *
+ * <p>Cada día del período se guarda además como fila de {@code liquidacion_cerrada_dia}, única por
+ * fecha: si dos cierres simultáneos se solapan, la base rechaza el segundo aunque ambos hayan
+ * pasado la verificación previa.
+ */
+@Entity
+@Table(
+    name = "liquidacion_cerrada",
+    uniqueConstraints =
+        @UniqueConstraint(
+            name = "uk_liquidacion_cerrada_periodo",
+            columnNames = {"fecha_inicio", "fecha_fin"}))
+public class LiquidacionCerrada {
+
+  // 2. Variables de instancia
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(name = "fecha_inicio", nullable = false, updatable = false)
+  private LocalDate fechaInicio;
+
+  @Column(name = "fecha_fin", nullable = false, updatable = false)
+  private LocalDate fechaFin;
+
+  @Lob
+  @Column(nullable = false, updatable = false)
+  private String contenido;
+
+  @Column(nullable = false, length = 64, updatable = false)
+  private String hash;
+
+  @Column(nullable = false, updatable = false)
+  private LocalDateTime cerradaEn;
+
+  @Column(length = 50, updatable = false)
+  private String cerradaPor;
+
+  @ElementCollection
+  @CollectionTable(
+      name = "liquidacion_cerrada_dia",
+      joinColumns = @JoinColumn(name = "liquidacion_cerrada_id"),
+      uniqueConstraints =
+          @UniqueConstraint(name = "uk_liquidacion_cerrada_dia", columnNames = "fecha"))
+  @Column(name = "fecha", nullable = false)
+  private Set<LocalDate> dias;
+
+  // 3. Constructores
+  protected LiquidacionCerrada() {}
+
+  public LiquidacionCerrada(
+      LocalDate fechaInicio, LocalDate fechaFin, String contenido, String hash, String cerradaPor) {
+    this.fechaInicio = fechaInicio;
+    this.fechaFin = fechaFin;
+    this.contenido = contenido;
+    this.hash = hash;
+    this.cerradaPor = cerradaPor;
+    this.cerradaEn = LocalDateTime.now();
+    this.dias = fechaInicio.datesUntil(fechaFin.plusDays(1)).collect(Collectors.toSet());
+  }
+
+  // 4. Métodos públicos
+  public Long getId() {
+    return id;
+  }
+
+  public LocalDate getFechaInicio() {
+    return fechaInicio;
+  }
+
+  public LocalDate getFechaFin() {
+    return fechaFin;
+  }
+
+  public String getContenido() {
+    return contenido;
+  }
+
+  public String getHash() {
+    return hash;
+  }
+
+  public LocalDateTime getCerradaEn() {
+    return cerradaEn;
+  }
+
+  public String getCerradaPor() {
+    return cerradaPor;
+  }
+}
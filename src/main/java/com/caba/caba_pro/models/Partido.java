@@ -13,6 +13,7 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
@@ -22,7 +23,13 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "partido")
+@Table(
+    name = "partido",
+    indexes = {
+      @Index(name = "idx_partido_fecha_hora", columnList = "fechaHora"),
+      // Calendario filtrado por torneo
+      @Index(name = "idx_partido_torneo_fecha_hora", columnList = "torneo_id, fechaHora")
+    })
 public class Partido {
 
   // 1. Constantes estáticas
@@ -7,10 +7,14 @@ package com.caba.caba_pro.repositories;
 
 import com.caba.caba_pro.enums.Especialidad;
 import com.caba.caba_pro.models.Arbitro;
+import jakarta.persistence.QueryHint;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -48,4 +52,16 @@ public interface ArbitroRepository extends JpaRepository<Arbitro, Long> {
   // Query personalizada para árbitros disponibles
   @Query("SELECT a FROM Arbitro a WHERE a.activo = true AND a.fechaCreacion >= :fecha")
   List<Arbitro> findArbitrosActivosDesde(@Param("fecha") LocalDateTime fecha);
+
+  // Exportación plana (CSV/NDJSON) de los árbitros activos: cursor de filas escalares, sin
+  // entidades en el contexto de persistencia; debe consumirse dentro de una transacción
+  @Query(
+      "SELECT a.id, a.nombre, a.apellidos, a.numeroIdentificacion, a.email, a.telefono,"
+          + " a.especialidad, a.escalafon, a.fechaNacimiento, a.fechaCreacion, a.activo"
+          + " FROM Arbitro a WHERE a.activo = true ORDER BY a.id")
+  @QueryHints({
+    @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+    @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+  })
+  Stream<Object[]> streamFilasExportacion();
 }
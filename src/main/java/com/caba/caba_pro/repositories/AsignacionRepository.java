@@ -5,21 +5,65 @@
  */
 package com.caba.caba_pro.repositories;
 
+import com.caba.caba_pro.dto.LiquidacionFilaDTO;
 import com.caba.caba_pro.enums.AsignacionEstado;
 import com.caba.caba_pro.models.Asignacion;
+import jakarta.persistence.QueryHint;
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 public interface AsignacionRepository extends JpaRepository<Asignacion, Long> {
 
+  /** Cantidad de asignaciones y suma de {@code montoPago} de un estado. */
+  interface ConteoPorEstado {
+    AsignacionEstado getEstado();
+
+    long getCantidad();
+
+    BigDecimal getMonto();
+  }
+
+  /** Totales de una liquidación, calculados antes de recorrerla en modo streaming. */
+  interface TotalesLiquidacion {
+    long getAsignaciones();
+
+    long getPartidos();
+
+    long getArbitros();
+
+    BigDecimal getMonto();
+  }
+
   List<Asignacion> findByPartidoIdAndActivoTrue(Long partidoId);
 
+  // Todas las asignaciones del partido (incluidas rechazadas), p. ej. al reprogramarlo
+  List<Asignacion> findByPartidoId(Long partidoId);
+
   List<Asignacion> findByActivoTrue();
 
   // Buscar asignaciones por árbitro
   List<Asignacion> findByArbitroIdAndActivoTrue(Long arbitroId);
 
+  // Panel del árbitro: una fila por estado con las asignaciones activas, sin cargar entidades
+  @Query(
+      "SELECT a.estado AS estado, COUNT(a) AS cantidad, COALESCE(SUM(a.montoPago), 0) AS monto"
+          + " FROM Asignacion a WHERE a.arbitro.id = :arbitroId AND a.activo = true"
+          + " GROUP BY a.estado")
+  List<ConteoPorEstado> contarPorEstadoDeArbitro(@Param("arbitroId") Long arbitroId);
+
+  // Todas las asignaciones (activas o no) por estado, con el mismo alcance que el acumulado diario
+  @Query(
+      "SELECT a.estado AS estado, COUNT(a) AS cantidad, COALESCE(SUM(a.montoPago), 0) AS monto"
+          + " FROM Asignacion a JOIN a.partido p GROUP BY a.estado")
+  List<ConteoPorEstado> contarPorEstado();
+
   // Buscar todas las asignaciones del árbitro (incluyendo rechazadas) para el historial
   List<Asignacion> findByArbitroIdOrderByAsignadoEnDesc(Long arbitroId);
 
@@ -27,18 +71,71 @@ public interface AsignacionRepository extends JpaRepository<Asignacion, Long> {
 
   boolean existsByPartidoIdAndPosicionAndActivoTrue(Long partidoId, String posicion);
 
+  boolean existsByPartidoIdAndEstadoAndActivoTrue(Long partidoId, AsignacionEstado estado);
+
   // Regla: el árbitro no puede tener más de una asignación activa el MISMO día
   boolean existsByArbitroIdAndActivoTrueAndPartido_FechaHoraBetween(
       Long arbitroId, LocalDateTime inicio, LocalDateTime fin);
 
-  // Métodos para liquidación
-  List<Asignacion> findByPartidoFechaHoraBetweenAndEstadoAndActivo(
-      LocalDateTime fechaInicio, LocalDateTime fechaFin, AsignacionEstado estado, Boolean activo);
+  // Métodos para liquidación: asignación, árbitro, partido y torneo en un solo SELECT, ordenado
+  // por árbitro y fecha
+  String FILAS_LIQUIDACION =
+      "SELECT new com.caba.caba_pro.dto.LiquidacionFilaDTO(a.id, r.id, r.nombre, r.apellidos,"
+          + " r.numeroIdentificacion, r.escalafon, p.id, p.nombre, t.nombre, p.fechaHora,"
+          + " a.posicion, a.montoPago, a.estado)"
+          + " FROM Asignacion a JOIN a.arbitro r JOIN a.partido p LEFT JOIN p.torneo t"
+          + " WHERE p.fechaHora BETWEEN :fechaInicio AND :fechaFin"
+          + " AND a.estado = :estado AND a.activo = true";
+
+  @Query(FILAS_LIQUIDACION + " ORDER BY r.id, p.fechaHora, a.id")
+  List<LiquidacionFilaDTO> findFilasLiquidacion(
+      @Param("fechaInicio") LocalDateTime fechaInicio,
+      @Param("fechaFin") LocalDateTime fechaFin,
+      @Param("estado") AsignacionEstado estado);
+
+  // Mismas filas con un cursor de solo avance: deben consumirse dentro de una transacción y
+  // cerrarse al terminar. Las filas son DTOs, así que el contexto de persistencia no crece
+  @Query(FILAS_LIQUIDACION + " ORDER BY r.id, p.fechaHora, a.id")
+  @QueryHints({
+    @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+    @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+  })
+  Stream<LiquidacionFilaDTO> streamFilasLiquidacion(
+      @Param("fechaInicio") LocalDateTime fechaInicio,
+      @Param("fechaFin") LocalDateTime fechaFin,
+      @Param("estado") AsignacionEstado estado);
+
+  @Query(
+      "SELECT COUNT(a) AS asignaciones, COUNT(DISTINCT p.id) AS partidos,"
+          + " COUNT(DISTINCT a.arbitro.id) AS arbitros,"
+          + " COALESCE(SUM(a.montoPago), 0) AS monto"
+          + " FROM Asignacion a JOIN a.partido p"
+          + " WHERE p.fechaHora BETWEEN :fechaInicio AND :fechaFin"
+          + " AND a.estado = :estado AND a.activo = true")
+  TotalesLiquidacion totalizarLiquidacion(
+      @Param("fechaInicio") LocalDateTime fechaInicio,
+      @Param("fechaFin") LocalDateTime fechaFin,
+      @Param("estado") AsignacionEstado estado);
+
+  @Query(FILAS_LIQUIDACION + " AND r.id = :arbitroId ORDER BY p.fechaHora, a.id")
+  List<LiquidacionFilaDTO> findFilasLiquidacionPorArbitro(
+      @Param("arbitroId") Long arbitroId,
+      @Param("fechaInicio") LocalDateTime fechaInicio,
+      @Param("fechaFin") LocalDateTime fechaFin,
+      @Param("estado") AsignacionEstado estado);
 
-  List<Asignacion> findByArbitroIdAndPartidoFechaHoraBetweenAndEstadoAndActivo(
-      Long arbitroId,
-      LocalDateTime fechaInicio,
-      LocalDateTime fechaFin,
-      AsignacionEstado estado,
-      Boolean activo);
+  // Exportación plana (CSV/NDJSON) de las asignaciones activas de partidos del período, con el
+  // árbitro, el partido y el torneo en la misma fila
+  @Query(
+      "SELECT a.id, a.estado, a.posicion, a.montoPago, a.asignadoEn, a.respondidoEn, r.id,"
+          + " CONCAT(r.nombre, ' ', r.apellidos), r.numeroIdentificacion, p.id, p.nombre,"
+          + " p.fechaHora, t.nombre FROM Asignacion a JOIN a.arbitro r JOIN a.partido p"
+          + " LEFT JOIN p.torneo t WHERE a.activo = true"
+          + " AND p.fechaHora BETWEEN :fechaInicio AND :fechaFin ORDER BY p.fechaHora, a.id")
+  @QueryHints({
+    @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+    @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+  })
+  Stream<Object[]> streamFilasExportacion(
+      @Param("fechaInicio") LocalDateTime fechaInicio, @Param("fechaFin") LocalDateTime fechaFin);
 }
@@ -0,0 +1,22 @@
+/**
+ * Archivo: CandadoLiquidacionRepository.java Autores: Diego.Gonzalez Fecha última modificación:
+ * 17.10.2026 Descripción: Bloqueo de la fila que serializa los cierres de período Proyecto: CABA
+ * Pro - Sistema de Gestión Integral de Arbitraje
+ */
+package com.caba.caba_pro.repositories;
+
+import com.caba.caba_pro.models.CandadoLiquidacion;
+import jakarta.persistence.LockModeType;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface CandadoLiquidacionRepository extends JpaRepository<CandadoLiquidacion, Long> {
+
+  // SELECT ... FOR UPDATE: el bloqueo dura hasta el final de la transacción que lo toma
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("SELECT c FROM CandadoLiquidacion c WHERE c.id = :id")
+  Optional<CandadoLiquidacion> bloquear(@Param("id") Long id);
+}
@@ -0,0 +1,77 @@
+/**
+ * Archivo: EstadisticaDiariaRepository.java Autores: Diego.Gonzalez Fecha última modificación:
+ * 17.10.2026 Descripción: Acceso a datos del acumulado diario de asignaciones Proyecto: CABA Pro -
+ * Sistema de Gestión Integral de Arbitraje
+ */
+package com.caba.caba_pro.repositories;
+
+import com.caba.caba_pro.enums.AsignacionEstado;
+import com.caba.caba_pro.models.EstadisticaDiaria;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface EstadisticaDiariaRepository extends JpaRepository<EstadisticaDiaria, Long> {
+
+  // Suma atómica sobre la fila existente; devuelve 0 si la fila aún no existe
+  @Modifying
+  @Query(
+      "UPDATE EstadisticaDiaria e SET e.cantidad = e.cantidad + :cantidad,"
+          + " e.montoTotal = e.montoTotal + :monto"
+          + " WHERE e.fecha = :fecha AND e.arbitroId = :arbitroId AND e.estado = :estado")
+  int incrementar(
+      @Param("fecha") LocalDate fecha,
+      @Param("arbitroId") Long arbitroId,
+      @Param("estado") AsignacionEstado estado,
+      @Param("cantidad") long cantidad,
+      @Param("monto") BigDecimal monto);
+
+  // Recalcula todo el acumulado desde las asignaciones (la tabla debe estar vacía)
+  @Modifying
+  @Query(
+      "INSERT INTO EstadisticaDiaria (fecha, arbitroId, estado, cantidad, montoTotal)"
+          + " SELECT CAST(p.fechaHora AS LocalDate), a.arbitro.id, a.estado, COUNT(a),"
+          + " COALESCE(SUM(a.montoPago), 0)"
+          + " FROM Asignacion a JOIN a.partido p"
+          + " GROUP BY CAST(p.fechaHora AS LocalDate), a.arbitro.id, a.estado")
+  int reconstruirDesdeAsignaciones();
+
+  // Una fila por estado con la cantidad y el monto acumulados, para compararla con
+  // AsignacionRepository#contarPorEstado
+  @Query(
+      "SELECT e.estado AS estado, SUM(e.cantidad) AS cantidad,"
+          + " COALESCE(SUM(e.montoTotal), 0) AS monto"
+          + " FROM EstadisticaDiaria e GROUP BY e.estado")
+  List<AsignacionRepository.ConteoPorEstado> sumarCantidadYMontoPorEstado();
+
+  // Filas [estado, cantidad] con fecha en [desde, hasta]
+  @Query(
+      "SELECT e.estado, SUM(e.cantidad) FROM EstadisticaDiaria e"
+          + " WHERE e.fecha BETWEEN :desde AND :hasta GROUP BY e.estado")
+  List<Object[]> sumarPorEstadoEntre(
+      @Param("desde") LocalDate desde, @Param("hasta") LocalDate hasta);
+
+  // Filas [estado, cantidad] de todo el histórico
+  @Query("SELECT e.estado, SUM(e.cantidad) FROM EstadisticaDiaria e GROUP BY e.estado")
+  List<Object[]> sumarPorEstado();
+
+  // Filas [id, nombre, apellidos, cantidad] de los árbitros con más asignaciones en el estado dado
+  // con fecha en [desde, hasta]; el tamaño de la página es el tamaño del top
+  @Query(
+      "SELECT r.id, r.nombre, r.apellidos, SUM(e.cantidad) FROM EstadisticaDiaria e, Arbitro r"
+          + " WHERE r.id = e.arbitroId AND e.estado = :estado"
+          + " AND e.fecha BETWEEN :desde AND :hasta"
+          + " GROUP BY r.id, r.nombre, r.apellidos"
+          + " HAVING SUM(e.cantidad) > 0"
+          + " ORDER BY SUM(e.cantidad) DESC, r.id")
+  List<Object[]> sumarPorArbitroEntre(
+      @Param("estado") AsignacionEstado estado,
+      @Param("desde") LocalDate desde,
+      @Param("hasta") LocalDate hasta,
+      Pageable pageable);
+}
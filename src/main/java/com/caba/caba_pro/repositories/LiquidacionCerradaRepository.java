@@ -0,0 +1,24 @@
+/**
+ * Archivo: LiquidacionCerradaRepository.java Autores: Diego.Gonzalez Fecha última modificación:
+ * 17.10.2026 Descripción: Acceso a datos de las liquidaciones de períodos cerrados Proyecto: CABA
+ * Pro - Sistema de Gestión Integral de Arbitraje
+ */
+package com.caba.caba_pro.repositories;
+
+import com.caba.caba_pro.models.LiquidacionCerrada;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface LiquidacionCerradaRepository extends JpaRepository<LiquidacionCerrada, Long> {
+
+  Optional<LiquidacionCerrada> findByFechaInicioAndFechaFin(
+      LocalDate fechaInicio, LocalDate fechaFin);
+
+  // Algún período cerrado se solapa con [desde, hasta] (con desde == hasta: incluye ese día)
+  boolean existsByFechaInicioLessThanEqualAndFechaFinGreaterThanEqual(
+      LocalDate hasta, LocalDate desde);
+
+  List<LiquidacionCerrada> findAllByOrderByFechaInicioDesc();
+}
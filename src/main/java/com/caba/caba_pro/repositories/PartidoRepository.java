@@ -6,13 +6,61 @@
 package com.caba.caba_pro.repositories;
 
 import com.caba.caba_pro.models.Partido;
+import jakarta.persistence.QueryHint;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 public interface PartidoRepository extends JpaRepository<Partido, Long> {
 
   List<Partido> findByActivoTrue();
 
   Optional<Partido> findByIdAndActivoTrue(Long id);
+
+  // Calendario: partidos activos de la ventana [desde, hasta) con su torneo, por
+  // idx_partido_fecha_hora
+  @Query(
+      "SELECT p FROM Partido p LEFT JOIN FETCH p.torneo WHERE p.activo = true"
+          + " AND p.fechaHora >= :desde AND p.fechaHora < :hasta ORDER BY p.fechaHora")
+  List<Partido> buscarCalendario(
+      @Param("desde") LocalDateTime desde, @Param("hasta") LocalDateTime hasta);
+
+  // Calendario filtrado por torneo, por idx_partido_torneo_fecha_hora
+  @Query(
+      "SELECT p FROM Partido p JOIN FETCH p.torneo t WHERE p.activo = true AND t.id = :torneoId"
+          + " AND p.fechaHora >= :desde AND p.fechaHora < :hasta ORDER BY p.fechaHora")
+  List<Partido> buscarCalendarioDeTorneo(
+      @Param("torneoId") Long torneoId,
+      @Param("desde") LocalDateTime desde,
+      @Param("hasta") LocalDateTime hasta);
+
+  // Calendario de un árbitro: partidos de la ventana con alguna asignación suya
+  @Query(
+      "SELECT p FROM Partido p LEFT JOIN FETCH p.torneo t WHERE p.activo = true"
+          + " AND p.fechaHora >= :desde AND p.fechaHora < :hasta"
+          + " AND (:torneoId IS NULL OR t.id = :torneoId)"
+          + " AND EXISTS (SELECT a.id FROM Asignacion a"
+          + " WHERE a.partido = p AND a.arbitro.id = :arbitroId)"
+          + " ORDER BY p.fechaHora")
+  List<Partido> buscarCalendarioDeArbitro(
+      @Param("arbitroId") Long arbitroId,
+      @Param("torneoId") Long torneoId,
+      @Param("desde") LocalDateTime desde,
+      @Param("hasta") LocalDateTime hasta);
+
+  // Exportación plana (CSV/NDJSON) de todos los partidos con el nombre del torneo en la misma fila
+  @Query(
+      "SELECT p.id, p.nombre, p.fechaHora, p.sede, p.equipoLocal, p.equipoVisitante, p.estado,"
+          + " t.nombre, p.activo FROM Partido p LEFT JOIN p.torneo t ORDER BY p.id")
+  @QueryHints({
+    @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+    @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+  })
+  Stream<Object[]> streamFilasExportacion();
 }
@@ -7,11 +7,15 @@ package com.caba.caba_pro.repositories;
 
 import com.caba.caba_pro.enums.TorneoEstado;
 import com.caba.caba_pro.models.Torneo;
+import jakarta.persistence.QueryHint;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -39,4 +43,16 @@ public interface TorneoRepository extends JpaRepository<Torneo, Long> {
 
   // Búsqueda por ubicación
   List<Torneo> findByUbicacionContainingIgnoreCaseAndActivoTrue(String ubicacion);
+
+  // Exportación plana (CSV/NDJSON) de todos los torneos; el total de partidos sale de una
+  // subconsulta en vez de cargar la colección de cada torneo
+  @Query(
+      "SELECT t.id, t.nombre, t.descripcion, t.fechaInicio, t.fechaFin, t.estado, t.ubicacion,"
+          + " (SELECT COUNT(p) FROM Partido p WHERE p.torneo = t), t.fechaCreacion, t.activo"
+          + " FROM Torneo t ORDER BY t.id")
+  @QueryHints({
+    @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+    @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+  })
+  Stream<Object[]> streamFilasExportacion();
 }
@@ -0,0 +1,106 @@
+/**
+ * Archivo: AnchoColumnas.java Autores: Diego.Gonzalez Fecha última modificación: 17.10.2026
+ * Descripción: Cálculo del ancho de las columnas de las hojas exportadas a Excel Proyecto: CABA Pro
+ * - Sistema de Gestión Integral de Arbitraje
+ */
+package com.caba.caba_pro.services;
+
+import com.caba.caba_pro.config.ExcelExportProperties;
+import java.util.Arrays;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+
+/**
+ * Ancho de las columnas de una hoja. En los modos estimados cuenta los caracteres del valor más
+ * largo de cada columna a medida que se registran las filas (sin medir fuentes) y al final fija
+ * {@code (caracteres + 2) * 256}, el ancho en las unidades de POI con un margen de dos caracteres.
+ * En modo {@code AUTO} delega en {@code autoSizeColumn}; en un libro en streaming debe llamarse a
+ * {@link #preparar} antes de escribir filas.
+ *
+ * <p>Una instancia por hoja; no es segura entre hilos.
+ */
+final class AnchoColumnas {
+
+  // 1. Constantes estáticas
+  // Ancho máximo de columna que admite Excel, en caracteres
+  private static final int MAXIMO_CARACTERES = 255;
+  private static final int MARGEN_CARACTERES = 2;
+
+  // 2. Variables de instancia
+  private final ExcelExportProperties.AnchoColumnas modo;
+  private final int filasMuestra;
+  private final int[] caracteres;
+  private final DataFormatter formatter = new DataFormatter();
+  private int filasRegistradas;
+
+  // 3. Constructores
+  AnchoColumnas(ExcelExportProperties.AnchoColumnas modo, int filasMuestra, int columnas) {
+    this.modo = modo;
+    this.filasMuestra = filasMuestra;
+    this.caracteres = new int[columnas];
+  }
+
+  // 4. Métodos públicos
+
+  // En modo AUTO un libro en streaming tiene que seguir los anchos antes de descargar las filas
+  void preparar(Sheet sheet) {
+    if (modo == ExcelExportProperties.AnchoColumnas.AUTO && sheet instanceof SXSSFSheet streaming) {
+      streaming.trackAllColumnsForAutoSizing();
+    }
+  }
+
+  // Encabezados y otras filas fijas: siempre cuentan, también fuera de la muestra
+  void registrarEncabezado(Row row) {
+    if (modo != ExcelExportProperties.AnchoColumnas.AUTO) {
+      medir(row);
+    }
+  }
+
+  void registrar(Row row) {
+    if (modo == ExcelExportProperties.AnchoColumnas.AUTO
+        || (modo == ExcelExportProperties.AnchoColumnas.MUESTRA
+            && filasRegistradas >= filasMuestra)) {
+      return;
+    }
+    filasRegistradas++;
+    medir(row);
+  }
+
+  void aplicar(Sheet sheet) {
+    for (int i = 0; i < caracteres.length; i++) {
+      if (modo == ExcelExportProperties.AnchoColumnas.AUTO) {
+        sheet.autoSizeColumn(i);
+      } else if (caracteres[i] > 0) {
+        sheet.setColumnWidth(
+            i, Math.min(MAXIMO_CARACTERES, caracteres[i] + MARGEN_CARACTERES) * 256);
+      }
+    }
+  }
+
+  // Caracteres contados por columna (para pruebas)
+  int[] caracteres() {
+    return Arrays.copyOf(caracteres, caracteres.length);
+  }
+
+  // 5. Métodos privados
+
+  private void medir(Row row) {
+    for (Cell cell : row) {
+      int columna = cell.getColumnIndex();
+      if (columna >= caracteres.length) {
+        continue;
+      }
+      int largo =
+          cell.getCellType() == CellType.STRING
+              ? cell.getStringCellValue().length()
+              : formatter.formatCellValue(cell).length();
+      if (largo > caracteres[columna]) {
+        caracteres[columna] = largo;
+      }
+    }
+  }
+}
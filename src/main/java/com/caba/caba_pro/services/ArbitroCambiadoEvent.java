@@ -0,0 +1,22 @@
+/**
+ * Archivo: ArbitroCambiadoEvent.java Autores: Diego.Gonzalez Fecha última modificación: 17.10.2026
+ * Descripción: Evento publicado al crear, editar o desactivar un árbitro Proyecto: CABA Pro -
+ * Sistema de Gestión Integral de Arbitraje
+ */
+package com.caba.caba_pro.services;
+
+public class ArbitroCambiadoEvent {
+
+  // 2. Variables de instancia
+  private final Long arbitroId;
+
+  // 3. Constructores
+  public ArbitroCambiadoEvent(Long arbitroId) {
+    this.arbitroId = arbitroId;
+  }
+
+  // 4. Métodos públicos
+  public Long getArbitroId() {
+    return arbitroId;
+  }
+}
@@ -14,6 +14,7 @@ import com.caba.caba_pro.repositories.ArbitroRepository;
 import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -31,17 +32,20 @@ public class ArbitroService {
   private final AdministradorRepository administradorRepository;
   private final PasswordEncoder passwordEncoder;
   private final FileUploadService fileUploadService;
+  private final ApplicationEventPublisher eventPublisher;
 
   // 3. Constructor
   public ArbitroService(
       ArbitroRepository arbitroRepository,
       AdministradorRepository administradorRepository,
       PasswordEncoder passwordEncoder,
-      FileUploadService fileUploadService) {
+      FileUploadService fileUploadService,
+      ApplicationEventPublisher eventPublisher) {
     this.arbitroRepository = arbitroRepository;
     this.administradorRepository = administradorRepository;
     this.passwordEncoder = passwordEncoder;
     this.fileUploadService = fileUploadService;
+    this.eventPublisher = eventPublisher;
   }
 
   // 4. Métodos públicos
@@ -89,6 +93,7 @@ public class ArbitroService {
     arbitro.setActivo(true);
 
     arbitro = arbitroRepository.save(arbitro);
+    eventPublisher.publishEvent(new ArbitroCambiadoEvent(arbitro.getId()));
     logger.info("Árbitro creado exitosamente con ID: {}", arbitro.getId());
 
     return arbitro;
@@ -173,6 +178,7 @@ public class ArbitroService {
     }
 
     Arbitro arbitroActualizado = arbitroRepository.save(arbitroExistente);
+    eventPublisher.publishEvent(new ArbitroCambiadoEvent(arbitroActualizado.getId()));
     logger.info(
         "SERVICIO: Árbitro guardado exitosamente - Nombre: {}, URL Foto: {}",
         arbitroActualizado.getNombreCompleto(),
@@ -185,6 +191,7 @@ public class ArbitroService {
     Arbitro arbitro = buscarPorId(id);
     arbitro.setActivo(false); // Soft delete
     arbitroRepository.save(arbitro);
+    eventPublisher.publishEvent(new ArbitroCambiadoEvent(id));
     logger.info("Árbitro desactivado: {}", id);
   }
 
@@ -0,0 +1,98 @@
+/**
+ * Archivo: AsignacionCambiadaEvent.java Autores: Diego.Gonzalez Fecha última modificación:
+ * 17.10.2026 Descripción: Evento publicado al crear una asignación o cambiar su estado Proyecto:
+ * CABA Pro - Sistema de Gestión Integral de Arbitraje
+ */
+package com.caba.caba_pro.services;
+
+import com.caba.caba_pro.enums.AsignacionEstado;
+import com.caba.caba_pro.models.Asignacion;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Copia los datos que necesitan los oyentes (fecha del partido, árbitro, estados y monto) en el
+ * momento del cambio, para no tocar entidades perezosas una vez cerrada la transacción. {@code
+ * estadoAnterior} es {@code null} cuando la asignación entra en la fecha (nueva o partido
+ * reprogramado) y {@code estadoNuevo} es {@code null} cuando sale de ella.
+ */
+public class AsignacionCambiadaEvent {
+
+  // 2. Variables de instancia
+  private final Long asignacionId;
+  private final LocalDate fecha;
+  private final Long arbitroId;
+  private final AsignacionEstado estadoAnterior;
+  private final AsignacionEstado estadoNuevo;
+  private final BigDecimal monto;
+
+  // 3. Constructores
+  public AsignacionCambiadaEvent(
+      Long asignacionId,
+      LocalDate fecha,
+      Long arbitroId,
+      AsignacionEstado estadoAnterior,
+      AsignacionEstado estadoNuevo,
+      BigDecimal monto) {
+    this.asignacionId = asignacionId;
+    this.fecha = fecha;
+    this.arbitroId = arbitroId;
+    this.estadoAnterior = estadoAnterior;
+    this.estadoNuevo = estadoNuevo;
+    this.monto = monto != null ? monto : BigDecimal.ZERO;
+  }
+
+  // 4. Métodos públicos
+
+  public static AsignacionCambiadaEvent creada(Asignacion asignacion) {
+    return cambioDeEstado(asignacion, null);
+  }
+
+  // La asignación deja de contar en 'fechaAnterior' (su partido cambió de fecha)
+  public static AsignacionCambiadaEvent retirada(
+      Asignacion asignacion, LocalDateTime fechaAnterior) {
+    return new AsignacionCambiadaEvent(
+        asignacion.getId(),
+        fechaAnterior.toLocalDate(),
+        asignacion.getArbitro().getId(),
+        asignacion.getEstado(),
+        null,
+        asignacion.getMontoPago());
+  }
+
+  public static AsignacionCambiadaEvent cambioDeEstado(
+      Asignacion asignacion, AsignacionEstado estadoAnterior) {
+    return new AsignacionCambiadaEvent(
+        asignacion.getId(),
+        asignacion.getPartido().getFechaHora().toLocalDate(),
+        asignacion.getArbitro().getId(),
+        estadoAnterior,
+        asignacion.getEstado(),
+        asignacion.getMontoPago());
+  }
+
+  public Long getAsignacionId() {
+    return asignacionId;
+  }
+
+  public LocalDate getFecha() {
+    return fecha;
+  }
+
+  public Long getArbitroId() {
+    return arbitroId;
+  }
+
+  public AsignacionEstado getEstadoAnterior() {
+    return estadoAnterior;
+  }
+
+  public AsignacionEstado getEstadoNuevo() {
+    return estadoNuevo;
+  }
+
+  public BigDecimal getMonto() {
+    return monto;
+  }
+}
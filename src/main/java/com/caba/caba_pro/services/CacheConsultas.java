@@ -0,0 +1,264 @@
+/**
+ * Archivo: CacheConsultas.java Autores: Diego.Gonzalez Fecha última modificación: 17.10.2026
+ * Descripción: Caché de resultados de estadísticas, panel y liquidaciones invalidada por eventos de
+ * dominio Proyecto: CABA Pro - Sistema de Gestión Integral de Arbitraje
+ */
+package com.caba.caba_pro.services;
+
+import com.caba.caba_pro.config.CacheConsultasProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Guarda el resultado de consultas de solo lectura con clave (consulta, árbitro, desde, hasta).
+ * Cada {@link Consulta} declara de qué datos depende; al confirmarse un cambio de asignaciones o
+ * árbitros se borran las entradas que dependen de ese dato, y si el cambio es de un árbitro
+ * concreto solo las de ese árbitro y las globales. Además las entradas vencen a los {@code ttl}.
+ *
+ * <p>Un resultado calculado mientras llegaba una invalidación no se guarda: se compara un contador
+ * de invalidaciones antes y después de calcular. Dos pedidos simultáneos de la misma clave pueden
+ * calcularla ambos; no se bloquea a nadie mientras se calcula.
+ *
+ * <p>Los resultados mutables se guardan una sola vez y cada llamada recibe una copia hecha con la
+ * función {@code copiar}, de modo que quien la modifique no altera lo guardado ni lo que reciben
+ * otras peticiones.
+ *
+ * <p>Métricas: {@code caba.consultas.cache.hits}/{@code misses} por consulta, {@code
+ * caba.consultas.cache.hit.ratio}, {@code caba.consultas.cache.invalidaciones} por dato y {@code
+ * caba.consultas.cache.edad} (antigüedad de los resultados servidos desde la caché).
+ */
+@Service
+public class CacheConsultas {
+
+  /** Datos de los que puede depender un resultado. */
+  public enum Dato {
+    ASIGNACION,
+    ARBITRO
+  }
+
+  /** Consultas cacheadas y los datos de los que dependen. */
+  public enum Consulta {
+    ESTADISTICAS_ARBITROS(Dato.ARBITRO),
+    ESTADISTICAS_ASIGNACIONES(Dato.ASIGNACION),
+    TOP_ARBITROS(Dato.ASIGNACION, Dato.ARBITRO),
+    PANEL_ARBITRO(Dato.ASIGNACION),
+    // Suman el montoPago guardado en cada asignación: un cambio de tarifa no las altera
+    LIQUIDACION(Dato.ASIGNACION, Dato.ARBITRO),
+    LIQUIDACION_ARBITRO(Dato.ASIGNACION, Dato.ARBITRO);
+
+    private final Set<Dato> dependencias;
+
+    Consulta(Dato primero, Dato... resto) {
+      this.dependencias = EnumSet.of(primero, resto);
+    }
+
+    public boolean dependeDe(Dato dato) {
+      return dependencias.contains(dato);
+    }
+  }
+
+  // 2. Variables de instancia
+  private final boolean enabled;
+  private final long ttlMillis;
+  private final int maxEntradas;
+  private final Clock clock;
+  private final LinkedHashMap<Clave, Entrada> entradas = new LinkedHashMap<>(64, 0.75f, true);
+  private long invalidaciones;
+
+  private final Map<Consulta, Counter> hits = new EnumMap<>(Consulta.class);
+  private final Map<Consulta, Counter> misses = new EnumMap<>(Consulta.class);
+  private final Map<Dato, Counter> invalidacionesPorDato = new EnumMap<>(Dato.class);
+  private final Timer edad;
+
+  // 3. Constructores
+  @Autowired
+  public CacheConsultas(CacheConsultasProperties properties, MeterRegistry meterRegistry) {
+    this(properties, meterRegistry, Clock.systemUTC());
+  }
+
+  CacheConsultas(CacheConsultasProperties properties, MeterRegistry meterRegistry, Clock clock) {
+    this.enabled = properties.isEnabled();
+    this.ttlMillis = properties.getTtl().toMillis();
+    this.maxEntradas = properties.getMaxEntradas();
+    this.clock = clock;
+    for (Consulta consulta : Consulta.values()) {
+      String nombre = consulta.name().toLowerCase();
+      hits.put(consulta, meterRegistry.counter("caba.consultas.cache.hits", "consulta", nombre));
+      misses.put(
+          consulta, meterRegistry.counter("caba.consultas.cache.misses", "consulta", nombre));
+    }
+    for (Dato dato : Dato.values()) {
+      invalidacionesPorDato.put(
+          dato,
+          meterRegistry.counter(
+              "caba.consultas.cache.invalidaciones", "dato", dato.name().toLowerCase()));
+    }
+    this.edad =
+        Timer.builder("caba.consultas.cache.edad")
+            .description("Antigüedad de los resultados servidos desde la caché")
+            .register(meterRegistry);
+    Gauge.builder("caba.consultas.cache.hit.ratio", this, CacheConsultas::getHitRatio)
+        .description("Fracción de consultas respondidas desde la caché")
+        .register(meterRegistry);
+    Gauge.builder("caba.consultas.cache.entradas", this, CacheConsultas::size)
+        .description("Resultados guardados en la caché de consultas")
+        .register(meterRegistry);
+  }
+
+  // 4. Métodos públicos
+
+  // Resultado guardado para la clave o, si no hay uno vigente, el que calcula 'calcular'. Solo
+  // para resultados inmutables: se devuelve la misma instancia a todas las peticiones
+  public <T> T obtener(
+      Consulta consulta, Long arbitroId, Object desde, Object hasta, Supplier<T> calcular) {
+    return obtener(consulta, arbitroId, desde, hasta, calcular, UnaryOperator.identity());
+  }
+
+  // Igual que el anterior, pero cada llamada recibe 'copiar' del resultado guardado (null se
+  // devuelve tal cual)
+  public <T> T obtener(
+      Consulta consulta,
+      Long arbitroId,
+      Object desde,
+      Object hasta,
+      Supplier<T> calcular,
+      UnaryOperator<T> copiar) {
+    if (!enabled) {
+      return calcular.get();
+    }
+    Clave clave = new Clave(consulta, arbitroId, desde, hasta);
+    long ahora = clock.millis();
+    long generacion;
+    synchronized (this) {
+      Entrada entrada = entradas.get(clave);
+      if (entrada != null && ahora - entrada.calculadoEn < ttlMillis) {
+        hits.get(consulta).increment();
+        edad.record(Duration.ofMillis(ahora - entrada.calculadoEn));
+        @SuppressWarnings("unchecked")
+        T valor = (T) entrada.valor;
+        return valor != null ? copiar.apply(valor) : null;
+      }
+      if (entrada != null) {
+        entradas.remove(clave);
+      }
+      generacion = invalidaciones;
+    }
+    misses.get(consulta).increment();
+    T valor = calcular.get();
+    synchronized (this) {
+      if (generacion == invalidaciones) {
+        entradas.put(clave, new Entrada(valor, ahora));
+        if (entradas.size() > maxEntradas) {
+          Iterator<Clave> masAntigua = entradas.keySet().iterator();
+          masAntigua.next();
+          masAntigua.remove();
+        }
+      }
+    }
+    return valor != null ? copiar.apply(valor) : null;
+  }
+
+  // Borra los resultados que dependen del dato; con arbitroId solo los de ese árbitro y los
+  // globales
+  public synchronized int invalidar(Dato dato, Long arbitroId) {
+    invalidaciones++;
+    invalidacionesPorDato.get(dato).increment();
+    int borradas = 0;
+    Iterator<Clave> it = entradas.keySet().iterator();
+    while (it.hasNext()) {
+      Clave clave = it.next();
+      if (clave.consulta.dependeDe(dato)
+          && (arbitroId == null || clave.arbitroId == null || clave.arbitroId.equals(arbitroId))) {
+        it.remove();
+        borradas++;
+      }
+    }
+    return borradas;
+  }
+
+  // Se invalida tras confirmar la transacción que hizo el cambio (o de inmediato si no había una)
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onAsignacionCambiada(AsignacionCambiadaEvent event) {
+    invalidar(Dato.ASIGNACION, event.getArbitroId());
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onArbitroCambiado(ArbitroCambiadoEvent event) {
+    invalidar(Dato.ARBITRO, event.getArbitroId());
+  }
+
+  public synchronized int size() {
+    return entradas.size();
+  }
+
+  public double getHitRatio() {
+    double aciertos = 0;
+    double total = 0;
+    for (Consulta consulta : Consulta.values()) {
+      aciertos += hits.get(consulta).count();
+      total += hits.get(consulta).count() + misses.get(consulta).count();
+    }
+    return total > 0 ? aciertos / total : 0;
+  }
+
+  // 5. Métodos privados
+
+  private static final class Clave {
+    private final Consulta consulta;
+    private final Long arbitroId;
+    private final Object desde;
+    private final Object hasta;
+
+    private Clave(Consulta consulta, Long arbitroId, Object desde, Object hasta) {
+      this.consulta = consulta;
+      this.arbitroId = arbitroId;
+      this.desde = desde;
+      this.hasta = hasta;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Clave otra)) {
+        return false;
+      }
+      return consulta == otra.consulta
+          && Objects.equals(arbitroId, otra.arbitroId)
+          && Objects.equals(desde, otra.desde)
+          && Objects.equals(hasta, otra.hasta);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(consulta, arbitroId, desde, hasta);
+    }
+  }
+
+  private static final class Entrada {
+    private final Object valor;
+    private final long calculadoEn;
+
+    private Entrada(Object valor, long calculadoEn) {
+      this.valor = valor;
+      this.calculadoEn = calculadoEn;
+    }
+  }
+}
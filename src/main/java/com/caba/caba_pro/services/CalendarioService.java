@@ -10,7 +10,10 @@ import com.caba.caba_pro.models.Arbitro;
 import com.caba.caba_pro.models.Partido;
 import com.caba.caba_pro.repositories.ArbitroRepository;
 import com.caba.caba_pro.repositories.PartidoRepository;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -28,35 +31,78 @@ public class CalendarioService {
   private static final DateTimeFormatter FORMATTER =
       DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
 
+  // Duración asumida de un partido en el calendario
+  private static final int DURACION_HORAS = 2;
+
+  // Sin ventana ni fechas: todos los partidos
+  private static final LocalDateTime SIN_INICIO = LocalDateTime.of(1900, 1, 1, 0, 0);
+  private static final LocalDateTime SIN_FIN = LocalDateTime.of(9999, 12, 31, 0, 0);
+
   // Obtiene todos los eventos para el administrador
   public List<CalendarioDto> obtenerEventosAdmin() {
-    List<Partido> partidos = partidoRepository.findByActivoTrue();
-    return partidos.stream().map(this::convertirPartidoAEvento).collect(Collectors.toList());
+    return convertir(partidoRepository.buscarCalendario(SIN_INICIO, SIN_FIN));
   }
 
   // Obtiene solo los eventos asignados a un árbitro específico
 
   public List<CalendarioDto> obtenerEventosArbitro(String username) {
-    // Buscar árbitro por username
+    return convertir(
+        partidoRepository.buscarCalendarioDeArbitro(
+            buscarArbitro(username).getId(), null, SIN_INICIO, SIN_FIN));
+  }
+
+  /**
+   * Eventos según el rol, filtrados en la consulta por la ventana visible de FullCalendar ({@code
+   * start}/{@code end}, fin exclusivo), el rango de fechas del filtro ({@code fechaInicio}/{@code
+   * fechaFin}, yyyy-MM-dd, ambos inclusive) y el torneo. Un parámetro vacío o que no se puede leer
+   * no filtra.
+   */
+  public List<CalendarioDto> obtenerEventosConFiltros(
+      String username,
+      String rol,
+      String start,
+      String end,
+      String fechaInicio,
+      String fechaFin,
+      Long torneoId) {
+    // Un partido que empezó antes de la ventana todavía se ve si termina dentro de ella
+    LocalDateTime inicioVentana = leerFechaHora(start);
+    LocalDateTime desde =
+        mayor(
+            inicioVentana != null ? inicioVentana.minusHours(DURACION_HORAS) : null,
+            inicioDelDia(leerFecha(fechaInicio), 0));
+    LocalDateTime hasta = menor(leerFechaHora(end), inicioDelDia(leerFecha(fechaFin), 1));
+    if (desde == null) {
+      desde = SIN_INICIO;
+    }
+    if (hasta == null) {
+      hasta = SIN_FIN;
+    }
+
+    List<Partido> partidos;
+    if ("ADMIN".equals(rol)) {
+      partidos =
+          torneoId != null
+              ? partidoRepository.buscarCalendarioDeTorneo(torneoId, desde, hasta)
+              : partidoRepository.buscarCalendario(desde, hasta);
+    } else {
+      partidos =
+          partidoRepository.buscarCalendarioDeArbitro(
+              buscarArbitro(username).getId(), torneoId, desde, hasta);
+    }
+    return convertir(partidos);
+  }
+
+  private Arbitro buscarArbitro(String username) {
     Arbitro arbitro = arbitroRepository.findByUsername(username);
     if (arbitro == null) {
       throw new RuntimeException("Árbitro no encontrado: " + username);
     }
+    return arbitro;
+  }
 
-    // Obtener todos los partidos y filtrar por asignaciones del árbitro
-    List<Partido> todosLosPartidos = partidoRepository.findByActivoTrue();
-    List<Partido> partidosAsignados =
-        todosLosPartidos.stream()
-            .filter(
-                partido ->
-                    partido.getAsignaciones().stream()
-                        .anyMatch(
-                            asignacion -> asignacion.getArbitro().getId().equals(arbitro.getId())))
-            .collect(Collectors.toList());
-
-    return partidosAsignados.stream()
-        .map(this::convertirPartidoAEvento)
-        .collect(Collectors.toList());
+  private List<CalendarioDto> convertir(List<Partido> partidos) {
+    return partidos.stream().map(this::convertirPartidoAEvento).collect(Collectors.toList());
   }
 
   // Convierte un Partido en CalendarioDto para FullCalendar
@@ -64,8 +110,7 @@ public class CalendarioService {
     String id = "partido_" + partido.getId();
     String title = partido.getEquipoLocal() + " vs " + partido.getEquipoVisitante();
     String start = partido.getFechaHora().format(FORMATTER);
-    String end =
-        partido.getFechaHora().plusHours(2).format(FORMATTER); // Asumimos 2 horas de duración
+    String end = partido.getFechaHora().plusHours(DURACION_HORAS).format(FORMATTER);
 
     // Color fijo para todos los partidos
     String color = "#4ea1a5";
@@ -85,72 +130,50 @@ public class CalendarioService {
     return new CalendarioDto(id, title, start, end, color, extendedProps);
   }
 
-  // Obtiene eventos filtrados por fecha y torneo
-  public List<CalendarioDto> obtenerEventosConFiltros(
-      String username, String rol, String fechaInicio, String fechaFin, Long torneoId) {
-    List<CalendarioDto> eventos;
-
-    // Obtener eventos según el rol
-    if ("ADMIN".equals(rol)) {
-      eventos = obtenerEventosAdmin();
-    } else {
-      eventos = obtenerEventosArbitro(username);
+  // Inputs: yyyy-MM-dd
+  private static LocalDate leerFecha(String valor) {
+    if (valor == null || valor.isBlank()) {
+      return null;
+    }
+    try {
+      return LocalDate.parse(valor.trim());
+    } catch (DateTimeParseException e) {
+      return null;
     }
-
-    // Aplicar filtros si se proporcionan
-    return eventos.stream()
-        .filter(evento -> filtrarPorFecha(evento, fechaInicio, fechaFin))
-        .filter(evento -> filtrarPorTorneo(evento, torneoId))
-        .collect(Collectors.toList());
   }
 
-  private boolean filtrarPorFecha(CalendarioDto evento, String fechaInicio, String fechaFin) {
-    if ((fechaInicio == null || fechaInicio.isBlank())
-        && (fechaFin == null || fechaFin.isBlank())) {
-      return true;
+  // FullCalendar envía yyyy-MM-dd o yyyy-MM-ddTHH:mm:ss con o sin zona; los partidos se guardan
+  // en hora local, así que se ignora la zona
+  private static LocalDateTime leerFechaHora(String valor) {
+    if (valor == null || valor.isBlank()) {
+      return null;
     }
-
+    String texto = valor.trim();
     try {
-      // Inputs: yyyy-MM-dd
-      java.time.LocalDate inicio =
-          (fechaInicio == null || fechaInicio.isBlank())
-              ? null
-              : java.time.LocalDate.parse(fechaInicio);
-      java.time.LocalDate fin =
-          (fechaFin == null || fechaFin.isBlank()) ? null : java.time.LocalDate.parse(fechaFin);
-
-      // Evento empieza en: yyyy-MM-dd'T'HH:mm:ss
-      String start = evento.getStart();
-      java.time.LocalDate fechaEvento =
-          java.time.LocalDate.parse(start.substring(0, Math.min(start.length(), 10)));
-
-      return ((inicio == null) || !fechaEvento.isBefore(inicio))
-          && ((fin == null) || !fechaEvento.isAfter(fin));
-    } catch (Exception e) {
-      // Si hay cualquier problema de parseo, no filtrar ese evento
-      return true;
+      if (texto.length() >= 19) {
+        return LocalDateTime.parse(texto.substring(0, 19));
+      }
+      return LocalDate.parse(texto.substring(0, Math.min(texto.length(), 10))).atStartOfDay();
+    } catch (DateTimeParseException e) {
+      return null;
     }
   }
 
-  private boolean filtrarPorTorneo(CalendarioDto evento, Long torneoId) {
-    if (torneoId == null) return true;
+  private static LocalDateTime inicioDelDia(LocalDate fecha, int diasDespues) {
+    return fecha != null ? fecha.plusDays(diasDespues).atStartOfDay() : null;
+  }
 
-    Map<String, Object> props = evento.getExtendedProps();
-    if (props != null && props.containsKey("torneoId")) {
-      Object valor = props.get("torneoId");
-      if (valor == null) return false;
-      if (valor instanceof Number n) {
-        return torneoId.equals(n.longValue());
-      }
-      if (valor instanceof String s) {
-        try {
-          return torneoId.equals(Long.valueOf(s));
-        } catch (NumberFormatException ignored) {
-          return false;
-        }
-      }
-      return false;
+  private static LocalDateTime mayor(LocalDateTime a, LocalDateTime b) {
+    if (a == null || b == null) {
+      return a != null ? a : b;
+    }
+    return a.isAfter(b) ? a : b;
+  }
+
+  private static LocalDateTime menor(LocalDateTime a, LocalDateTime b) {
+    if (a == null || b == null) {
+      return a != null ? a : b;
     }
-    return false;
+    return a.isBefore(b) ? a : b;
   }
 }
@@ -0,0 +1,40 @@
+/**
+ * Archivo: ChatArchiveJob.java Autores: Diego.Gonzalez Fecha última modificación: [17.10.2026]
+ * Descripción: Tarea programada que comprime los segmentos de chat antiguos Proyecto: CABA Pro -
+ * Sistema de Gestión Integral de Arbitraje
+ */
+package com.caba.caba_pro.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Archiva periódicamente las conversaciones antiguas (ver {@link
+ * JsonStorageService#archiveOldConversations()}) para que el almacenamiento activo de chats se
+ * mantenga pequeño. La frecuencia se define con {@code caba-pro.chat.archive-cron}.
+ */
+@Component
+public class ChatArchiveJob {
+
+  private static final Logger logger = LoggerFactory.getLogger(ChatArchiveJob.class);
+
+  private final JsonStorageService jsonStorageService;
+
+  public ChatArchiveJob(JsonStorageService jsonStorageService) {
+    this.jsonStorageService = jsonStorageService;
+  }
+
+  @Scheduled(cron = "${caba-pro.chat.archive-cron:0 30 3 * * *}")
+  public void archiveOldConversations() {
+    long start = System.currentTimeMillis();
+    long archived = jsonStorageService.archiveOldConversations();
+    if (archived > 0) {
+      logger.info(
+          "✅ {} mensajes de chat archivados en {} ms",
+          archived,
+          System.currentTimeMillis() - start);
+    }
+  }
+}
@@ -0,0 +1,312 @@
+/**
+ * Archivo: ChatConversationIndex.java Autores: Diego.Gonzalez Fecha última modificación:
+ * [17.10.2026] Descripción: Índice persistente de conversaciones de chat por administrador y
+ * árbitro Proyecto: CABA Pro - Sistema de Gestión Integral de Arbitraje
+ */
+package com.caba.caba_pro.services;
+
+import com.caba.caba_pro.DTOs.ChatMessageDto;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Resumen de cada conversación (último mensaje, vista previa y no leídos por lado) para listar los
+ * chats de un usuario sin recorrer el directorio de chats. Se mantiene en memoria y se guarda en
+ * {@code index/admin<id>.json}, un archivo por administrador que solo se reescribe cuando alguna de
+ * sus conversaciones cambió. También lleva el total de no leídos de cada usuario, para responderlo
+ * sin sumar sus conversaciones.
+ */
+public class ChatConversationIndex {
+
+  // 1. Constantes estáticas
+  private static final Pattern INDEX_FILE = Pattern.compile("admin(\\d+)\\.json");
+  private static final int PREVIEW_MAX = 80;
+
+  // 2. Variables de instancia
+  private final Path indexDirectory;
+  private final ObjectMapper objectMapper;
+  private final Map<Long, Map<Long, ConversationSummary>> byAdmin = new HashMap<>();
+  private final Map<Long, Set<Long>> adminsByArbitro = new HashMap<>();
+  private final Map<Long, Integer> unreadTotalByAdmin = new HashMap<>();
+  private final Map<Long, Integer> unreadTotalByArbitro = new HashMap<>();
+  private final Set<Long> dirtyAdmins = new HashSet<>();
+
+  // 3. Constructores
+  public ChatConversationIndex(Path indexDirectory, ObjectMapper objectMapper) {
+    this.indexDirectory = indexDirectory;
+    this.objectMapper = objectMapper;
+  }
+
+  // 4. Métodos públicos
+
+  public boolean existsOnDisk() {
+    return Files.isDirectory(indexDirectory);
+  }
+
+  // Carga los archivos del índice en memoria
+  public synchronized void load() throws IOException {
+    if (!existsOnDisk()) {
+      return;
+    }
+    try (Stream<Path> files = Files.list(indexDirectory)) {
+      for (Path file : files.toList()) {
+        Matcher matcher = INDEX_FILE.matcher(file.getFileName().toString());
+        if (!matcher.matches()) {
+          continue;
+        }
+        List<ConversationSummary> summaries =
+            objectMapper.readValue(
+                file.toFile(), new TypeReference<List<ConversationSummary>>() {});
+        for (ConversationSummary summary : summaries) {
+          register(summary);
+        }
+      }
+    }
+  }
+
+  // Actualiza el resumen con mensajes recién escritos (ya con id asignado)
+  public synchronized void onAppend(Long adminId, Long arbitroId, List<ChatMessageDto> messages) {
+    if (messages.isEmpty()) {
+      return;
+    }
+    ConversationSummary summary = getOrCreate(adminId, arbitroId);
+    for (ChatMessageDto message : messages) {
+      if ("ADMIN".equals(message.getRemitente())) {
+        summary.unreadArbitro++;
+        unreadTotalByArbitro.merge(arbitroId, 1, Integer::sum);
+      } else {
+        summary.unreadAdmin++;
+        unreadTotalByAdmin.merge(adminId, 1, Integer::sum);
+      }
+    }
+    ChatMessageDto last = messages.get(messages.size() - 1);
+    summary.messageCount = last.getId() != null ? last.getId() : summary.messageCount;
+    summary.lastMessageAt = last.getTimestamp();
+    summary.lastSender = last.getRemitente();
+    summary.lastPreview = preview(last.getContent());
+    dirtyAdmins.add(adminId);
+  }
+
+  // Deja en cero los no leídos de un lado; devuelve cuántos había
+  public synchronized int markRead(Long adminId, Long arbitroId, boolean readByAdmin) {
+    Map<Long, ConversationSummary> conversations = byAdmin.get(adminId);
+    ConversationSummary summary = conversations != null ? conversations.get(arbitroId) : null;
+    if (summary == null) {
+      return 0;
+    }
+    int unread = readByAdmin ? summary.unreadAdmin : summary.unreadArbitro;
+    if (unread == 0) {
+      return 0;
+    }
+    if (readByAdmin) {
+      summary.unreadAdmin = 0;
+      unreadTotalByAdmin.merge(adminId, -unread, Integer::sum);
+    } else {
+      summary.unreadArbitro = 0;
+      unreadTotalByArbitro.merge(arbitroId, -unread, Integer::sum);
+    }
+    dirtyAdmins.add(adminId);
+    return unread;
+  }
+
+  // Total de mensajes sin leer de un administrador en todas sus conversaciones
+  public synchronized int unreadTotalForAdmin(Long adminId) {
+    return unreadTotalByAdmin.getOrDefault(adminId, 0);
+  }
+
+  // Total de mensajes sin leer de un árbitro en todas sus conversaciones
+  public synchronized int unreadTotalForArbitro(Long arbitroId) {
+    return unreadTotalByArbitro.getOrDefault(arbitroId, 0);
+  }
+
+  // Conversaciones de un administrador, la más reciente primero
+  public synchronized List<ConversationSummary> forAdmin(Long adminId) {
+    Map<Long, ConversationSummary> conversations = byAdmin.getOrDefault(adminId, Map.of());
+    return sortedCopies(conversations.values());
+  }
+
+  // Conversaciones de un árbitro, la más reciente primero
+  public synchronized List<ConversationSummary> forArbitro(Long arbitroId) {
+    List<ConversationSummary> summaries = new ArrayList<>();
+    for (Long adminId : adminsByArbitro.getOrDefault(arbitroId, Set.of())) {
+      summaries.add(byAdmin.get(adminId).get(arbitroId));
+    }
+    return sortedCopies(summaries);
+  }
+
+  // Reemplaza el resumen de una conversación (usado al reconstruir el índice)
+  public synchronized void put(ConversationSummary summary) {
+    register(summary);
+    dirtyAdmins.add(summary.adminId);
+  }
+
+  // Reescribe los archivos de los administradores con cambios pendientes
+  public synchronized void flush() throws IOException {
+    if (dirtyAdmins.isEmpty()) {
+      return;
+    }
+    Files.createDirectories(indexDirectory);
+    for (Long adminId : dirtyAdmins) {
+      Path file = indexDirectory.resolve("admin" + adminId + ".json");
+      Path tmp = indexDirectory.resolve("admin" + adminId + ".json.tmp");
+      objectMapper.writeValue(tmp.toFile(), new ArrayList<>(byAdmin.get(adminId).values()));
+      Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+    dirtyAdmins.clear();
+  }
+
+  // 5. Métodos privados
+
+  private ConversationSummary getOrCreate(Long adminId, Long arbitroId) {
+    Map<Long, ConversationSummary> conversations =
+        byAdmin.computeIfAbsent(adminId, id -> new HashMap<>());
+    ConversationSummary summary = conversations.get(arbitroId);
+    if (summary == null) {
+      summary = new ConversationSummary();
+      summary.adminId = adminId;
+      summary.arbitroId = arbitroId;
+      register(summary);
+    }
+    return summary;
+  }
+
+  private void register(ConversationSummary summary) {
+    ConversationSummary previous =
+        byAdmin
+            .computeIfAbsent(summary.adminId, id -> new HashMap<>())
+            .put(summary.arbitroId, summary);
+    if (previous != null) {
+      unreadTotalByAdmin.merge(previous.adminId, -previous.unreadAdmin, Integer::sum);
+      unreadTotalByArbitro.merge(previous.arbitroId, -previous.unreadArbitro, Integer::sum);
+    }
+    unreadTotalByAdmin.merge(summary.adminId, summary.unreadAdmin, Integer::sum);
+    unreadTotalByArbitro.merge(summary.arbitroId, summary.unreadArbitro, Integer::sum);
+    adminsByArbitro.computeIfAbsent(summary.arbitroId, id -> new HashSet<>()).add(summary.adminId);
+  }
+
+  private static List<ConversationSummary> sortedCopies(Iterable<ConversationSummary> summaries) {
+    List<ConversationSummary> copies = new ArrayList<>();
+    for (ConversationSummary summary : summaries) {
+      copies.add(summary.copy());
+    }
+    copies.sort(
+        Comparator.comparing(
+                ConversationSummary::getLastMessageAt,
+                Comparator.nullsLast(Comparator.<LocalDateTime>naturalOrder()))
+            .reversed());
+    return copies;
+  }
+
+  static String preview(String content) {
+    if (content == null) {
+      return null;
+    }
+    return content.length() <= PREVIEW_MAX ? content : content.substring(0, PREVIEW_MAX) + "…";
+  }
+
+  /** Resumen de una conversación admin-árbitro. */
+  public static class ConversationSummary {
+    private Long adminId;
+    private Long arbitroId;
+    private long messageCount;
+    private LocalDateTime lastMessageAt;
+    private String lastSender;
+    private String lastPreview;
+    private int unreadAdmin;
+    private int unreadArbitro;
+
+    public ConversationSummary() {}
+
+    ConversationSummary copy() {
+      ConversationSummary copy = new ConversationSummary();
+      copy.adminId = adminId;
+      copy.arbitroId = arbitroId;
+      copy.messageCount = messageCount;
+      copy.lastMessageAt = lastMessageAt;
+      copy.lastSender = lastSender;
+      copy.lastPreview = lastPreview;
+      copy.unreadAdmin = unreadAdmin;
+      copy.unreadArbitro = unreadArbitro;
+      return copy;
+    }
+
+    public Long getAdminId() {
+      return adminId;
+    }
+
+    public void setAdminId(Long adminId) {
+      this.adminId = adminId;
+    }
+
+    public Long getArbitroId() {
+      return arbitroId;
+    }
+
+    public void setArbitroId(Long arbitroId) {
+      this.arbitroId = arbitroId;
+    }
+
+    public long getMessageCount() {
+      return messageCount;
+    }
+
+    public void setMessageCount(long messageCount) {
+      this.messageCount = messageCount;
+    }
+
+    public LocalDateTime getLastMessageAt() {
+      return lastMessageAt;
+    }
+
+    public void setLastMessageAt(LocalDateTime lastMessageAt) {
+      this.lastMessageAt = lastMessageAt;
+    }
+
+    public String getLastSender() {
+      return lastSender;
+    }
+
+    public void setLastSender(String lastSender) {
+      this.lastSender = lastSender;
+    }
+
+    public String getLastPreview() {
+      return lastPreview;
+    }
+
+    public void setLastPreview(String lastPreview) {
+      this.lastPreview = lastPreview;
+    }
+
+    public int getUnreadAdmin() {
+      return unreadAdmin;
+    }
+
+    public void setUnreadAdmin(int unreadAdmin) {
+      this.unreadAdmin = unreadAdmin;
+    }
+
+    public int getUnreadArbitro() {
+      return unreadArbitro;
+    }
+
+    public void setUnreadArbitro(int unreadArbitro) {
+      this.unreadArbitro = unreadArbitro;
+    }
+  }
+}
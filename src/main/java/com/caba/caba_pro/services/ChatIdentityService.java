@@ -0,0 +1,103 @@
+/**
+ * Archivo: ChatIdentityService.java Autores: Diego.Gonzalez Fecha última modificación: [17.10.2026]
+ * Descripción: Resolución y caché de la identidad de los usuarios del chat Proyecto: CABA Pro -
+ * Sistema de Gestión Integral de Arbitraje
+ */
+package com.caba.caba_pro.services;
+
+import com.caba.caba_pro.models.Administrador;
+import com.caba.caba_pro.models.Arbitro;
+import com.caba.caba_pro.repositories.AdministradorRepository;
+import com.caba.caba_pro.repositories.ArbitroRepository;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.stereotype.Service;
+
+/**
+ * Resuelve quién es un usuario del chat (rol e id) y qué username tiene cada id, para que enviar un
+ * mensaje no consulte la base de datos.
+ *
+ * <p>La identidad del remitente se resuelve una vez al conectar por STOMP y se guarda en los
+ * atributos de la sesión WebSocket ({@link #SESSION_ATTRIBUTE}). El username del destinatario sale
+ * de una caché id → username que se refresca cada vez que ese usuario se conecta, así que un cambio
+ * de username se ve en cuanto el usuario vuelve a iniciar sesión.
+ */
+@Service
+public class ChatIdentityService {
+
+  // 1. Constantes estáticas
+  public static final String SESSION_ATTRIBUTE = "chatIdentity";
+  public static final String ROLE_ADMIN = "ADMIN";
+  public static final String ROLE_ARBITRO = "ARBITRO";
+
+  // 2. Variables de instancia
+  private final AdministradorRepository administradorRepository;
+  private final ArbitroRepository arbitroRepository;
+  private final Map<Long, String> adminUsernames = new ConcurrentHashMap<>();
+  private final Map<Long, String> arbitroUsernames = new ConcurrentHashMap<>();
+
+  // 3. Constructor
+  public ChatIdentityService(
+      AdministradorRepository administradorRepository, ArbitroRepository arbitroRepository) {
+    this.administradorRepository = administradorRepository;
+    this.arbitroRepository = arbitroRepository;
+  }
+
+  // 4. Métodos públicos
+
+  // Busca al usuario en la base de datos (admin primero); null si no es admin ni árbitro
+  public ChatIdentity resolve(String username) {
+    Administrador admin = administradorRepository.findByUsername(username);
+    if (admin != null) {
+      adminUsernames.put(admin.getId(), admin.getUsername());
+      return new ChatIdentity(ROLE_ADMIN, admin.getId(), admin.getUsername());
+    }
+    Arbitro arbitro = arbitroRepository.findByUsername(username);
+    if (arbitro != null) {
+      arbitroUsernames.put(arbitro.getId(), arbitro.getUsername());
+      return new ChatIdentity(ROLE_ARBITRO, arbitro.getId(), arbitro.getUsername());
+    }
+    return null;
+  }
+
+  // Username de un usuario por rol e id; solo consulta la base de datos la primera vez
+  public String usernameOf(String role, Long id) {
+    if (ROLE_ADMIN.equals(role)) {
+      return adminUsernames.computeIfAbsent(
+          id,
+          key ->
+              administradorRepository.findById(key).map(Administrador::getUsername).orElse(null));
+    }
+    return arbitroUsernames.computeIfAbsent(
+        id, key -> arbitroRepository.findById(key).map(Arbitro::getUsername).orElse(null));
+  }
+
+  /** Identidad resuelta de un usuario del chat. */
+  public static final class ChatIdentity {
+    private final String role;
+    private final Long id;
+    private final String username;
+
+    public ChatIdentity(String role, Long id, String username) {
+      this.role = role;
+      this.id = id;
+      this.username = username;
+    }
+
+    public boolean isAdmin() {
+      return ROLE_ADMIN.equals(role);
+    }
+
+    public String getRole() {
+      return role;
+    }
+
+    public Long getId() {
+      return id;
+    }
+
+    public String getUsername() {
+      return username;
+    }
+  }
+}
@@ -0,0 +1,217 @@
+/**
+ * Archivo: ChatMessageCodec.java Autores: Diego.Gonzalez Fecha última modificación: [17.10.2026]
+ * Descripción: Codificación de los mensajes de chat guardados en los segmentos (JSON, Smile o
+ * binario) Proyecto: CABA Pro - Sistema de Gestión Integral de Arbitraje
+ */
+package com.caba.caba_pro.services;
+
+import com.caba.caba_pro.DTOs.ChatMessageDto;
+import com.caba.caba_pro.config.ChatStorageProperties.Codec;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Convierte un {@link ChatMessageDto} en el payload de una trama y viceversa.
+ *
+ * <p>Los mensajes nuevos se escriben en el formato configurado. Al leer, el formato se detecta por
+ * el primer byte (JSON empieza con {@code '{'}, Smile con la cabecera {@code ":)\n"} y el binario
+ * propio con {@link #BINARY_MAGIC}), de modo que un log puede mezclar formatos tras un cambio de
+ * configuración.
+ *
+ * <p>El formato binario no guarda nombres de campo: tras la marca y la versión van, en orden, id,
+ * remitente, destinatario, contenido, fecha (segundos UTC y nanos), senderId y senderUsername.
+ * Enteros como varint (0 = null, n + 1 = n) y textos como longitud varint (0 = null) más UTF-8.
+ *
+ * <p>En JSON y Smile se omiten los campos nulos y el alias {@code contenido}, que duplica {@code
+ * content}; al leer se sigue aceptando para los mensajes guardados antes del cambio.
+ */
+public class ChatMessageCodec {
+
+  private static final byte[] SMILE_HEADER = {':', ')', '\n'};
+  static final byte BINARY_MAGIC = (byte) 0xCB;
+  private static final byte BINARY_VERSION = 1;
+
+  private final Codec format;
+  private final ObjectReader jsonReader;
+  private final ObjectReader smileReader;
+  private final ObjectWriter writer;
+
+  public ChatMessageCodec(Codec format) {
+    this.format = format;
+    ObjectMapper json = configure(new ObjectMapper());
+    ObjectMapper smile = configure(new SmileMapper());
+    this.jsonReader = json.readerFor(ChatMessageDto.class);
+    this.smileReader = smile.readerFor(ChatMessageDto.class);
+    this.writer = (format == Codec.JSON ? json : smile).writerFor(ChatMessageDto.class);
+  }
+
+  public Codec getFormat() {
+    return format;
+  }
+
+  public byte[] encode(ChatMessageDto message) throws IOException {
+    if (format == Codec.BINARY) {
+      return encodeBinary(message);
+    }
+    return writer.writeValueAsBytes(message);
+  }
+
+  public ChatMessageDto decode(byte[] payload) throws IOException {
+    if (payload.length > 0 && payload[0] == BINARY_MAGIC) {
+      return decodeBinary(payload);
+    }
+    return isSmile(payload) ? smileReader.readValue(payload) : jsonReader.readValue(payload);
+  }
+
+  private static byte[] encodeBinary(ChatMessageDto message) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(64 + length(message.getContent()) * 3);
+    out.write(BINARY_MAGIC);
+    out.write(BINARY_VERSION);
+    writeNullableLong(out, message.getId());
+    writeString(out, message.getRemitente());
+    writeString(out, message.getDestinatario());
+    writeString(out, message.getContent());
+    LocalDateTime timestamp = message.getTimestamp();
+    if (timestamp == null) {
+      writeVarLong(out, 0);
+    } else {
+      writeVarLong(out, 1);
+      writeVarLong(out, zigZag(timestamp.toEpochSecond(ZoneOffset.UTC)));
+      writeVarLong(out, timestamp.getNano());
+    }
+    writeNullableLong(out, message.getSenderId());
+    writeString(out, message.getSenderUsername());
+    return out.toByteArray();
+  }
+
+  private static ChatMessageDto decodeBinary(byte[] payload) throws IOException {
+    Cursor in = new Cursor(payload);
+    in.position = 1;
+    int version = payload.length > 1 ? payload[in.position++] : -1;
+    if (version != BINARY_VERSION) {
+      throw new IOException("Versión de mensaje binario no soportada: " + version);
+    }
+    ChatMessageDto message = new ChatMessageDto();
+    message.setId(readNullableLong(in));
+    message.setRemitente(readString(in));
+    message.setDestinatario(readString(in));
+    message.setContent(readString(in));
+    if (readVarLong(in) != 0) {
+      long epochSecond = unZigZag(readVarLong(in));
+      int nano = (int) readVarLong(in);
+      message.setTimestamp(LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC));
+    }
+    message.setSenderId(readNullableLong(in));
+    message.setSenderUsername(readString(in));
+    return message;
+  }
+
+  private static void writeNullableLong(ByteArrayOutputStream out, Long value) {
+    writeVarLong(out, value == null ? 0 : zigZag(value) + 1);
+  }
+
+  private static Long readNullableLong(Cursor in) throws IOException {
+    long raw = readVarLong(in);
+    return raw == 0 ? null : unZigZag(raw - 1);
+  }
+
+  private static void writeString(ByteArrayOutputStream out, String value) {
+    if (value == null) {
+      writeVarLong(out, 0);
+      return;
+    }
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    writeVarLong(out, bytes.length + 1L);
+    out.write(bytes, 0, bytes.length);
+  }
+
+  private static String readString(Cursor in) throws IOException {
+    long raw = readVarLong(in);
+    if (raw == 0) {
+      return null;
+    }
+    int length = (int) (raw - 1);
+    if (length < 0 || in.position + length > in.bytes.length) {
+      throw new IOException("Texto fuera de los límites del mensaje");
+    }
+    String value = new String(in.bytes, in.position, length, StandardCharsets.UTF_8);
+    in.position += length;
+    return value;
+  }
+
+  private static void writeVarLong(ByteArrayOutputStream out, long value) {
+    while ((value & ~0x7FL) != 0) {
+      out.write((int) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    out.write((int) value);
+  }
+
+  private static long readVarLong(Cursor in) throws IOException {
+    long value = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      if (in.position >= in.bytes.length) {
+        throw new IOException("Mensaje binario truncado");
+      }
+      byte b = in.bytes[in.position++];
+      value |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new IOException("Varint demasiado largo");
+  }
+
+  private static long zigZag(long value) {
+    return (value << 1) ^ (value >> 63);
+  }
+
+  private static long unZigZag(long value) {
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  private static int length(String value) {
+    return value != null ? value.length() : 0;
+  }
+
+  private static boolean isSmile(byte[] payload) {
+    if (payload.length < SMILE_HEADER.length) {
+      return false;
+    }
+    for (int i = 0; i < SMILE_HEADER.length; i++) {
+      if (payload[i] != SMILE_HEADER[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static ObjectMapper configure(ObjectMapper mapper) {
+    mapper.registerModule(new JavaTimeModule());
+    mapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+    mapper.addMixIn(ChatMessageDto.class, StoredMessageMixin.class);
+    return mapper;
+  }
+
+  private static final class Cursor {
+    private final byte[] bytes;
+    private int position;
+
+    private Cursor(byte[] bytes) {
+      this.bytes = bytes;
+    }
+  }
+
+  @JsonIgnoreProperties(value = "contenido", allowSetters = true)
+  private abstract static class StoredMessageMixin {}
+}
@@ -0,0 +1,158 @@
+/**
+ * Archivo: ChatPresenceService.java Autores: Diego.Gonzalez Fecha última modificación: 17.10.2026
+ * Descripción: Estado de conexión de los usuarios del chat a partir de los eventos STOMP Proyecto:
+ * CABA Pro - Sistema de Gestión Integral de Arbitraje
+ */
+package com.caba.caba_pro.services;
+
+import com.caba.caba_pro.DTOs.ChatPresenceDto;
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+/**
+ * Sabe quién está conectado al chat contando las sesiones STOMP de cada usuario: pasa a conectado
+ * con la primera sesión y a desconectado al cerrar la última, así que abrir otra pestaña no genera
+ * avisos. En cada cambio envía un {@link ChatPresenceDto} por {@code /user/queue/presence} a los
+ * usuarios conectados del otro rol (los administradores ven a los árbitros y viceversa); el estado
+ * inicial se pide una vez con {@link #getOnlineCounterparts}.
+ *
+ * <p>Solo ve las sesiones de este nodo: con el broker en modo relay, cada nodo avisa de los
+ * usuarios que tiene conectados.
+ */
+@Service
+public class ChatPresenceService {
+
+  // 1. Constantes estáticas
+  private static final Logger logger = LoggerFactory.getLogger(ChatPresenceService.class);
+  public static final String PRESENCE_QUEUE = "/queue/presence";
+
+  // 2. Variables de instancia
+  private final ChatIdentityService chatIdentityService;
+  private final SimpMessagingTemplate messagingTemplate;
+  private final Map<String, String> usernameBySession = new HashMap<>();
+  private final Map<String, Integer> sessionCounts = new HashMap<>();
+  private final Map<String, ChatIdentityService.ChatIdentity> online = new HashMap<>();
+
+  // 3. Constructor
+  public ChatPresenceService(
+      ChatIdentityService chatIdentityService, SimpMessagingTemplate messagingTemplate) {
+    this.chatIdentityService = chatIdentityService;
+    this.messagingTemplate = messagingTemplate;
+  }
+
+  // 4. Métodos públicos
+
+  @EventListener
+  public void onConnected(SessionConnectedEvent event) {
+    Principal user = event.getUser();
+    String sessionId = SimpMessageHeaderAccessor.getSessionId(event.getMessage().getHeaders());
+    if (user == null || sessionId == null) {
+      return;
+    }
+    ChatIdentityService.ChatIdentity identity = identityOf(event.getMessage(), user.getName());
+    if (identity == null) {
+      return;
+    }
+    synchronized (this) {
+      if (usernameBySession.putIfAbsent(sessionId, identity.getUsername()) != null
+          || sessionCounts.merge(identity.getUsername(), 1, Integer::sum) > 1) {
+        return;
+      }
+      online.put(identity.getUsername(), identity);
+    }
+    notifyCounterparts(identity, true);
+  }
+
+  @EventListener
+  public void onDisconnected(SessionDisconnectEvent event) {
+    ChatIdentityService.ChatIdentity identity;
+    synchronized (this) {
+      String username = usernameBySession.remove(event.getSessionId());
+      if (username == null) {
+        return; // Spring puede publicar el cierre de una sesión más de una vez
+      }
+      if (sessionCounts.merge(username, -1, Integer::sum) > 0) {
+        return;
+      }
+      sessionCounts.remove(username);
+      identity = online.remove(username);
+    }
+    if (identity != null) {
+      notifyCounterparts(identity, false);
+    }
+  }
+
+  // Usuarios del otro rol conectados ahora mismo (estado inicial antes de recibir los avisos)
+  public List<ChatPresenceDto> getOnlineCounterparts(String username) {
+    ChatIdentityService.ChatIdentity identity = chatIdentityService.resolve(username);
+    if (identity == null) {
+      return List.of();
+    }
+    List<ChatPresenceDto> counterparts = new ArrayList<>();
+    for (ChatIdentityService.ChatIdentity other : onlineSnapshot()) {
+      if (other.isAdmin() != identity.isAdmin()) {
+        counterparts.add(toDto(other, true));
+      }
+    }
+    return counterparts;
+  }
+
+  public synchronized boolean isOnline(String username) {
+    return online.containsKey(username);
+  }
+
+  // 5. Métodos privados
+
+  private void notifyCounterparts(ChatIdentityService.ChatIdentity identity, boolean isOnline) {
+    ChatPresenceDto presence = toDto(identity, isOnline);
+    for (ChatIdentityService.ChatIdentity other : onlineSnapshot()) {
+      if (other.isAdmin() == identity.isAdmin()) {
+        continue;
+      }
+      try {
+        messagingTemplate.convertAndSendToUser(other.getUsername(), PRESENCE_QUEUE, presence);
+      } catch (Exception e) {
+        logger.warn("No se pudo avisar la conexión a {}: {}", other.getUsername(), e.getMessage());
+      }
+    }
+  }
+
+  private synchronized List<ChatIdentityService.ChatIdentity> onlineSnapshot() {
+    return new ArrayList<>(online.values());
+  }
+
+  // La identidad ya resuelta al conectar (atributos de la sesión) o, si falta, desde la base
+  private ChatIdentityService.ChatIdentity identityOf(Message<?> connectAck, String username) {
+    Object connect = connectAck.getHeaders().get(SimpMessageHeaderAccessor.CONNECT_MESSAGE_HEADER);
+    if (connect instanceof Message<?> connectMessage) {
+      Map<String, Object> attributes =
+          SimpMessageHeaderAccessor.getSessionAttributes(connectMessage.getHeaders());
+      Object identity =
+          attributes != null ? attributes.get(ChatIdentityService.SESSION_ATTRIBUTE) : null;
+      if (identity instanceof ChatIdentityService.ChatIdentity chatIdentity) {
+        return chatIdentity;
+      }
+    }
+    return chatIdentityService.resolve(username);
+  }
+
+  private static ChatPresenceDto toDto(ChatIdentityService.ChatIdentity identity, boolean online) {
+    return new ChatPresenceDto(
+        identity.isAdmin() ? ChatIdentityService.ROLE_ADMIN : ChatIdentityService.ROLE_ARBITRO,
+        identity.getId(),
+        identity.getUsername(),
+        online);
+  }
+}
@@ -0,0 +1,347 @@
+/**
+ * Archivo: ChatSearchIndex.java Autores: Diego.Gonzalez Fecha última modificación: [17.10.2026]
+ * Descripción: Índice invertido en memoria para la búsqueda de texto en los mensajes de chat
+ * Proyecto: CABA Pro - Sistema de Gestión Integral de Arbitraje
+ */
+package com.caba.caba_pro.services;
+
+import com.caba.caba_pro.DTOs.ChatMessageDto;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Índice invertido token → mensajes. Cada posting es un {@code long} con el ordinal de la
+ * conversación en los 24 bits altos y el id del mensaje en los 40 bajos, guardado en arreglos que
+ * crecen al anexar; así un millón de mensajes ocupa unas decenas de MB y una búsqueda solo recorre
+ * las listas de los tokens consultados.
+ *
+ * <p>Los tokens se normalizan (minúsculas, sin tildes) y se descartan palabras vacías muy
+ * frecuentes. El ranking suma el idf de cada token encontrado y desempata por el mensaje más
+ * reciente; los tokens presentes en más del 5% de los mensajes no agregan candidatos nuevos si los
+ * tokens más raros ya dieron suficientes.
+ *
+ * <p>Se actualiza al anexar mensajes ({@link #add}) y se guarda en disco al detener la aplicación,
+ * junto con el último id indexado de cada conversación, de modo que al iniciar solo hay que indexar
+ * lo que llegó después.
+ */
+public class ChatSearchIndex {
+
+  // 1. Constantes estáticas
+  private static final int SNAPSHOT_MAGIC = 0x43485358; // "CHSX"
+  private static final int SNAPSHOT_VERSION = 1;
+  private static final int MESSAGE_BITS = 40;
+  private static final long MESSAGE_MASK = (1L << MESSAGE_BITS) - 1;
+  private static final double COMMON_TOKEN_RATIO = 0.05;
+  private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+  private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+  private static final Set<String> STOPWORDS =
+      Set.of(
+          "a", "al", "con", "de", "del", "el", "en", "es", "la", "las", "lo", "los", "me", "mi",
+          "no", "o", "para", "por", "que", "se", "su", "te", "un", "una", "y", "ya");
+
+  // 2. Variables de instancia
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final Map<String, Postings> postings = new HashMap<>();
+  private final Map<String, Integer> ordinals = new HashMap<>();
+  private final List<String> conversations = new ArrayList<>();
+  private final List<Long> indexedUpTo = new ArrayList<>();
+  private long messageCount;
+  private boolean dirty;
+
+  // 4. Métodos públicos
+
+  // Indexa mensajes recién anexados (con id); ignora los ya indexados
+  public void add(String conversationKey, List<ChatMessageDto> messages) {
+    lock.writeLock().lock();
+    try {
+      int ordinal = ordinal(conversationKey);
+      long upTo = indexedUpTo.get(ordinal);
+      for (ChatMessageDto message : messages) {
+        if (message.getId() == null || message.getId() <= upTo) {
+          continue;
+        }
+        long posting = ((long) ordinal << MESSAGE_BITS) | message.getId();
+        for (String token : tokenize(message.getContent())) {
+          postings.computeIfAbsent(token, t -> new Postings()).add(posting);
+        }
+        upTo = message.getId();
+        messageCount++;
+      }
+      indexedUpTo.set(ordinal, upTo);
+      dirty = true;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  // Último id indexado de la conversación (0 si no tiene ninguno)
+  public long indexedUpTo(String conversationKey) {
+    lock.readLock().lock();
+    try {
+      Integer ordinal = ordinals.get(conversationKey);
+      return ordinal != null ? indexedUpTo.get(ordinal) : 0;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  // Mejores 'limit' mensajes para la consulta entre las conversaciones que acepta el filtro
+  public List<Hit> search(String query, ConversationFilter filter, int limit) {
+    Set<String> tokens = tokenize(query);
+    if (tokens.isEmpty() || limit <= 0) {
+      return List.of();
+    }
+    lock.readLock().lock();
+    try {
+      boolean[] allowed = new boolean[conversations.size()];
+      for (int i = 0; i < allowed.length; i++) {
+        allowed[i] = filter.accept(conversations.get(i));
+      }
+      // Tokens del más raro al más común. Los muy comunes solo suman puntos a candidatos ya
+      // encontrados, salvo que falten candidatos para llenar 'limit'
+      List<Postings> lists = new ArrayList<>();
+      for (String token : tokens) {
+        Postings list = postings.get(token);
+        if (list != null) {
+          lists.add(list);
+        }
+      }
+      lists.sort(Comparator.comparingInt(list -> list.size));
+      Map<Long, Double> scores = new HashMap<>();
+      for (Postings list : lists) {
+        double idf = Math.log(1.0 + (double) messageCount / list.size);
+        boolean boostOnly = list.size > messageCount * COMMON_TOKEN_RATIO && scores.size() >= limit;
+        for (int i = 0; i < list.size; i++) {
+          long posting = list.values[i];
+          if (!allowed[(int) (posting >>> MESSAGE_BITS)]) {
+            continue;
+          }
+          if (boostOnly) {
+            scores.computeIfPresent(posting, (key, score) -> score + idf);
+          } else {
+            scores.merge(posting, idf, Double::sum);
+          }
+        }
+      }
+
+      // Top-k con un montículo de tamaño 'limit'
+      Comparator<Map.Entry<Long, Double>> ranking =
+          Map.Entry.<Long, Double>comparingByValue()
+              .thenComparing(entry -> entry.getKey() & MESSAGE_MASK);
+      PriorityQueue<Map.Entry<Long, Double>> top = new PriorityQueue<>(ranking);
+      for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+        top.offer(entry);
+        if (top.size() > limit) {
+          top.poll();
+        }
+      }
+      List<Hit> hits = new ArrayList<>(top.size());
+      while (!top.isEmpty()) {
+        Map.Entry<Long, Double> entry = top.poll();
+        long posting = entry.getKey();
+        hits.add(
+            new Hit(
+                conversations.get((int) (posting >>> MESSAGE_BITS)),
+                posting & MESSAGE_MASK,
+                entry.getValue()));
+      }
+      Collections.reverse(hits);
+      return hits;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  public long getMessageCount() {
+    lock.readLock().lock();
+    try {
+      return messageCount;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  // Guarda el índice completo en 'file' (vía un temporal y un rename atómico) si cambió desde que
+  // se cargó o se guardó
+  public void save(Path file) throws IOException {
+    Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+    lock.writeLock().lock();
+    try {
+      if (!dirty) {
+        return;
+      }
+      Files.createDirectories(file.getParent());
+      try (DataOutputStream out =
+          new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+        out.writeInt(SNAPSHOT_MAGIC);
+        out.writeInt(SNAPSHOT_VERSION);
+        out.writeLong(messageCount);
+        out.writeInt(conversations.size());
+        for (int i = 0; i < conversations.size(); i++) {
+          out.writeUTF(conversations.get(i));
+          out.writeLong(indexedUpTo.get(i));
+        }
+        out.writeInt(postings.size());
+        for (Map.Entry<String, Postings> entry : postings.entrySet()) {
+          out.writeUTF(entry.getKey());
+          Postings list = entry.getValue();
+          out.writeInt(list.size);
+          for (int i = 0; i < list.size; i++) {
+            out.writeLong(list.values[i]);
+          }
+        }
+      }
+      Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      dirty = false;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  // Carga un índice guardado con save(); devuelve false si no existe
+  public boolean load(Path file) throws IOException {
+    if (!Files.exists(file)) {
+      return false;
+    }
+    lock.writeLock().lock();
+    try (DataInputStream in =
+        new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+      if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+        throw new IOException("Índice de búsqueda de chat con formato desconocido: " + file);
+      }
+      clear();
+      messageCount = in.readLong();
+      int conversationCount = in.readInt();
+      for (int i = 0; i < conversationCount; i++) {
+        ordinal(in.readUTF());
+        indexedUpTo.set(i, in.readLong());
+      }
+      int tokenCount = in.readInt();
+      for (int i = 0; i < tokenCount; i++) {
+        String token = in.readUTF();
+        int size = in.readInt();
+        Postings list = new Postings(size);
+        for (int j = 0; j < size; j++) {
+          list.add(in.readLong());
+        }
+        postings.put(token, list);
+      }
+      return true;
+    } catch (IOException e) {
+      clear();
+      throw e;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  // Tokens normalizados y sin repetir de un texto
+  static Set<String> tokenize(String text) {
+    Set<String> tokens = new LinkedHashSet<>();
+    if (text == null || text.isBlank()) {
+      return tokens;
+    }
+    String normalized =
+        DIACRITICS
+            .matcher(Normalizer.normalize(text.toLowerCase(), Normalizer.Form.NFD))
+            .replaceAll("");
+    for (String token : NON_WORD.split(normalized)) {
+      if (!token.isEmpty() && !STOPWORDS.contains(token)) {
+        tokens.add(token);
+      }
+    }
+    return tokens;
+  }
+
+  // 5. Métodos privados
+
+  private int ordinal(String conversationKey) {
+    Integer ordinal = ordinals.get(conversationKey);
+    if (ordinal == null) {
+      ordinal = conversations.size();
+      ordinals.put(conversationKey, ordinal);
+      conversations.add(conversationKey);
+      indexedUpTo.add(0L);
+    }
+    return ordinal;
+  }
+
+  private void clear() {
+    postings.clear();
+    ordinals.clear();
+    conversations.clear();
+    indexedUpTo.clear();
+    messageCount = 0;
+  }
+
+  /** Decide qué conversaciones puede ver quien busca. */
+  @FunctionalInterface
+  public interface ConversationFilter {
+    boolean accept(String conversationKey);
+  }
+
+  /** Mensaje encontrado: conversación, id del mensaje y puntaje. */
+  public static final class Hit {
+    private final String conversationKey;
+    private final long messageId;
+    private final double score;
+
+    public Hit(String conversationKey, long messageId, double score) {
+      this.conversationKey = conversationKey;
+      this.messageId = messageId;
+      this.score = score;
+    }
+
+    public String getConversationKey() {
+      return conversationKey;
+    }
+
+    public long getMessageId() {
+      return messageId;
+    }
+
+    public double getScore() {
+      return score;
+    }
+  }
+
+  private static final class Postings {
+    private long[] values;
+    private int size;
+
+    private Postings() {
+      this(4);
+    }
+
+    private Postings(int capacity) {
+      this.values = new long[Math.max(capacity, 1)];
+    }
+
+    private void add(long posting) {
+      if (size == values.length) {
+        values = Arrays.copyOf(values, values.length * 2);
+      }
+      values[size++] = posting;
+    }
+  }
+}
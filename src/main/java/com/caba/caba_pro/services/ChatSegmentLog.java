@@ -0,0 +1,739 @@
+/**
+ * Archivo: ChatSegmentLog.java Autores: Diego.Gonzalez Fecha última modificación: [17.10.2026]
+ * Descripción: Log de mensajes de una conversación, en segmentos de tamaño fijo de solo anexado
+ * Proyecto: CABA Pro - Sistema de Gestión Integral de Arbitraje
+ */
+package com.caba.caba_pro.services;
+
+import com.caba.caba_pro.DTOs.ChatMessageDto;
+import com.caba.caba_pro.config.ChatStorageProperties.FsyncPolicy;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Log de solo anexado para una conversación admin-árbitro.
+ *
+ * <p>Los mensajes se guardan en segmentos {@code <idBase>.seg}, donde {@code idBase} es el id del
+ * primer mensaje del segmento. Cada registro es una trama {@code [longitud][crc32][payload]}. Un
+ * payload lo produce {@link ChatMessageCodec} (JSON, Smile o binario). Un segmento lleno se cierra
+ * escribiendo un pie con los offsets de sus tramas. El último segmento es siempre el activo.
+ *
+ * <p>Además, {@code offsets.idx} guarda la posición de cada mensaje dentro de su segmento (8 bytes
+ * por id), de modo que una página de historial se lee sin recorrer la conversación. Si el índice
+ * falta o no coincide con los segmentos, se reconstruye a partir de los pies y del segmento activo.
+ *
+ * <p>Los segmentos cerrados antiguos se pueden archivar ({@link #archive}): varios segmentos
+ * seguidos se comprimen en un único {@code <primerId>-<últimoId>.arc.gz} con las mismas tramas, sin
+ * pies. Para esos ids, {@code offsets.idx} guarda la posición dentro del archivo descomprimido, así
+ * que el historial sigue leyéndose igual.
+ *
+ * <p>La clase no se sincroniza a sí misma: {@link #open()}, {@link #append(List)} y {@link
+ * #archive} deben ejecutarse con el lock de la conversación (ver {@link JsonStorageService}). Las
+ * lecturas no necesitan lock una vez abierto el log, porque solo ven mensajes cuyo índice ya fue
+ * escrito; si coinciden con un archivado, se repiten (ver {@code layoutVersion}).
+ */
+public class ChatSegmentLog {
+
+  // 1. Constantes estáticas
+  static final String SEGMENT_SUFFIX = ".seg";
+  static final String INDEX_FILE = "offsets.idx";
+  static final String ARCHIVE_SUFFIX = ".arc.gz";
+  private static final Pattern ARCHIVE_FILE = Pattern.compile("(\\d+)-(\\d+)\\.arc\\.gz");
+  private static final String TMP_SUFFIX = ".tmp";
+  private static final int FRAME_HEADER_BYTES = 8;
+  private static final int FOOTER_TRAILER_BYTES = 8;
+  private static final int INDEX_ENTRY_BYTES = 8;
+  private static final int FOOTER_MAGIC = 0x43484654; // "CHFT"
+  private static final int MAX_FRAME_BYTES = 1024 * 1024;
+
+  // 2. Variables de instancia
+  private final Path directory;
+  private final int maxMessagesPerSegment;
+  private final FsyncPolicy fsyncPolicy;
+  private final ChatMessageCodec codec;
+
+  // Estado del log, cargado perezosamente en open()
+  private volatile boolean opened;
+  private final NavigableSet<Long> segmentBases = new ConcurrentSkipListSet<>();
+  private final NavigableMap<Long, Long> archives = new ConcurrentSkipListMap<>();
+  private long activeBase;
+  private int activeCount;
+  private long activeSize;
+
+  // Último id con tramas e índice escritos; es lo único que ven los lectores
+  private volatile long committedId;
+
+  // Impar mientras se archiva; las lecturas que lo ven cambiar se repiten
+  private volatile int layoutVersion;
+
+  // 3. Constructores
+  public ChatSegmentLog(
+      Path directory, int maxMessagesPerSegment, FsyncPolicy fsyncPolicy, ChatMessageCodec codec) {
+    this.directory = directory;
+    this.maxMessagesPerSegment = maxMessagesPerSegment;
+    this.fsyncPolicy = fsyncPolicy;
+    this.codec = codec;
+  }
+
+  // 4. Métodos públicos
+
+  // Carga el estado del log desde disco (requiere el lock de la conversación)
+  public void open() throws IOException {
+    if (!opened) {
+      recover();
+    }
+  }
+
+  public boolean isOpen() {
+    return opened;
+  }
+
+  // Anexa un mensaje y le asigna su id dentro de la conversación
+  public long append(ChatMessageDto message) throws IOException {
+    return append(List.of(message));
+  }
+
+  // Anexa un lote de mensajes con una sola apertura (y un solo fsync) por segmento (requiere el
+  // lock de la conversación)
+  public long append(List<ChatMessageDto> messages) throws IOException {
+    open();
+    int index = 0;
+    while (index < messages.size()) {
+      int batch = Math.min(messages.size() - index, maxMessagesPerSegment - activeCount);
+      long firstId = activeBase + activeCount;
+      ByteBuffer indexEntries = ByteBuffer.allocate(batch * INDEX_ENTRY_BYTES);
+      long position = activeSize;
+      try (FileChannel channel =
+          FileChannel.open(
+              segmentPath(activeBase), StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+        for (int i = 0; i < batch; i++) {
+          ChatMessageDto message = messages.get(index + i);
+          message.setId(firstId + i);
+          indexEntries.putLong(position);
+          position += writeFully(channel, encodeFrame(message), position);
+        }
+        if (fsyncPolicy == FsyncPolicy.ALWAYS) {
+          channel.force(false);
+        }
+      }
+      segmentBases.add(activeBase);
+
+      // El índice se escribe después de las tramas: si se pierde, se reconstruye desde ellas
+      try (FileChannel channel =
+          FileChannel.open(
+              directory.resolve(INDEX_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+        writeFully(channel, indexEntries.flip(), (firstId - 1) * INDEX_ENTRY_BYTES);
+        if (fsyncPolicy == FsyncPolicy.ALWAYS) {
+          channel.force(false);
+        }
+      }
+
+      activeCount += batch;
+      activeSize = position;
+      committedId = activeBase + activeCount - 1;
+      index += batch;
+      if (activeCount >= maxMessagesPerSegment) {
+        roll();
+      }
+    }
+    return activeBase + activeCount - 1;
+  }
+
+  // Lee todos los mensajes de la conversación en orden
+  public List<ChatMessageDto> readAll() throws IOException {
+    return readStable(this::readAllOnce);
+  }
+
+  private List<ChatMessageDto> readAllOnce() throws IOException {
+    List<ChatMessageDto> messages = new ArrayList<>();
+    for (Map.Entry<Long, Long> archive : listArchives().entrySet()) {
+      try (ArchiveReader reader = new ArchiveReader(archive.getKey(), archive.getValue())) {
+        for (byte[] payload = reader.next(); payload != null; payload = reader.next()) {
+          messages.add(decode(payload));
+        }
+      }
+    }
+    List<Long> bases = listSegmentBases();
+    for (int i = 0; i < bases.size(); i++) {
+      try (FileChannel channel = FileChannel.open(segmentPath(bases.get(i)))) {
+        List<byte[]> payloads = new ArrayList<>();
+        scanFrames(channel, null, payloads);
+        for (byte[] payload : payloads) {
+          messages.add(decode(payload));
+        }
+      }
+    }
+    return messages;
+  }
+
+  // Lee los últimos 'limit' mensajes
+  public List<ChatMessageDto> readTail(int limit) throws IOException {
+    return readPage(null, limit);
+  }
+
+  // Lee hasta 'limit' mensajes con id menor que 'beforeId' (o los últimos si es null), en orden
+  public List<ChatMessageDto> readPage(Long beforeId, int limit) throws IOException {
+    if (!opened) {
+      return new ArrayList<>();
+    }
+    return readStable(() -> readPageOnce(beforeId, limit));
+  }
+
+  private List<ChatMessageDto> readPageOnce(Long beforeId, int limit) throws IOException {
+    long total = committedId;
+    long to = beforeId == null ? total : Math.min(beforeId - 1, total);
+    long from = Math.max(1, to - limit + 1);
+    if (limit <= 0 || to < from) {
+      return new ArrayList<>();
+    }
+
+    // Una sola lectura del índice para toda la página
+    int count = (int) (to - from + 1);
+    ByteBuffer positions = ByteBuffer.allocate(count * INDEX_ENTRY_BYTES);
+    try (FileChannel index = FileChannel.open(directory.resolve(INDEX_FILE))) {
+      readFully(index, positions, (from - 1) * INDEX_ENTRY_BYTES);
+    }
+
+    List<ChatMessageDto> messages = new ArrayList<>(count);
+    FileChannel segment = null;
+    ArchiveReader archive = null;
+    long sourceBase = -1;
+    try {
+      for (long id = from; id <= to; id++) {
+        Map.Entry<Long, Long> archived = archives.floorEntry(id);
+        boolean inArchive = archived != null && id <= archived.getValue();
+        long base = inArchive ? archived.getKey() : floorSegmentBase(id);
+        if (base != sourceBase) {
+          if (segment != null) {
+            segment.close();
+            segment = null;
+          }
+          if (archive != null) {
+            archive.close();
+            archive = null;
+          }
+          if (inArchive) {
+            archive = new ArchiveReader(archived.getKey(), archived.getValue());
+          } else {
+            segment = FileChannel.open(segmentPath(base));
+          }
+          sourceBase = base;
+        }
+        long position = positions.getLong((int) (id - from) * INDEX_ENTRY_BYTES);
+        byte[] payload = inArchive ? archive.readAt(position) : readFrame(segment, position);
+        if (payload == null) {
+          throw new IOException(
+              "Índice de chat inconsistente en " + directory + " (id " + id + ")");
+        }
+        messages.add(decode(payload));
+      }
+    } finally {
+      if (segment != null) {
+        segment.close();
+      }
+      if (archive != null) {
+        archive.close();
+      }
+    }
+    return messages;
+  }
+
+  // Ejecuta una lectura sin lock y la repite si mientras tanto se archivaron segmentos
+  private <T> T readStable(LayoutRead<T> read) throws IOException {
+    while (true) {
+      int version = layoutVersion;
+      if ((version & 1) != 0) {
+        Thread.onSpinWait();
+        continue;
+      }
+      try {
+        T result = read.read();
+        if (version == layoutVersion) {
+          return result;
+        }
+      } catch (IOException e) {
+        if (version == layoutVersion) {
+          throw e;
+        }
+      }
+    }
+  }
+
+  // Comprime en un único archivo los segmentos cerrados más antiguos cuyo último mensaje es
+  // anterior a 'cutoff'; si el segmento activo también lo es, antes lo cierra. Devuelve el número
+  // de mensajes archivados (requiere el lock de la conversación)
+  public long archive(LocalDateTime cutoff) throws IOException {
+    open();
+    if (activeCount > 0 && lastMessageBefore(activeBase, cutoff)) {
+      roll();
+    }
+    List<Long> bases = new ArrayList<>();
+    for (long base : segmentBases) {
+      if (base == activeBase || !lastMessageBefore(base, cutoff)) {
+        break;
+      }
+      bases.add(base);
+    }
+    if (bases.isEmpty()) {
+      return 0;
+    }
+
+    long first = bases.get(0);
+    long last = segmentBases.higher(bases.get(bases.size() - 1)) - 1;
+    ByteBuffer entries = ByteBuffer.allocate((int) (last - first + 1) * INDEX_ENTRY_BYTES);
+    Path archive = archivePath(first, last);
+    Path tmp = directory.resolve(archive.getFileName() + TMP_SUFFIX);
+    try (DataOutputStream out =
+        new DataOutputStream(
+            new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp))))) {
+      long position = 0;
+      for (long base : bases) {
+        List<byte[]> payloads = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(segmentPath(base))) {
+          scanFrames(channel, null, payloads);
+        }
+        for (byte[] payload : payloads) {
+          entries.putLong(position);
+          out.writeInt(payload.length);
+          out.writeInt(crc32(payload));
+          out.write(payload);
+          position += FRAME_HEADER_BYTES + payload.length;
+        }
+      }
+    }
+    if (entries.hasRemaining()) {
+      Files.delete(tmp);
+      throw new IOException("Segmentos incompletos al archivar " + directory);
+    }
+    if (fsyncPolicy != FsyncPolicy.NEVER) {
+      try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+        channel.force(true);
+      }
+    }
+    Files.move(tmp, archive, StandardCopyOption.ATOMIC_MOVE);
+
+    // Desde aquí el archivo es la fuente de esos ids; si algo falla, recover() termina el cambio
+    layoutVersion++;
+    try {
+      try (FileChannel index =
+          FileChannel.open(directory.resolve(INDEX_FILE), StandardOpenOption.WRITE)) {
+        writeFully(index, entries.flip(), (first - 1) * INDEX_ENTRY_BYTES);
+        if (fsyncPolicy != FsyncPolicy.NEVER) {
+          index.force(false);
+        }
+      }
+      archives.put(first, last);
+      segmentBases.removeAll(bases);
+    } finally {
+      layoutVersion++;
+    }
+    for (long base : bases) {
+      Files.deleteIfExists(segmentPath(base));
+    }
+    return last - first + 1;
+  }
+
+  // Número total de mensajes de la conversación (requiere el log abierto)
+  public long size() {
+    return committedId;
+  }
+
+  public boolean exists() {
+    return Files.isDirectory(directory);
+  }
+
+  public Path getDirectory() {
+    return directory;
+  }
+
+  // 5. Métodos privados
+
+  // Reconstruye el estado del segmento activo, descarta una trama final incompleta y valida el
+  // índice de offsets
+  private void recover() throws IOException {
+    Files.createDirectories(directory);
+    archives.putAll(listArchives());
+    try (Stream<Path> files = Files.list(directory)) {
+      for (Path path : files.toList()) {
+        if (path.getFileName().toString().endsWith(ARCHIVE_SUFFIX + TMP_SUFFIX)) {
+          Files.delete(path); // archivado interrumpido antes de publicar el archivo
+        }
+      }
+    }
+
+    // Segmentos que ya están en un archivo: quedaron de un archivado interrumpido
+    boolean archivedLeftovers = false;
+    for (long base : listSegmentBases()) {
+      Map.Entry<Long, Long> archive = archives.floorEntry(base);
+      if (archive != null && base <= archive.getValue()) {
+        Files.delete(segmentPath(base));
+        archivedLeftovers = true;
+      } else {
+        segmentBases.add(base);
+      }
+    }
+    if (!segmentBases.isEmpty()) {
+      activeBase = segmentBases.last();
+    } else {
+      activeBase = archives.isEmpty() ? 1L : archives.lastEntry().getValue() + 1;
+    }
+    Path active = segmentPath(activeBase);
+    long scannedBase = activeBase;
+    List<Long> offsets = new ArrayList<>();
+    if (Files.exists(active)) {
+      try (FileChannel channel = FileChannel.open(active)) {
+        activeSize = scanFrames(channel, offsets, null);
+      }
+      activeCount = offsets.size();
+      if (Files.size(active) > activeSize) {
+        // Trama parcial (caída durante una escritura) o pie de un cierre interrumpido
+        try (FileChannel channel = FileChannel.open(active, StandardOpenOption.WRITE)) {
+          channel.truncate(activeSize);
+        }
+      }
+    }
+    if (activeCount >= maxMessagesPerSegment) {
+      roll();
+    }
+
+    Path index = directory.resolve(INDEX_FILE);
+    long expected = (activeBase + activeCount - 1) * INDEX_ENTRY_BYTES;
+    if (archivedLeftovers
+        || !Files.exists(index)
+        || Files.size(index) != expected
+        || !indexMatches(index, scannedBase, offsets)) {
+      rebuildIndex();
+    }
+    committedId = activeBase + activeCount - 1;
+    opened = true;
+  }
+
+  // Compara las entradas del índice del segmento activo con las tramas leídas: tras una caída el
+  // archivo puede tener el tamaño esperado pero entradas que nunca llegaron al disco
+  private static boolean indexMatches(Path index, long base, List<Long> offsets)
+      throws IOException {
+    ByteBuffer entries = ByteBuffer.allocate(offsets.size() * INDEX_ENTRY_BYTES);
+    try (FileChannel channel = FileChannel.open(index)) {
+      readFully(channel, entries, (base - 1) * INDEX_ENTRY_BYTES);
+    }
+    for (int i = 0; i < offsets.size(); i++) {
+      if (entries.getLong(i * INDEX_ENTRY_BYTES) != offsets.get(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // Regenera offsets.idx a partir de los pies de los segmentos cerrados y del segmento activo
+  private void rebuildIndex() throws IOException {
+    Path index = directory.resolve(INDEX_FILE);
+    Path tmp = directory.resolve(INDEX_FILE + ".tmp");
+    try (FileChannel out =
+        FileChannel.open(
+            tmp,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING)) {
+      long position = 0;
+      for (Map.Entry<Long, Long> archive : archives.entrySet()) {
+        ByteBuffer entries =
+            ByteBuffer.allocate(
+                (int) (archive.getValue() - archive.getKey() + 1) * INDEX_ENTRY_BYTES);
+        try (ArchiveReader reader = new ArchiveReader(archive.getKey(), archive.getValue())) {
+          long offset = reader.position;
+          while (reader.next() != null) {
+            entries.putLong(offset);
+            offset = reader.position;
+          }
+        }
+        position += writeFully(out, entries.flip(), position);
+      }
+      for (long base : segmentBases) {
+        List<Long> offsets = readOffsets(base);
+        ByteBuffer entries = ByteBuffer.allocate(offsets.size() * INDEX_ENTRY_BYTES);
+        offsets.forEach(entries::putLong);
+        position += writeFully(out, entries.flip(), position);
+      }
+    }
+    Files.move(tmp, index, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  // Offsets de las tramas de un segmento: del pie si está cerrado, recorriéndolo si no
+  private List<Long> readOffsets(long base) throws IOException {
+    List<Long> offsets = new ArrayList<>();
+    try (FileChannel channel = FileChannel.open(segmentPath(base))) {
+      int[] footer = base == activeBase ? null : readFooter(channel);
+      if (footer == null) {
+        scanFrames(channel, offsets, null);
+      } else {
+        for (int offset : footer) {
+          offsets.add((long) offset);
+        }
+      }
+    }
+    return offsets;
+  }
+
+  // Cierra el segmento activo escribiendo su pie de offsets y abre el siguiente
+  private void roll() throws IOException {
+    Path active = segmentPath(activeBase);
+    List<Long> offsets = new ArrayList<>();
+    try (FileChannel channel = FileChannel.open(active, StandardOpenOption.WRITE)) {
+      try (FileChannel reader = FileChannel.open(active)) {
+        scanFrames(reader, offsets, null);
+      }
+      ByteBuffer footer = ByteBuffer.allocate(offsets.size() * 4 + FOOTER_TRAILER_BYTES);
+      for (long offset : offsets) {
+        footer.putInt((int) offset);
+      }
+      footer.putInt(offsets.size()).putInt(FOOTER_MAGIC).flip();
+      writeFully(channel, footer, activeSize);
+      if (fsyncPolicy != FsyncPolicy.NEVER) {
+        channel.force(false);
+      }
+    }
+    activeBase += activeCount;
+    activeCount = 0;
+    activeSize = 0;
+    Files.createFile(segmentPath(activeBase));
+    segmentBases.add(activeBase);
+  }
+
+  private long floorSegmentBase(long id) {
+    Long base = segmentBases.floor(id);
+    return base != null ? base : 1L;
+  }
+
+  // True si el último mensaje del segmento tiene fecha anterior a 'cutoff'
+  private boolean lastMessageBefore(long base, LocalDateTime cutoff) throws IOException {
+    List<Long> offsets = readOffsets(base);
+    if (offsets.isEmpty()) {
+      return false;
+    }
+    byte[] payload;
+    try (FileChannel channel = FileChannel.open(segmentPath(base))) {
+      payload = readFrame(channel, offsets.get(offsets.size() - 1));
+    }
+    LocalDateTime timestamp = payload != null ? decode(payload).getTimestamp() : null;
+    return timestamp != null && timestamp.isBefore(cutoff);
+  }
+
+  // Lee el pie de offsets de un segmento cerrado; null si no tiene un pie válido
+  private int[] readFooter(FileChannel channel) throws IOException {
+    long size = channel.size();
+    if (size < FOOTER_TRAILER_BYTES) {
+      return null;
+    }
+    ByteBuffer trailer = ByteBuffer.allocate(FOOTER_TRAILER_BYTES);
+    readFully(channel, trailer, size - FOOTER_TRAILER_BYTES);
+    int count = trailer.getInt(0);
+    long footerStart = size - FOOTER_TRAILER_BYTES - (long) count * 4;
+    if (trailer.getInt(4) != FOOTER_MAGIC || count < 0 || footerStart < 0) {
+      return null;
+    }
+    ByteBuffer buffer = ByteBuffer.allocate(count * 4);
+    readFully(channel, buffer, footerStart);
+    int[] offsets = new int[count];
+    buffer.flip().asIntBuffer().get(offsets);
+    return offsets;
+  }
+
+  // Recorre tramas válidas desde el inicio; devuelve el tamaño en bytes de la parte válida. El pie
+  // de un segmento cerrado empieza con el offset 0, que no es una longitud válida, así que el
+  // recorrido se detiene ahí.
+  private long scanFrames(FileChannel channel, List<Long> offsets, List<byte[]> payloads)
+      throws IOException {
+    long position = 0;
+    while (true) {
+      byte[] payload = readFrame(channel, position);
+      if (payload == null) {
+        break;
+      }
+      if (offsets != null) {
+        offsets.add(position);
+      }
+      if (payloads != null) {
+        payloads.add(payload);
+      }
+      position += FRAME_HEADER_BYTES + payload.length;
+    }
+    return position;
+  }
+
+  // Lee una trama en la posición indicada; null si está incompleta o no pasa el CRC
+  private byte[] readFrame(FileChannel channel, long position) throws IOException {
+    if (position + FRAME_HEADER_BYTES > channel.size()) {
+      return null;
+    }
+    ByteBuffer header = ByteBuffer.allocate(FRAME_HEADER_BYTES);
+    readFully(channel, header, position);
+    int length = header.getInt(0);
+    int crc = header.getInt(4);
+    if (length <= 0
+        || length > MAX_FRAME_BYTES
+        || position + FRAME_HEADER_BYTES + length > channel.size()) {
+      return null;
+    }
+    ByteBuffer payload = ByteBuffer.allocate(length);
+    readFully(channel, payload, position + FRAME_HEADER_BYTES);
+    byte[] bytes = payload.array();
+    return crc32(bytes) == crc ? bytes : null;
+  }
+
+  private ByteBuffer encodeFrame(ChatMessageDto message) throws IOException {
+    byte[] payload = codec.encode(message);
+    ByteBuffer frame = ByteBuffer.allocate(FRAME_HEADER_BYTES + payload.length);
+    frame.putInt(payload.length).putInt(crc32(payload)).put(payload).flip();
+    return frame;
+  }
+
+  private ChatMessageDto decode(byte[] payload) throws IOException {
+    return codec.decode(payload);
+  }
+
+  private List<Long> listSegmentBases() throws IOException {
+    if (!Files.isDirectory(directory)) {
+      return List.of();
+    }
+    try (Stream<Path> files = Files.list(directory)) {
+      return files
+          .map(path -> path.getFileName().toString())
+          .filter(name -> name.endsWith(SEGMENT_SUFFIX))
+          .map(name -> Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())))
+          .sorted()
+          .toList();
+    }
+  }
+
+  // Archivos comprimidos de la conversación (primer id → último id)
+  private NavigableMap<Long, Long> listArchives() throws IOException {
+    NavigableMap<Long, Long> found = new TreeMap<>();
+    if (!Files.isDirectory(directory)) {
+      return found;
+    }
+    try (Stream<Path> files = Files.list(directory)) {
+      for (Path path : files.toList()) {
+        String name = path.getFileName().toString();
+        Matcher matcher = ARCHIVE_FILE.matcher(name);
+        if (matcher.matches()) {
+          found.put(Long.parseLong(matcher.group(1)), Long.parseLong(matcher.group(2)));
+        }
+      }
+    }
+    return found;
+  }
+
+  private Path archivePath(long first, long last) {
+    return directory.resolve(String.format("%020d-%020d%s", first, last, ARCHIVE_SUFFIX));
+  }
+
+  private Path segmentPath(long base) {
+    return directory.resolve(String.format("%020d%s", base, SEGMENT_SUFFIX));
+  }
+
+  private static int crc32(byte[] bytes) {
+    CRC32 crc = new CRC32();
+    crc.update(bytes);
+    return (int) crc.getValue();
+  }
+
+  private static int writeFully(FileChannel channel, ByteBuffer buffer, long position)
+      throws IOException {
+    int written = 0;
+    while (buffer.hasRemaining()) {
+      written += channel.write(buffer, position + written);
+    }
+    return written;
+  }
+
+  private static void readFully(FileChannel channel, ByteBuffer buffer, long position)
+      throws IOException {
+    int read = 0;
+    while (buffer.hasRemaining()) {
+      int n = channel.read(buffer, position + read);
+      if (n < 0) {
+        throw new IOException("Fin de archivo inesperado en segmento de chat");
+      }
+      read += n;
+    }
+  }
+
+  /** Lectura secuencial de las tramas de un archivo comprimido. */
+  private final class ArchiveReader implements AutoCloseable {
+    private final DataInputStream in;
+    private long position;
+
+    private ArchiveReader(long first, long last) throws IOException {
+      this.in =
+          new DataInputStream(
+              new BufferedInputStream(
+                  new GZIPInputStream(Files.newInputStream(archivePath(first, last)))));
+    }
+
+    // Siguiente trama; null al final del archivo
+    private byte[] next() throws IOException {
+      int length;
+      try {
+        length = in.readInt();
+      } catch (EOFException e) {
+        return null;
+      }
+      int crc = in.readInt();
+      if (length <= 0 || length > MAX_FRAME_BYTES) {
+        throw new IOException("Trama inválida en archivo de chat de " + directory);
+      }
+      byte[] payload = new byte[length];
+      in.readFully(payload);
+      position += FRAME_HEADER_BYTES + length;
+      if (crc32(payload) != crc) {
+        throw new IOException("CRC inválido en archivo de chat de " + directory);
+      }
+      return payload;
+    }
+
+    // Trama en una posición del contenido descomprimido (solo hacia adelante)
+    private byte[] readAt(long target) throws IOException {
+      if (target < position) {
+        return null;
+      }
+      in.skipNBytes(target - position);
+      position = target;
+      return next();
+    }
+
+    @Override
+    public void close() throws IOException {
+      in.close();
+    }
+  }
+
+  @FunctionalInterface
+  private interface LayoutRead<T> {
+    T read() throws IOException;
+  }
+}
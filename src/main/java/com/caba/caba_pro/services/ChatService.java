@@ -6,12 +6,19 @@
 package com.caba.caba_pro.services;
 
 import com.caba.caba_pro.DTOs.ChatMessageDto;
+import com.caba.caba_pro.DTOs.ChatSearchResultDto;
+import com.caba.caba_pro.DTOs.ChatUnreadDto;
 import com.caba.caba_pro.models.Administrador;
 import com.caba.caba_pro.models.Arbitro;
 import com.caba.caba_pro.repositories.AdministradorRepository;
 import com.caba.caba_pro.repositories.ArbitroRepository;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
@@ -23,25 +30,42 @@ import org.springframework.stereotype.Service;
 public class ChatService {
 
   private static final Logger logger = LoggerFactory.getLogger(ChatService.class);
+  public static final String UNREAD_QUEUE = "/queue/unread";
 
   private final JsonStorageService jsonStorageService;
   private final SimpMessagingTemplate messagingTemplate;
   private final AdministradorRepository administradorRepository;
   private final ArbitroRepository arbitroRepository;
+  private final ChatIdentityService chatIdentityService;
 
   public ChatService(
       JsonStorageService jsonStorageService,
       SimpMessagingTemplate messagingTemplate,
       AdministradorRepository administradorRepository,
-      ArbitroRepository arbitroRepository) {
+      ArbitroRepository arbitroRepository,
+      ChatIdentityService chatIdentityService) {
     this.jsonStorageService = jsonStorageService;
     this.messagingTemplate = messagingTemplate;
     this.administradorRepository = administradorRepository;
     this.arbitroRepository = arbitroRepository;
+    this.chatIdentityService = chatIdentityService;
   }
 
-  // Procesa y envía un mensaje de chat
+  // Procesa y envía un mensaje de chat resolviendo el remitente por su username (consulta la base
+  // de datos; los mensajes por WebSocket usan la identidad ya resuelta al conectar)
   public void processMessage(ChatMessageDto message, String senderUsername, Long targetUserId) {
+    ChatIdentityService.ChatIdentity sender = chatIdentityService.resolve(senderUsername);
+    if (sender == null) {
+      logger.error("No se pudo determinar adminId o arbitroId para el mensaje");
+      return;
+    }
+    processMessage(message, sender, targetUserId);
+  }
+
+  // Procesa y envía un mensaje de chat de un remitente ya identificado, sin consultar la base de
+  // datos
+  public void processMessage(
+      ChatMessageDto message, ChatIdentityService.ChatIdentity sender, Long targetUserId) {
     try {
       // Establecer timestamp si no está presente
       if (message.getTimestamp() == null) {
@@ -54,43 +78,43 @@ public class ChatService {
       }
 
       // Determinar ID de admin y árbitro para el almacenamiento
-      Long adminId = null;
-      Long arbitroId = null;
-
-      // Obtener información del usuario actual
-      Administrador admin = administradorRepository.findByUsername(senderUsername);
-      Arbitro arbitro = arbitroRepository.findByUsername(senderUsername);
+      Long adminId;
+      Long arbitroId;
 
-      if (admin != null) {
+      if (sender.isAdmin()) {
         // El remitente es admin
-        adminId = admin.getId();
+        adminId = sender.getId();
         arbitroId = targetUserId; // El target debe ser un árbitro
         message.setRemitente("ADMIN");
         message.setDestinatario("ARBITRO");
-        message.setSenderId(admin.getId());
-        message.setSenderUsername(admin.getUsername());
-
-      } else if (arbitro != null) {
+      } else {
         // El remitente es árbitro
-        arbitroId = arbitro.getId();
+        arbitroId = sender.getId();
         adminId = targetUserId; // El target debe ser un admin específico
         message.setRemitente("ARBITRO");
         message.setDestinatario("ADMIN");
-        message.setSenderId(arbitro.getId());
-        message.setSenderUsername(arbitro.getUsername());
       }
+      message.setSenderId(sender.getId());
+      message.setSenderUsername(sender.getUsername());
 
       if (adminId != null && arbitroId != null) {
-        // Guardar mensaje en JSON
-        jsonStorageService.saveMessage(adminId, arbitroId, message);
-
-        // Enviar mensaje al destinatario específico
-        sendMessageToUser(message, adminId, arbitroId);
-
-        logger.info(
-            "Mensaje procesado exitosamente de {} a {}",
-            message.getRemitente(),
-            message.getDestinatario());
+        // Guardar mensaje en el log de la conversación y enviarlo al destinatario cuando quede
+        // escrito: con escritura diferida el id lo asigna el hilo escritor
+        jsonStorageService
+            .saveMessage(adminId, arbitroId, message)
+            .whenComplete(
+                (id, error) -> {
+                  if (error != null) {
+                    logger.error("Mensaje de chat no guardado, no se envía", error);
+                    return;
+                  }
+                  sendMessageToUser(message, adminId, arbitroId);
+                  logger.info(
+                      "Mensaje {} procesado exitosamente de {} a {}",
+                      id,
+                      message.getRemitente(),
+                      message.getDestinatario());
+                });
       } else {
         logger.error("No se pudo determinar adminId o arbitroId para el mensaje");
       }
@@ -100,29 +124,27 @@ public class ChatService {
     }
   }
 
-  // Envía mensaje al usuario específico usando WebSocket
+  // Envía mensaje al usuario específico usando WebSocket, junto con el aviso de un no leído más
   private void sendMessageToUser(ChatMessageDto message, Long adminId, Long arbitroId) {
     try {
-      if ("ADMIN".equals(message.getRemitente())) {
-        // Enviar al árbitro
-        Arbitro arbitro = arbitroRepository.findById(arbitroId).orElse(null);
-        if (arbitro != null) {
-          messagingTemplate.convertAndSendToUser(arbitro.getUsername(), "/queue/private", message);
-        }
-      } else {
-        // Enviar al admin
-        Administrador admin = administradorRepository.findById(adminId).orElse(null);
-        if (admin != null) {
-          messagingTemplate.convertAndSendToUser(admin.getUsername(), "/queue/private", message);
-        }
+      String recipient =
+          "ADMIN".equals(message.getRemitente())
+              ? chatIdentityService.usernameOf(ChatIdentityService.ROLE_ARBITRO, arbitroId)
+              : chatIdentityService.usernameOf(ChatIdentityService.ROLE_ADMIN, adminId);
+      if (recipient != null) {
+        messagingTemplate.convertAndSendToUser(recipient, "/queue/private", message);
+        messagingTemplate.convertAndSendToUser(
+            recipient, UNREAD_QUEUE, new ChatUnreadDto(adminId, arbitroId, 1));
       }
     } catch (Exception e) {
       logger.error("Error al enviar mensaje por WebSocket", e);
     }
   }
 
-  // Obtiene el historial de mensajes entre un admin y árbitro
-  public List<ChatMessageDto> getChatHistory(String currentUsername, Long userId) {
+  // Obtiene una página del historial entre un admin y árbitro: hasta 'limit' mensajes con id menor
+  // que 'before', o los más recientes si 'before' es null
+  public List<ChatMessageDto> getChatHistory(
+      String currentUsername, Long userId, Long before, int limit) {
     try {
       // Determinar quién es el usuario actual y quién es el otro
       Administrador currentAdmin = administradorRepository.findByUsername(currentUsername);
@@ -142,7 +164,11 @@ public class ChatService {
       }
 
       if (adminId != null && arbitroId != null) {
-        return jsonStorageService.loadMessages(adminId, arbitroId);
+        // Abrir la conversación (primera página) la marca como leída
+        if (before == null) {
+          markRead(currentUsername, adminId, arbitroId, currentAdmin != null);
+        }
+        return jsonStorageService.loadMessagesPage(adminId, arbitroId, before, limit);
       }
 
       logger.warn("No se pudo determinar adminId o arbitroId para obtener historial");
@@ -154,6 +180,137 @@ public class ChatService {
     }
   }
 
+  // Marca como leída la conversación con 'userId' mientras el usuario la tiene abierta (llegó un
+  // mensaje nuevo a ella). Devuelve cuántos mensajes quedaron leídos
+  public int markConversationRead(String currentUsername, Long userId) {
+    ChatIdentityService.ChatIdentity identity = chatIdentityService.resolve(currentUsername);
+    if (identity == null) {
+      return 0;
+    }
+    return identity.isAdmin()
+        ? markRead(currentUsername, identity.getId(), userId, true)
+        : markRead(currentUsername, userId, identity.getId(), false);
+  }
+
+  // Marca la conversación como leída y avisa a todas las sesiones del usuario para que descuenten
+  // esos no leídos
+  private int markRead(String currentUsername, Long adminId, Long arbitroId, boolean byAdmin) {
+    int read = jsonStorageService.markConversationRead(adminId, arbitroId, byAdmin);
+    if (read > 0) {
+      messagingTemplate.convertAndSendToUser(
+          currentUsername, UNREAD_QUEUE, new ChatUnreadDto(adminId, arbitroId, -read));
+    }
+    return read;
+  }
+
+  // Obtiene las conversaciones del usuario actual desde el índice de conversaciones, la más
+  // reciente primero, con el otro participante, la vista previa del último mensaje y los no leídos
+  public List<Map<String, Object>> getConversations(String currentUsername) {
+    try {
+      Administrador currentAdmin = administradorRepository.findByUsername(currentUsername);
+      if (currentAdmin != null) {
+        List<ChatConversationIndex.ConversationSummary> summaries =
+            jsonStorageService.getConversationsForAdmin(currentAdmin.getId());
+        Map<Long, Arbitro> arbitros =
+            arbitroRepository
+                .findAllById(summaries.stream().map(s -> s.getArbitroId()).toList())
+                .stream()
+                .collect(Collectors.toMap(Arbitro::getId, Function.identity()));
+
+        List<Map<String, Object>> conversations = new ArrayList<>();
+        for (ChatConversationIndex.ConversationSummary summary : summaries) {
+          Arbitro arbitro = arbitros.get(summary.getArbitroId());
+          if (arbitro == null) {
+            continue;
+          }
+          Map<String, Object> data =
+              toConversationData(summary, summary.getUnreadAdmin(), arbitro.getId());
+          data.put("username", arbitro.getUsername());
+          data.put("nombreCompleto", arbitro.getNombre() + " " + arbitro.getApellidos());
+          data.put("role", "ARBITRO");
+          conversations.add(data);
+        }
+        return conversations;
+      }
+
+      Arbitro currentArbitro = arbitroRepository.findByUsername(currentUsername);
+      if (currentArbitro != null) {
+        List<ChatConversationIndex.ConversationSummary> summaries =
+            jsonStorageService.getConversationsForArbitro(currentArbitro.getId());
+        Map<Long, Administrador> admins =
+            administradorRepository
+                .findAllById(summaries.stream().map(s -> s.getAdminId()).toList())
+                .stream()
+                .collect(Collectors.toMap(Administrador::getId, Function.identity()));
+
+        List<Map<String, Object>> conversations = new ArrayList<>();
+        for (ChatConversationIndex.ConversationSummary summary : summaries) {
+          Administrador admin = admins.get(summary.getAdminId());
+          if (admin == null) {
+            continue;
+          }
+          Map<String, Object> data =
+              toConversationData(summary, summary.getUnreadArbitro(), admin.getId());
+          data.put("username", admin.getUsername());
+          data.put("nombreCompleto", admin.getUsername());
+          data.put("role", "ADMIN");
+          conversations.add(data);
+        }
+        return conversations;
+      }
+
+      logger.warn("Usuario {} no es admin ni árbitro, sin conversaciones", currentUsername);
+      return List.of();
+
+    } catch (Exception e) {
+      logger.error("Error al obtener conversaciones de chat", e);
+      return List.of();
+    }
+  }
+
+  private Map<String, Object> toConversationData(
+      ChatConversationIndex.ConversationSummary summary, int unread, Long otherUserId) {
+    Map<String, Object> data = new HashMap<>();
+    data.put("id", otherUserId);
+    data.put("lastMessageAt", summary.getLastMessageAt());
+    data.put("lastSender", summary.getLastSender());
+    data.put("lastPreview", summary.getLastPreview());
+    data.put("messageCount", summary.getMessageCount());
+    data.put("unread", unread);
+    return data;
+  }
+
+  // Total de mensajes sin leer del usuario en todas sus conversaciones (los cambios posteriores
+  // llegan por /user/queue/unread)
+  public int getUnreadCount(String currentUsername) {
+    ChatIdentityService.ChatIdentity identity = chatIdentityService.resolve(currentUsername);
+    if (identity == null) {
+      return 0;
+    }
+    return jsonStorageService.getUnreadTotal(identity.isAdmin(), identity.getId());
+  }
+
+  // Busca en el historial de las conversaciones del usuario actual, del mensaje más relevante al
+  // menos relevante
+  public List<ChatSearchResultDto> searchMessages(String currentUsername, String query, int limit) {
+    try {
+      Administrador currentAdmin = administradorRepository.findByUsername(currentUsername);
+      if (currentAdmin != null) {
+        return jsonStorageService.searchMessages(query, currentAdmin.getId(), null, limit);
+      }
+      Arbitro currentArbitro = arbitroRepository.findByUsername(currentUsername);
+      if (currentArbitro != null) {
+        return jsonStorageService.searchMessages(query, null, currentArbitro.getId(), limit);
+      }
+      logger.warn("Usuario {} no es admin ni árbitro, búsqueda sin resultados", currentUsername);
+      return List.of();
+
+    } catch (Exception e) {
+      logger.error("Error al buscar en el historial de chat", e);
+      return List.of();
+    }
+  }
+
   // Obtiene información del usuario actual autenticado
 
   public String getCurrentUsername() {
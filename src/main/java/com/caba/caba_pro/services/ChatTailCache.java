@@ -0,0 +1,183 @@
+/**
+ * Archivo: ChatTailCache.java Autores: Diego.Gonzalez Fecha última modificación: [17.10.2026]
+ * Descripción: Caché LRU en memoria de los últimos mensajes de las conversaciones activas, acotada
+ * por bytes Proyecto: CABA Pro - Sistema de Gestión Integral de Arbitraje
+ */
+package com.caba.caba_pro.services;
+
+import com.caba.caba_pro.DTOs.ChatMessageDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Guarda, por conversación, una cola contigua de los últimos mensajes (como máximo {@code
+ * tailMessages}). El límite de memoria es en bytes estimados, no en número de conversaciones: al
+ * superarlo se expulsan las conversaciones usadas hace más tiempo.
+ *
+ * <p>Para mantenerse coherente con el log, {@link #put} y {@link #onAppend} deben llamarse con el
+ * lock de la conversación tomado (ver {@link JsonStorageService}); {@code onAppend} solo actualiza
+ * conversaciones que ya estén en caché.
+ */
+public class ChatTailCache {
+
+  // Estimación de memoria por mensaje (objeto, campos y fecha) más 2 bytes por carácter
+  private static final long MESSAGE_OVERHEAD_BYTES = 120;
+
+  private final long maxBytes;
+  private final int tailMessages;
+  private final LinkedHashMap<String, Tail> tails = new LinkedHashMap<>(16, 0.75f, true);
+  private long totalBytes;
+
+  private final Counter hits;
+  private final Counter misses;
+  private final Counter evictions;
+
+  public ChatTailCache(long maxBytes, int tailMessages, MeterRegistry meterRegistry) {
+    this.maxBytes = maxBytes;
+    this.tailMessages = tailMessages;
+    this.hits = meterRegistry.counter("caba.chat.cache.hits");
+    this.misses = meterRegistry.counter("caba.chat.cache.misses");
+    this.evictions = meterRegistry.counter("caba.chat.cache.evictions");
+    Gauge.builder("caba.chat.cache.bytes", this, ChatTailCache::getTotalBytes)
+        .description("Bytes estimados de mensajes en la caché de chats")
+        .baseUnit("bytes")
+        .register(meterRegistry);
+    Gauge.builder("caba.chat.cache.conversations", this, ChatTailCache::size)
+        .description("Conversaciones en la caché de chats")
+        .register(meterRegistry);
+  }
+
+  public int getTailMessages() {
+    return tailMessages;
+  }
+
+  // Devuelve la página pedida si la caché la cubre entera; null si hay que ir a disco
+  public synchronized List<ChatMessageDto> getPage(String key, Long beforeId, int limit) {
+    Tail tail = tails.get(key);
+    if (tail == null) {
+      misses.increment();
+      return null;
+    }
+    long to = beforeId == null ? tail.lastId : Math.min(beforeId - 1, tail.lastId);
+    long from = Math.max(1, to - limit + 1);
+    if (from < tail.firstId()) {
+      misses.increment();
+      return null;
+    }
+    hits.increment();
+    List<ChatMessageDto> page = new ArrayList<>((int) Math.max(0, to - from + 1));
+    long id = tail.firstId();
+    for (ChatMessageDto message : tail.messages) {
+      if (id >= from && id <= to) {
+        page.add(message);
+      }
+      id++;
+    }
+    return page;
+  }
+
+  // Guarda la cola leída de disco; 'messages' deben ser los últimos de la conversación
+  public synchronized void put(String key, List<ChatMessageDto> messages, long lastId) {
+    remove(key);
+    Tail tail = new Tail(lastId);
+    for (ChatMessageDto message : messages) {
+      tail.add(message);
+    }
+    trim(tail);
+    if (tail.bytes > maxBytes) {
+      return;
+    }
+    tails.put(key, tail);
+    totalBytes += tail.bytes;
+    evictIfNeeded();
+  }
+
+  // Anexa mensajes recién escritos a la conversación, si está en caché
+  public synchronized void onAppend(String key, List<ChatMessageDto> messages) {
+    Tail tail = tails.get(key);
+    if (tail == null || messages.isEmpty()) {
+      return;
+    }
+    long before = tail.bytes;
+    for (ChatMessageDto message : messages) {
+      tail.add(message);
+    }
+    tail.lastId = messages.get(messages.size() - 1).getId();
+    trim(tail);
+    totalBytes += tail.bytes - before;
+    evictIfNeeded();
+  }
+
+  public synchronized void invalidate(String key) {
+    remove(key);
+  }
+
+  public synchronized long getTotalBytes() {
+    return totalBytes;
+  }
+
+  public synchronized int size() {
+    return tails.size();
+  }
+
+  private void remove(String key) {
+    Tail removed = tails.remove(key);
+    if (removed != null) {
+      totalBytes -= removed.bytes;
+    }
+  }
+
+  private void trim(Tail tail) {
+    while (tail.messages.size() > tailMessages) {
+      tail.bytes -= estimateBytes(tail.messages.removeFirst());
+    }
+  }
+
+  private void evictIfNeeded() {
+    Iterator<Map.Entry<String, Tail>> eldest = tails.entrySet().iterator();
+    while (totalBytes > maxBytes && eldest.hasNext()) {
+      totalBytes -= eldest.next().getValue().bytes;
+      eldest.remove();
+      evictions.increment();
+    }
+  }
+
+  static long estimateBytes(ChatMessageDto message) {
+    return MESSAGE_OVERHEAD_BYTES
+        + 2L
+            * (length(message.getContent())
+                + length(message.getRemitente())
+                + length(message.getDestinatario())
+                + length(message.getSenderUsername()));
+  }
+
+  private static int length(String value) {
+    return value != null ? value.length() : 0;
+  }
+
+  private static final class Tail {
+    private final ArrayDeque<ChatMessageDto> messages = new ArrayDeque<>();
+    private long lastId;
+    private long bytes;
+
+    private Tail(long lastId) {
+      this.lastId = lastId;
+    }
+
+    private void add(ChatMessageDto message) {
+      messages.addLast(message);
+      bytes += estimateBytes(message);
+    }
+
+    private long firstId() {
+      return lastId - messages.size() + 1;
+    }
+  }
+}
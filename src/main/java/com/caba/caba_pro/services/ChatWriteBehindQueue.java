@@ -0,0 +1,162 @@
+/**
+ * Archivo: ChatWriteBehindQueue.java Autores: Diego.Gonzalez Fecha última modificación:
+ * [17.10.2026] Descripción: Cola acotada de escritura diferida para mensajes de chat, con commits
+ * agrupados por conversación Proyecto: CABA Pro - Sistema de Gestión Integral de Arbitraje
+ */
+package com.caba.caba_pro.services;
+
+import com.caba.caba_pro.DTOs.ChatMessageDto;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Cola de escritura diferida: el hilo que recibe el mensaje solo lo encola y un único hilo escritor
+ * lo persiste. El escritor toma todo lo pendiente (hasta {@code maxBatchSize}), lo agrupa por
+ * conversación y hace un solo anexado (y un solo fsync) por conversación y lote. Si la cola está
+ * llena, {@link #enqueue} bloquea al productor (backpressure). Al cerrar se vacía la cola antes de
+ * terminar.
+ */
+public class ChatWriteBehindQueue {
+
+  /** Escribe en disco un lote de mensajes de una misma conversación. */
+  public interface BatchWriter {
+    void write(String conversationKey, List<ChatMessageDto> messages) throws IOException;
+  }
+
+  private static final Logger logger = LoggerFactory.getLogger(ChatWriteBehindQueue.class);
+  private static final long POLL_MILLIS = 100;
+  private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+  private final BlockingQueue<PendingMessage> queue;
+  private final int maxBatchSize;
+  private final BatchWriter writer;
+  private final Thread writerThread;
+  private final Timer flushTimer;
+  private final DistributionSummary batchSizes;
+  private volatile boolean running = true;
+
+  public ChatWriteBehindQueue(
+      int capacity, int maxBatchSize, BatchWriter writer, MeterRegistry meterRegistry) {
+    this.queue = new ArrayBlockingQueue<>(capacity);
+    this.maxBatchSize = maxBatchSize;
+    this.writer = writer;
+
+    Gauge.builder("caba.chat.write.queue.depth", queue, BlockingQueue::size)
+        .description("Mensajes de chat pendientes de escribir en disco")
+        .register(meterRegistry);
+    this.flushTimer =
+        Timer.builder("caba.chat.write.flush")
+            .description("Tiempo de escritura de un lote de mensajes de chat")
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+    this.batchSizes =
+        DistributionSummary.builder("caba.chat.write.batch.size")
+            .description("Mensajes de chat escritos por lote")
+            .register(meterRegistry);
+
+    // Daemon para no bloquear la salida de la JVM; el vaciado ordenado lo hace close()
+    this.writerThread = new Thread(this::run, "chat-write-behind");
+    this.writerThread.setDaemon(true);
+    this.writerThread.start();
+  }
+
+  // Encola un mensaje; el futuro se completa con su id cuando queda escrito en disco
+  public CompletableFuture<Long> enqueue(String conversationKey, ChatMessageDto message)
+      throws InterruptedException {
+    if (!running) {
+      throw new IllegalStateException("La cola de escritura de chat está cerrada");
+    }
+    PendingMessage pending = new PendingMessage(conversationKey, message);
+    queue.put(pending);
+    return pending.future;
+  }
+
+  public int depth() {
+    return queue.size();
+  }
+
+  // Deja de aceptar mensajes y espera a que el escritor vacíe la cola
+  public void close() {
+    running = false;
+    try {
+      writerThread.join(TimeUnit.SECONDS.toMillis(SHUTDOWN_TIMEOUT_SECONDS));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    if (writerThread.isAlive()) {
+      logger.error("La cola de chat no terminó de vaciarse: {} mensajes pendientes", queue.size());
+      return;
+    }
+
+    // Mensajes encolados justo mientras se cerraba la cola
+    List<PendingMessage> remaining = new ArrayList<>();
+    queue.drainTo(remaining);
+    if (!remaining.isEmpty()) {
+      flush(remaining);
+    }
+  }
+
+  private void run() {
+    List<PendingMessage> batch = new ArrayList<>(maxBatchSize);
+    while (running || !queue.isEmpty()) {
+      try {
+        PendingMessage first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+        if (first == null) {
+          continue;
+        }
+        batch.add(first);
+        queue.drainTo(batch, maxBatchSize - 1);
+        flush(batch);
+      } catch (InterruptedException e) {
+        // Se ignora: el hilo solo termina cuando la cola está cerrada y vacía
+      } finally {
+        batch.clear();
+      }
+    }
+  }
+
+  private void flush(List<PendingMessage> batch) {
+    long start = System.nanoTime();
+    Map<String, List<PendingMessage>> byConversation = new LinkedHashMap<>();
+    for (PendingMessage pending : batch) {
+      byConversation.computeIfAbsent(pending.conversationKey, k -> new ArrayList<>()).add(pending);
+    }
+
+    for (Map.Entry<String, List<PendingMessage>> entry : byConversation.entrySet()) {
+      List<PendingMessage> pendings = entry.getValue();
+      try {
+        writer.write(entry.getKey(), pendings.stream().map(p -> p.message).toList());
+        pendings.forEach(p -> p.future.complete(p.message.getId()));
+      } catch (Exception e) {
+        logger.error("Error al escribir lote de chat de la conversación {}", entry.getKey(), e);
+        pendings.forEach(p -> p.future.completeExceptionally(e));
+      }
+    }
+    flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    batchSizes.record(batch.size());
+  }
+
+  private static final class PendingMessage {
+    private final String conversationKey;
+    private final ChatMessageDto message;
+    private final CompletableFuture<Long> future = new CompletableFuture<>();
+
+    private PendingMessage(String conversationKey, ChatMessageDto message) {
+      this.conversationKey = conversationKey;
+      this.message = message;
+    }
+  }
+}
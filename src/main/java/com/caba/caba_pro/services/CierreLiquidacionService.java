@@ -0,0 +1,208 @@
+/**
+ * Archivo: CierreLiquidacionService.java Autores: Diego.Gonzalez Fecha última modificación:
+ * 17.10.2026 Descripción: Cierre de períodos de pago y consulta de sus liquidaciones congeladas
+ * Proyecto: CABA Pro - Sistema de Gestión Integral de Arbitraje
+ */
+package com.caba.caba_pro.services;
+
+import com.caba.caba_pro.dto.LiquidacionDTO;
+import com.caba.caba_pro.exceptions.BusinessException;
+import com.caba.caba_pro.models.CandadoLiquidacion;
+import com.caba.caba_pro.models.LiquidacionCerrada;
+import com.caba.caba_pro.repositories.CandadoLiquidacionRepository;
+import com.caba.caba_pro.repositories.LiquidacionCerradaRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Cerrar un período calcula su liquidación una última vez y la guarda como JSON con su hash; desde
+ * entonces se sirve esa copia (con el hash como ETag) en lugar de recalcularla. Los períodos
+ * cerrados no se solapan, y las operaciones que cambiarían lo que se pagó en ellos (completar una
+ * asignación, reprogramar un partido que ya tiene asignaciones completadas) se rechazan con {@link
+ * #verificarPeriodoAbierto}. Crear, aceptar o rechazar asignaciones no cambia lo pagado y se
+ * permite.
+ *
+ * <p>El cierre y esa verificación toman el mismo bloqueo ({@link CandadoLiquidacion}) hasta el
+ * final de su transacción: un cambio verificado se confirma antes de que el cierre calcule la
+ * liquidación, o espera al cierre y se rechaza. Sin eso, un cambio podría pasar la verificación y
+ * confirmarse después de la foto, y la copia congelada no coincidiría con las tablas.
+ */
+@Service
+public class CierreLiquidacionService {
+
+  // 1. Constantes estáticas
+  private static final Logger logger = LoggerFactory.getLogger(CierreLiquidacionService.class);
+  private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+  // 2. Variables de instancia
+  private final LiquidacionCerradaRepository liquidacionCerradaRepository;
+  private final CandadoLiquidacionRepository candadoLiquidacionRepository;
+  private final LiquidacionService liquidacionService;
+  private final ObjectMapper objectMapper;
+  private final TransactionTemplate transaccionPropia;
+
+  // 3. Constructores
+  public CierreLiquidacionService(
+      LiquidacionCerradaRepository liquidacionCerradaRepository,
+      CandadoLiquidacionRepository candadoLiquidacionRepository,
+      LiquidacionService liquidacionService,
+      ObjectMapper objectMapper,
+      PlatformTransactionManager transactionManager) {
+    this.liquidacionCerradaRepository = liquidacionCerradaRepository;
+    this.candadoLiquidacionRepository = candadoLiquidacionRepository;
+    this.liquidacionService = liquidacionService;
+    this.objectMapper = objectMapper;
+    this.transaccionPropia = new TransactionTemplate(transactionManager);
+    transaccionPropia.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+  }
+
+  // 4. Métodos públicos
+
+  @Transactional
+  public LiquidacionCerrada cerrarPeriodo(
+      LocalDate fechaInicio, LocalDate fechaFin, String usuario) {
+    if (fechaInicio.isAfter(fechaFin)) {
+      throw new BusinessException("La fecha de inicio debe ser anterior a la fecha de fin");
+    }
+    bloquearCambiosPagados();
+    if (liquidacionCerradaRepository.existsByFechaInicioLessThanEqualAndFechaFinGreaterThanEqual(
+        fechaFin, fechaInicio)) {
+      throw periodoSolapado(fechaInicio, fechaFin);
+    }
+
+    // Lo que se congela se calcula en este momento, nunca desde la caché de consultas
+    LiquidacionDTO liquidacion =
+        liquidacionService.generarLiquidacionSinCache(
+            fechaInicio.atStartOfDay(), fechaFin.atTime(23, 59, 59));
+    String contenido;
+    try {
+      contenido = objectMapper.writeValueAsString(liquidacion);
+    } catch (JsonProcessingException e) {
+      throw new BusinessException("No se pudo guardar la liquidación del período", e);
+    }
+    LiquidacionCerrada cerrada;
+    try {
+      // La restricción única por día rechaza aquí un cierre simultáneo que se solape
+      cerrada =
+          liquidacionCerradaRepository.saveAndFlush(
+              new LiquidacionCerrada(fechaInicio, fechaFin, contenido, sha256(contenido), usuario));
+    } catch (DataIntegrityViolationException e) {
+      throw periodoSolapado(fechaInicio, fechaFin);
+    }
+
+    logger.info(
+        "Período {} - {} cerrado por {}: {} árbitros, ${} total, hash {}",
+        fechaInicio,
+        fechaFin,
+        usuario,
+        liquidacion.getArbitros().size(),
+        liquidacion.getTotalGeneral(),
+        cerrada.getHash());
+    return cerrada;
+  }
+
+  // Copia congelada del período exacto, si está cerrado
+  @Transactional(readOnly = true)
+  public Optional<LiquidacionCerrada> buscar(LocalDate fechaInicio, LocalDate fechaFin) {
+    return liquidacionCerradaRepository.findByFechaInicioAndFechaFin(fechaInicio, fechaFin);
+  }
+
+  @Transactional(readOnly = true)
+  public List<LiquidacionCerrada> listar() {
+    return liquidacionCerradaRepository.findAllByOrderByFechaInicioDesc();
+  }
+
+  public LiquidacionDTO leer(LiquidacionCerrada cerrada) {
+    try {
+      return objectMapper.readValue(cerrada.getContenido(), LiquidacionDTO.class);
+    } catch (JsonProcessingException e) {
+      throw new BusinessException("No se pudo leer la liquidación del período cerrado", e);
+    }
+  }
+
+  /**
+   * Rechaza cambios sobre asignaciones de partidos cuya fecha cae en un período cerrado. Debe
+   * llamarse dentro de la transacción que hace el cambio: deja tomado hasta su final el bloqueo que
+   * también toma {@link #cerrarPeriodo}.
+   *
+   * @throws BusinessException Si el período está cerrado o se está cerrando uno
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void verificarPeriodoAbierto(LocalDateTime fechaPartido) {
+    if (fechaPartido == null) {
+      return;
+    }
+    bloquearCambiosPagados();
+    LocalDate fecha = fechaPartido.toLocalDate();
+    if (liquidacionCerradaRepository.existsByFechaInicioLessThanEqualAndFechaFinGreaterThanEqual(
+        fecha, fecha)) {
+      throw new BusinessException(
+          "El período de liquidación que incluye el "
+              + fecha.format(DATE_FORMATTER)
+              + " está cerrado; no se pueden modificar sus asignaciones");
+    }
+  }
+
+  // 5. Métodos privados
+
+  // Bloquea la fila de liquidacion_candado hasta el final de la transacción en curso; la primera
+  // vez la crea en una transacción aparte (si dos la crean a la vez, una falla y usa la otra)
+  private void bloquearCambiosPagados() {
+    try {
+      if (candadoLiquidacionRepository.bloquear(CandadoLiquidacion.UNICO).isPresent()) {
+        return;
+      }
+      try {
+        transaccionPropia.executeWithoutResult(
+            estado ->
+                candadoLiquidacionRepository.saveAndFlush(
+                    new CandadoLiquidacion(CandadoLiquidacion.UNICO)));
+      } catch (DataIntegrityViolationException e) {
+        logger.debug("El candado de liquidaciones ya fue creado por otra transacción");
+      }
+      candadoLiquidacionRepository
+          .bloquear(CandadoLiquidacion.UNICO)
+          .orElseThrow(() -> new IllegalStateException("Candado de liquidaciones no creado"));
+    } catch (PessimisticLockingFailureException e) {
+      throw new BusinessException(
+          "Se está cerrando un período de liquidación; intente de nuevo en unos segundos", e);
+    }
+  }
+
+  private static BusinessException periodoSolapado(LocalDate fechaInicio, LocalDate fechaFin) {
+    return new BusinessException(
+        "El período "
+            + fechaInicio.format(DATE_FORMATTER)
+            + " - "
+            + fechaFin.format(DATE_FORMATTER)
+            + " se solapa con un período ya cerrado");
+  }
+
+  private static String sha256(String contenido) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(digest.digest(contenido.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 no disponible", e);
+    }
+  }
+}
@@ -0,0 +1,159 @@
+/**
+ * Archivo: EstadisticaDiariaService.java Autores: Diego.Gonzalez Fecha última modificación:
+ * 17.10.2026 Descripción: Mantenimiento incremental y reconstrucción del acumulado diario de
+ * asignaciones Proyecto: CABA Pro - Sistema de Gestión Integral de Arbitraje
+ */
+package com.caba.caba_pro.services;
+
+import com.caba.caba_pro.enums.AsignacionEstado;
+import com.caba.caba_pro.models.EstadisticaDiaria;
+import com.caba.caba_pro.repositories.AsignacionRepository;
+import com.caba.caba_pro.repositories.EstadisticaDiariaRepository;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Mantiene la tabla {@code estadistica_diaria} (día × árbitro × estado → cantidad y monto) a partir
+ * de los {@link AsignacionCambiadaEvent}: una asignación nueva suma uno en su estado, un cambio de
+ * estado mueve la asignación de una fila a otra y un partido reprogramado la mueve de día. Los
+ * eventos se aplican después de confirmar la transacción que los publicó, en una transacción propia
+ * y de a uno (el método está sincronizado), así que dos cambios del mismo día y árbitro no compiten
+ * por crear la misma fila.
+ *
+ * <p>Si un evento no se puede aplicar el acumulado queda desfasado hasta la próxima reconstrucción
+ * ({@link #reconstruir}), que se hace al iniciar la aplicación cuando los totales no cuadran o a
+ * pedido desde la página de estadísticas.
+ */
+@Service
+public class EstadisticaDiariaService {
+
+  // 1. Constantes estáticas
+  private static final Logger logger = LoggerFactory.getLogger(EstadisticaDiariaService.class);
+
+  // 2. Variables de instancia
+  private final EstadisticaDiariaRepository estadisticaDiariaRepository;
+  private final AsignacionRepository asignacionRepository;
+  private final CacheConsultas cacheConsultas;
+  private final TransactionTemplate transaccionNueva;
+  private final TransactionTemplate transaccion;
+
+  // 3. Constructores
+  public EstadisticaDiariaService(
+      EstadisticaDiariaRepository estadisticaDiariaRepository,
+      AsignacionRepository asignacionRepository,
+      CacheConsultas cacheConsultas,
+      PlatformTransactionManager transactionManager) {
+    this.estadisticaDiariaRepository = estadisticaDiariaRepository;
+    this.asignacionRepository = asignacionRepository;
+    this.cacheConsultas = cacheConsultas;
+    this.transaccionNueva = new TransactionTemplate(transactionManager);
+    this.transaccionNueva.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    this.transaccion = new TransactionTemplate(transactionManager);
+  }
+
+  // 4. Métodos públicos
+
+  // Sin transacción activa (p. ej. desde un controlador) el evento se aplica de inmediato. Va antes
+  // que la invalidación de CacheConsultas para que nadie vuelva a cachear el acumulado viejo
+  @Order(Ordered.HIGHEST_PRECEDENCE)
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onAsignacionCambiada(AsignacionCambiadaEvent event) {
+    try {
+      aplicar(event);
+    } catch (RuntimeException e) {
+      logger.error(
+          "No se pudo actualizar el acumulado diario para la asignación {}; se corregirá al"
+              + " reconstruirlo: {}",
+          event.getAsignacionId(),
+          e.getMessage());
+    }
+  }
+
+  // Aplica un cambio al acumulado en su propia transacción
+  public synchronized void aplicar(AsignacionCambiadaEvent event) {
+    if (event.getEstadoAnterior() == event.getEstadoNuevo()) {
+      return;
+    }
+    transaccionNueva.executeWithoutResult(
+        status -> {
+          if (event.getEstadoAnterior() != null) {
+            sumar(
+                event.getFecha(),
+                event.getArbitroId(),
+                event.getEstadoAnterior(),
+                -1,
+                event.getMonto().negate());
+          }
+          if (event.getEstadoNuevo() != null) {
+            sumar(
+                event.getFecha(),
+                event.getArbitroId(),
+                event.getEstadoNuevo(),
+                1,
+                event.getMonto());
+          }
+        });
+  }
+
+  // Vacía el acumulado y lo recalcula desde las asignaciones; devuelve las filas generadas
+  public synchronized int reconstruir() {
+    Integer filas =
+        transaccion.execute(
+            status -> {
+              estadisticaDiariaRepository.deleteAllInBatch();
+              return estadisticaDiariaRepository.reconstruirDesdeAsignaciones();
+            });
+    cacheConsultas.invalidar(CacheConsultas.Dato.ASIGNACION, null);
+    logger.info("Acumulado diario de asignaciones reconstruido: {} filas", filas);
+    return filas != null ? filas : 0;
+  }
+
+  // Reconstruye solo si la cantidad o el monto de algún estado no coincide con las asignaciones
+  // (tabla nueva, datos cargados por fuera del servicio o eventos perdidos). Comparar solo el
+  // total no detecta un cambio de estado perdido, que deja la misma cantidad en otra fila
+  public int reconstruirSiDesfasado() {
+    Boolean desfasado =
+        transaccion.execute(
+            status ->
+                !porEstado(estadisticaDiariaRepository.sumarCantidadYMontoPorEstado())
+                    .equals(porEstado(asignacionRepository.contarPorEstado())));
+    return Boolean.TRUE.equals(desfasado) ? reconstruir() : 0;
+  }
+
+  // 5. Métodos privados
+
+  // Cantidad y monto de cada estado con asignaciones. El acumulado conserva filas en cero cuando
+  // las asignaciones cambian de estado, y el monto se compara por valor, no por escala
+  private static Map<AsignacionEstado, List<Object>> porEstado(
+      List<AsignacionRepository.ConteoPorEstado> conteos) {
+    Map<AsignacionEstado, List<Object>> resultado = new EnumMap<>(AsignacionEstado.class);
+    for (AsignacionRepository.ConteoPorEstado conteo : conteos) {
+      BigDecimal monto = conteo.getMonto() != null ? conteo.getMonto() : BigDecimal.ZERO;
+      if (conteo.getCantidad() != 0 || monto.signum() != 0) {
+        resultado.put(
+            conteo.getEstado(), List.of(conteo.getCantidad(), monto.stripTrailingZeros()));
+      }
+    }
+    return resultado;
+  }
+
+  private void sumar(
+      LocalDate fecha, Long arbitroId, AsignacionEstado estado, long cantidad, BigDecimal monto) {
+    if (estadisticaDiariaRepository.incrementar(fecha, arbitroId, estado, cantidad, monto) == 0) {
+      estadisticaDiariaRepository.save(
+          new EstadisticaDiaria(fecha, arbitroId, estado, cantidad, monto));
+    }
+  }
+}
@@ -8,15 +8,15 @@ package com.caba.caba_pro.services;
 import com.caba.caba_pro.DTOs.EstadisticasArbitrosDto;
 import com.caba.caba_pro.DTOs.EstadisticasAsignacionesDto;
 import com.caba.caba_pro.DTOs.TopArbitrosDto;
+import com.caba.caba_pro.enums.AsignacionEstado;
 import com.caba.caba_pro.models.Arbitro;
-import com.caba.caba_pro.models.Asignacion;
 import com.caba.caba_pro.repositories.ArbitroRepository;
-import com.caba.caba_pro.repositories.AsignacionRepository;
+import com.caba.caba_pro.repositories.EstadisticaDiariaRepository;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.time.YearMonth;
 import java.util.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,18 +24,73 @@ import org.springframework.transaction.annotation.Transactional;
 @Transactional(readOnly = true)
 public class EstadisticasService {
 
+  private static final int TOP_ARBITROS = 5;
+
   private final ArbitroRepository arbitroRepository;
-  private final AsignacionRepository asignacionRepository;
+  private final EstadisticaDiariaRepository estadisticaDiariaRepository;
+  private final CacheConsultas cacheConsultas;
 
   @Autowired
   public EstadisticasService(
-      ArbitroRepository arbitroRepository, AsignacionRepository asignacionRepository) {
+      ArbitroRepository arbitroRepository,
+      EstadisticaDiariaRepository estadisticaDiariaRepository,
+      CacheConsultas cacheConsultas) {
     this.arbitroRepository = arbitroRepository;
-    this.asignacionRepository = asignacionRepository;
+    this.estadisticaDiariaRepository = estadisticaDiariaRepository;
+    this.cacheConsultas = cacheConsultas;
   }
 
   // Estadísticas generales de árbitros
   public EstadisticasArbitrosDto obtenerEstadisticasArbitros(LocalDate desde, LocalDate hasta) {
+    // No depende del período: una sola entrada en caché
+    return cacheConsultas.obtener(
+        CacheConsultas.Consulta.ESTADISTICAS_ARBITROS,
+        null,
+        null,
+        null,
+        this::contarArbitros,
+        EstadisticasArbitrosDto::new);
+  }
+
+  // Estadísticas de asignaciones aceptadas/rechazadas (rechazadas = todas las no aceptadas)
+  public EstadisticasAsignacionesDto obtenerEstadisticasAsignaciones(
+      LocalDate desde, LocalDate hasta) {
+    // Un período incompleto cuenta como todo el histórico
+    LocalDate inicio = desde != null && hasta != null ? desde : null;
+    LocalDate fin = inicio != null ? hasta : null;
+    return cacheConsultas.obtener(
+        CacheConsultas.Consulta.ESTADISTICAS_ASIGNACIONES,
+        null,
+        inicio,
+        fin,
+        () -> contarAsignaciones(inicio, fin),
+        EstadisticasAsignacionesDto::new);
+  }
+
+  // Top 5 árbitros más activos del mes (solo asignaciones aceptadas)
+  public TopArbitrosDto obtenerTopArbitros(LocalDate desde, LocalDate hasta) {
+    LocalDate inicio;
+    LocalDate fin;
+    if (desde != null && hasta != null) {
+      inicio = desde;
+      fin = hasta;
+    } else {
+      YearMonth mesActual = YearMonth.now();
+      inicio = mesActual.atDay(1);
+      fin = mesActual.atEndOfMonth();
+    }
+    return cacheConsultas.obtener(
+        CacheConsultas.Consulta.TOP_ARBITROS,
+        null,
+        inicio,
+        fin,
+        () -> calcularTop(inicio, fin),
+        TopArbitrosDto::new);
+  }
+
+  // 5. Métodos privados
+
+  private EstadisticasArbitrosDto contarArbitros() {
     List<Arbitro> activos = arbitroRepository.findByActivoTrue();
     EstadisticasArbitrosDto dto = new EstadisticasArbitrosDto();
     dto.setTotalActivos(activos.size());
@@ -54,25 +109,22 @@ public class EstadisticasService {
     return dto;
   }
 
-  // Estadísticas de asignaciones aceptadas/rechazadas
-  public EstadisticasAsignacionesDto obtenerEstadisticasAsignaciones(
-      LocalDate desde, LocalDate hasta) {
-    List<Asignacion> asignaciones = asignacionRepository.findAll();
-    if (desde != null && hasta != null) {
-      LocalDateTime inicio = desde.atStartOfDay();
-      LocalDateTime fin = hasta.atTime(23, 59, 59);
-      asignaciones = filtrarPorFecha(asignaciones, inicio, fin);
-    }
-    int total = asignaciones.size();
+  // Suma desde el acumulado diario; sin período, todo el histórico
+  private EstadisticasAsignacionesDto contarAsignaciones(LocalDate desde, LocalDate hasta) {
+    List<Object[]> conteos =
+        desde != null
+            ? estadisticaDiariaRepository.sumarPorEstadoEntre(desde, hasta)
+            : estadisticaDiariaRepository.sumarPorEstado();
+    int total = 0;
     int aceptadas = 0;
-    int rechazadas = 0;
-    for (Asignacion a : asignaciones) {
-      if (a.isAceptada()) {
-        aceptadas++;
-      } else {
-        rechazadas++;
+    for (Object[] fila : conteos) {
+      int cantidad = ((Number) fila[1]).intValue();
+      total += cantidad;
+      if (fila[0] == AsignacionEstado.ACEPTADA) {
+        aceptadas += cantidad;
       }
     }
+    int rechazadas = total - aceptadas;
     EstadisticasAsignacionesDto dto = new EstadisticasAsignacionesDto();
     dto.setTotalAsignaciones(total);
     dto.setAceptadas(aceptadas);
@@ -82,54 +134,19 @@ public class EstadisticasService {
     return dto;
   }
 
-  // Top 5 árbitros más activos del mes
-  public TopArbitrosDto obtenerTopArbitros(LocalDate desde, LocalDate hasta) {
-    List<Asignacion> asignaciones = asignacionRepository.findAll();
-    LocalDateTime inicio;
-    LocalDateTime fin;
-    if (desde != null && hasta != null) {
-      inicio = desde.atStartOfDay();
-      fin = hasta.atTime(23, 59, 59);
-    } else {
-      YearMonth mesActual = YearMonth.now();
-      inicio = mesActual.atDay(1).atStartOfDay();
-      fin = mesActual.atEndOfMonth().atTime(23, 59, 59);
-    }
-    asignaciones = filtrarPorFecha(asignaciones, inicio, fin);
-    // Solo contar asignaciones aceptadas
-    Map<Long, Integer> conteoPorArbitro = new HashMap<>();
-    Map<Long, String> nombres = new HashMap<>();
-    for (Asignacion a : asignaciones) {
-      if (a.isAceptada()) {
-        Long id = a.getArbitro().getId();
-        conteoPorArbitro.put(id, conteoPorArbitro.getOrDefault(id, 0) + 1);
-        nombres.put(id, a.getArbitro().getNombreCompleto());
-      }
-    }
+  private TopArbitrosDto calcularTop(LocalDate inicio, LocalDate fin) {
     List<TopArbitrosDto.ArbitroActividadDto> lista = new ArrayList<>();
-    for (Map.Entry<Long, Integer> entry : conteoPorArbitro.entrySet()) {
+    for (Object[] fila :
+        estadisticaDiariaRepository.sumarPorArbitroEntre(
+            AsignacionEstado.ACEPTADA, inicio, fin, PageRequest.of(0, TOP_ARBITROS))) {
       TopArbitrosDto.ArbitroActividadDto dto = new TopArbitrosDto.ArbitroActividadDto();
-      dto.setIdArbitro(entry.getKey());
-      dto.setNombreCompleto(nombres.get(entry.getKey()));
-      dto.setCantidadAsignaciones(entry.getValue());
+      dto.setIdArbitro((Long) fila[0]);
+      dto.setNombreCompleto(fila[1] + " " + fila[2]);
+      dto.setCantidadAsignaciones(((Number) fila[3]).intValue());
       lista.add(dto);
     }
-    lista.sort((a, b) -> Integer.compare(b.getCantidadAsignaciones(), a.getCantidadAsignaciones()));
     TopArbitrosDto topDto = new TopArbitrosDto();
-    topDto.setTopArbitros(lista.size() > 5 ? lista.subList(0, 5) : lista);
+    topDto.setTopArbitros(lista);
     return topDto;
   }
-
-  // Utilidad para filtrar asignaciones por fecha
-  private List<Asignacion> filtrarPorFecha(
-      List<Asignacion> asignaciones, LocalDateTime inicio, LocalDateTime fin) {
-    List<Asignacion> filtradas = new ArrayList<>();
-    for (Asignacion a : asignaciones) {
-      if (a.getPartido().getFechaHora().isAfter(inicio.minusSeconds(1))
-          && a.getPartido().getFechaHora().isBefore(fin.plusSeconds(1))) {
-        filtradas.add(a);
-      }
-    }
-    return filtradas;
-  }
 }
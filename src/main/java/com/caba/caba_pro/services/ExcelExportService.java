@@ -5,11 +5,14 @@
  */
 package com.caba.caba_pro.services;
 
+import com.caba.caba_pro.config.ExcelExportProperties;
 import com.caba.caba_pro.models.Arbitro;
 import com.caba.caba_pro.models.Partido;
 import com.caba.caba_pro.models.Torneo;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
@@ -23,6 +26,7 @@ import org.apache.poi.ss.usermodel.IndexedColors;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -31,10 +35,58 @@ import org.springframework.stereotype.Service;
 @Service
 public class ExcelExportService {
 
+  /** Hoja de filas escalares ya leídas, para {@link #exportarHojas}. */
+  public static final class HojaPlana {
+    private final String nombre;
+    private final String[] encabezados;
+    private final Iterable<Object[]> filas;
+
+    public HojaPlana(String nombre, String[] encabezados, Iterable<Object[]> filas) {
+      this.nombre = nombre;
+      this.encabezados = encabezados;
+      this.filas = filas;
+    }
+  }
+
   private static final Logger logger = LoggerFactory.getLogger(ExcelExportService.class);
+  // Filas que el libro en streaming mantiene en memoria por hoja
+  private static final int FILAS_EN_MEMORIA = 100;
   private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
   private static final DateTimeFormatter DATETIME_FORMATTER =
       DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+  private static final String[] ENCABEZADOS_ARBITROS = {
+    "ID",
+    "Nombre",
+    "Apellidos",
+    "Número Identificación",
+    "Email",
+    "Teléfono",
+    "Especialidad",
+    "Escalafón",
+    "Fecha Nacimiento",
+    "Fecha Creación",
+    "Activo"
+  };
+  private static final String[] ENCABEZADOS_PARTIDOS = {
+    "ID", "Nombre", "Fecha y Hora", "Sede", "Equipo Local", "Equipo Visitante", "Estado", "Torneo"
+  };
+  private static final String[] ENCABEZADOS_TORNEOS = {
+    "ID",
+    "Nombre",
+    "Descripción",
+    "Fecha Inicio",
+    "Fecha Fin",
+    "Estado",
+    "Ubicación",
+    "Total Partidos",
+    "Fecha Creación"
+  };
+
+  private final ExcelExportProperties properties;
+
+  public ExcelExportService(ExcelExportProperties properties) {
+    this.properties = properties;
+  }
 
   public byte[] exportarArbitros(List<Arbitro> arbitros) throws IOException {
     logger.info("Exportando {} árbitros a Excel", arbitros.size());
@@ -47,71 +99,7 @@ public class ExcelExportService {
     try (Workbook workbook = new XSSFWorkbook()) {
       Sheet sheet = workbook.createSheet("Árbitros");
       logger.debug("Hoja de Excel 'Árbitros' creada");
-
-      // Crear estilos
-      CellStyle headerStyle = createHeaderStyle(workbook);
-      CellStyle dataStyle = createDataStyle(workbook);
-
-      // Crear encabezados
-      Row headerRow = sheet.createRow(0);
-      String[] headers = {
-        "ID",
-        "Nombre",
-        "Apellidos",
-        "Número Identificación",
-        "Email",
-        "Teléfono",
-        "Especialidad",
-        "Escalafón",
-        "Fecha Nacimiento",
-        "Fecha Creación",
-        "Activo"
-      };
-
-      for (int i = 0; i < headers.length; i++) {
-        Cell cell = headerRow.createCell(i);
-        cell.setCellValue(headers[i]);
-        cell.setCellStyle(headerStyle);
-      }
-
-      // Llenar datos
-      int rowNum = 1;
-      for (Arbitro arbitro : arbitros) {
-        Row row = sheet.createRow(rowNum++);
-
-        createCell(row, 0, arbitro.getId().toString(), dataStyle);
-        createCell(row, 1, arbitro.getNombre(), dataStyle);
-        createCell(row, 2, arbitro.getApellidos(), dataStyle);
-        createCell(row, 3, arbitro.getNumeroIdentificacion(), dataStyle);
-        createCell(row, 4, arbitro.getEmail(), dataStyle);
-        createCell(row, 5, arbitro.getTelefono() != null ? arbitro.getTelefono() : "", dataStyle);
-        createCell(
-            row,
-            6,
-            arbitro.getEspecialidad() != null ? arbitro.getEspecialidad().toString() : "",
-            dataStyle);
-        createCell(row, 7, arbitro.getEscalafon() != null ? arbitro.getEscalafon() : "", dataStyle);
-        createCell(
-            row,
-            8,
-            arbitro.getFechaNacimiento() != null
-                ? arbitro.getFechaNacimiento().format(DATE_FORMATTER)
-                : "",
-            dataStyle);
-        createCell(
-            row,
-            9,
-            arbitro.getFechaCreacion() != null
-                ? arbitro.getFechaCreacion().format(DATETIME_FORMATTER)
-                : "",
-            dataStyle);
-        createCell(row, 10, arbitro.isActivo() ? "Sí" : "No", dataStyle);
-      }
-
-      // Ajustar ancho de columnas
-      for (int i = 0; i < headers.length; i++) {
-        sheet.autoSizeColumn(i);
-      }
+      escribirHoja(workbook, sheet, "arbitros", ENCABEZADOS_ARBITROS, arbitros, this::filaArbitro);
 
       // Convertir a bytes
       ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
@@ -120,65 +108,24 @@ public class ExcelExportService {
     }
   }
 
+  /**
+   * Exporta árbitros a Excel escribiendo directamente en {@code out}, con un libro que mantiene en
+   * memoria solo las últimas filas. Los árbitros se recorren una sola vez, así que pueden venir de
+   * un cursor.
+   *
+   * @return Cantidad de filas de datos escritas
+   */
+  public int exportarArbitros(Iterable<Arbitro> arbitros, OutputStream out) throws IOException {
+    return exportarEnStreaming(
+        "Árbitros", "arbitros", ENCABEZADOS_ARBITROS, arbitros, this::filaArbitro, out);
+  }
+
   public byte[] exportarPartidos(List<Partido> partidos) throws IOException {
     logger.info("Exportando {} partidos a Excel", partidos.size());
 
     try (Workbook workbook = new XSSFWorkbook()) {
       Sheet sheet = workbook.createSheet("Partidos");
-
-      // Crear estilos
-      CellStyle headerStyle = createHeaderStyle(workbook);
-      CellStyle dataStyle = createDataStyle(workbook);
-
-      // Crear encabezados
-      Row headerRow = sheet.createRow(0);
-      String[] headers = {
-        "ID",
-        "Nombre",
-        "Fecha y Hora",
-        "Sede",
-        "Equipo Local",
-        "Equipo Visitante",
-        "Estado",
-        "Torneo"
-      };
-
-      for (int i = 0; i < headers.length; i++) {
-        Cell cell = headerRow.createCell(i);
-        cell.setCellValue(headers[i]);
-        cell.setCellStyle(headerStyle);
-      }
-
-      // Llenar datos
-      int rowNum = 1;
-      for (Partido partido : partidos) {
-        Row row = sheet.createRow(rowNum++);
-
-        createCell(row, 0, partido.getId().toString(), dataStyle);
-        createCell(row, 1, partido.getNombre(), dataStyle);
-        createCell(
-            row,
-            2,
-            partido.getFechaHora() != null ? partido.getFechaHora().format(DATETIME_FORMATTER) : "",
-            dataStyle);
-        createCell(row, 3, partido.getSede() != null ? partido.getSede() : "", dataStyle);
-        createCell(
-            row, 4, partido.getEquipoLocal() != null ? partido.getEquipoLocal() : "", dataStyle);
-        createCell(
-            row,
-            5,
-            partido.getEquipoVisitante() != null ? partido.getEquipoVisitante() : "",
-            dataStyle);
-        createCell(
-            row, 6, partido.getEstado() != null ? partido.getEstado().toString() : "", dataStyle);
-        createCell(
-            row, 7, partido.getTorneo() != null ? partido.getTorneo().getNombre() : "", dataStyle);
-      }
-
-      // Ajustar ancho de columnas
-      for (int i = 0; i < headers.length; i++) {
-        sheet.autoSizeColumn(i);
-      }
+      escribirHoja(workbook, sheet, "partidos", ENCABEZADOS_PARTIDOS, partidos, this::filaPartido);
 
       // Convertir a bytes
       ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
@@ -187,83 +134,219 @@ public class ExcelExportService {
     }
   }
 
+  /** Como {@link #exportarArbitros(Iterable, OutputStream)}, para partidos. */
+  public int exportarPartidos(Iterable<Partido> partidos, OutputStream out) throws IOException {
+    return exportarEnStreaming(
+        "Partidos", "partidos", ENCABEZADOS_PARTIDOS, partidos, this::filaPartido, out);
+  }
+
   public byte[] exportarTorneos(List<Torneo> torneos) throws IOException {
     logger.info("Exportando {} torneos a Excel", torneos.size());
 
     try (Workbook workbook = new XSSFWorkbook()) {
       Sheet sheet = workbook.createSheet("Torneos");
+      escribirHoja(workbook, sheet, "torneos", ENCABEZADOS_TORNEOS, torneos, this::filaTorneo);
 
-      // Crear estilos
-      CellStyle headerStyle = createHeaderStyle(workbook);
-      CellStyle dataStyle = createDataStyle(workbook);
+      // Convertir a bytes
+      ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+      workbook.write(outputStream);
+      return outputStream.toByteArray();
+    }
+  }
 
-      // Crear encabezados
-      Row headerRow = sheet.createRow(0);
-      String[] headers = {
-        "ID",
-        "Nombre",
-        "Descripción",
-        "Fecha Inicio",
-        "Fecha Fin",
-        "Estado",
-        "Ubicación",
-        "Total Partidos",
-        "Fecha Creación"
-      };
+  /** Como {@link #exportarArbitros(Iterable, OutputStream)}, para torneos. */
+  public int exportarTorneos(Iterable<Torneo> torneos, OutputStream out) throws IOException {
+    return exportarEnStreaming(
+        "Torneos", "torneos", ENCABEZADOS_TORNEOS, torneos, this::filaTorneo, out);
+  }
 
-      for (int i = 0; i < headers.length; i++) {
-        Cell cell = headerRow.createCell(i);
-        cell.setCellValue(headers[i]);
-        cell.setCellStyle(headerStyle);
+  /**
+   * Libro con una hoja por elemento de {@code hojas}, en ese orden, escrito con ventana de filas.
+   * Los números quedan como celdas numéricas y las fechas con el formato de las demás hojas.
+   *
+   * @return Cantidad total de filas de datos escritas
+   */
+  public long exportarHojas(List<HojaPlana> hojas, OutputStream out) throws IOException {
+    // close() también borra los archivos temporales de las filas descargadas
+    try (SXSSFWorkbook workbook = new SXSSFWorkbook(FILAS_EN_MEMORIA)) {
+      long filas = 0;
+      for (HojaPlana hoja : hojas) {
+        Sheet sheet = workbook.createSheet(hoja.nombre);
+        filas +=
+            escribirHoja(
+                workbook, sheet, "completa", hoja.encabezados, hoja.filas, this::filaPlana);
       }
+      workbook.write(out);
+      out.flush();
+      logger.info("Exportadas {} filas en {} hojas a Excel en streaming", filas, hojas.size());
+      return filas;
+    }
+  }
 
-      // Llenar datos
-      int rowNum = 1;
-      for (Torneo torneo : torneos) {
-        Row row = sheet.createRow(rowNum++);
+  // Libro con ventana de filas: las ya escritas pasan a un archivo temporal que close() borra
+  private <T> int exportarEnStreaming(
+      String hoja,
+      String exportacion,
+      String[] headers,
+      Iterable<T> items,
+      Fila<T> fila,
+      OutputStream out)
+      throws IOException {
+    try (SXSSFWorkbook workbook = new SXSSFWorkbook(FILAS_EN_MEMORIA)) {
+      Sheet sheet = workbook.createSheet(hoja);
+      int filas = escribirHoja(workbook, sheet, exportacion, headers, items, fila);
+      workbook.write(out);
+      out.flush();
+      logger.info("Exportadas {} filas de '{}' a Excel en streaming", filas, hoja);
+      return filas;
+    }
+  }
 
-        createCell(row, 0, torneo.getId().toString(), dataStyle);
-        createCell(row, 1, torneo.getNombre(), dataStyle);
-        createCell(
-            row, 2, torneo.getDescripcion() != null ? torneo.getDescripcion() : "", dataStyle);
-        createCell(
-            row,
-            3,
-            torneo.getFechaInicio() != null ? torneo.getFechaInicio().format(DATE_FORMATTER) : "",
-            dataStyle);
-        createCell(
-            row,
-            4,
-            torneo.getFechaFin() != null ? torneo.getFechaFin().format(DATE_FORMATTER) : "",
-            dataStyle);
-        createCell(
-            row,
-            5,
-            torneo.getEstado() != null ? torneo.getEstado().getDescripcion() : "",
-            dataStyle);
-        createCell(row, 6, torneo.getUbicacion() != null ? torneo.getUbicacion() : "", dataStyle);
-        createCell(row, 7, String.valueOf(torneo.getTotalPartidos()), dataStyle);
-        createCell(
-            row,
-            8,
-            torneo.getFechaCreacion() != null
-                ? torneo.getFechaCreacion().format(DATETIME_FORMATTER)
-                : "",
-            dataStyle);
-      }
+  // Encabezados, una fila por elemento y ancho de columnas; devuelve las filas de datos escritas
+  private <T> int escribirHoja(
+      Workbook workbook,
+      Sheet sheet,
+      String exportacion,
+      String[] headers,
+      Iterable<T> items,
+      Fila<T> fila) {
+    // Crear estilos
+    CellStyle headerStyle = createHeaderStyle(workbook);
+    CellStyle dataStyle = createDataStyle(workbook);
+    AnchoColumnas anchos = anchoColumnas(exportacion, headers.length);
+    anchos.preparar(sheet);
+
+    // Crear encabezados
+    Row headerRow = sheet.createRow(0);
+    for (int i = 0; i < headers.length; i++) {
+      Cell cell = headerRow.createCell(i);
+      cell.setCellValue(headers[i]);
+      cell.setCellStyle(headerStyle);
+    }
+    anchos.registrarEncabezado(headerRow);
 
-      // Ajustar ancho de columnas
-      for (int i = 0; i < headers.length; i++) {
-        sheet.autoSizeColumn(i);
-      }
+    // Llenar datos
+    int rowNum = 1;
+    for (T item : items) {
+      Row row = sheet.createRow(rowNum++);
+      fila.escribir(row, item, dataStyle);
+      anchos.registrar(row);
+    }
 
-      // Convertir a bytes
-      ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-      workbook.write(outputStream);
-      return outputStream.toByteArray();
+    // Ajustar ancho de columnas
+    anchos.aplicar(sheet);
+    return rowNum - 1;
+  }
+
+  // Cálculo de anchos configurado para la exportación (caba-pro.excel-export)
+  private AnchoColumnas anchoColumnas(String exportacion, int columnas) {
+    return new AnchoColumnas(
+        properties.anchoColumnasPara(exportacion), properties.getFilasMuestra(), columnas);
+  }
+
+  private void filaArbitro(Row row, Arbitro arbitro, CellStyle dataStyle) {
+    createCell(row, 0, arbitro.getId().toString(), dataStyle);
+    createCell(row, 1, arbitro.getNombre(), dataStyle);
+    createCell(row, 2, arbitro.getApellidos(), dataStyle);
+    createCell(row, 3, arbitro.getNumeroIdentificacion(), dataStyle);
+    createCell(row, 4, arbitro.getEmail(), dataStyle);
+    createCell(row, 5, arbitro.getTelefono() != null ? arbitro.getTelefono() : "", dataStyle);
+    createCell(
+        row,
+        6,
+        arbitro.getEspecialidad() != null ? arbitro.getEspecialidad().toString() : "",
+        dataStyle);
+    createCell(row, 7, arbitro.getEscalafon() != null ? arbitro.getEscalafon() : "", dataStyle);
+    createCell(
+        row,
+        8,
+        arbitro.getFechaNacimiento() != null
+            ? arbitro.getFechaNacimiento().format(DATE_FORMATTER)
+            : "",
+        dataStyle);
+    createCell(
+        row,
+        9,
+        arbitro.getFechaCreacion() != null
+            ? arbitro.getFechaCreacion().format(DATETIME_FORMATTER)
+            : "",
+        dataStyle);
+    createCell(row, 10, arbitro.isActivo() ? "Sí" : "No", dataStyle);
+  }
+
+  private void filaPartido(Row row, Partido partido, CellStyle dataStyle) {
+    createCell(row, 0, partido.getId().toString(), dataStyle);
+    createCell(row, 1, partido.getNombre(), dataStyle);
+    createCell(
+        row,
+        2,
+        partido.getFechaHora() != null ? partido.getFechaHora().format(DATETIME_FORMATTER) : "",
+        dataStyle);
+    createCell(row, 3, partido.getSede() != null ? partido.getSede() : "", dataStyle);
+    createCell(row, 4, partido.getEquipoLocal() != null ? partido.getEquipoLocal() : "", dataStyle);
+    createCell(
+        row,
+        5,
+        partido.getEquipoVisitante() != null ? partido.getEquipoVisitante() : "",
+        dataStyle);
+    createCell(
+        row, 6, partido.getEstado() != null ? partido.getEstado().toString() : "", dataStyle);
+    createCell(
+        row, 7, partido.getTorneo() != null ? partido.getTorneo().getNombre() : "", dataStyle);
+  }
+
+  private void filaTorneo(Row row, Torneo torneo, CellStyle dataStyle) {
+    createCell(row, 0, torneo.getId().toString(), dataStyle);
+    createCell(row, 1, torneo.getNombre(), dataStyle);
+    createCell(row, 2, torneo.getDescripcion() != null ? torneo.getDescripcion() : "", dataStyle);
+    createCell(
+        row,
+        3,
+        torneo.getFechaInicio() != null ? torneo.getFechaInicio().format(DATE_FORMATTER) : "",
+        dataStyle);
+    createCell(
+        row,
+        4,
+        torneo.getFechaFin() != null ? torneo.getFechaFin().format(DATE_FORMATTER) : "",
+        dataStyle);
+    createCell(
+        row, 5, torneo.getEstado() != null ? torneo.getEstado().getDescripcion() : "", dataStyle);
+    createCell(row, 6, torneo.getUbicacion() != null ? torneo.getUbicacion() : "", dataStyle);
+    createCell(row, 7, String.valueOf(torneo.getTotalPartidos()), dataStyle);
+    createCell(
+        row,
+        8,
+        torneo.getFechaCreacion() != null
+            ? torneo.getFechaCreacion().format(DATETIME_FORMATTER)
+            : "",
+        dataStyle);
+  }
+
+  private void filaPlana(Row row, Object[] valores, CellStyle dataStyle) {
+    for (int i = 0; i < valores.length; i++) {
+      Object valor = valores[i];
+      if (valor instanceof Number numero) {
+        Cell cell = row.createCell(i);
+        cell.setCellValue(numero.doubleValue());
+        cell.setCellStyle(dataStyle);
+      } else if (valor instanceof LocalDateTime fechaHora) {
+        createCell(row, i, fechaHora.format(DATETIME_FORMATTER), dataStyle);
+      } else if (valor instanceof LocalDate fecha) {
+        createCell(row, i, fecha.format(DATE_FORMATTER), dataStyle);
+      } else if (valor instanceof Boolean booleano) {
+        createCell(row, i, booleano ? "Sí" : "No", dataStyle);
+      } else {
+        createCell(row, i, valor != null ? valor.toString() : "", dataStyle);
+      }
     }
   }
 
+  // Escribe los datos de un elemento en su fila
+  @FunctionalInterface
+  private interface Fila<T> {
+    void escribir(Row row, T item, CellStyle dataStyle);
+  }
+
   private CellStyle createHeaderStyle(Workbook workbook) {
     CellStyle style = workbook.createCellStyle();
     Font font = workbook.createFont();
@@ -345,6 +428,33 @@ public class ExcelExportService {
     }
   }
 
+  /**
+   * Exporta un reporte de liquidación a Excel escribiendo directamente en {@code out}, con el mismo
+   * escritor que la liquidación en streaming.
+   *
+   * @param liquidacion DTO con los datos de liquidación
+   * @param out Flujo donde se escribe el archivo
+   * @throws IOException Si hay error al escribir el archivo
+   */
+  public void exportarLiquidacion(
+      com.caba.caba_pro.dto.LiquidacionDTO liquidacion, OutputStream out) throws IOException {
+    if (liquidacion == null || liquidacion.getArbitros().isEmpty()) {
+      throw new IllegalArgumentException("No hay datos de liquidación para exportar");
+    }
+    logger.info(
+        "Exportando liquidación de {} árbitros a Excel en streaming",
+        liquidacion.getArbitros().size());
+
+    try (LiquidacionEscritor escritor = escritorLiquidacion(out)) {
+      escritor.iniciar(liquidacion, liquidacion.getArbitros().size());
+      for (com.caba.caba_pro.dto.LiquidacionDTO.LiquidacionArbitroDTO arbitro :
+          liquidacion.getArbitros()) {
+        escritor.escribirArbitro(arbitro);
+      }
+      escritor.terminar();
+    }
+  }
+
   private void crearHojaResumenLiquidacion(
       Sheet sheet,
       com.caba.caba_pro.dto.LiquidacionDTO liquidacion,
@@ -427,10 +537,19 @@ public class ExcelExportService {
       moneyCell.setCellStyle(moneyStyle);
     }
 
-    // Ajustar anchos
-    for (int i = 0; i < 5; i++) {
-      sheet.autoSizeColumn(i);
+    // Ajustar anchos (el título está combinado y no cuenta)
+    AnchoColumnas anchos = anchoColumnas("liquidacion", 5);
+    for (Row row : sheet) {
+      if (row.getRowNum() == 0) {
+        continue;
+      }
+      if (row.getRowNum() <= arbitrosHeaderRow.getRowNum()) {
+        anchos.registrarEncabezado(row);
+      } else {
+        anchos.registrar(row);
+      }
     }
+    anchos.aplicar(sheet);
   }
 
   private void crearHojaDetalleLiquidacion(
@@ -457,6 +576,9 @@ public class ExcelExportService {
     for (int i = 0; i < headers.length; i++) {
       createCell(headerRow, i, headers[i], headerStyle);
     }
+    // Las filas de título de cada árbitro están combinadas y no cuentan
+    AnchoColumnas anchos = anchoColumnas("liquidacion", headers.length);
+    anchos.registrarEncabezado(headerRow);
 
     // Iterar por árbitro
     for (com.caba.caba_pro.dto.LiquidacionDTO.LiquidacionArbitroDTO arbitro :
@@ -488,6 +610,7 @@ public class ExcelExportService {
         Cell moneyCell = row.createCell(5);
         moneyCell.setCellValue(partido.getMontoPago().doubleValue());
         moneyCell.setCellStyle(moneyStyle);
+        anchos.registrar(row);
       }
 
       // Subtotal del árbitro
@@ -496,13 +619,198 @@ public class ExcelExportService {
       Cell subtotalCell = subtotalRow.createCell(5);
       subtotalCell.setCellValue(arbitro.getTotalAPagar().doubleValue());
       subtotalCell.setCellStyle(subtotalStyle);
+      anchos.registrar(subtotalRow);
 
       rowNum++; // Espacio entre árbitros
     }
 
     // Ajustar anchos
-    for (int i = 0; i < headers.length; i++) {
-      sheet.autoSizeColumn(i);
+    anchos.aplicar(sheet);
+  }
+
+  /**
+   * Escritor de liquidaciones en Excel para el modo streaming: usa un libro con ventana de filas
+   * (las filas ya escritas pasan a un archivo temporal) y arma ambas hojas a la vez, la de resumen
+   * con una fila por árbitro y la de detalle con sus partidos. El libro se vuelca en {@code out} al
+   * terminar; los anchos de columna se calculan a medida que se escriben las filas.
+   *
+   * @param out Flujo donde se escribe el archivo
+   * @return Escritor que debe cerrarse al terminar
+   */
+  public LiquidacionEscritor escritorLiquidacion(OutputStream out) {
+    return new LiquidacionExcelEscritor(out);
+  }
+
+  private final class LiquidacionExcelEscritor implements LiquidacionEscritor {
+    private final OutputStream out;
+    private final SXSSFWorkbook workbook = new SXSSFWorkbook(FILAS_EN_MEMORIA);
+    private final CellStyle headerStyle;
+    private final CellStyle dataStyle;
+    private final CellStyle moneyStyle;
+    private final CellStyle subtotalStyle;
+    private final Sheet resumenSheet;
+    private final Sheet detalleSheet;
+    private final AnchoColumnas anchosResumen = anchoColumnas("liquidacion", 5);
+    private final AnchoColumnas anchosDetalle = anchoColumnas("liquidacion", 6);
+    private int resumenRow;
+    private int detalleRow;
+
+    private LiquidacionExcelEscritor(OutputStream out) {
+      this.out = out;
+      headerStyle = createHeaderStyle(workbook);
+      dataStyle = createDataStyle(workbook);
+      moneyStyle = createDataStyle(workbook);
+      moneyStyle.setDataFormat(workbook.createDataFormat().getFormat("$#,##0.00"));
+      subtotalStyle = workbook.createCellStyle();
+      subtotalStyle.cloneStyleFrom(dataStyle);
+      Font boldFont = workbook.createFont();
+      boldFont.setBold(true);
+      subtotalStyle.setFont(boldFont);
+      subtotalStyle.setDataFormat(workbook.createDataFormat().getFormat("$#,##0.00"));
+      resumenSheet = workbook.createSheet("Resumen");
+      detalleSheet = workbook.createSheet("Detalle por Árbitro");
+      anchosResumen.preparar(resumenSheet);
+      anchosDetalle.preparar(detalleSheet);
+    }
+
+    @Override
+    public void iniciar(com.caba.caba_pro.dto.LiquidacionDTO cabecera, long totalArbitros) {
+      // Hoja de resumen: mismo encabezado que exportarLiquidacion
+      Row titleRow = resumenSheet.createRow(resumenRow++);
+      createCell(titleRow, 0, "REPORTE DE LIQUIDACIÓN DE ÁRBITROS", headerStyle);
+      resumenSheet.addMergedRegion(new org.apache.poi.ss.util.CellRangeAddress(0, 0, 0, 4));
+      resumenRow++;
+
+      Row periodoRow = resumenSheet.createRow(resumenRow++);
+      createCell(periodoRow, 0, "Período:", dataStyle);
+      createCell(
+          periodoRow,
+          1,
+          cabecera.getFechaInicio().format(DATETIME_FORMATTER)
+              + " - "
+              + cabecera.getFechaFin().format(DATETIME_FORMATTER),
+          dataStyle);
+      Row generacionRow = resumenSheet.createRow(resumenRow++);
+      createCell(generacionRow, 0, "Fecha de generación:", dataStyle);
+      createCell(
+          generacionRow, 1, cabecera.getFechaGeneracion().format(DATETIME_FORMATTER), dataStyle);
+      resumenRow++;
+
+      Row statsHeaderRow = resumenSheet.createRow(resumenRow++);
+      createCell(statsHeaderRow, 0, "Concepto", headerStyle);
+      createCell(statsHeaderRow, 1, "Cantidad/Valor", headerStyle);
+      Row totalArbitrosRow = resumenSheet.createRow(resumenRow++);
+      createCell(totalArbitrosRow, 0, "Total de árbitros", dataStyle);
+      createCell(totalArbitrosRow, 1, String.valueOf(totalArbitros), dataStyle);
+      Row totalPartidosRow = resumenSheet.createRow(resumenRow++);
+      createCell(totalPartidosRow, 0, "Total de partidos", dataStyle);
+      createCell(totalPartidosRow, 1, String.valueOf(cabecera.getTotalPartidos()), dataStyle);
+      Row totalAsignacionesRow = resumenSheet.createRow(resumenRow++);
+      createCell(totalAsignacionesRow, 0, "Total de asignaciones", dataStyle);
+      createCell(
+          totalAsignacionesRow, 1, String.valueOf(cabecera.getTotalAsignaciones()), dataStyle);
+      resumenRow++;
+
+      Row totalGeneralRow = resumenSheet.createRow(resumenRow++);
+      createCell(totalGeneralRow, 0, "TOTAL A PAGAR", headerStyle);
+      Cell totalCell = totalGeneralRow.createCell(1);
+      totalCell.setCellValue(cabecera.getTotalGeneral().doubleValue());
+      totalCell.setCellStyle(moneyStyle);
+      resumenRow += 2;
+
+      Row arbitrosHeaderRow = resumenSheet.createRow(resumenRow++);
+      createCell(arbitrosHeaderRow, 0, "Árbitro", headerStyle);
+      createCell(arbitrosHeaderRow, 1, "Identificación", headerStyle);
+      createCell(arbitrosHeaderRow, 2, "Escalafón", headerStyle);
+      createCell(arbitrosHeaderRow, 3, "Cant. Partidos", headerStyle);
+      createCell(arbitrosHeaderRow, 4, "Total a Pagar", headerStyle);
+      for (Row fija :
+          new Row[] {
+            periodoRow,
+            generacionRow,
+            statsHeaderRow,
+            totalArbitrosRow,
+            totalPartidosRow,
+            totalAsignacionesRow,
+            totalGeneralRow,
+            arbitrosHeaderRow
+          }) {
+        anchosResumen.registrarEncabezado(fija);
+      }
+
+      // Hoja de detalle
+      Row detalleTitleRow = detalleSheet.createRow(detalleRow++);
+      createCell(detalleTitleRow, 0, "DETALLE DE LIQUIDACIÓN POR ÁRBITRO", headerStyle);
+      detalleSheet.addMergedRegion(new org.apache.poi.ss.util.CellRangeAddress(0, 0, 0, 5));
+      detalleRow++;
+      String[] headers = {"Árbitro", "Fecha Partido", "Partido", "Torneo", "Posición", "Monto"};
+      Row headerRow = detalleSheet.createRow(detalleRow++);
+      for (int i = 0; i < headers.length; i++) {
+        createCell(headerRow, i, headers[i], headerStyle);
+      }
+      anchosDetalle.registrarEncabezado(headerRow);
+    }
+
+    @Override
+    public void escribirArbitro(
+        com.caba.caba_pro.dto.LiquidacionDTO.LiquidacionArbitroDTO arbitro) {
+      Row row = resumenSheet.createRow(resumenRow++);
+      createCell(row, 0, arbitro.getNombreCompleto(), dataStyle);
+      createCell(row, 1, arbitro.getNumeroIdentificacion(), dataStyle);
+      createCell(row, 2, arbitro.getEscalafon(), dataStyle);
+      createCell(row, 3, String.valueOf(arbitro.getCantidadPartidos()), dataStyle);
+      Cell totalArbitro = row.createCell(4);
+      totalArbitro.setCellValue(arbitro.getTotalAPagar().doubleValue());
+      totalArbitro.setCellStyle(moneyStyle);
+      anchosResumen.registrar(row);
+
+      Row arbitroRow = detalleSheet.createRow(detalleRow++);
+      Cell arbitroCell = arbitroRow.createCell(0);
+      arbitroCell.setCellValue(
+          arbitro.getNombreCompleto()
+              + " - "
+              + arbitro.getNumeroIdentificacion()
+              + " ("
+              + arbitro.getEscalafon()
+              + ")");
+      arbitroCell.setCellStyle(headerStyle);
+      detalleSheet.addMergedRegion(
+          new org.apache.poi.ss.util.CellRangeAddress(detalleRow - 1, detalleRow - 1, 0, 5));
+
+      for (com.caba.caba_pro.dto.LiquidacionDTO.DetallePartidoDTO partido : arbitro.getPartidos()) {
+        Row partidoRow = detalleSheet.createRow(detalleRow++);
+        createCell(partidoRow, 0, "", dataStyle);
+        createCell(partidoRow, 1, partido.getFechaPartido().format(DATETIME_FORMATTER), dataStyle);
+        createCell(partidoRow, 2, partido.getNombrePartido(), dataStyle);
+        createCell(partidoRow, 3, partido.getTorneo(), dataStyle);
+        createCell(partidoRow, 4, partido.getPosicion(), dataStyle);
+        Cell moneyCell = partidoRow.createCell(5);
+        moneyCell.setCellValue(partido.getMontoPago().doubleValue());
+        moneyCell.setCellStyle(moneyStyle);
+        anchosDetalle.registrar(partidoRow);
+      }
+
+      Row subtotalRow = detalleSheet.createRow(detalleRow++);
+      createCell(subtotalRow, 4, "Subtotal:", subtotalStyle);
+      Cell subtotalCell = subtotalRow.createCell(5);
+      subtotalCell.setCellValue(arbitro.getTotalAPagar().doubleValue());
+      subtotalCell.setCellStyle(subtotalStyle);
+      anchosDetalle.registrar(subtotalRow);
+      detalleRow++;
+    }
+
+    @Override
+    public void terminar() throws IOException {
+      anchosResumen.aplicar(resumenSheet);
+      anchosDetalle.aplicar(detalleSheet);
+      workbook.write(out);
+      out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+      // También borra los archivos temporales de las filas descargadas
+      workbook.close();
     }
   }
 }
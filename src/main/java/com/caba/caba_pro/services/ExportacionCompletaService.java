@@ -0,0 +1,419 @@
+/**
+ * Archivo: ExportacionCompletaService.java Autores: Diego.Gonzalez Fecha última modificación:
+ * 17.10.2026 Descripción: Exportación de todos los datos en un libro o un zip, leyendo las partes
+ * en paralelo Proyecto: CABA Pro - Sistema de Gestión Integral de Arbitraje
+ */
+package com.caba.caba_pro.services;
+
+import com.caba.caba_pro.config.ExportacionCompletaProperties;
+import com.caba.caba_pro.exceptions.BusinessException;
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+/**
+ * Exporta árbitros, partidos, torneos, asignaciones y, si se indica un período, la liquidación en
+ * una sola descarga: un libro Excel con una hoja por parte o un zip con un CSV por parte.
+ *
+ * <p>Cada parte se lee en su propio hilo con {@link ExportacionDatosService}, es decir, con su
+ * propia transacción de solo lectura y su propia conexión, y se vuelca a un archivo temporal. Así
+ * la descarga tarda lo que la parte más lenta y no la suma de todas. Después se arma la salida en
+ * el orden fijo de las partes: en el zip se copian los CSV tal cual; en el libro, como POI no
+ * permite escribir hojas de un mismo libro desde varios hilos, las filas se guardan serializadas y
+ * se vuelcan a las hojas en un solo hilo. Las partes no son una foto única de la base: cada una ve
+ * los datos confirmados al empezar su consulta.
+ */
+@Service
+public class ExportacionCompletaService {
+
+  /** Formatos de la exportación completa con su tipo de contenido y extensión. */
+  public enum Formato {
+    EXCEL("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", "xlsx"),
+    ZIP("application/zip", "zip");
+
+    private final String contentType;
+    private final String extension;
+
+    Formato(String contentType, String extension) {
+      this.contentType = contentType;
+      this.extension = extension;
+    }
+
+    public String getContentType() {
+      return contentType;
+    }
+
+    public String getExtension() {
+      return extension;
+    }
+  }
+
+  // 1. Constantes estáticas
+  private static final Logger logger = LoggerFactory.getLogger(ExportacionCompletaService.class);
+  // Cada cuántas filas se olvidan las referencias ya escritas del flujo serializado
+  private static final int FILAS_POR_RESET = 1000;
+  // Únicas clases que se aceptan al leer las filas serializadas: los valores escalares de las
+  // consultas de exportación (las fechas viajan como java.time.Ser)
+  private static final ObjectInputFilter CLASES_DE_FILAS =
+      ObjectInputFilter.Config.createFilter(
+          "maxdepth=4;java.lang.Object;java.lang.String;java.lang.Number;java.lang.Long;"
+              + "java.lang.Integer;java.lang.Boolean;java.lang.Enum;java.math.BigDecimal;"
+              + "java.math.BigInteger;java.time.Ser;java.time.LocalDate;java.time.LocalDateTime;"
+              + "com.caba.caba_pro.enums.*;!*");
+  // 2. Variables de instancia
+  private final ExportacionDatosService exportacionDatosService;
+  private final ExcelExportService excelExportService;
+  private final ThreadPoolTaskExecutor executor;
+
+  // 3. Constructores
+  public ExportacionCompletaService(
+      ExportacionDatosService exportacionDatosService,
+      ExcelExportService excelExportService,
+      ExportacionCompletaProperties properties) {
+    this.exportacionDatosService = exportacionDatosService;
+    this.excelExportService = excelExportService;
+    executor = new ThreadPoolTaskExecutor();
+    executor.setThreadNamePrefix("exportacion-");
+    executor.setCorePoolSize(properties.getPoolSize());
+    executor.setMaxPoolSize(properties.getPoolSize());
+    executor.setQueueCapacity(properties.getQueueCapacity());
+    executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+    executor.initialize();
+  }
+
+  // 4. Métodos públicos
+
+  /**
+   * Empieza a leer todas las partes en paralelo y devuelve de inmediato; la salida se escribe con
+   * {@link Exportacion#escribir}. Sin período se exportan todas las asignaciones y no hay
+   * liquidación.
+   *
+   * @throws BusinessException Si hay demasiadas exportaciones en curso
+   * @throws IllegalArgumentException Si el período está incompleto o invertido
+   */
+  public Exportacion iniciar(Formato formato, LocalDate fechaInicio, LocalDate fechaFin) {
+    if ((fechaInicio == null) != (fechaFin == null)) {
+      throw new IllegalArgumentException("El período requiere fecha de inicio y de fin");
+    }
+    if (fechaInicio != null && fechaInicio.isAfter(fechaFin)) {
+      throw new IllegalArgumentException("La fecha de inicio debe ser anterior a la fecha de fin");
+    }
+    List<ExportacionDatosService.Conjunto> conjuntos =
+        new ArrayList<>(
+            List.of(
+                ExportacionDatosService.Conjunto.ARBITROS,
+                ExportacionDatosService.Conjunto.PARTIDOS,
+                ExportacionDatosService.Conjunto.TORNEOS,
+                ExportacionDatosService.Conjunto.ASIGNACIONES));
+    if (fechaInicio != null) {
+      conjuntos.add(ExportacionDatosService.Conjunto.LIQUIDACION);
+    }
+
+    Exportacion exportacion = new Exportacion(formato);
+    try {
+      for (ExportacionDatosService.Conjunto conjunto : conjuntos) {
+        Parte parte = new Parte(conjunto);
+        exportacion.partes.add(parte);
+        parte.lectura = executor.submit(() -> leer(parte, formato, fechaInicio, fechaFin));
+      }
+    } catch (RejectedExecutionException e) {
+      exportacion.close();
+      throw new BusinessException(
+          "Hay demasiadas exportaciones en proceso; intente de nuevo en unos minutos");
+    }
+    return exportacion;
+  }
+
+  @PreDestroy
+  public void detener() {
+    executor.shutdown();
+  }
+
+  /**
+   * Exportación en curso. Hay que cerrarla siempre, se haya escrito o no: cancela las lecturas
+   * pendientes y borra los temporales.
+   */
+  public final class Exportacion implements AutoCloseable {
+    private final Formato formato;
+    private final List<Parte> partes = new ArrayList<>();
+
+    private Exportacion(Formato formato) {
+      this.formato = formato;
+    }
+
+    public Formato getFormato() {
+      return formato;
+    }
+
+    /**
+     * Espera a que terminen todas las lecturas y escribe el libro o el zip en {@code out}.
+     *
+     * @return Cantidad total de filas de datos
+     * @throws IOException Si falla la lectura de alguna parte o la escritura
+     */
+    public long escribir(OutputStream out) throws IOException {
+      long inicio = System.nanoTime();
+      long filas = 0;
+      for (Parte parte : partes) {
+        filas += esperar(parte);
+      }
+      long lectura = System.nanoTime();
+
+      if (formato == Formato.ZIP) {
+        ZipOutputStream zip = new ZipOutputStream(out);
+        for (Parte parte : partes) {
+          zip.putNextEntry(new ZipEntry(parte.nombre() + ".csv"));
+          Files.copy(parte.archivo(), zip);
+          zip.closeEntry();
+        }
+        zip.finish();
+        zip.flush();
+      } else {
+        List<ExcelExportService.HojaPlana> hojas = new ArrayList<>();
+        List<FilasSerializadas> abiertas = new ArrayList<>();
+        for (Parte parte : partes) {
+          hojas.add(
+              new ExcelExportService.HojaPlana(
+                  parte.hoja(),
+                  parte.conjunto.getColumnas(),
+                  () -> {
+                    FilasSerializadas filasDeParte = new FilasSerializadas(parte);
+                    abiertas.add(filasDeParte);
+                    return filasDeParte;
+                  }));
+        }
+        try {
+          excelExportService.exportarHojas(hojas, out);
+        } catch (UncheckedIOException e) {
+          throw e.getCause();
+        } finally {
+          // También las que quedaron a medias si el libro falló antes de terminar de leerlas
+          for (FilasSerializadas filasDeParte : abiertas) {
+            filasDeParte.close();
+          }
+        }
+      }
+      logger.info(
+          "Exportación completa en {}: {} filas en {} partes; lectura {} ms, armado {} ms",
+          formato,
+          filas,
+          partes.size(),
+          (lectura - inicio) / 1_000_000,
+          (System.nanoTime() - lectura) / 1_000_000);
+      return filas;
+    }
+
+    @Override
+    public void close() {
+      // Sin interrumpir: una lectura en curso termina sola y borra su temporal (ver Parte)
+      for (Parte parte : partes) {
+        if (parte.lectura != null) {
+          parte.lectura.cancel(false);
+        }
+        parte.borrar();
+      }
+    }
+  }
+
+  // 5. Métodos privados
+
+  // Lee la parte a su archivo temporal: CSV para el zip, filas serializadas para el libro
+  private long leer(Parte parte, Formato formato, LocalDate fechaInicio, LocalDate fechaFin)
+      throws IOException {
+    Path archivo = parte.crearArchivo();
+    try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(archivo))) {
+      if (formato == Formato.ZIP) {
+        return exportacionDatosService.exportar(
+            parte.conjunto, ExportacionDatosService.Formato.CSV, fechaInicio, fechaFin, out);
+      }
+      ObjectOutputStream serializadas = new ObjectOutputStream(out);
+      long[] filas = {0};
+      exportacionDatosService.recorrer(
+          parte.conjunto,
+          fechaInicio,
+          fechaFin,
+          valores -> {
+            serializadas.writeObject(valores);
+            if (++filas[0] % FILAS_POR_RESET == 0) {
+              serializadas.reset();
+            }
+          });
+      serializadas.writeObject(null); // Fin de las filas
+      serializadas.flush();
+      return filas[0];
+    } finally {
+      if (parte.cerrada) {
+        parte.borrar();
+      }
+    }
+  }
+
+  private static long esperar(Parte parte) throws IOException {
+    try {
+      return parte.lectura.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Exportación interrumpida", e);
+    } catch (ExecutionException e) {
+      Throwable causa = e.getCause();
+      if (causa instanceof IOException io) {
+        throw io;
+      }
+      if (causa instanceof RuntimeException runtime) {
+        throw runtime;
+      }
+      throw new IOException("Error al leer " + parte.nombre(), causa);
+    }
+  }
+
+  // Una parte de la exportación; su temporal se crea y se borra bajo el mismo candado, así que
+  // una lectura que empieza o termina después de cerrar la exportación no deja archivos sueltos
+  private static final class Parte {
+    private final ExportacionDatosService.Conjunto conjunto;
+    private Path archivo;
+    private volatile boolean cerrada;
+    private Future<Long> lectura;
+
+    private Parte(ExportacionDatosService.Conjunto conjunto) {
+      this.conjunto = conjunto;
+    }
+
+    private String nombre() {
+      return conjunto.name().toLowerCase(Locale.ROOT);
+    }
+
+    private String hoja() {
+      return switch (conjunto) {
+        case ARBITROS -> "Árbitros";
+        case PARTIDOS -> "Partidos";
+        case TORNEOS -> "Torneos";
+        case ASIGNACIONES -> "Asignaciones";
+        case LIQUIDACION -> "Liquidación";
+      };
+    }
+
+    private synchronized Path crearArchivo() throws IOException {
+      if (cerrada) {
+        throw new IOException("Exportación cancelada");
+      }
+      archivo = Files.createTempFile("exportacion-" + nombre() + "-", ".tmp");
+      return archivo;
+    }
+
+    private synchronized Path archivo() {
+      return archivo;
+    }
+
+    private synchronized void borrar() {
+      cerrada = true;
+      if (archivo == null) {
+        return;
+      }
+      try {
+        Files.deleteIfExists(archivo);
+      } catch (IOException e) {
+        logger.warn("No se pudo borrar el temporal {}: {}", archivo, e.getMessage());
+      }
+    }
+  }
+
+  // Lee de vuelta las filas serializadas de una parte, una a la vez y solo con las clases de
+  // CLASES_DE_FILAS; cerrarla libera el archivo y lo borra, se haya leído entero o no
+  private static final class FilasSerializadas implements Iterator<Object[]>, Closeable {
+    private final Parte parte;
+    private final ObjectInputStream in;
+    private Object[] siguiente;
+
+    private FilasSerializadas(Parte parte) {
+      this.parte = parte;
+      InputStream archivo = null;
+      try {
+        archivo = new BufferedInputStream(Files.newInputStream(parte.archivo()));
+        this.in = new ObjectInputStream(archivo);
+        in.setObjectInputFilter(CLASES_DE_FILAS);
+      } catch (IOException e) {
+        cerrar(archivo);
+        throw new UncheckedIOException(e);
+      }
+      avanzar();
+    }
+
+    @Override
+    public boolean hasNext() {
+      return siguiente != null;
+    }
+
+    @Override
+    public Object[] next() {
+      if (siguiente == null) {
+        throw new NoSuchElementException();
+      }
+      Object[] actual = siguiente;
+      avanzar();
+      return actual;
+    }
+
+    @Override
+    public void close() {
+      siguiente = null;
+      cerrar(in);
+      parte.borrar();
+    }
+
+    private void avanzar() {
+      boolean leida = false;
+      try {
+        siguiente = (Object[]) in.readObject();
+        leida = true;
+      } catch (EOFException e) {
+        throw new UncheckedIOException("Filas serializadas incompletas", e);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      } catch (ClassNotFoundException e) {
+        throw new IllegalStateException(e);
+      } finally {
+        if (!leida || siguiente == null) {
+          close();
+        }
+      }
+    }
+
+    private static void cerrar(InputStream in) {
+      if (in == null) {
+        return;
+      }
+      try {
+        in.close();
+      } catch (IOException e) {
+        logger.warn("No se pudo cerrar el temporal de la exportación: {}", e.getMessage());
+      }
+    }
+  }
+}
@@ -0,0 +1,453 @@
+/**
+ * Archivo: ExportacionDatosService.java Autores: Diego.Gonzalez Fecha última modificación:
+ * 17.10.2026 Descripción: Exportaciones planas en CSV y NDJSON escritas fila a fila desde un cursor
+ * Proyecto: CABA Pro - Sistema de Gestión Integral de Arbitraje
+ */
+package com.caba.caba_pro.services;
+
+import com.caba.caba_pro.dto.LiquidacionDTO;
+import com.caba.caba_pro.dto.LiquidacionFilaDTO;
+import com.caba.caba_pro.enums.AsignacionEstado;
+import com.caba.caba_pro.models.LiquidacionCerrada;
+import com.caba.caba_pro.repositories.ArbitroRepository;
+import com.caba.caba_pro.repositories.AsignacionRepository;
+import com.caba.caba_pro.repositories.PartidoRepository;
+import com.caba.caba_pro.repositories.TorneoRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Exporta árbitros, partidos, torneos, asignaciones y liquidaciones en CSV (RFC 4180, UTF-8, con
+ * encabezado) o NDJSON (un objeto JSON por línea) para herramientas de nómina y BI. Cada fila se
+ * lee de un cursor de filas escalares y se escribe en cuanto llega, así que la memoria no depende
+ * del tamaño de la exportación. Las fechas van en ISO-8601, los montos sin notación científica y
+ * los enums con su nombre.
+ *
+ * <p>La liquidación sale con una fila por asignación completada; si el período está cerrado se
+ * exporta la copia congelada.
+ */
+@Service
+public class ExportacionDatosService {
+
+  /** Conjuntos de datos exportables. */
+  public enum Conjunto {
+    ARBITROS(
+        "id",
+        "nombre",
+        "apellidos",
+        "numero_identificacion",
+        "email",
+        "telefono",
+        "especialidad",
+        "escalafon",
+        "fecha_nacimiento",
+        "fecha_creacion",
+        "activo"),
+    PARTIDOS(
+        "id",
+        "nombre",
+        "fecha_hora",
+        "sede",
+        "equipo_local",
+        "equipo_visitante",
+        "estado",
+        "torneo",
+        "activo"),
+    TORNEOS(
+        "id",
+        "nombre",
+        "descripcion",
+        "fecha_inicio",
+        "fecha_fin",
+        "estado",
+        "ubicacion",
+        "total_partidos",
+        "fecha_creacion",
+        "activo"),
+    ASIGNACIONES(
+        "id",
+        "estado",
+        "posicion",
+        "monto_pago",
+        "asignado_en",
+        "respondido_en",
+        "arbitro_id",
+        "arbitro",
+        "numero_identificacion",
+        "partido_id",
+        "partido",
+        "fecha_partido",
+        "torneo"),
+    LIQUIDACION(
+        "arbitro_id",
+        "arbitro",
+        "numero_identificacion",
+        "escalafon",
+        "partido_id",
+        "partido",
+        "torneo",
+        "fecha_partido",
+        "posicion",
+        "monto_pago");
+
+    private final String[] columnas;
+
+    Conjunto(String... columnas) {
+      this.columnas = columnas;
+    }
+
+    public String[] getColumnas() {
+      return columnas.clone();
+    }
+
+    // Asignaciones y liquidación se filtran por la fecha del partido
+    public boolean usaPeriodo() {
+      return this == ASIGNACIONES || this == LIQUIDACION;
+    }
+  }
+
+  /** Formatos de salida con su tipo de contenido y extensión. */
+  public enum Formato {
+    CSV("text/csv; charset=UTF-8", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String contentType;
+    private final String extension;
+
+    Formato(String contentType, String extension) {
+      this.contentType = contentType;
+      this.extension = extension;
+    }
+
+    public String getContentType() {
+      return contentType;
+    }
+
+    public String getExtension() {
+      return extension;
+    }
+  }
+
+  /** Recibe las filas de un conjunto. */
+  @FunctionalInterface
+  public interface Destino {
+    void fila(Object[] valores) throws IOException;
+  }
+
+  // 1. Constantes estáticas
+  private static final Logger logger = LoggerFactory.getLogger(ExportacionDatosService.class);
+  // Sin período: todas las asignaciones
+  private static final LocalDateTime SIN_INICIO = LocalDateTime.of(1900, 1, 1, 0, 0);
+  private static final LocalDateTime SIN_FIN = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+  // 2. Variables de instancia
+  private final ArbitroRepository arbitroRepository;
+  private final PartidoRepository partidoRepository;
+  private final TorneoRepository torneoRepository;
+  private final AsignacionRepository asignacionRepository;
+  private final CierreLiquidacionService cierreLiquidacionService;
+  private final ObjectMapper objectMapper;
+
+  // 3. Constructores
+  public ExportacionDatosService(
+      ArbitroRepository arbitroRepository,
+      PartidoRepository partidoRepository,
+      TorneoRepository torneoRepository,
+      AsignacionRepository asignacionRepository,
+      CierreLiquidacionService cierreLiquidacionService,
+      ObjectMapper objectMapper) {
+    this.arbitroRepository = arbitroRepository;
+    this.partidoRepository = partidoRepository;
+    this.torneoRepository = torneoRepository;
+    this.asignacionRepository = asignacionRepository;
+    this.cierreLiquidacionService = cierreLiquidacionService;
+    this.objectMapper = objectMapper;
+  }
+
+  // 4. Métodos públicos
+
+  /**
+   * Escribe el conjunto en {@code out} fila a fila. No cierra {@code out}.
+   *
+   * @param fechaInicio Inicio del período (asignaciones y liquidación; opcional en asignaciones)
+   * @param fechaFin Fin del período, inclusive
+   * @return Cantidad de filas de datos escritas
+   * @throws IOException Si falla la escritura
+   */
+  @Transactional(readOnly = true)
+  public long exportar(
+      Conjunto conjunto,
+      Formato formato,
+      LocalDate fechaInicio,
+      LocalDate fechaFin,
+      OutputStream out)
+      throws IOException {
+    validar(conjunto, fechaInicio, fechaFin);
+    long filas;
+    try (Salida salida =
+        formato == Formato.CSV ? new Csv(out) : new Ndjson(out, objectMapper, conjunto)) {
+      salida.encabezado(conjunto.columnas);
+      filas = leer(conjunto, fechaInicio, fechaFin, salida);
+    }
+    logger.info("Exportadas {} filas de {} en {}", filas, conjunto, formato);
+    return filas;
+  }
+
+  /**
+   * Entrega las filas del conjunto a {@code destino} en el orden de {@link Conjunto#getColumnas()},
+   * con los valores sin formatear (fechas, montos y enums tal cual).
+   *
+   * @return Cantidad de filas entregadas
+   * @throws IOException Si falla el destino
+   */
+  @Transactional(readOnly = true)
+  public long recorrer(
+      Conjunto conjunto, LocalDate fechaInicio, LocalDate fechaFin, Destino destino)
+      throws IOException {
+    validar(conjunto, fechaInicio, fechaFin);
+    return leer(conjunto, fechaInicio, fechaFin, destino);
+  }
+
+  // 5. Métodos privados
+
+  private static void validar(Conjunto conjunto, LocalDate fechaInicio, LocalDate fechaFin) {
+    if (conjunto == Conjunto.LIQUIDACION && (fechaInicio == null || fechaFin == null)) {
+      throw new IllegalArgumentException("La liquidación requiere fecha de inicio y de fin");
+    }
+    if (fechaInicio != null && fechaFin != null && fechaInicio.isAfter(fechaFin)) {
+      throw new IllegalArgumentException("La fecha de inicio debe ser anterior a la fecha de fin");
+    }
+  }
+
+  private long leer(Conjunto conjunto, LocalDate fechaInicio, LocalDate fechaFin, Destino destino)
+      throws IOException {
+    LocalDateTime desde = fechaInicio != null ? fechaInicio.atStartOfDay() : SIN_INICIO;
+    LocalDateTime hasta = fechaFin != null ? fechaFin.atTime(23, 59, 59) : SIN_FIN;
+    return switch (conjunto) {
+      case ARBITROS -> escribir(arbitroRepository.streamFilasExportacion(), destino);
+      case PARTIDOS -> escribir(partidoRepository.streamFilasExportacion(), destino);
+      case TORNEOS -> escribir(torneoRepository.streamFilasExportacion(), destino);
+      case ASIGNACIONES -> escribir(
+          asignacionRepository.streamFilasExportacion(desde, hasta), destino);
+      case LIQUIDACION -> escribirLiquidacion(fechaInicio, fechaFin, desde, hasta, destino);
+    };
+  }
+
+  private static long escribir(Stream<Object[]> cursor, Destino salida) throws IOException {
+    long filas = 0;
+    try (cursor) {
+      Iterator<Object[]> it = cursor.iterator();
+      while (it.hasNext()) {
+        salida.fila(it.next());
+        filas++;
+      }
+    }
+    return filas;
+  }
+
+  private long escribirLiquidacion(
+      LocalDate fechaInicio,
+      LocalDate fechaFin,
+      LocalDateTime desde,
+      LocalDateTime hasta,
+      Destino salida)
+      throws IOException {
+    Optional<LiquidacionCerrada> cerrada = cierreLiquidacionService.buscar(fechaInicio, fechaFin);
+    long filas = 0;
+    if (cerrada.isPresent()) {
+      for (LiquidacionDTO.LiquidacionArbitroDTO arbitro :
+          cierreLiquidacionService.leer(cerrada.get()).getArbitros()) {
+        for (LiquidacionDTO.DetallePartidoDTO partido : arbitro.getPartidos()) {
+          salida.fila(
+              new Object[] {
+                arbitro.getArbitroId(),
+                arbitro.getNombreCompleto(),
+                arbitro.getNumeroIdentificacion(),
+                arbitro.getEscalafon(),
+                partido.getPartidoId(),
+                partido.getNombrePartido(),
+                partido.getTorneo(),
+                partido.getFechaPartido(),
+                partido.getPosicion(),
+                partido.getMontoPago()
+              });
+          filas++;
+        }
+      }
+      return filas;
+    }
+    try (Stream<LiquidacionFilaDTO> cursor =
+        asignacionRepository.streamFilasLiquidacion(desde, hasta, AsignacionEstado.COMPLETADA)) {
+      Iterator<LiquidacionFilaDTO> it = cursor.iterator();
+      while (it.hasNext()) {
+        LiquidacionFilaDTO fila = it.next();
+        // Mismos valores por defecto que la liquidación en JSON y Excel
+        salida.fila(
+            new Object[] {
+              fila.getArbitroId(),
+              fila.getNombreCompleto(),
+              fila.getNumeroIdentificacion(),
+              fila.getEscalafon(),
+              fila.getPartidoId(),
+              fila.getNombrePartido(),
+              fila.getTorneo() != null ? fila.getTorneo() : "Sin torneo",
+              fila.getFechaPartido(),
+              fila.getPosicion(),
+              fila.getMontoPago() != null ? fila.getMontoPago() : BigDecimal.ZERO
+            });
+        filas++;
+      }
+    }
+    return filas;
+  }
+
+  // Texto de un valor escalar: ISO-8601 para fechas, sin notación científica para montos
+  private static String texto(Object valor) {
+    if (valor instanceof BigDecimal decimal) {
+      return decimal.toPlainString();
+    }
+    if (valor instanceof Enum<?> e) {
+      return e.name();
+    }
+    return valor.toString();
+  }
+
+  // Destino de las filas; cerrarlo vacía el buffer pero no cierra el flujo de salida
+  private interface Salida extends Destino, AutoCloseable {
+    void encabezado(String[] columnas) throws IOException;
+
+    @Override
+    void close() throws IOException;
+  }
+
+  private static final class Csv implements Salida {
+    private final Writer writer;
+
+    private Csv(OutputStream out) {
+      this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void encabezado(String[] columnas) throws IOException {
+      fila(columnas);
+    }
+
+    @Override
+    public void fila(Object[] valores) throws IOException {
+      for (int i = 0; i < valores.length; i++) {
+        if (i > 0) {
+          writer.write(',');
+        }
+        if (valores[i] != null) {
+          String valor = texto(valores[i]);
+          // Los montos negativos son datos; solo el texto libre puede traer una fórmula
+          campo(valores[i] instanceof Number ? valor : sinFormula(valor));
+        }
+      }
+      writer.write("\r\n");
+    }
+
+    @Override
+    public void close() throws IOException {
+      writer.flush();
+    }
+
+    // Una hoja de cálculo ejecuta como fórmula el texto que empieza por estos caracteres; el
+    // apóstrofo inicial hace que lo muestre como texto (inyección de fórmulas en CSV)
+    private static String sinFormula(String valor) {
+      if (valor.isEmpty()) {
+        return valor;
+      }
+      char primero = valor.charAt(0);
+      boolean formula =
+          primero == '='
+              || primero == '+'
+              || primero == '-'
+              || primero == '@'
+              || primero == '\t'
+              || primero == '\r';
+      return formula ? "'" + valor : valor;
+    }
+
+    // Entre comillas solo si hace falta, duplicando las comillas internas (RFC 4180)
+    private void campo(String valor) throws IOException {
+      boolean comillas = false;
+      for (int i = 0; i < valor.length() && !comillas; i++) {
+        char c = valor.charAt(i);
+        comillas = c == ',' || c == '"' || c == '\n' || c == '\r';
+      }
+      if (!comillas) {
+        writer.write(valor);
+        return;
+      }
+      writer.write('"');
+      writer.write(valor.replace("\"", "\"\""));
+      writer.write('"');
+    }
+  }
+
+  private static final class Ndjson implements Salida {
+    private final JsonGenerator generator;
+    private final String[] columnas;
+
+    private Ndjson(OutputStream out, ObjectMapper objectMapper, Conjunto conjunto)
+        throws IOException {
+      this.generator =
+          objectMapper
+              .getFactory()
+              .createGenerator(out)
+              .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+      this.columnas = conjunto.columnas;
+    }
+
+    @Override
+    public void encabezado(String[] columnas) {
+      // NDJSON no lleva encabezado: cada objeto trae sus claves
+    }
+
+    @Override
+    public void fila(Object[] valores) throws IOException {
+      generator.writeStartObject();
+      for (int i = 0; i < columnas.length; i++) {
+        generator.writeFieldName(columnas[i]);
+        Object valor = valores[i];
+        if (valor == null) {
+          generator.writeNull();
+        } else if (valor instanceof BigDecimal decimal) {
+          generator.writeNumber(decimal);
+        } else if (valor instanceof Long numero) {
+          generator.writeNumber(numero);
+        } else if (valor instanceof Integer numero) {
+          generator.writeNumber(numero);
+        } else if (valor instanceof Boolean booleano) {
+          generator.writeBoolean(booleano);
+        } else {
+          generator.writeString(texto(valor));
+        }
+      }
+      generator.writeEndObject();
+      generator.writeRaw('\n');
+    }
+
+    @Override
+    public void close() throws IOException {
+      generator.close();
+    }
+  }
+}
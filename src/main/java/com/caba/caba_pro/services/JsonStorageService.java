@@ -1,113 +1,577 @@
 /**
- * Archivo: JsonStorageService.java Autores: Diego.Gonzalez Fecha última modificación: [10.09.2025]
- * Descripción: Servicio para manejar el almacenamiento de mensajes en archivos JSON Proyecto: CABA
- * Pro - Sistema de Gestión Integral de Arbitraje
+ * Archivo: JsonStorageService.java Autores: Diego.Gonzalez Fecha última modificación: [17.10.2026]
+ * Descripción: Servicio para manejar el almacenamiento de mensajes en logs segmentados de solo
+ * anexado Proyecto: CABA Pro - Sistema de Gestión Integral de Arbitraje
  */
 package com.caba.caba_pro.services;
 
 import com.caba.caba_pro.DTOs.ChatMessageDto;
+import com.caba.caba_pro.DTOs.ChatSearchResultDto;
+import com.caba.caba_pro.config.ChatStorageProperties;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 @Service
 public class JsonStorageService {
 
   private static final Logger logger = LoggerFactory.getLogger(JsonStorageService.class);
+
+  // Archivos del formato anterior: un arreglo JSON completo por conversación
+  private static final Pattern LEGACY_FILE =
+      Pattern.compile("chat_admin(\\d+)_arbitro(\\d+)\\.json");
+  private static final String MIGRATED_SUFFIX = ".migrated";
+  private static final Pattern CONVERSATION_KEY = Pattern.compile("admin(\\d+)_arbitro(\\d+)");
+  private static final String INDEX_DIRECTORY = "index";
+  private static final String SEARCH_INDEX_FILE = "search.idx";
+  private static final int SEARCH_CATCH_UP_BATCH = 1000;
+
+  // Tiempo máximo que una lectura espera a que se escriban los mensajes pendientes de su chat
+  private static final long PENDING_WAIT_SECONDS = 5;
+
   private final ObjectMapper objectMapper;
-  private final String chatDirectory = "data/chats";
+  private final ChatMessageCodec codec;
+  private final ChatStorageProperties properties;
+  private final Path chatDirectory;
+  private final ConcurrentMap<String, ChatSegmentLog> logs = new ConcurrentHashMap<>();
+
+  // Locks repartidos por conversación: dos mensajes del mismo chat nunca se escriben a la vez
+  private final ReentrantLock[] lockStripes;
+
+  // Escritura diferida (null si está deshabilitada) y último mensaje pendiente por conversación
+  private final ChatWriteBehindQueue writeQueue;
+  private final ConcurrentMap<String, CompletableFuture<Long>> lastPending =
+      new ConcurrentHashMap<>();
+
+  // Últimos mensajes de las conversaciones activas
+  private final ChatTailCache tailCache;
+
+  // Resumen de conversaciones por usuario (último mensaje, no leídos)
+  private final ChatConversationIndex conversationIndex;
+
+  // Índice invertido para buscar texto en los mensajes
+  private final ChatSearchIndex searchIndex = new ChatSearchIndex();
 
-  public JsonStorageService() {
+  private final Counter archivedMessages;
+
+  public JsonStorageService(ChatStorageProperties properties, MeterRegistry meterRegistry) {
+    this.properties = properties;
     this.objectMapper = new ObjectMapper();
     this.objectMapper.registerModule(new JavaTimeModule());
+    this.codec = new ChatMessageCodec(properties.getCodec());
+    this.chatDirectory = Paths.get(properties.getDirectory());
 
     // Crear el directorio de chats si no existe
-    File directory = new File(chatDirectory);
+    File directory = chatDirectory.toFile();
     if (!directory.exists()) {
       directory.mkdirs();
     }
+
+    this.lockStripes = new ReentrantLock[properties.getLockStripes()];
+    for (int i = 0; i < lockStripes.length; i++) {
+      lockStripes[i] = new ReentrantLock();
+    }
+
+    this.conversationIndex =
+        new ChatConversationIndex(chatDirectory.resolve(INDEX_DIRECTORY), objectMapper);
+    try {
+      conversationIndex.load();
+    } catch (IOException e) {
+      logger.error("Error al cargar el índice de conversaciones de chat", e);
+    }
+
+    this.tailCache =
+        new ChatTailCache(
+            properties.getCacheMaxSize().toBytes(),
+            properties.getCacheTailMessages(),
+            meterRegistry);
+
+    try {
+      searchIndex.load(searchIndexFile());
+    } catch (IOException e) {
+      logger.error("Error al cargar el índice de búsqueda de chat; se reconstruirá", e);
+    }
+
+    this.archivedMessages = meterRegistry.counter("caba.chat.archive.messages");
+
+    this.writeQueue =
+        properties.isWriteBehind()
+            ? new ChatWriteBehindQueue(
+                properties.getWriteQueueCapacity(),
+                properties.getWriteBatchSize(),
+                this::appendLocked,
+                meterRegistry)
+            : null;
+  }
+
+  // Vacía la cola de escritura antes de que se detenga la aplicación
+  @PreDestroy
+  public void shutdown() {
+    if (writeQueue != null) {
+      writeQueue.close();
+    }
+    flushConversationIndex();
+    try {
+      searchIndex.save(searchIndexFile());
+    } catch (IOException e) {
+      logger.error("Error al guardar el índice de búsqueda de chat", e);
+    }
+  }
+
+  private Path searchIndexFile() {
+    return chatDirectory.resolve(INDEX_DIRECTORY).resolve(SEARCH_INDEX_FILE);
+  }
+
+  // Genera el nombre de la conversación basado en el admin y árbitro
+  private String conversationKey(Long adminId, Long arbitroId) {
+    return String.format("admin%d_arbitro%d", adminId, arbitroId);
+  }
+
+  // Conversaciones del administrador y/o del árbitro indicados (null: cualquiera)
+  private static ChatSearchIndex.ConversationFilter inConversationsOf(
+      Long adminId, Long arbitroId) {
+    String adminPrefix = adminId != null ? "admin" + adminId + "_" : null;
+    String arbitroSuffix = arbitroId != null ? "_arbitro" + arbitroId : null;
+    return key ->
+        (adminPrefix == null || key.startsWith(adminPrefix))
+            && (arbitroSuffix == null || key.endsWith(arbitroSuffix));
   }
 
-  // Genera el nombre del archivo basado en el admin y árbitro
-  private String generateFileName(Long adminId, Long arbitroId) {
-    return String.format("chat_admin%d_arbitro%d.json", adminId, arbitroId);
+  // Obtiene el log segmentado de la conversación
+  private ChatSegmentLog getLog(String key) {
+    return logs.computeIfAbsent(
+        key,
+        k ->
+            new ChatSegmentLog(
+                chatDirectory.resolve(k),
+                properties.getSegmentMaxMessages(),
+                properties.getFsync(),
+                codec));
   }
 
-  // Obtiene la ruta completa del archivo de chat
-  private String getFilePath(Long adminId, Long arbitroId) {
-    return chatDirectory + "/" + generateFileName(adminId, arbitroId);
+  private ReentrantLock lockFor(String key) {
+    return lockStripes[Math.floorMod(key.hashCode(), lockStripes.length)];
   }
 
-  // Guarda un mensaje en el archivo JSON correspondiente
-  public void saveMessage(Long adminId, Long arbitroId, ChatMessageDto message) {
+  // Anexa mensajes al log con el lock de la conversación tomado y actualiza la caché
+  private void appendLocked(String key, List<ChatMessageDto> messages) throws IOException {
+    ReentrantLock lock = lockFor(key);
+    lock.lock();
     try {
-      String filePath = getFilePath(adminId, arbitroId);
-      List<ChatMessageDto> messages = loadMessages(adminId, arbitroId);
+      getLog(key).append(messages);
+      tailCache.onAppend(key, messages);
+      searchIndex.add(key, messages);
+      Matcher matcher = CONVERSATION_KEY.matcher(key);
+      if (matcher.matches()) {
+        conversationIndex.onAppend(
+            Long.valueOf(matcher.group(1)), Long.valueOf(matcher.group(2)), messages);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
 
-      messages.add(message);
+  // Guarda el índice de conversaciones si cambió; se llama periódicamente y al detenerse
+  @Scheduled(fixedDelayString = "${caba-pro.chat.index-flush-interval:5s}")
+  public void flushConversationIndex() {
+    try {
+      conversationIndex.flush();
+    } catch (IOException e) {
+      logger.error("Error al guardar el índice de conversaciones de chat", e);
+    }
+  }
 
-      File file = new File(filePath);
-      objectMapper.writeValue(file, messages);
+  // Devuelve el log listo para leer: espera los mensajes pendientes de ese chat y lo abre si hace
+  // falta. Si la conversación no existe en disco no se crea nada.
+  private ChatSegmentLog openForRead(String key) throws IOException {
+    awaitPending(key);
+
+    ChatSegmentLog log = getLog(key);
+    if (!log.isOpen() && log.exists()) {
+      ReentrantLock lock = lockFor(key);
+      lock.lock();
+      try {
+        log.open();
+      } finally {
+        lock.unlock();
+      }
+    }
+    return log;
+  }
+
+  // Espera a que se escriban los mensajes encolados de la conversación
+  private void awaitPending(String key) {
+    CompletableFuture<Long> pending = lastPending.get(key);
+    if (pending != null) {
+      awaitPending(key, pending, TimeUnit.SECONDS.toNanos(PENDING_WAIT_SECONDS));
+    }
+  }
+
+  // Espera los mensajes encolados de las conversaciones que cumplen el filtro, con un solo plazo
+  // para todas: una conversación lenta no multiplica la espera ni frena a otros usuarios
+  private void awaitPending(ChatSearchIndex.ConversationFilter conversations) {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(PENDING_WAIT_SECONDS);
+    for (Map.Entry<String, CompletableFuture<Long>> entry : lastPending.entrySet()) {
+      if (conversations.accept(entry.getKey())) {
+        awaitPending(entry.getKey(), entry.getValue(), deadline - System.nanoTime());
+      }
+    }
+  }
+
+  private void awaitPending(String key, CompletableFuture<Long> pending, long timeoutNanos) {
+    try {
+      pending.get(Math.max(0, timeoutNanos), TimeUnit.NANOSECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException | TimeoutException e) {
+      logger.warn("Lectura de {} sin esperar mensajes pendientes: {}", key, e.toString());
+    }
+  }
+
+  // Registra un mensaje encolado. Dos hilos pueden llegar aquí en otro orden que el de la cola,
+  // así que el futuro guardado se combina con el anterior: se completa cuando terminaron todos los
+  // encolados hasta ahora, y nunca queda como pendiente uno más viejo que el último
+  void trackPending(String key, CompletableFuture<Long> future) {
+    CompletableFuture<Long> pending =
+        lastPending.merge(
+            key,
+            future,
+            (previous, next) ->
+                CompletableFuture.allOf(previous, next).thenApply(ignored -> next.join()));
+    pending.whenComplete((id, error) -> lastPending.remove(key, pending));
+  }
 
-      logger.info("Mensaje guardado en archivo: {}", filePath);
+  // Guarda un mensaje: lo encola para escritura diferida, o lo escribe directamente si la cola
+  // está deshabilitada o cerrada. El futuro se completa con el id cuando el mensaje queda escrito;
+  // hasta entonces el hilo escritor puede estar asignándoselo y no debe leerse ni enviarse
+  public CompletableFuture<Long> saveMessage(Long adminId, Long arbitroId, ChatMessageDto message) {
+    String key = conversationKey(adminId, arbitroId);
+    try {
+      if (writeQueue != null) {
+        try {
+          CompletableFuture<Long> future = writeQueue.enqueue(key, message);
+          trackPending(key, future);
+          return future;
+        } catch (IllegalStateException e) {
+          logger.warn("Cola de chat cerrada, escribiendo mensaje de {} directamente", key);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      appendLocked(key, List.of(message));
+      logger.debug("Mensaje {} guardado en conversación {}", message.getId(), key);
+      return CompletableFuture.completedFuture(message.getId());
     } catch (IOException e) {
-      logger.error("Error al guardar mensaje en archivo JSON", e);
+      logger.error("Error al guardar mensaje en el log de chat", e);
+      return CompletableFuture.failedFuture(e);
     }
   }
 
   // Carga todos los mensajes de un chat específico
   public List<ChatMessageDto> loadMessages(Long adminId, Long arbitroId) {
+    String key = conversationKey(adminId, arbitroId);
     try {
-      String filePath = getFilePath(adminId, arbitroId);
-      File file = new File(filePath);
+      List<ChatMessageDto> messages = openForRead(key).readAll();
+      logger.debug("Cargados {} mensajes de conversación {}", messages.size(), key);
+      return messages;
+    } catch (IOException e) {
+      logger.error("Error al cargar mensajes del log de chat", e);
+      return new ArrayList<>();
+    }
+  }
 
-      if (!file.exists()) {
-        logger.info("Archivo de chat no existe, creando lista vacía: {}", filePath);
-        return new ArrayList<>();
-      }
+  // Carga solo los últimos mensajes de un chat, sin leer el historial completo
+  public List<ChatMessageDto> loadRecentMessages(Long adminId, Long arbitroId, int limit) {
+    return loadMessagesPage(adminId, arbitroId, null, limit);
+  }
 
-      List<ChatMessageDto> messages =
-          objectMapper.readValue(file, new TypeReference<List<ChatMessageDto>>() {});
-      logger.info("Cargados {} mensajes desde archivo: {}", messages.size(), filePath);
-      return messages;
+  // Carga una página de mensajes anteriores a 'beforeId': desde la caché si la cubre, si no con el
+  // índice de offsets
+  public List<ChatMessageDto> loadMessagesPage(
+      Long adminId, Long arbitroId, Long beforeId, int limit) {
+    String key = conversationKey(adminId, arbitroId);
+    try {
+      ChatSegmentLog log = openForRead(key);
+      List<ChatMessageDto> cached = tailCache.getPage(key, beforeId, limit);
+      if (cached != null) {
+        return cached;
+      }
+      if (beforeId != null || limit > tailCache.getTailMessages() || !log.isOpen()) {
+        return log.readPage(beforeId, limit);
+      }
 
+      // Al abrir un chat se carga su cola completa en caché; con el lock tomado para que ningún
+      // mensaje se escriba entre la lectura y el put
+      List<ChatMessageDto> tail;
+      ReentrantLock lock = lockFor(key);
+      lock.lock();
+      try {
+        tail = log.readPage(null, tailCache.getTailMessages());
+        tailCache.put(key, tail, log.size());
+      } finally {
+        lock.unlock();
+      }
+      return new ArrayList<>(tail.subList(Math.max(0, tail.size() - limit), tail.size()));
     } catch (IOException e) {
-      logger.error("Error al cargar mensajes desde archivo JSON", e);
+      logger.error("Error al cargar página de mensajes del log de chat", e);
       return new ArrayList<>();
     }
   }
 
   // Verifica si existe un chat entre el admin y árbitro
   public boolean chatExists(Long adminId, Long arbitroId) {
-    String filePath = getFilePath(adminId, arbitroId);
-    return new File(filePath).exists();
+    return getLog(conversationKey(adminId, arbitroId)).exists();
   }
 
   // Obtiene la lista de chats existentes para un administrador
   public List<String> getExistingChatsForAdmin(Long adminId) {
-    List<String> chats = new ArrayList<>();
-    File directory = new File(chatDirectory);
-
-    if (directory.exists() && directory.isDirectory()) {
-      File[] files =
-          directory.listFiles(
-              (dir, name) ->
-                  name.startsWith("chat_admin" + adminId + "_") && name.endsWith(".json"));
-
-      if (files != null) {
-        for (File file : files) {
-          chats.add(file.getName());
+    return conversationIndex.forAdmin(adminId).stream()
+        .map(summary -> conversationKey(summary.getAdminId(), summary.getArbitroId()))
+        .toList();
+  }
+
+  // Conversaciones de un administrador con su último mensaje y no leídos, más reciente primero
+  public List<ChatConversationIndex.ConversationSummary> getConversationsForAdmin(Long adminId) {
+    return conversationIndex.forAdmin(adminId);
+  }
+
+  // Conversaciones de un árbitro con su último mensaje y no leídos, más reciente primero
+  public List<ChatConversationIndex.ConversationSummary> getConversationsForArbitro(
+      Long arbitroId) {
+    return conversationIndex.forArbitro(arbitroId);
+  }
+
+  // Marca como leídos los mensajes de una conversación para el admin o para el árbitro; devuelve
+  // cuántos estaban sin leer
+  public int markConversationRead(Long adminId, Long arbitroId, boolean readByAdmin) {
+    awaitPending(conversationKey(adminId, arbitroId));
+    return conversationIndex.markRead(adminId, arbitroId, readByAdmin);
+  }
+
+  // Total de mensajes sin leer de un usuario en todas sus conversaciones; espera los mensajes
+  // encolados de sus conversaciones para contarlos también
+  public int getUnreadTotal(boolean admin, Long userId) {
+    awaitPending(admin ? inConversationsOf(userId, null) : inConversationsOf(null, userId));
+    return admin
+        ? conversationIndex.unreadTotalForAdmin(userId)
+        : conversationIndex.unreadTotalForArbitro(userId);
+  }
+
+  // Conversaciones con directorio en disco
+  private List<String> listConversationKeys() {
+    try (Stream<Path> files = Files.list(chatDirectory)) {
+      return files
+          .filter(Files::isDirectory)
+          .map(path -> path.getFileName().toString())
+          .filter(name -> CONVERSATION_KEY.matcher(name).matches())
+          .toList();
+    } catch (IOException e) {
+      logger.error("Error al listar conversaciones de chat", e);
+      return List.of();
+    }
+  }
+
+  // Comprime los segmentos cerrados de todas las conversaciones cuyo último mensaje supera la
+  // antigüedad configurada. Devuelve el número de mensajes archivados
+  public long archiveOldConversations() {
+    LocalDateTime cutoff = LocalDateTime.now().minus(properties.getArchiveAfter());
+    // Incluye las conversaciones con mensajes aún en cola, que quizá no tengan directorio todavía
+    Set<String> keys = new LinkedHashSet<>(lastPending.keySet());
+    keys.addAll(listConversationKeys());
+
+    long archived = 0;
+    for (String key : keys) {
+      awaitPending(key);
+      ReentrantLock lock = lockFor(key);
+      lock.lock();
+      try {
+        archived += getLog(key).archive(cutoff);
+      } catch (IOException e) {
+        logger.error("Error al archivar la conversación {}", key, e);
+      } finally {
+        lock.unlock();
+      }
+    }
+    archivedMessages.increment(archived);
+    return archived;
+  }
+
+  // Indexa para la búsqueda los mensajes guardados después del último índice en disco (o todos, la
+  // primera vez). Devuelve el número de mensajes indexados
+  public long catchUpSearchIndex() {
+    long indexed = 0;
+    for (String key : listConversationKeys()) {
+      ReentrantLock lock = lockFor(key);
+      lock.lock();
+      try {
+        ChatSegmentLog log = getLog(key);
+        log.open();
+        long next = searchIndex.indexedUpTo(key) + 1;
+        while (next <= log.size()) {
+          int count = (int) Math.min(SEARCH_CATCH_UP_BATCH, log.size() - next + 1);
+          List<ChatMessageDto> batch = log.readPage(next + count, count);
+          searchIndex.add(key, batch);
+          indexed += batch.size();
+          next += count;
         }
+      } catch (IOException e) {
+        logger.error("Error al indexar para búsqueda la conversación {}", key, e);
+      } finally {
+        lock.unlock();
       }
     }
+    return indexed;
+  }
 
-    return chats;
+  // Busca mensajes por texto, del más relevante al menos relevante. Con adminId o arbitroId solo
+  // considera las conversaciones de ese usuario
+  public List<ChatSearchResultDto> searchMessages(
+      String query, Long adminId, Long arbitroId, int limit) {
+    // Lo ya enviado debe poder encontrarse aunque siga en la cola de escritura
+    ChatSearchIndex.ConversationFilter conversations = inConversationsOf(adminId, arbitroId);
+    awaitPending(conversations);
+    List<ChatSearchIndex.Hit> hits = searchIndex.search(query, conversations, limit);
+
+    List<ChatSearchResultDto> results = new ArrayList<>(hits.size());
+    for (ChatSearchIndex.Hit hit : hits) {
+      Matcher matcher = CONVERSATION_KEY.matcher(hit.getConversationKey());
+      if (!matcher.matches()) {
+        continue;
+      }
+      Long hitAdminId = Long.valueOf(matcher.group(1));
+      Long hitArbitroId = Long.valueOf(matcher.group(2));
+      List<ChatMessageDto> message =
+          loadMessagesPage(hitAdminId, hitArbitroId, hit.getMessageId() + 1, 1);
+      if (!message.isEmpty()) {
+        results.add(
+            new ChatSearchResultDto(hitAdminId, hitArbitroId, hit.getScore(), message.get(0)));
+      }
+    }
+    return results;
+  }
+
+  // Reconstruye el índice de conversaciones desde los logs si todavía no existe en disco (primer
+  // arranque tras la migración).
+  public int rebuildConversationIndexIfMissing() {
+    if (conversationIndex.existsOnDisk()) {
+      return 0;
+    }
+    List<String> conversations = listConversationKeys();
+    for (String key : conversations) {
+      Matcher matcher = CONVERSATION_KEY.matcher(key);
+      matcher.matches();
+      try {
+        List<ChatMessageDto> last = openForRead(key).readTail(1);
+        ChatConversationIndex.ConversationSummary summary =
+            new ChatConversationIndex.ConversationSummary();
+        summary.setAdminId(Long.valueOf(matcher.group(1)));
+        summary.setArbitroId(Long.valueOf(matcher.group(2)));
+        if (!last.isEmpty()) {
+          ChatMessageDto message = last.get(0);
+          summary.setMessageCount(message.getId());
+          summary.setLastMessageAt(message.getTimestamp());
+          summary.setLastSender(message.getRemitente());
+          summary.setLastPreview(ChatConversationIndex.preview(message.getContent()));
+        }
+        conversationIndex.put(summary);
+      } catch (IOException e) {
+        logger.error("Error al indexar conversación {}", key, e);
+      }
+    }
+    flushConversationIndex();
+    return conversations.size();
+  }
+
+  // Mensajes en cola pendientes de escribir
+  public int getPendingWrites() {
+    return writeQueue != null ? writeQueue.depth() : 0;
+  }
+
+  // Migra los archivos JSON del formato anterior al log segmentado (una sola vez por archivo)
+  public int migrateLegacyChats() {
+    int migrated = 0;
+    List<Path> legacyFiles;
+    try (Stream<Path> files = Files.list(chatDirectory)) {
+      legacyFiles =
+          files
+              .filter(path -> LEGACY_FILE.matcher(path.getFileName().toString()).matches())
+              .toList();
+    } catch (IOException e) {
+      logger.error("Error al listar chats en formato anterior", e);
+      return 0;
+    }
+
+    for (Path legacyFile : legacyFiles) {
+      Matcher matcher = LEGACY_FILE.matcher(legacyFile.getFileName().toString());
+      matcher.matches();
+      String key = conversationKey(Long.valueOf(matcher.group(1)), Long.valueOf(matcher.group(2)));
+      ReentrantLock lock = lockFor(key);
+      lock.lock();
+      try {
+        List<ChatMessageDto> messages =
+            objectMapper.readValue(
+                legacyFile.toFile(), new TypeReference<List<ChatMessageDto>>() {});
+        ChatSegmentLog log = getLog(key);
+        log.open();
+
+        // Si una migración anterior quedó a medias, solo se anexan los mensajes que faltan
+        long existing = log.size();
+        if (existing < messages.size()) {
+          List<ChatMessageDto> missing = messages.subList((int) existing, messages.size());
+          log.append(missing);
+          tailCache.onAppend(key, missing);
+          searchIndex.add(key, missing);
+
+          // El historial migrado se considera leído
+          Long adminId = Long.valueOf(matcher.group(1));
+          Long arbitroId = Long.valueOf(matcher.group(2));
+          conversationIndex.onAppend(adminId, arbitroId, missing);
+          conversationIndex.markRead(adminId, arbitroId, true);
+          conversationIndex.markRead(adminId, arbitroId, false);
+        }
+
+        Files.move(
+            legacyFile,
+            legacyFile.resolveSibling(legacyFile.getFileName() + MIGRATED_SUFFIX),
+            StandardCopyOption.REPLACE_EXISTING);
+        migrated++;
+        logger.info("Chat migrado a log segmentado: {} ({} mensajes)", legacyFile, messages.size());
+      } catch (IOException e) {
+        logger.error("Error al migrar chat en formato anterior: {}", legacyFile, e);
+      } finally {
+        lock.unlock();
+      }
+    }
+    flushConversationIndex();
+    return migrated;
   }
 }
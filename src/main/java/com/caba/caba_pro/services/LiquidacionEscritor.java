@@ -0,0 +1,47 @@
+/**
+ * Archivo: LiquidacionEscritor.java Autores: Diego.Gonzalez Fecha última modificación: 17.10.2026
+ * Descripción: Destino de una liquidación generada en modo streaming Proyecto: CABA Pro - Sistema
+ * de Gestión Integral de Arbitraje
+ */
+package com.caba.caba_pro.services;
+
+import com.caba.caba_pro.dto.LiquidacionDTO;
+import com.caba.caba_pro.dto.LiquidacionDTO.LiquidacionArbitroDTO;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Recibe una liquidación por partes: primero la cabecera con los totales (sin árbitros), luego cada
+ * árbitro con sus partidos en cuanto se termina de agrupar y al final {@link #terminar()}. Quien lo
+ * implementa debe escribir cada árbitro y soltarlo, sin acumularlos. {@link #close()} libera los
+ * recursos aunque la generación se haya cortado a mitad.
+ */
+public interface LiquidacionEscritor extends Closeable {
+
+  void iniciar(LiquidacionDTO cabecera, long totalArbitros) throws IOException;
+
+  void escribirArbitro(LiquidacionArbitroDTO arbitro) throws IOException;
+
+  void terminar() throws IOException;
+
+  // Liquidación ya calculada (la copia congelada de un período cerrado), con la misma secuencia
+  default void escribir(LiquidacionDTO liquidacion) throws IOException {
+    List<LiquidacionArbitroDTO> arbitros = liquidacion.getArbitros();
+    LiquidacionDTO cabecera = new LiquidacionDTO();
+    cabecera.setFechaGeneracion(liquidacion.getFechaGeneracion());
+    cabecera.setFechaInicio(liquidacion.getFechaInicio());
+    cabecera.setFechaFin(liquidacion.getFechaFin());
+    cabecera.setTotalGeneral(liquidacion.getTotalGeneral());
+    cabecera.setTotalPartidos(liquidacion.getTotalPartidos());
+    cabecera.setTotalAsignaciones(liquidacion.getTotalAsignaciones());
+    iniciar(cabecera, arbitros.size());
+    for (LiquidacionArbitroDTO arbitro : arbitros) {
+      escribirArbitro(arbitro);
+    }
+    terminar();
+  }
+
+  @Override
+  default void close() throws IOException {}
+}
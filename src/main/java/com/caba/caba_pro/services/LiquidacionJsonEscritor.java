@@ -0,0 +1,55 @@
+/**
+ * Archivo: LiquidacionJsonEscritor.java Autores: Diego.Gonzalez Fecha última modificación:
+ * 17.10.2026 Descripción: Escribe una liquidación en JSON a medida que se genera Proyecto: CABA Pro
+ * - Sistema de Gestión Integral de Arbitraje
+ */
+package com.caba.caba_pro.services;
+
+import com.caba.caba_pro.dto.LiquidacionDTO;
+import com.caba.caba_pro.dto.LiquidacionDTO.LiquidacionArbitroDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Produce el mismo documento que {@code GET /api/liquidaciones} (los totales van antes que la lista
+ * de árbitros), escribiendo cada árbitro en el flujo de salida en cuanto llega.
+ */
+public class LiquidacionJsonEscritor implements LiquidacionEscritor {
+
+  // 1. Variables de instancia
+  private final JsonGenerator generator;
+
+  // 2. Constructores
+  public LiquidacionJsonEscritor(OutputStream out, ObjectMapper objectMapper) throws IOException {
+    // El generador toma la configuración del ObjectMapper (fechas ISO, módulos registrados)
+    this.generator = objectMapper.getFactory().createGenerator(out);
+  }
+
+  // 3. Métodos públicos
+
+  @Override
+  public void iniciar(LiquidacionDTO cabecera, long totalArbitros) throws IOException {
+    generator.writeStartObject();
+    generator.writeObjectField("fechaGeneracion", cabecera.getFechaGeneracion());
+    generator.writeObjectField("fechaInicio", cabecera.getFechaInicio());
+    generator.writeObjectField("fechaFin", cabecera.getFechaFin());
+    generator.writeObjectField("totalGeneral", cabecera.getTotalGeneral());
+    generator.writeObjectField("totalPartidos", cabecera.getTotalPartidos());
+    generator.writeObjectField("totalAsignaciones", cabecera.getTotalAsignaciones());
+    generator.writeArrayFieldStart("arbitros");
+  }
+
+  @Override
+  public void escribirArbitro(LiquidacionArbitroDTO arbitro) throws IOException {
+    generator.writeObject(arbitro);
+  }
+
+  @Override
+  public void terminar() throws IOException {
+    generator.writeEndArray();
+    generator.writeEndObject();
+    generator.flush();
+  }
+}
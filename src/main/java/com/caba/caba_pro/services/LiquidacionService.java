@@ -8,17 +8,22 @@ package com.caba.caba_pro.services;
 import com.caba.caba_pro.dto.LiquidacionDTO;
 import com.caba.caba_pro.dto.LiquidacionDTO.DetallePartidoDTO;
 import com.caba.caba_pro.dto.LiquidacionDTO.LiquidacionArbitroDTO;
+import com.caba.caba_pro.dto.LiquidacionFilaDTO;
 import com.caba.caba_pro.enums.AsignacionEstado;
 import com.caba.caba_pro.models.Arbitro;
-import com.caba.caba_pro.models.Asignacion;
 import com.caba.caba_pro.repositories.ArbitroRepository;
 import com.caba.caba_pro.repositories.AsignacionRepository;
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -31,11 +36,15 @@ public class LiquidacionService {
 
   private final AsignacionRepository asignacionRepository;
   private final ArbitroRepository arbitroRepository;
+  private final CacheConsultas cacheConsultas;
 
   public LiquidacionService(
-      AsignacionRepository asignacionRepository, ArbitroRepository arbitroRepository) {
+      AsignacionRepository asignacionRepository,
+      ArbitroRepository arbitroRepository,
+      CacheConsultas cacheConsultas) {
     this.asignacionRepository = asignacionRepository;
     this.arbitroRepository = arbitroRepository;
+    this.cacheConsultas = cacheConsultas;
   }
 
   /**
@@ -47,53 +56,55 @@ public class LiquidacionService {
    */
   @Transactional(readOnly = true)
   public LiquidacionDTO generarLiquidacion(LocalDateTime fechaInicio, LocalDateTime fechaFin) {
+    return cacheConsultas.obtener(
+        CacheConsultas.Consulta.LIQUIDACION,
+        null,
+        fechaInicio,
+        fechaFin,
+        () -> calcularLiquidacion(fechaInicio, fechaFin),
+        LiquidacionDTO::new);
+  }
+
+  /**
+   * Calcula la liquidación del período sin pasar por la caché de consultas, para cuando el
+   * resultado no puede estar desactualizado (cierre de períodos)
+   *
+   * @param fechaInicio Fecha de inicio del período
+   * @param fechaFin Fecha de fin del período
+   * @return DTO con la liquidación completa
+   */
+  @Transactional(readOnly = true)
+  public LiquidacionDTO generarLiquidacionSinCache(
+      LocalDateTime fechaInicio, LocalDateTime fechaFin) {
+    return calcularLiquidacion(fechaInicio, fechaFin);
+  }
+
+  private LiquidacionDTO calcularLiquidacion(LocalDateTime fechaInicio, LocalDateTime fechaFin) {
     logger.info("Generando liquidación desde {} hasta {}", fechaInicio, fechaFin);
 
     LiquidacionDTO liquidacion = new LiquidacionDTO();
     liquidacion.setFechaInicio(fechaInicio);
     liquidacion.setFechaFin(fechaFin);
 
-    // Obtener asignaciones completadas en el período
-    List<Asignacion> asignaciones =
-        asignacionRepository.findByPartidoFechaHoraBetweenAndEstadoAndActivo(
-            fechaInicio, fechaFin, AsignacionEstado.COMPLETADA, true);
+    // Asignaciones completadas en el período con su árbitro, partido y torneo (una consulta)
+    List<LiquidacionFilaDTO> filas =
+        asignacionRepository.findFilasLiquidacion(
+            fechaInicio, fechaFin, AsignacionEstado.COMPLETADA);
 
-    logger.info("Se encontraron {} asignaciones completadas en el período", asignaciones.size());
+    logger.info("Se encontraron {} asignaciones completadas en el período", filas.size());
 
     // Agrupar por árbitro
-    Map<Long, LiquidacionArbitroDTO> arbitrosMap = new HashMap<>();
-
-    for (Asignacion asignacion : asignaciones) {
-      Long arbitroId = asignacion.getArbitro().getId();
+    Map<Long, LiquidacionArbitroDTO> arbitrosMap = new LinkedHashMap<>();
+    Set<Long> partidos = new HashSet<>();
 
+    for (LiquidacionFilaDTO fila : filas) {
       // Obtener o crear DTO del árbitro
       LiquidacionArbitroDTO arbitroDTO =
-          arbitrosMap.computeIfAbsent(
-              arbitroId,
-              id -> {
-                LiquidacionArbitroDTO dto = new LiquidacionArbitroDTO();
-                dto.setArbitroId(id);
-                dto.setNombreCompleto(asignacion.getArbitro().getNombreCompleto());
-                dto.setNumeroIdentificacion(asignacion.getArbitro().getNumeroIdentificacion());
-                dto.setEscalafon(asignacion.getArbitro().getEscalafon());
-                return dto;
-              });
-
-      // Crear detalle del partido
-      DetallePartidoDTO detallePartido = new DetallePartidoDTO();
-      detallePartido.setPartidoId(asignacion.getPartido().getId());
-      detallePartido.setNombrePartido(asignacion.getPartido().getNombre());
-      detallePartido.setTorneo(
-          asignacion.getPartido().getTorneo() != null
-              ? asignacion.getPartido().getTorneo().getNombre()
-              : "Sin torneo");
-      detallePartido.setFechaPartido(asignacion.getPartido().getFechaHora());
-      detallePartido.setPosicion(asignacion.getPosicion());
-      detallePartido.setMontoPago(
-          asignacion.getMontoPago() != null ? asignacion.getMontoPago() : BigDecimal.ZERO);
-      detallePartido.setEstado(asignacion.getEstado().name());
+          arbitrosMap.computeIfAbsent(fila.getArbitroId(), id -> nuevoArbitro(fila));
 
+      DetallePartidoDTO detallePartido = detalle(fila);
       arbitroDTO.getPartidos().add(detallePartido);
+      partidos.add(fila.getPartidoId());
 
       // Actualizar totales del árbitro
       arbitroDTO.setTotalAPagar(arbitroDTO.getTotalAPagar().add(detallePartido.getMontoPago()));
@@ -110,22 +121,79 @@ public class LiquidacionService {
       totalGeneral = totalGeneral.add(arbitro.getTotalAPagar());
     }
 
-    // Contar partidos únicos
-    long partidosUnicos = asignaciones.stream().map(a -> a.getPartido().getId()).distinct().count();
-
     liquidacion.setTotalGeneral(totalGeneral);
-    liquidacion.setTotalPartidos((int) partidosUnicos);
-    liquidacion.setTotalAsignaciones(asignaciones.size());
+    liquidacion.setTotalPartidos(partidos.size());
+    liquidacion.setTotalAsignaciones(filas.size());
 
     logger.info(
         "Liquidación generada: {} árbitros, {} partidos, ${} total",
         listaArbitros.size(),
-        partidosUnicos,
+        partidos.size(),
         totalGeneral);
 
     return liquidacion;
   }
 
+  /**
+   * Genera la liquidación de un período en modo streaming: recorre las asignaciones con un cursor
+   * ordenado por árbitro y entrega cada árbitro al escritor en cuanto termina de agruparlo, así que
+   * la memoria usada depende del árbitro con más partidos y no del largo del período. Los totales
+   * de la cabecera salen de una consulta agregada previa. No pasa por la caché.
+   *
+   * @param fechaInicio Fecha de inicio del período
+   * @param fechaFin Fecha de fin del período
+   * @param escritor Destino de la liquidación
+   * @return Cantidad de árbitros escritos
+   * @throws IOException Si el escritor falla
+   */
+  @Transactional(readOnly = true)
+  public long exportarLiquidacion(
+      LocalDateTime fechaInicio, LocalDateTime fechaFin, LiquidacionEscritor escritor)
+      throws IOException {
+    logger.info("Generando liquidación en streaming desde {} hasta {}", fechaInicio, fechaFin);
+
+    AsignacionRepository.TotalesLiquidacion totales =
+        asignacionRepository.totalizarLiquidacion(
+            fechaInicio, fechaFin, AsignacionEstado.COMPLETADA);
+    LiquidacionDTO cabecera = new LiquidacionDTO();
+    cabecera.setFechaInicio(fechaInicio);
+    cabecera.setFechaFin(fechaFin);
+    cabecera.setTotalGeneral(totales.getMonto());
+    cabecera.setTotalPartidos((int) totales.getPartidos());
+    cabecera.setTotalAsignaciones((int) totales.getAsignaciones());
+    escritor.iniciar(cabecera, totales.getArbitros());
+
+    long arbitros = 0;
+    try (Stream<LiquidacionFilaDTO> filas =
+        asignacionRepository.streamFilasLiquidacion(
+            fechaInicio, fechaFin, AsignacionEstado.COMPLETADA)) {
+      LiquidacionArbitroDTO actual = null;
+      Iterator<LiquidacionFilaDTO> it = filas.iterator();
+      while (it.hasNext()) {
+        LiquidacionFilaDTO fila = it.next();
+        if (actual == null || !actual.getArbitroId().equals(fila.getArbitroId())) {
+          if (actual != null) {
+            escritor.escribirArbitro(actual);
+            arbitros++;
+          }
+          actual = nuevoArbitro(fila);
+        }
+        DetallePartidoDTO detallePartido = detalle(fila);
+        actual.getPartidos().add(detallePartido);
+        actual.setTotalAPagar(actual.getTotalAPagar().add(detallePartido.getMontoPago()));
+        actual.setCantidadPartidos(actual.getCantidadPartidos() + 1);
+      }
+      if (actual != null) {
+        escritor.escribirArbitro(actual);
+        arbitros++;
+      }
+    }
+    escritor.terminar();
+
+    logger.info("Liquidación en streaming generada: {} árbitros", arbitros);
+    return arbitros;
+  }
+
   /**
    * Genera liquidación para un árbitro específico en un período
    *
@@ -137,56 +205,49 @@ public class LiquidacionService {
   @Transactional(readOnly = true)
   public LiquidacionArbitroDTO generarLiquidacionPorArbitro(
       Long arbitroId, LocalDateTime fechaInicio, LocalDateTime fechaFin) {
+    return cacheConsultas.obtener(
+        CacheConsultas.Consulta.LIQUIDACION_ARBITRO,
+        arbitroId,
+        fechaInicio,
+        fechaFin,
+        () -> calcularLiquidacionPorArbitro(arbitroId, fechaInicio, fechaFin),
+        LiquidacionArbitroDTO::new);
+  }
+
+  private LiquidacionArbitroDTO calcularLiquidacionPorArbitro(
+      Long arbitroId, LocalDateTime fechaInicio, LocalDateTime fechaFin) {
     logger.info(
         "Generando liquidación para árbitro {} desde {} hasta {}",
         arbitroId,
         fechaInicio,
         fechaFin);
 
-    List<Asignacion> asignaciones =
-        asignacionRepository.findByArbitroIdAndPartidoFechaHoraBetweenAndEstadoAndActivo(
-            arbitroId, fechaInicio, fechaFin, AsignacionEstado.COMPLETADA, true);
+    List<LiquidacionFilaDTO> filas =
+        asignacionRepository.findFilasLiquidacionPorArbitro(
+            arbitroId, fechaInicio, fechaFin, AsignacionEstado.COMPLETADA);
 
-    if (asignaciones.isEmpty()) {
+    if (filas.isEmpty()) {
       logger.warn("No se encontraron asignaciones completadas para el árbitro {}", arbitroId);
       return null;
     }
 
-    LiquidacionArbitroDTO arbitroDTO = new LiquidacionArbitroDTO();
-    Asignacion primera = asignaciones.get(0);
-
-    arbitroDTO.setArbitroId(arbitroId);
-    arbitroDTO.setNombreCompleto(primera.getArbitro().getNombreCompleto());
-    arbitroDTO.setNumeroIdentificacion(primera.getArbitro().getNumeroIdentificacion());
-    arbitroDTO.setEscalafon(primera.getArbitro().getEscalafon());
+    LiquidacionArbitroDTO arbitroDTO = nuevoArbitro(filas.get(0));
 
     BigDecimal total = BigDecimal.ZERO;
 
-    for (Asignacion asignacion : asignaciones) {
-      DetallePartidoDTO detallePartido = new DetallePartidoDTO();
-      detallePartido.setPartidoId(asignacion.getPartido().getId());
-      detallePartido.setNombrePartido(asignacion.getPartido().getNombre());
-      detallePartido.setTorneo(
-          asignacion.getPartido().getTorneo() != null
-              ? asignacion.getPartido().getTorneo().getNombre()
-              : "Sin torneo");
-      detallePartido.setFechaPartido(asignacion.getPartido().getFechaHora());
-      detallePartido.setPosicion(asignacion.getPosicion());
-      detallePartido.setMontoPago(
-          asignacion.getMontoPago() != null ? asignacion.getMontoPago() : BigDecimal.ZERO);
-      detallePartido.setEstado(asignacion.getEstado().name());
-
+    for (LiquidacionFilaDTO fila : filas) {
+      DetallePartidoDTO detallePartido = detalle(fila);
       arbitroDTO.getPartidos().add(detallePartido);
       total = total.add(detallePartido.getMontoPago());
     }
 
     arbitroDTO.setTotalAPagar(total);
-    arbitroDTO.setCantidadPartidos(asignaciones.size());
+    arbitroDTO.setCantidadPartidos(filas.size());
 
     logger.info(
         "Liquidación generada para árbitro {}: {} partidos, ${} total",
         arbitroId,
-        asignaciones.size(),
+        filas.size(),
         total);
 
     return arbitroDTO;
@@ -218,4 +279,26 @@ public class LiquidacionService {
 
     return generarLiquidacionPorArbitro(arbitro.getId(), fechaInicio, fechaFin);
   }
+
+  private static LiquidacionArbitroDTO nuevoArbitro(LiquidacionFilaDTO fila) {
+    LiquidacionArbitroDTO dto = new LiquidacionArbitroDTO();
+    dto.setArbitroId(fila.getArbitroId());
+    dto.setNombreCompleto(fila.getNombreCompleto());
+    dto.setNumeroIdentificacion(fila.getNumeroIdentificacion());
+    dto.setEscalafon(fila.getEscalafon());
+    return dto;
+  }
+
+  private static DetallePartidoDTO detalle(LiquidacionFilaDTO fila) {
+    DetallePartidoDTO detallePartido = new DetallePartidoDTO();
+    detallePartido.setPartidoId(fila.getPartidoId());
+    detallePartido.setNombrePartido(fila.getNombrePartido());
+    detallePartido.setTorneo(fila.getTorneo() != null ? fila.getTorneo() : "Sin torneo");
+    detallePartido.setFechaPartido(fila.getFechaPartido());
+    detallePartido.setPosicion(fila.getPosicion());
+    detallePartido.setMontoPago(
+        fila.getMontoPago() != null ? fila.getMontoPago() : BigDecimal.ZERO);
+    detallePartido.setEstado(fila.getEstado().name());
+    return detallePartido;
+  }
 }
@@ -0,0 +1,377 @@
+/**
+ * Archivo: LiquidacionTrabajoService.java Autores: Diego.Gonzalez Fecha última modificación:
+ * 17.10.2026 Descripción: Generación asíncrona de liquidaciones con progreso y resultado en disco
+ * Proyecto: CABA Pro - Sistema de Gestión Integral de Arbitraje
+ */
+package com.caba.caba_pro.services;
+
+import com.caba.caba_pro.config.LiquidacionTrabajosProperties;
+import com.caba.caba_pro.dto.LiquidacionDTO;
+import com.caba.caba_pro.dto.LiquidacionDTO.LiquidacionArbitroDTO;
+import com.caba.caba_pro.exceptions.BusinessException;
+import com.caba.caba_pro.models.LiquidacionCerrada;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+/**
+ * Genera liquidaciones largas fuera de los hilos de las peticiones: {@link #enviar} encola el
+ * trabajo y devuelve su id, el progreso se consulta con {@link #obtener} y el archivo queda en el
+ * subdirectorio {@code trabajos} de {@code caba-pro.liquidacion-trabajos.directory} hasta que vence
+ * a los {@code ttl}. El pool y la cola son acotados: si están llenos el trabajo se rechaza en lugar
+ * de acumularse.
+ *
+ * <p>La liquidación se escribe en streaming (ver {@link LiquidacionService#exportarLiquidacion}), o
+ * desde la copia congelada si el período está cerrado. Los trabajos viven en memoria: al reiniciar
+ * se pierden y se borran sus archivos (solo los {@code <uuid>.xlsx|json|tmp} de ese subdirectorio,
+ * por si el directorio se comparte).
+ */
+@Service
+public class LiquidacionTrabajoService {
+
+  /** Formatos de salida con su extensión y tipo de contenido. */
+  public enum Formato {
+    EXCEL("xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"),
+    JSON("json", "application/json");
+
+    private final String extension;
+    private final String contentType;
+
+    Formato(String extension, String contentType) {
+      this.extension = extension;
+      this.contentType = contentType;
+    }
+
+    public String getExtension() {
+      return extension;
+    }
+
+    public String getContentType() {
+      return contentType;
+    }
+  }
+
+  /** Estados de un trabajo. */
+  public enum Estado {
+    EN_COLA,
+    EN_CURSO,
+    TERMINADO,
+    FALLIDO
+  }
+
+  // 1. Constantes estáticas
+  private static final Logger logger = LoggerFactory.getLogger(LiquidacionTrabajoService.class);
+  private static final String SUBDIRECTORIO = "trabajos";
+  private static final Pattern ARCHIVO_DE_TRABAJO =
+      Pattern.compile(
+          "[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}\\.(xlsx|json|tmp)");
+
+  // 2. Variables de instancia
+  private final LiquidacionService liquidacionService;
+  private final CierreLiquidacionService cierreLiquidacionService;
+  private final ExcelExportService excelExportService;
+  private final ObjectMapper objectMapper;
+  private final Path directorio;
+  private final long ttlMillis;
+  private final Clock clock;
+  private final ThreadPoolTaskExecutor executor;
+  private final Map<String, Trabajo> trabajos = new ConcurrentHashMap<>();
+
+  // 3. Constructores
+  @Autowired
+  public LiquidacionTrabajoService(
+      LiquidacionService liquidacionService,
+      CierreLiquidacionService cierreLiquidacionService,
+      ExcelExportService excelExportService,
+      ObjectMapper objectMapper,
+      LiquidacionTrabajosProperties properties)
+      throws IOException {
+    this(
+        liquidacionService,
+        cierreLiquidacionService,
+        excelExportService,
+        objectMapper,
+        properties,
+        Clock.systemUTC());
+  }
+
+  LiquidacionTrabajoService(
+      LiquidacionService liquidacionService,
+      CierreLiquidacionService cierreLiquidacionService,
+      ExcelExportService excelExportService,
+      ObjectMapper objectMapper,
+      LiquidacionTrabajosProperties properties,
+      Clock clock)
+      throws IOException {
+    this.liquidacionService = liquidacionService;
+    this.cierreLiquidacionService = cierreLiquidacionService;
+    this.excelExportService = excelExportService;
+    this.objectMapper = objectMapper;
+    this.directorio = Paths.get(properties.getDirectory()).resolve(SUBDIRECTORIO);
+    this.ttlMillis = properties.getTtl().toMillis();
+    this.clock = clock;
+
+    // Los trabajos no sobreviven a un reinicio: se borran los archivos que quedaron, sin tocar
+    // nada que no haya escrito este servicio
+    Files.createDirectories(directorio);
+    try (var archivos = Files.list(directorio)) {
+      for (Path archivo : archivos.toList()) {
+        if (Files.isRegularFile(archivo)
+            && ARCHIVO_DE_TRABAJO.matcher(archivo.getFileName().toString()).matches()) {
+          Files.deleteIfExists(archivo);
+        }
+      }
+    }
+
+    executor = new ThreadPoolTaskExecutor();
+    executor.setThreadNamePrefix("liquidacion-");
+    executor.setCorePoolSize(properties.getPoolSize());
+    executor.setMaxPoolSize(properties.getPoolSize());
+    executor.setQueueCapacity(properties.getQueueCapacity());
+    executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+    executor.initialize();
+  }
+
+  // 4. Métodos públicos
+
+  public Trabajo enviar(
+      LocalDate fechaInicio, LocalDate fechaFin, Formato formato, String usuario) {
+    if (fechaInicio.isAfter(fechaFin)) {
+      throw new BusinessException("La fecha de inicio debe ser anterior a la fecha de fin");
+    }
+    Trabajo trabajo =
+        new Trabajo(
+            UUID.randomUUID().toString(), fechaInicio, fechaFin, formato, usuario, clock.instant());
+    trabajos.put(trabajo.getId(), trabajo);
+    try {
+      executor.execute(() -> ejecutar(trabajo));
+    } catch (RejectedExecutionException e) {
+      trabajos.remove(trabajo.getId());
+      throw new BusinessException(
+          "Hay demasiadas liquidaciones en proceso; intente de nuevo en unos minutos");
+    }
+    logger.info(
+        "Trabajo de liquidación {} encolado por {}: {} - {} ({})",
+        trabajo.getId(),
+        usuario,
+        fechaInicio,
+        fechaFin,
+        formato);
+    return trabajo;
+  }
+
+  public Optional<Trabajo> obtener(String id) {
+    return Optional.ofNullable(trabajos.get(id));
+  }
+
+  // Trabajos terminados o fallidos cuyo resultado ya venció
+  @Scheduled(fixedDelayString = "${caba-pro.liquidacion-trabajos.purge-interval:1m}")
+  public int purgarVencidos() {
+    Instant limite = clock.instant().minusMillis(ttlMillis);
+    int purgados = 0;
+    for (Trabajo trabajo : new ArrayList<>(trabajos.values())) {
+      Instant terminado = trabajo.getTerminadoEn();
+      if (terminado != null && terminado.isBefore(limite)) {
+        trabajos.remove(trabajo.getId());
+        borrar(trabajo.getArchivo());
+        purgados++;
+      }
+    }
+    if (purgados > 0) {
+      logger.info("{} trabajos de liquidación vencidos eliminados", purgados);
+    }
+    return purgados;
+  }
+
+  @PreDestroy
+  public void detener() {
+    executor.shutdown();
+  }
+
+  // 5. Métodos privados
+
+  private void ejecutar(Trabajo trabajo) {
+    trabajo.estado = Estado.EN_CURSO;
+    Path temporal = directorio.resolve(trabajo.getId() + ".tmp");
+    Path destino = directorio.resolve(trabajo.getId() + "." + trabajo.getFormato().getExtension());
+    try {
+      try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temporal));
+          LiquidacionEscritor escritor = new ConProgreso(escritor(trabajo, out), trabajo)) {
+        Optional<LiquidacionCerrada> cerrada =
+            cierreLiquidacionService.buscar(trabajo.getFechaInicio(), trabajo.getFechaFin());
+        if (cerrada.isPresent()) {
+          escritor.escribir(cierreLiquidacionService.leer(cerrada.get()));
+        } else {
+          liquidacionService.exportarLiquidacion(
+              trabajo.getFechaInicio().atStartOfDay(),
+              trabajo.getFechaFin().atTime(23, 59, 59),
+              escritor);
+        }
+      }
+      Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING);
+      trabajo.archivo = destino;
+      trabajo.estado = Estado.TERMINADO;
+      logger.info("Trabajo de liquidación {} terminado", trabajo.getId());
+    } catch (Exception e) {
+      borrar(temporal);
+      trabajo.error = e.getMessage();
+      trabajo.estado = Estado.FALLIDO;
+      logger.error("Trabajo de liquidación {} fallido: {}", trabajo.getId(), e.getMessage(), e);
+    } finally {
+      trabajo.terminadoEn = clock.instant();
+    }
+  }
+
+  private LiquidacionEscritor escritor(Trabajo trabajo, OutputStream out) throws IOException {
+    return trabajo.getFormato() == Formato.EXCEL
+        ? excelExportService.escritorLiquidacion(out)
+        : new LiquidacionJsonEscritor(out, objectMapper);
+  }
+
+  private static void borrar(Path archivo) {
+    if (archivo == null) {
+      return;
+    }
+    try {
+      Files.deleteIfExists(archivo);
+    } catch (IOException e) {
+      logger.warn("No se pudo borrar {}: {}", archivo, e.getMessage());
+    }
+  }
+
+  /** Estado de un trabajo; lo actualiza el hilo que lo ejecuta y lo leen las peticiones. */
+  public static final class Trabajo {
+    private final String id;
+    private final LocalDate fechaInicio;
+    private final LocalDate fechaFin;
+    private final Formato formato;
+    private final String usuario;
+    private final Instant creadoEn;
+    private volatile Estado estado = Estado.EN_COLA;
+    private volatile long arbitrosTotales;
+    private volatile long arbitrosEscritos;
+    private volatile Path archivo;
+    private volatile String error;
+    private volatile Instant terminadoEn;
+
+    private Trabajo(
+        String id,
+        LocalDate fechaInicio,
+        LocalDate fechaFin,
+        Formato formato,
+        String usuario,
+        Instant creadoEn) {
+      this.id = id;
+      this.fechaInicio = fechaInicio;
+      this.fechaFin = fechaFin;
+      this.formato = formato;
+      this.usuario = usuario;
+      this.creadoEn = creadoEn;
+    }
+
+    public String getId() {
+      return id;
+    }
+
+    public LocalDate getFechaInicio() {
+      return fechaInicio;
+    }
+
+    public LocalDate getFechaFin() {
+      return fechaFin;
+    }
+
+    public Formato getFormato() {
+      return formato;
+    }
+
+    public String getUsuario() {
+      return usuario;
+    }
+
+    public Instant getCreadoEn() {
+      return creadoEn;
+    }
+
+    public Estado getEstado() {
+      return estado;
+    }
+
+    // Porcentaje de árbitros escritos (100 al terminar)
+    public int getProgreso() {
+      if (estado == Estado.TERMINADO) {
+        return 100;
+      }
+      long total = arbitrosTotales;
+      return total > 0 ? (int) Math.min(99, arbitrosEscritos * 100 / total) : 0;
+    }
+
+    public Path getArchivo() {
+      return archivo;
+    }
+
+    public String getError() {
+      return error;
+    }
+
+    public Instant getTerminadoEn() {
+      return terminadoEn;
+    }
+  }
+
+  // Cuenta los árbitros escritos para informar el progreso
+  private static final class ConProgreso implements LiquidacionEscritor {
+    private final LiquidacionEscritor destino;
+    private final Trabajo trabajo;
+
+    private ConProgreso(LiquidacionEscritor destino, Trabajo trabajo) {
+      this.destino = destino;
+      this.trabajo = trabajo;
+    }
+
+    @Override
+    public void iniciar(LiquidacionDTO cabecera, long totalArbitros) throws IOException {
+      trabajo.arbitrosTotales = totalArbitros;
+      destino.iniciar(cabecera, totalArbitros);
+    }
+
+    @Override
+    public void escribirArbitro(LiquidacionArbitroDTO arbitro) throws IOException {
+      destino.escribirArbitro(arbitro);
+      trabajo.arbitrosEscritos++;
+    }
+
+    @Override
+    public void terminar() throws IOException {
+      destino.terminar();
+    }
+
+    @Override
+    public void close() throws IOException {
+      destino.close();
+    }
+  }
+}
@@ -7,6 +7,7 @@ package com.caba.caba_pro.services;
 
 import com.caba.caba_pro.DTOs.AsignacionDto;
 import com.caba.caba_pro.DTOs.PartidoDto;
+import com.caba.caba_pro.enums.AsignacionEstado;
 import com.caba.caba_pro.enums.PartidoEstado;
 import com.caba.caba_pro.exceptions.BusinessException;
 import com.caba.caba_pro.models.Arbitro;
@@ -18,9 +19,12 @@ import com.caba.caba_pro.repositories.ArbitroRepository;
 import com.caba.caba_pro.repositories.AsignacionRepository;
 import com.caba.caba_pro.repositories.PartidoRepository;
 import com.caba.caba_pro.repositories.TorneoRepository;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Objects;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -40,6 +44,8 @@ public class PartidoService {
   private final NotificacionService notificacionService;
   private final DisponibilidadService disponibilidadService;
   private final GoogleMapsService googleMapsService;
+  private final ApplicationEventPublisher eventPublisher;
+  private final CierreLiquidacionService cierreLiquidacionService;
 
   // 3. Constructores
   public PartidoService(
@@ -51,7 +57,9 @@ public class PartidoService {
       NotificacionService notificacionService,
       DisponibilidadService disponibilidadService,
       AdministradorRepository administradorRepository,
-      GoogleMapsService googleMapsService) {
+      GoogleMapsService googleMapsService,
+      ApplicationEventPublisher eventPublisher,
+      CierreLiquidacionService cierreLiquidacionService) {
     this.partidoRepository = partidoRepository;
     this.arbitroRepository = arbitroRepository;
     this.asignacionRepository = asignacionRepository;
@@ -60,6 +68,8 @@ public class PartidoService {
     this.notificacionService = notificacionService;
     this.disponibilidadService = disponibilidadService;
     this.googleMapsService = googleMapsService;
+    this.eventPublisher = eventPublisher;
+    this.cierreLiquidacionService = cierreLiquidacionService;
   }
 
   // 4. Métodos públicos
@@ -131,9 +141,25 @@ public class PartidoService {
     Partido partido = buscarPorId(id);
     validarDatos(dto);
 
+    LocalDateTime fechaAnterior = partido.getFechaHora();
+    if (!Objects.equals(fechaAnterior, dto.getFechaHora())
+        && asignacionRepository.existsByPartidoIdAndEstadoAndActivoTrue(
+            id, AsignacionEstado.COMPLETADA)) {
+      // Sus asignaciones completadas ya cuentan en la liquidación: el partido no puede salir ni
+      // entrar en un período de pago cerrado
+      cierreLiquidacionService.verificarPeriodoAbierto(fechaAnterior);
+      cierreLiquidacionService.verificarPeriodoAbierto(dto.getFechaHora());
+    }
     partido.setNombre(dto.getNombre());
     partido.setDescripcion(dto.getDescripcion());
     partido.setFechaHora(dto.getFechaHora());
+    if (!Objects.equals(fechaAnterior, dto.getFechaHora())) {
+      // Reprogramado: las asignaciones salen del día anterior y entran en el nuevo
+      for (Asignacion asignacion : asignacionRepository.findByPartidoId(id)) {
+        eventPublisher.publishEvent(AsignacionCambiadaEvent.retirada(asignacion, fechaAnterior));
+        eventPublisher.publishEvent(AsignacionCambiadaEvent.creada(asignacion));
+      }
+    }
     partido.setSede(dto.getSede());
     partido.setEquipoLocal(dto.getEquipoLocal());
     partido.setEquipoVisitante(dto.getEquipoVisitante());
@@ -233,6 +259,7 @@ public class PartidoService {
     asignacion.setAdminUsername(adminUsername);
 
     Asignacion guardada = asignacionRepository.save(asignacion);
+    eventPublisher.publishEvent(AsignacionCambiadaEvent.creada(guardada));
     logger.info(
         "Asignación creada: partido={} árbitro={} posición={} monto={} admin={}",
         partido.getId(),
@@ -257,6 +284,45 @@ public class PartidoService {
     return guardada;
   }
 
+  /**
+   * Marca como completada una asignación aceptada del árbitro cuyo partido ya comenzó. La
+   * verificación del período abierto y el cambio de estado van en la misma transacción, así que no
+   * se cruzan con un cierre de período (ver {@link CierreLiquidacionService}).
+   *
+   * @throws BusinessException Si la asignación no es del árbitro, no está aceptada, su período está
+   *     cerrado o el partido aún no comenzó
+   */
+  public Asignacion completarAsignacion(Long asignacionId, Long arbitroId) {
+    Asignacion asignacion =
+        asignacionRepository
+            .findById(asignacionId)
+            .orElseThrow(() -> new BusinessException("Asignación no encontrada"));
+
+    if (!asignacion.getArbitro().getId().equals(arbitroId)) {
+      throw new BusinessException("No tienes permiso para modificar esta asignación");
+    }
+
+    if (asignacion.getEstado() != AsignacionEstado.ACEPTADA) {
+      throw new BusinessException("Solo puedes completar asignaciones aceptadas");
+    }
+    // Completarla la suma a la liquidación: no puede entrar en un período ya pagado
+    LocalDateTime fechaPartido = asignacion.getPartido().getFechaHora();
+    cierreLiquidacionService.verificarPeriodoAbierto(fechaPartido);
+
+    // Verificar que el partido ya haya pasado
+    if (fechaPartido.isAfter(LocalDateTime.now())) {
+      throw new BusinessException(
+          "No puedes marcar como completada una asignación de un partido que aún no ha comenzado.");
+    }
+
+    asignacion.setEstado(AsignacionEstado.COMPLETADA);
+    Asignacion guardada = asignacionRepository.save(asignacion);
+    eventPublisher.publishEvent(
+        AsignacionCambiadaEvent.cambioDeEstado(guardada, AsignacionEstado.ACEPTADA));
+    logger.info("Asignación completada: id={} árbitro={}", asignacionId, arbitroId);
+    return guardada;
+  }
+
   // 5. Métodos privados
 
   private void validarDatos(PartidoDto dto) {
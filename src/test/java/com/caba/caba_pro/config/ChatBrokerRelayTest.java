@@ -0,0 +1,222 @@
+/**
+ * Archivo: ChatBrokerRelayTest.java Autores: Diego.Gonzalez Fecha última modificación: 17.10.2026
+ * Descripción: Pruebas de integración del chat con dos nodos y broker STOMP externo Proyecto: CABA
+ * Pro - Sistema de Gestión Integral de Arbitraje
+ */
+package com.caba.caba_pro.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.caba.caba_pro.CabaProApplication;
+import com.caba.caba_pro.enums.Especialidad;
+import com.caba.caba_pro.models.Arbitro;
+import com.caba.caba_pro.repositories.AdministradorRepository;
+import com.caba.caba_pro.repositories.ArbitroRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompBrokerRelayMessageHandler;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+@DisplayName("Pruebas de integración - Chat con broker relay en dos nodos")
+class ChatBrokerRelayTest {
+
+  private static final String ADMIN_USERNAME = "admin";
+  private static final String ADMIN_PASSWORD = "admin123";
+  private static final String ARBITRO_USERNAME = "relay.arbitro";
+  private static final String ARBITRO_PASSWORD = "arbitro123";
+
+  private static StompBrokerStandIn broker;
+  private static ConfigurableApplicationContext nodeA;
+  private static ConfigurableApplicationContext nodeB;
+  private static WebSocketStompClient stompClient;
+  private static ThreadPoolTaskScheduler scheduler;
+  private static Path chatRoot;
+
+  private final HttpClient http =
+      HttpClient.newBuilder().followRedirects(HttpClient.Redirect.NEVER).build();
+
+  @BeforeAll
+  static void startNodes() throws Exception {
+    broker = new StompBrokerStandIn();
+    chatRoot = Files.createTempDirectory("chat-relay");
+    nodeA = startNode("a");
+    nodeB = startNode("b");
+
+    // Árbitro de prueba (la base es compartida por ambos nodos)
+    PasswordEncoder passwordEncoder = nodeA.getBean(PasswordEncoder.class);
+    Arbitro arbitro = new Arbitro();
+    arbitro.setNombre("Relay");
+    arbitro.setApellidos("Prueba");
+    arbitro.setUsername(ARBITRO_USERNAME);
+    arbitro.setPassword(passwordEncoder.encode(ARBITRO_PASSWORD));
+    arbitro.setEmail("relay.arbitro@cabaproarbitraje.com");
+    arbitro.setNumeroIdentificacion("9900000001");
+    arbitro.setEspecialidad(Especialidad.values()[0]);
+    arbitro.setEscalafon("FIBA");
+    nodeA.getBean(ArbitroRepository.class).save(arbitro);
+
+    scheduler = new ThreadPoolTaskScheduler();
+    scheduler.initialize();
+    stompClient = new WebSocketStompClient(new StandardWebSocketClient());
+    MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter();
+    converter.setObjectMapper(new ObjectMapper().registerModule(new JavaTimeModule()));
+    stompClient.setMessageConverter(converter);
+    stompClient.setTaskScheduler(scheduler);
+  }
+
+  @AfterAll
+  static void stopNodes() throws Exception {
+    if (stompClient != null) {
+      stompClient.stop();
+      scheduler.shutdown();
+    }
+    if (nodeB != null) {
+      nodeB.close();
+    }
+    if (nodeA != null) {
+      nodeA.close();
+    }
+    if (broker != null) {
+      broker.close();
+    }
+  }
+
+  private static ConfigurableApplicationContext startNode(String name) throws Exception {
+    ConfigurableApplicationContext context =
+        new SpringApplicationBuilder(CabaProApplication.class)
+            .profiles("relaytest") // sin DataSeeder
+            .run( // argumentos: tienen prioridad sobre application.yaml
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:chatrelay;DB_CLOSE_DELAY=-1",
+                "--spring.jpa.show-sql=false",
+                "--spring.devtools.livereload.enabled=false",
+                "--caba-pro.chat.directory=" + chatRoot.resolve(name),
+                "--caba-pro.websocket.broker.mode=RELAY",
+                "--caba-pro.websocket.broker.relay-port=" + broker.getPort());
+    // El relay conecta con el broker de forma asíncrona
+    StompBrokerRelayMessageHandler relay = context.getBean(StompBrokerRelayMessageHandler.class);
+    for (int i = 0; i < 100 && !relay.isBrokerAvailable(); i++) {
+      Thread.sleep(100);
+    }
+    assertTrue(relay.isBrokerAvailable(), "El nodo " + name + " no conectó con el broker");
+    return context;
+  }
+
+  private static int port(ConfigurableApplicationContext context) {
+    return ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+  }
+
+  private String login(int port, String username, String password) throws Exception {
+    HttpResponse<Void> response =
+        http.send(
+            HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/login"))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(
+                    HttpRequest.BodyPublishers.ofString(
+                        "username=" + username + "&password=" + password))
+                .build(),
+            HttpResponse.BodyHandlers.discarding());
+    assertFalse(response.headers().firstValue("Location").orElse("").contains("error"));
+    return response.headers().allValues("Set-Cookie").stream()
+        .filter(cookie -> cookie.startsWith("JSESSIONID="))
+        .map(cookie -> cookie.substring(0, cookie.indexOf(';')))
+        .findFirst()
+        .orElseThrow();
+  }
+
+  // Conecta por STOMP y se suscribe a la cola privada; espera a que el broker confirme
+  private StompSession connect(
+      ConfigurableApplicationContext node,
+      String username,
+      String password,
+      BlockingQueue<Map<?, ?>> inbox)
+      throws Exception {
+    WebSocketHttpHeaders headers = new WebSocketHttpHeaders();
+    headers.add("Cookie", login(port(node), username, password));
+    StompSession session =
+        stompClient
+            .connectAsync(
+                "ws://localhost:" + port(node) + "/ws/websocket",
+                headers,
+                new StompSessionHandlerAdapter() {})
+            .get(10, TimeUnit.SECONDS);
+    session.setAutoReceipt(true);
+    CountDownLatch subscribed = new CountDownLatch(1);
+    session
+        .subscribe(
+            "/user/queue/private",
+            new StompFrameHandler() {
+              @Override
+              public Type getPayloadType(StompHeaders stompHeaders) {
+                return Map.class;
+              }
+
+              @Override
+              public void handleFrame(StompHeaders stompHeaders, Object payload) {
+                inbox.add((Map<?, ?>) payload);
+              }
+            })
+        .addReceiptTask(subscribed::countDown);
+    assertTrue(subscribed.await(10, TimeUnit.SECONDS));
+    return session;
+  }
+
+  @Test
+  @DisplayName("Debe entregar mensajes privados entre usuarios conectados a nodos distintos")
+  void testMensajesPrivados_EntreNodos() throws Exception {
+    // Arrange
+    Long adminId =
+        nodeA.getBean(AdministradorRepository.class).findByUsername(ADMIN_USERNAME).getId();
+    Long arbitroId =
+        nodeA.getBean(ArbitroRepository.class).findByUsername(ARBITRO_USERNAME).getId();
+    BlockingQueue<Map<?, ?>> adminInbox = new LinkedBlockingQueue<>();
+    BlockingQueue<Map<?, ?>> arbitroInbox = new LinkedBlockingQueue<>();
+    StompSession admin = connect(nodeA, ADMIN_USERNAME, ADMIN_PASSWORD, adminInbox);
+    StompSession arbitro = connect(nodeB, ARBITRO_USERNAME, ARBITRO_PASSWORD, arbitroInbox);
+
+    // Act
+    arbitro.send("/app/chat/admin/" + adminId, Map.of("content", "hola desde el nodo B"));
+    Map<?, ?> recibidoPorAdmin = adminInbox.poll(10, TimeUnit.SECONDS);
+    admin.send("/app/chat/arbitro/" + arbitroId, Map.of("content", "respuesta desde el nodo A"));
+    Map<?, ?> recibidoPorArbitro = arbitroInbox.poll(10, TimeUnit.SECONDS);
+
+    // Assert
+    assertNotNull(recibidoPorAdmin, "El administrador no recibió el mensaje del otro nodo");
+    assertEquals("hola desde el nodo B", recibidoPorAdmin.get("content"));
+    assertEquals(ARBITRO_USERNAME, recibidoPorAdmin.get("senderUsername"));
+    assertNotNull(recibidoPorArbitro, "El árbitro no recibió el mensaje del otro nodo");
+    assertEquals("respuesta desde el nodo A", recibidoPorArbitro.get("content"));
+    assertEquals(ADMIN_USERNAME, recibidoPorArbitro.get("senderUsername"));
+
+    admin.disconnect();
+    arbitro.disconnect();
+  }
+}
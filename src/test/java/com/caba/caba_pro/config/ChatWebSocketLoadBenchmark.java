@@ -0,0 +1,253 @@
+/**
+ * Archivo: ChatWebSocketLoadBenchmark.java Autores: Diego.Gonzalez Fecha última modificación:
+ * 17.10.2026 Descripción: Prueba de carga del chat por STOMP con muchos árbitros conectados
+ * Proyecto: CABA Pro - Sistema de Gestión Integral de Arbitraje
+ */
+package com.caba.caba_pro.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+/**
+ * Conecta muchos árbitros por STOMP a una instancia en ejecución y mide cuántos mensajes por
+ * segundo llegan al administrador y con qué latencia (de envío a recepción). Usa los usuarios que
+ * crea el {@link DataSeeder} (contraseña {@code arbitro123}); cada conexión es una sesión HTTP
+ * propia, así que varias conexiones pueden compartir árbitro.
+ *
+ * <p>No forma parte de la suite de pruebas; se ejecuta a mano contra la aplicación levantada:
+ *
+ * <pre>
+ * java -cp target/classes:target/test-classes:$(cat target/cp.txt) \
+ *     com.caba.caba_pro.config.ChatWebSocketLoadBenchmark http://localhost:8080 1000 20
+ * </pre>
+ *
+ * Argumentos: URL base, conexiones de árbitros, mensajes por conexión y, opcionalmente, usuario y
+ * contraseña del administrador (por defecto los de {@link AdminInitializer}).
+ */
+public class ChatWebSocketLoadBenchmark {
+
+  private static final String ARBITRO_PASSWORD = "arbitro123";
+  private static final String PREFIX = "load:";
+
+  private static final ObjectMapper objectMapper =
+      new ObjectMapper().registerModule(new JavaTimeModule());
+  private static final HttpClient http =
+      HttpClient.newBuilder().followRedirects(HttpClient.Redirect.NEVER).build();
+
+  public static void main(String[] args) throws Exception {
+    String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+    int connections = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+    int messagesPerConnection = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+    String adminUsername = args.length > 3 ? args[3] : "admin";
+    String adminPassword = args.length > 4 ? args[4] : "admin123";
+    int total = connections * messagesPerConnection;
+
+    WebSocketStompClient stompClient = new WebSocketStompClient(new StandardWebSocketClient());
+    MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter();
+    converter.setObjectMapper(objectMapper);
+    stompClient.setMessageConverter(converter);
+    String wsUrl = baseUrl.replaceFirst("^http", "ws") + "/ws/websocket";
+
+    // Administrador que recibe todos los mensajes
+    String adminCookie = login(baseUrl, adminUsername, adminPassword);
+    List<Map<String, Object>> arbitros = getList(baseUrl + "/chat/arbitros", adminCookie);
+    ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+    CountDownLatch received = new CountDownLatch(total);
+    StompSession adminSession = connect(stompClient, wsUrl, adminCookie);
+    adminSession.subscribe(
+        "/user/queue/private",
+        new StompFrameHandler() {
+          @Override
+          public Type getPayloadType(StompHeaders headers) {
+            return Map.class;
+          }
+
+          @Override
+          public void handleFrame(StompHeaders headers, Object payload) {
+            Object content = ((Map<?, ?>) payload).get("content");
+            if (content instanceof String text && text.startsWith(PREFIX)) {
+              latencies.add(System.nanoTime() - Long.parseLong(text.substring(PREFIX.length())));
+              received.countDown();
+            }
+          }
+        });
+    String adminId =
+        getList(baseUrl + "/chat/admins", login(baseUrl, username(arbitros, 0), ARBITRO_PASSWORD))
+            .stream()
+            .filter(admin -> adminUsername.equals(admin.get("username")))
+            .findFirst()
+            .map(admin -> String.valueOf(admin.get("id")))
+            .orElseThrow();
+
+    // Árbitros conectados
+    if (arbitros.size() < connections) {
+      throw new IllegalArgumentException(
+          "Hay " + arbitros.size() + " árbitros activos para " + connections + " conexiones");
+    }
+    System.out.printf("Conectando %d árbitros...%n", connections);
+    ExecutorService pool = Executors.newFixedThreadPool(64);
+    List<StompSession> sessions = new ArrayList<>();
+    List<Runnable> logins = new ArrayList<>();
+    for (int i = 0; i < connections; i++) {
+      String username = username(arbitros, i);
+      logins.add(
+          () -> {
+            try {
+              StompSession session =
+                  connect(stompClient, wsUrl, login(baseUrl, username, ARBITRO_PASSWORD));
+              synchronized (sessions) {
+                sessions.add(session);
+              }
+            } catch (Exception e) {
+              throw new IllegalStateException("No se pudo conectar " + username, e);
+            }
+          });
+    }
+    runAll(pool, logins);
+
+    // Todos envían a la vez
+    AtomicInteger sent = new AtomicInteger();
+    List<Runnable> senders = new ArrayList<>();
+    for (StompSession session : sessions) {
+      senders.add(
+          () -> {
+            for (int m = 0; m < messagesPerConnection; m++) {
+              session.send(
+                  "/app/chat/admin/" + adminId, Map.of("content", PREFIX + System.nanoTime()));
+              sent.incrementAndGet();
+            }
+          });
+    }
+    long start = System.nanoTime();
+    runAll(pool, senders);
+    boolean complete = received.await(120, TimeUnit.SECONDS);
+    double seconds = (System.nanoTime() - start) / 1e9;
+
+    long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+    System.out.printf(
+        "conexiones=%d enviados=%d recibidos=%d%s tiempo=%.2fs mensajes/s=%.0f%n",
+        sessions.size(),
+        sent.get(),
+        sorted.length,
+        complete ? "" : " (incompleto)",
+        seconds,
+        sorted.length / seconds);
+    System.out.printf(
+        "latencia ms: p50=%.1f p99=%.1f max=%.1f%n",
+        percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 1.0));
+
+    sessions.forEach(StompSession::disconnect);
+    adminSession.disconnect();
+    pool.shutdown();
+    stompClient.stop();
+  }
+
+  private static String username(List<Map<String, Object>> arbitros, int index) {
+    return String.valueOf(arbitros.get(index).get("username"));
+  }
+
+  private static void runAll(ExecutorService pool, List<Runnable> tasks) throws Exception {
+    List<java.util.concurrent.Future<?>> futures = new ArrayList<>();
+    for (Runnable task : tasks) {
+      futures.add(pool.submit(task));
+    }
+    for (java.util.concurrent.Future<?> future : futures) {
+      future.get();
+    }
+  }
+
+  private static double percentile(long[] sorted, double p) {
+    if (sorted.length == 0) {
+      return 0;
+    }
+    int index = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+    return sorted[Math.max(0, index)] / 1e6;
+  }
+
+  // Inicia sesión por el formulario y devuelve la cookie de sesión
+  private static String login(String baseUrl, String username, String password) throws Exception {
+    String form =
+        "username="
+            + URLEncoder.encode(username, StandardCharsets.UTF_8)
+            + "&password="
+            + URLEncoder.encode(password, StandardCharsets.UTF_8);
+    HttpResponse<Void> response =
+        http.send(
+            HttpRequest.newBuilder(URI.create(baseUrl + "/login"))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form))
+                .build(),
+            HttpResponse.BodyHandlers.discarding());
+    String location = response.headers().firstValue("Location").orElse("");
+    if (location.contains("error")) {
+      throw new IllegalStateException("Credenciales rechazadas para " + username);
+    }
+    return response.headers().allValues("Set-Cookie").stream()
+        .filter(cookie -> cookie.startsWith("JSESSIONID="))
+        .map(cookie -> cookie.substring(0, cookie.indexOf(';')))
+        .findFirst()
+        .orElseThrow(() -> new IllegalStateException("Sin sesión para " + username));
+  }
+
+  @SuppressWarnings("unchecked")
+  private static List<Map<String, Object>> getList(String url, String cookie) throws Exception {
+    HttpResponse<byte[]> response =
+        http.send(
+            HttpRequest.newBuilder(URI.create(url)).header("Cookie", cookie).GET().build(),
+            HttpResponse.BodyHandlers.ofByteArray());
+    return Arrays.asList(objectMapper.readValue(response.body(), Map[].class));
+  }
+
+  private static StompSession connect(WebSocketStompClient client, String url, String cookie)
+      throws Exception {
+    WebSocketHttpHeaders headers = new WebSocketHttpHeaders();
+    headers.add("Cookie", cookie);
+    return client
+        .connectAsync(
+            url,
+            headers,
+            new StompSessionHandlerAdapter() {
+              @Override
+              public void handleException(
+                  StompSession session,
+                  StompCommand command,
+                  StompHeaders headers,
+                  byte[] payload,
+                  Throwable exception) {
+                exception.printStackTrace();
+              }
+
+              @Override
+              public void handleTransportError(StompSession session, Throwable exception) {
+                exception.printStackTrace();
+              }
+            })
+        .get(30, TimeUnit.SECONDS);
+  }
+}
@@ -0,0 +1,247 @@
+/**
+ * Archivo: StompBrokerStandIn.java Autores: Diego.Gonzalez Fecha última modificación: 17.10.2026
+ * Descripción: Broker STOMP mínimo en memoria para probar el modo relay del chat Proyecto: CABA Pro
+ * - Sistema de Gestión Integral de Arbitraje
+ */
+package com.caba.caba_pro.config;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sustituto de un broker STOMP externo (RabbitMQ, ActiveMQ) para las pruebas: publica cada SEND a
+ * todas las suscripciones con el mismo destino exacto, sin colas persistentes ni comodines. Alcanza
+ * para lo que usa el relay de Spring: un destino {@code /queue/...-user<sesión>} por sesión y los
+ * tópicos de difusión entre nodos.
+ */
+class StompBrokerStandIn implements AutoCloseable {
+
+  // 1. Variables de instancia
+  private final ServerSocket serverSocket;
+  private final Map<String, List<Subscription>> subscriptions = new ConcurrentHashMap<>();
+  private final List<Connection> connections = new CopyOnWriteArrayList<>();
+  private final AtomicLong messageIds = new AtomicLong();
+  private volatile boolean running = true;
+
+  // 2. Constructores
+  StompBrokerStandIn() throws IOException {
+    serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+    Thread acceptor = new Thread(this::acceptLoop, "stomp-stand-in");
+    acceptor.setDaemon(true);
+    acceptor.start();
+  }
+
+  // 3. Métodos públicos
+
+  int getPort() {
+    return serverSocket.getLocalPort();
+  }
+
+  @Override
+  public void close() throws IOException {
+    running = false;
+    serverSocket.close();
+    for (Connection connection : connections) {
+      connection.close();
+    }
+  }
+
+  // 4. Métodos privados
+
+  private void acceptLoop() {
+    while (running) {
+      try {
+        Connection connection = new Connection(serverSocket.accept());
+        connections.add(connection);
+        Thread reader = new Thread(connection::readLoop, "stomp-stand-in-conn");
+        reader.setDaemon(true);
+        reader.start();
+      } catch (IOException e) {
+        // Socket cerrado al terminar
+      }
+    }
+  }
+
+  private void publish(Map<String, String> headers, byte[] body) {
+    String destination = headers.get("destination");
+    for (Subscription subscription : subscriptions.getOrDefault(destination, List.of())) {
+      Map<String, String> out = new LinkedHashMap<>();
+      out.put("destination", destination);
+      out.put("subscription", subscription.id);
+      out.put("message-id", String.valueOf(messageIds.incrementAndGet()));
+      headers.forEach(
+          (name, value) -> {
+            if (!name.equals("destination") && !name.equals("receipt")) {
+              out.putIfAbsent(name, value);
+            }
+          });
+      subscription.connection.send("MESSAGE", out, body);
+    }
+  }
+
+  private static final class Subscription {
+    private final Connection connection;
+    private final String id;
+
+    private Subscription(Connection connection, String id) {
+      this.connection = connection;
+      this.id = id;
+    }
+  }
+
+  private final class Connection {
+    private final Socket socket;
+    private final Map<String, String> destinationsById = new ConcurrentHashMap<>();
+    private OutputStream out;
+
+    private Connection(Socket socket) throws IOException {
+      this.socket = socket;
+      this.out = socket.getOutputStream();
+    }
+
+    private void readLoop() {
+      try (InputStream in = new BufferedInputStream(socket.getInputStream())) {
+        while (running) {
+          String command = readLine(in, true);
+          if (command == null) {
+            break;
+          }
+          Map<String, String> headers = new LinkedHashMap<>();
+          String line;
+          while ((line = readLine(in, false)) != null && !line.isEmpty()) {
+            int colon = line.indexOf(':');
+            headers.putIfAbsent(line.substring(0, colon), line.substring(colon + 1));
+          }
+          byte[] body = readBody(in, headers.get("content-length"));
+          handle(command, headers, body);
+          if (headers.containsKey("receipt") && !command.equals("DISCONNECT")) {
+            send("RECEIPT", Map.of("receipt-id", headers.get("receipt")), new byte[0]);
+          }
+        }
+      } catch (IOException e) {
+        // Conexión cerrada por el relay
+      } finally {
+        close();
+      }
+    }
+
+    private void handle(String command, Map<String, String> headers, byte[] body) {
+      switch (command) {
+        case "CONNECT", "STOMP" -> send(
+            "CONNECTED", Map.of("version", "1.2", "heart-beat", "0,0"), new byte[0]);
+        case "SUBSCRIBE" -> {
+          String id = headers.get("id");
+          String destination = headers.get("destination");
+          destinationsById.put(id, destination);
+          subscriptions
+              .computeIfAbsent(destination, d -> new CopyOnWriteArrayList<>())
+              .add(new Subscription(this, id));
+        }
+        case "UNSUBSCRIBE" -> unsubscribe(headers.get("id"));
+        case "SEND" -> publish(headers, body);
+        case "DISCONNECT" -> {
+          if (headers.containsKey("receipt")) {
+            send("RECEIPT", Map.of("receipt-id", headers.get("receipt")), new byte[0]);
+          }
+          close();
+        }
+        default -> {
+          // ACK, NACK y transacciones no hacen falta aquí
+        }
+      }
+    }
+
+    private void unsubscribe(String id) {
+      String destination = destinationsById.remove(id);
+      List<Subscription> list = destination != null ? subscriptions.get(destination) : null;
+      if (list != null) {
+        list.removeIf(
+            subscription -> subscription.connection == this && subscription.id.equals(id));
+      }
+    }
+
+    private synchronized void send(String command, Map<String, String> headers, byte[] body) {
+      if (out == null) {
+        return;
+      }
+      StringBuilder frame = new StringBuilder(command).append('\n');
+      headers.forEach(
+          (name, value) -> {
+            if (!name.equals("content-length")) {
+              frame.append(name).append(':').append(value).append('\n');
+            }
+          });
+      frame.append("content-length:").append(body.length).append("\n\n");
+      try {
+        out.write(frame.toString().getBytes(StandardCharsets.UTF_8));
+        out.write(body);
+        out.write(0);
+        out.flush();
+      } catch (IOException e) {
+        close();
+      }
+    }
+
+    private synchronized void close() {
+      if (out == null) {
+        return;
+      }
+      out = null;
+      for (String id : new ArrayList<>(destinationsById.keySet())) {
+        unsubscribe(id);
+      }
+      connections.remove(this);
+      try {
+        socket.close();
+      } catch (IOException e) {
+        // Ya estaba cerrado
+      }
+    }
+
+    // Lee una línea sin el fin de línea; con skipHeartbeats ignora las líneas vacías previas
+    private String readLine(InputStream in, boolean skipHeartbeats) throws IOException {
+      ByteArrayOutputStream line = new ByteArrayOutputStream();
+      int b;
+      while ((b = in.read()) != -1) {
+        if (b == '\n') {
+          if (line.size() == 0 && skipHeartbeats) {
+            continue;
+          }
+          return line.toString(StandardCharsets.UTF_8);
+        }
+        if (b != '\r') {
+          line.write(b);
+        }
+      }
+      return null;
+    }
+
+    private byte[] readBody(InputStream in, String contentLength) throws IOException {
+      ByteArrayOutputStream body = new ByteArrayOutputStream();
+      if (contentLength != null) {
+        body.write(in.readNBytes(Integer.parseInt(contentLength)));
+        in.read(); // NUL final
+        return body.toByteArray();
+      }
+      int b;
+      while ((b = in.read()) > 0) {
+        body.write(b);
+      }
+      return body.toByteArray();
+    }
+  }
+}
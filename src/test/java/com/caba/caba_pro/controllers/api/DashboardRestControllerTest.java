@@ -0,0 +1,124 @@
+/**
+ * Archivo: DashboardRestControllerTest.java Autores: Diego.Gonzalez Fecha última modificación:
+ * 17.10.2026 Descripción: Pruebas del panel del árbitro contra H2 en memoria, contando las
+ * sentencias SQL emitidas Proyecto: CABA Pro - Sistema de Gestión Integral de Arbitraje
+ */
+package com.caba.caba_pro.controllers.api;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.caba.caba_pro.config.CacheConsultasProperties;
+import com.caba.caba_pro.enums.AsignacionEstado;
+import com.caba.caba_pro.models.Arbitro;
+import com.caba.caba_pro.repositories.AsignacionRepository;
+import com.caba.caba_pro.services.CacheConsultas;
+import com.caba.caba_pro.support.DatosDePrueba;
+import com.caba.caba_pro.support.PruebaJpa;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+@PruebaJpa
+@Import({
+  DashboardRestController.class,
+  CacheConsultas.class,
+  CacheConsultasProperties.class,
+  SimpleMeterRegistry.class
+})
+@DisplayName("Pruebas de integración - DashboardRestController")
+class DashboardRestControllerTest {
+
+  @Autowired private DashboardRestController dashboardRestController;
+
+  @Autowired private AsignacionRepository asignacionRepository;
+
+  @Autowired private EntityManager entityManager;
+
+  private DatosDePrueba datos;
+  private Statistics statistics;
+  private Arbitro arbitro;
+
+  @BeforeEach
+  void setUp() {
+    datos = new DatosDePrueba(entityManager);
+    arbitro = datos.arbitro("arbitro0");
+    Arbitro otro = datos.arbitro("arbitro1");
+    asignar(arbitro, AsignacionEstado.COMPLETADA, new BigDecimal("150000.00"), true);
+    asignar(arbitro, AsignacionEstado.COMPLETADA, new BigDecimal("120000.50"), true);
+    asignar(arbitro, AsignacionEstado.ACEPTADA, new BigDecimal("90000.00"), true);
+    asignar(arbitro, AsignacionEstado.PENDIENTE, null, true);
+    asignar(arbitro, AsignacionEstado.RECHAZADA, null, true);
+    // No cuentan: completada dada de baja y completada de otro árbitro
+    asignar(arbitro, AsignacionEstado.COMPLETADA, new BigDecimal("999.00"), false);
+    asignar(otro, AsignacionEstado.COMPLETADA, new BigDecimal("50000.00"), true);
+    entityManager.flush();
+    entityManager.clear();
+
+    statistics = datos.estadisticas();
+  }
+
+  @Test
+  @DisplayName("Debe contar las asignaciones del panel del árbitro con una sola consulta")
+  void testContarPorEstadoDeArbitro_UnaConsulta() {
+    // Act
+    List<AsignacionRepository.ConteoPorEstado> conteos =
+        asignacionRepository.contarPorEstadoDeArbitro(arbitro.getId());
+
+    // Assert: una fila por estado, solo asignaciones activas del árbitro
+    assertEquals(1, statistics.getPrepareStatementCount());
+    assertEquals(4, conteos.size());
+    for (AsignacionRepository.ConteoPorEstado conteo : conteos) {
+      switch (conteo.getEstado()) {
+        case COMPLETADA -> {
+          assertEquals(2, conteo.getCantidad());
+          assertEquals(0, new BigDecimal("270000.50").compareTo(conteo.getMonto()));
+        }
+        case ACEPTADA -> {
+          assertEquals(1, conteo.getCantidad());
+          assertEquals(0, new BigDecimal("90000.00").compareTo(conteo.getMonto()));
+        }
+        default -> {
+          assertEquals(1, conteo.getCantidad());
+          assertEquals(0, BigDecimal.ZERO.compareTo(conteo.getMonto()));
+        }
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("Debe sumar el total ganado solo con las asignaciones completadas")
+  void testGetDashboardData_TotalGanado() {
+    // Act
+    Map<String, Object> respuesta =
+        dashboardRestController.getDashboardData(arbitro.getId()).getBody();
+
+    // Assert
+    assertNotNull(respuesta);
+    assertEquals(true, respuesta.get("success"));
+    @SuppressWarnings("unchecked")
+    Map<String, Object> datos = (Map<String, Object>) respuesta.get("data");
+    assertEquals(5L, datos.get("totalAsignaciones"));
+    assertEquals(1L, datos.get("asignacionesPendientes"));
+    assertEquals(1L, datos.get("asignacionesAceptadas"));
+    assertEquals(2L, datos.get("asignacionesCompletadas"));
+    assertEquals(0, new BigDecimal("270000.50").compareTo((BigDecimal) datos.get("totalGanado")));
+    assertEquals(1, statistics.getPrepareStatementCount());
+  }
+
+  private void asignar(
+      Arbitro arbitro, AsignacionEstado estado, BigDecimal montoPago, boolean activo) {
+    datos
+        .asignar(
+            arbitro, datos.partido(LocalDateTime.of(2026, 3, 1, 18, 0), null), estado, montoPago)
+        .setActivo(activo);
+  }
+}
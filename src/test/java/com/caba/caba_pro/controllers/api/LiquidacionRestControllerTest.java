@@ -0,0 +1,140 @@
+/**
+ * Archivo: LiquidacionRestControllerTest.java Autores: Diego.Gonzalez Fecha última modificación:
+ * 17.10.2026 Descripción: Pruebas de las liquidaciones por árbitro de períodos cerrados Proyecto:
+ * CABA Pro - Sistema de Gestión Integral de Arbitraje
+ */
+package com.caba.caba_pro.controllers.api;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import com.caba.caba_pro.dto.LiquidacionDTO;
+import com.caba.caba_pro.models.LiquidacionCerrada;
+import com.caba.caba_pro.services.CierreLiquidacionService;
+import com.caba.caba_pro.services.ExcelExportService;
+import com.caba.caba_pro.services.LiquidacionService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Pruebas unitarias - LiquidacionRestController")
+class LiquidacionRestControllerTest {
+
+  private static final LocalDate INICIO = LocalDate.of(2026, 3, 1);
+  private static final LocalDate FIN = LocalDate.of(2026, 3, 31);
+
+  @Mock private LiquidacionService liquidacionService;
+
+  @Mock private ExcelExportService excelExportService;
+
+  @Mock private CierreLiquidacionService cierreLiquidacionService;
+
+  private LiquidacionRestController controller;
+  private LiquidacionCerrada cerrada;
+
+  @BeforeEach
+  void setUp() {
+    controller =
+        new LiquidacionRestController(
+            liquidacionService,
+            excelExportService,
+            new ObjectMapper().registerModule(new JavaTimeModule()),
+            cierreLiquidacionService);
+
+    // Período cerrado con un único árbitro (id 7)
+    LiquidacionDTO.LiquidacionArbitroDTO arbitro = new LiquidacionDTO.LiquidacionArbitroDTO();
+    arbitro.setArbitroId(7L);
+    arbitro.setCantidadPartidos(2);
+    arbitro.setTotalAPagar(new BigDecimal("200000"));
+    LiquidacionDTO congelada = new LiquidacionDTO();
+    congelada.getArbitros().add(arbitro);
+    cerrada = new LiquidacionCerrada(INICIO, FIN, "{}", "abc123", "admin");
+    when(cierreLiquidacionService.buscar(INICIO, FIN)).thenReturn(Optional.of(cerrada));
+    lenient().when(cierreLiquidacionService.leer(cerrada)).thenReturn(congelada);
+  }
+
+  @Test
+  @DisplayName("Debe responder 404 sin ETag si el árbitro no está en la copia congelada")
+  void testGenerarLiquidacionPorArbitro_CerradoSinArbitro() {
+    // Act
+    ResponseEntity<LiquidacionDTO.LiquidacionArbitroDTO> respuesta =
+        controller.generarLiquidacionPorArbitro(8L, INICIO, FIN, peticion(null));
+
+    // Assert
+    assertEquals(HttpStatus.NOT_FOUND, respuesta.getStatusCode());
+    assertNull(respuesta.getHeaders().getETag());
+    verifyNoInteractions(liquidacionService);
+  }
+
+  @Test
+  @DisplayName("Debe descargar el Excel del árbitro desde la copia congelada con su ETag")
+  void testDescargarLiquidacionArbitroExcel_Cerrado() {
+    // Act
+    ResponseEntity<StreamingResponseBody> respuesta =
+        controller.descargarLiquidacionArbitroExcel(7L, INICIO, FIN, peticion(null));
+    ResponseEntity<StreamingResponseBody> ausente =
+        controller.descargarLiquidacionArbitroExcel(8L, INICIO, FIN, peticion(null));
+
+    // Assert
+    assertEquals(HttpStatus.OK, respuesta.getStatusCode());
+    assertEquals("\"abc123-7\"", respuesta.getHeaders().getETag());
+    assertEquals(HttpStatus.NOT_FOUND, ausente.getStatusCode());
+    verifyNoInteractions(liquidacionService);
+  }
+
+  @Test
+  @DisplayName("Debe responder 304 al Excel del árbitro si el ETag no cambió")
+  void testDescargarLiquidacionArbitroExcel_NoModificado() {
+    // Act
+    ServletWebRequest request = peticion("\"abc123-7\"");
+    ResponseEntity<StreamingResponseBody> respuesta =
+        controller.descargarLiquidacionArbitroExcel(7L, INICIO, FIN, request);
+
+    // Assert
+    assertNull(respuesta);
+    assertEquals(HttpStatus.NOT_MODIFIED.value(), request.getResponse().getStatus());
+    verify(cierreLiquidacionService, never()).leer(any());
+  }
+
+  @Test
+  @DisplayName("Debe enviar en streaming la copia congelada de un período cerrado")
+  void testGenerarLiquidacionStreaming_Cerrado() throws Exception {
+    // Act
+    ResponseEntity<StreamingResponseBody> respuesta =
+        controller.generarLiquidacionStreaming(INICIO, FIN, "json");
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    respuesta.getBody().writeTo(out);
+
+    // Assert
+    JsonNode liquidacion = new ObjectMapper().readTree(out.toByteArray());
+    assertEquals(1, liquidacion.get("arbitros").size());
+    assertEquals(7, liquidacion.get("arbitros").get(0).get("arbitroId").asLong());
+    verifyNoInteractions(liquidacionService);
+  }
+
+  private static ServletWebRequest peticion(String ifNoneMatch) {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/liquidaciones");
+    if (ifNoneMatch != null) {
+      request.addHeader("If-None-Match", ifNoneMatch);
+    }
+    return new ServletWebRequest(request, new MockHttpServletResponse());
+  }
+}
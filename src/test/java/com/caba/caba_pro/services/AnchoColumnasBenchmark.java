@@ -0,0 +1,98 @@
+/**
+ * Archivo: AnchoColumnasBenchmark.java Autores: Diego.Gonzalez Fecha última modificación:
+ * 17.10.2026 Descripción: Benchmark JMH del cálculo de ancho de columnas en las exportaciones a
+ * Excel Proyecto: CABA Pro - Sistema de Gestión Integral de Arbitraje
+ */
+package com.caba.caba_pro.services;
+
+import com.caba.caba_pro.config.ExcelExportProperties;
+import com.caba.caba_pro.config.ExcelExportProperties.AnchoColumnas;
+import com.caba.caba_pro.enums.Especialidad;
+import com.caba.caba_pro.models.Arbitro;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Tiempo de exportar 10.000 y 100.000 árbitros en streaming con cada modo de ancho de columnas
+ * ({@code AUTO} con {@code autoSizeColumn} contra los estimados). Cada medición es una exportación
+ * completa ({@code SingleShotTime}) porque {@code AUTO} tarda decenas de segundos con 100.000
+ * filas. No forma parte de la suite de pruebas; se ejecuta a mano, por ejemplo:
+ *
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/classes:target/test-classes:$(cat target/cp.txt) \
+ *     com.caba.caba_pro.services.AnchoColumnasBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class AnchoColumnasBenchmark {
+
+  @Param({"10000", "100000"})
+  private int filas;
+
+  @Param({"AUTO", "ESTIMADO", "MUESTRA"})
+  private AnchoColumnas modo;
+
+  private ExcelExportService service;
+  private List<Arbitro> arbitros;
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(AnchoColumnasBenchmark.class.getSimpleName()).build())
+        .run();
+  }
+
+  @Setup
+  public void setUp() {
+    ExcelExportProperties properties = new ExcelExportProperties();
+    properties.setAnchoColumnas(modo);
+    service = new ExcelExportService(properties);
+    arbitros = new ArrayList<>(filas);
+    for (int i = 0; i < filas; i++) {
+      arbitros.add(arbitro(i));
+    }
+  }
+
+  @Benchmark
+  public int exportarArbitros() throws IOException {
+    return service.exportarArbitros(arbitros, OutputStream.nullOutputStream());
+  }
+
+  private static Arbitro arbitro(int i) {
+    Arbitro arbitro = new Arbitro();
+    arbitro.setId((long) i);
+    arbitro.setNombre("Nombre" + i);
+    arbitro.setApellidos("Apellido Apellido" + i);
+    arbitro.setNumeroIdentificacion(String.valueOf(1_000_000_000L + i));
+    arbitro.setEmail("arbitro" + i + "@cabaproarbitraje.com");
+    arbitro.setTelefono("3001234567");
+    arbitro.setEspecialidad(Especialidad.values()[i % Especialidad.values().length]);
+    arbitro.setEscalafon("FIBA");
+    arbitro.setFechaNacimiento(LocalDate.of(1990, 1, 1).plusDays(i % 3650));
+    arbitro.setFechaCreacion(LocalDateTime.of(2026, 1, 1, 9, 0));
+    return arbitro;
+  }
+}
@@ -27,6 +27,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 @ExtendWith(MockitoExtension.class)
@@ -41,6 +42,8 @@ class ArbitroServiceTest {
 
   @Mock private FileUploadService fileUploadService;
 
+  @Mock private ApplicationEventPublisher eventPublisher;
+
   @InjectMocks private ArbitroService arbitroService;
 
   private Arbitro arbitroMock;
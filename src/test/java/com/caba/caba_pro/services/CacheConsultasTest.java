@@ -0,0 +1,234 @@
+/**
+ * Archivo: CacheConsultasTest.java Autores: Diego.Gonzalez Fecha última modificación: 17.10.2026
+ * Descripción: Pruebas unitarias de la caché de consultas Proyecto: CABA Pro - Sistema de Gestión
+ * Integral de Arbitraje
+ */
+package com.caba.caba_pro.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.caba.caba_pro.config.CacheConsultasProperties;
+import com.caba.caba_pro.dto.LiquidacionDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Pruebas unitarias - CacheConsultas")
+class CacheConsultasTest {
+
+  private static final LocalDate DESDE = LocalDate.of(2026, 3, 1);
+  private static final LocalDate HASTA = LocalDate.of(2026, 3, 31);
+
+  private CacheConsultasProperties properties;
+  private SimpleMeterRegistry meterRegistry;
+  private MutableClock clock;
+  private CacheConsultas cache;
+  private final AtomicInteger calculos = new AtomicInteger();
+
+  @BeforeEach
+  void setUp() {
+    properties = new CacheConsultasProperties();
+    meterRegistry = new SimpleMeterRegistry();
+    clock = new MutableClock();
+    cache = new CacheConsultas(properties, meterRegistry, clock);
+  }
+
+  @Test
+  @DisplayName("Debe calcular una sola vez la misma consulta")
+  void testObtener_SegundaVezDesdeCache() {
+    // Act
+    String primero =
+        cache.obtener(CacheConsultas.Consulta.TOP_ARBITROS, null, DESDE, HASTA, this::calcular);
+    String segundo =
+        cache.obtener(CacheConsultas.Consulta.TOP_ARBITROS, null, DESDE, HASTA, this::calcular);
+
+    // Assert
+    assertEquals("resultado-1", primero);
+    assertEquals("resultado-1", segundo);
+    assertEquals(1, calculos.get());
+    assertEquals(0.5, cache.getHitRatio(), 0.0001);
+    assertEquals(
+        1.0,
+        meterRegistry
+            .get("caba.consultas.cache.hits")
+            .tag("consulta", "top_arbitros")
+            .counter()
+            .count());
+  }
+
+  @Test
+  @DisplayName("Debe distinguir el rango de fechas en la clave")
+  void testObtener_RangosDistintos() {
+    // Act
+    cache.obtener(CacheConsultas.Consulta.TOP_ARBITROS, null, DESDE, HASTA, this::calcular);
+    cache.obtener(
+        CacheConsultas.Consulta.TOP_ARBITROS, null, DESDE, HASTA.plusDays(1), this::calcular);
+
+    // Assert
+    assertEquals(2, calculos.get());
+    assertEquals(2, cache.size());
+  }
+
+  @Test
+  @DisplayName("Debe invalidar solo las entradas del árbitro cambiado y las globales")
+  void testInvalidar_PorArbitro() {
+    // Arrange
+    cache.obtener(CacheConsultas.Consulta.PANEL_ARBITRO, 1L, null, null, this::calcular);
+    cache.obtener(CacheConsultas.Consulta.PANEL_ARBITRO, 2L, null, null, this::calcular);
+    cache.obtener(
+        CacheConsultas.Consulta.ESTADISTICAS_ASIGNACIONES, null, DESDE, HASTA, this::calcular);
+
+    // Act
+    int borradas = cache.invalidar(CacheConsultas.Dato.ASIGNACION, 1L);
+
+    // Assert
+    assertEquals(2, borradas);
+    assertEquals(1, cache.size());
+    cache.obtener(CacheConsultas.Consulta.PANEL_ARBITRO, 2L, null, null, this::calcular);
+    assertEquals(3, calculos.get());
+  }
+
+  @Test
+  @DisplayName("Debe conservar las consultas que no dependen del dato cambiado")
+  void testInvalidar_SoloDependientes() {
+    // Arrange
+    cache.obtener(
+        CacheConsultas.Consulta.ESTADISTICAS_ASIGNACIONES, null, null, null, this::calcular);
+    cache.obtener(CacheConsultas.Consulta.LIQUIDACION, null, DESDE, HASTA, this::calcular);
+
+    // Act
+    cache.onArbitroCambiado(new ArbitroCambiadoEvent(null));
+
+    // Assert
+    assertEquals(1, cache.size());
+    cache.obtener(
+        CacheConsultas.Consulta.ESTADISTICAS_ASIGNACIONES, null, null, null, this::calcular);
+    assertEquals(2, calculos.get());
+  }
+
+  @Test
+  @DisplayName("Debe entregar una copia del resultado a cada llamada")
+  void testObtener_CopiaPorLlamada() {
+    // Arrange
+    LiquidacionDTO calculada = new LiquidacionDTO();
+    calculada.getArbitros().add(new LiquidacionDTO.LiquidacionArbitroDTO());
+
+    // Act: quien recibe la primera copia la modifica
+    LiquidacionDTO primera =
+        cache.obtener(
+            CacheConsultas.Consulta.LIQUIDACION,
+            null,
+            DESDE,
+            HASTA,
+            () -> calculada,
+            LiquidacionDTO::new);
+    primera.getArbitros().get(0).setTotalAPagar(new BigDecimal("999"));
+    primera.getArbitros().clear();
+    LiquidacionDTO segunda =
+        cache.obtener(
+            CacheConsultas.Consulta.LIQUIDACION,
+            null,
+            DESDE,
+            HASTA,
+            () -> fail("no debe recalcular"),
+            LiquidacionDTO::new);
+
+    // Assert
+    assertNotSame(calculada, primera);
+    assertNotSame(primera, segunda);
+    assertEquals(1, segunda.getArbitros().size());
+    assertEquals(BigDecimal.ZERO, segunda.getArbitros().get(0).getTotalAPagar());
+  }
+
+  @Test
+  @DisplayName("Debe recalcular cuando la entrada vence")
+  void testObtener_Vencida() {
+    // Arrange
+    properties.setTtl(Duration.ofMinutes(1));
+    cache = new CacheConsultas(properties, new SimpleMeterRegistry(), clock);
+    cache.obtener(CacheConsultas.Consulta.TOP_ARBITROS, null, DESDE, HASTA, this::calcular);
+
+    // Act
+    clock.avanzar(Duration.ofSeconds(61));
+    String valor =
+        cache.obtener(CacheConsultas.Consulta.TOP_ARBITROS, null, DESDE, HASTA, this::calcular);
+
+    // Assert
+    assertEquals("resultado-2", valor);
+  }
+
+  @Test
+  @DisplayName("No debe guardar un resultado calculado mientras llegaba una invalidación")
+  void testObtener_InvalidacionDuranteElCalculo() {
+    // Act
+    String valor =
+        cache.obtener(
+            CacheConsultas.Consulta.TOP_ARBITROS,
+            null,
+            DESDE,
+            HASTA,
+            () -> {
+              cache.invalidar(CacheConsultas.Dato.ASIGNACION, 7L);
+              return calcular();
+            });
+
+    // Assert
+    assertEquals("resultado-1", valor);
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  @DisplayName("Debe expulsar la entrada usada hace más tiempo al superar el máximo")
+  void testObtener_MaximoDeEntradas() {
+    // Arrange
+    properties.setMaxEntradas(2);
+    cache = new CacheConsultas(properties, new SimpleMeterRegistry(), clock);
+    cache.obtener(CacheConsultas.Consulta.PANEL_ARBITRO, 1L, null, null, this::calcular);
+    cache.obtener(CacheConsultas.Consulta.PANEL_ARBITRO, 2L, null, null, this::calcular);
+    cache.obtener(CacheConsultas.Consulta.PANEL_ARBITRO, 1L, null, null, this::calcular);
+
+    // Act
+    cache.obtener(CacheConsultas.Consulta.PANEL_ARBITRO, 3L, null, null, this::calcular);
+
+    // Assert: sobrevive la 1 (usada recién) y se va la 2
+    assertEquals(2, cache.size());
+    cache.obtener(CacheConsultas.Consulta.PANEL_ARBITRO, 1L, null, null, this::calcular);
+    assertEquals(3, calculos.get());
+  }
+
+  private String calcular() {
+    return "resultado-" + calculos.incrementAndGet();
+  }
+
+  private static final class MutableClock extends Clock {
+    private Instant instante = Instant.parse("2026-10-17T12:00:00Z");
+
+    void avanzar(Duration duracion) {
+      instante = instante.plus(duracion);
+    }
+
+    @Override
+    public ZoneOffset getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return instante;
+    }
+  }
+}
@@ -0,0 +1,136 @@
+/**
+ * Archivo: CalendarioServiceTest.java Autores: Diego.Gonzalez Fecha última modificación: 17.10.2026
+ * Descripción: Pruebas de los filtros del calendario contra H2 en memoria, contando las sentencias
+ * SQL emitidas Proyecto: CABA Pro - Sistema de Gestión Integral de Arbitraje
+ */
+package com.caba.caba_pro.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.caba.caba_pro.DTOs.CalendarioDto;
+import com.caba.caba_pro.enums.AsignacionEstado;
+import com.caba.caba_pro.models.Arbitro;
+import com.caba.caba_pro.models.Partido;
+import com.caba.caba_pro.models.Torneo;
+import com.caba.caba_pro.support.DatosDePrueba;
+import com.caba.caba_pro.support.PruebaJpa;
+import jakarta.persistence.EntityManager;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+@PruebaJpa
+@Import(CalendarioService.class)
+@DisplayName("Pruebas de integración - CalendarioService")
+class CalendarioServiceTest {
+
+  @Autowired private CalendarioService calendarioService;
+
+  @Autowired private EntityManager entityManager;
+
+  private DatosDePrueba datos;
+  private Statistics statistics;
+  private Arbitro arbitro;
+  private Torneo liga;
+  private Torneo copa;
+
+  @BeforeEach
+  void setUp() {
+    datos = new DatosDePrueba(entityManager);
+    arbitro = datos.arbitro("arbitro.calendario");
+    liga = datos.torneo("Liga", LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 31));
+    copa = datos.torneo("Copa", LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 31));
+
+    // Un partido por día de marzo, alternando torneo; el árbitro está en los días pares
+    for (int dia = 1; dia <= 31; dia++) {
+      Partido partido =
+          datos.partido(LocalDateTime.of(2026, 3, dia, 18, 0), dia % 2 == 0 ? liga : copa);
+      if (dia % 2 == 0) {
+        datos.asignar(arbitro, partido, AsignacionEstado.ACEPTADA, null);
+      }
+    }
+    // Inactivo dentro de la ventana: no se muestra
+    datos.partido(LocalDateTime.of(2026, 3, 10, 10, 0), liga).setActivo(false);
+    entityManager.flush();
+    entityManager.clear();
+
+    statistics = datos.estadisticas();
+  }
+
+  @Test
+  @DisplayName("Debe traer solo la ventana visible de FullCalendar con una sola consulta")
+  void testFiltros_VentanaDeFullCalendar() {
+    // Act: semana del 9 al 15 de marzo, como la envía FullCalendar
+    List<CalendarioDto> eventos =
+        calendarioService.obtenerEventosConFiltros(
+            "admin",
+            "ADMIN",
+            "2026-03-09T00:00:00-05:00",
+            "2026-03-16T00:00:00-05:00",
+            null,
+            null,
+            null);
+
+    // Assert
+    assertEquals(1, statistics.getPrepareStatementCount());
+    assertEquals(7, eventos.size());
+    assertEquals("2026-03-09T18:00:00", eventos.get(0).getStart());
+    assertEquals("2026-03-15T18:00:00", eventos.get(6).getStart());
+  }
+
+  @Test
+  @DisplayName("Debe combinar el rango del filtro, la ventana y el torneo en la consulta")
+  void testFiltros_RangoYTorneo() {
+    // Act: rango del 1 al 20 dentro de la ventana del mes, solo la liga (días pares)
+    List<CalendarioDto> eventos =
+        calendarioService.obtenerEventosConFiltros(
+            "admin", "ADMIN", "2026-03-01", "2026-04-01", "2026-03-05", "2026-03-20", liga.getId());
+
+    // Assert
+    assertEquals(1, statistics.getPrepareStatementCount());
+    assertEquals(
+        List.of(6, 8, 10, 12, 14, 16, 18, 20),
+        eventos.stream()
+            .map(evento -> LocalDateTime.parse(evento.getStart()).getDayOfMonth())
+            .collect(Collectors.toList()));
+    assertTrue(
+        eventos.stream()
+            .allMatch(evento -> liga.getId().equals(evento.getExtendedProps().get("torneoId"))));
+  }
+
+  @Test
+  @DisplayName("Debe mostrar al árbitro solo sus partidos de la ventana")
+  void testFiltros_Arbitro() {
+    // Act
+    List<CalendarioDto> eventos =
+        calendarioService.obtenerEventosConFiltros(
+            arbitro.getUsername(), "ARBITRO", "2026-03-01", "2026-03-11", null, null, null);
+    List<CalendarioDto> todos = calendarioService.obtenerEventosArbitro(arbitro.getUsername());
+
+    // Assert: búsqueda del árbitro y partidos, en cada llamada
+    assertEquals(4, statistics.getPrepareStatementCount());
+    assertEquals(5, eventos.size()); // 2, 4, 6, 8 y 10
+    assertEquals(15, todos.size());
+  }
+
+  @Test
+  @DisplayName("Debe ignorar fechas que no se pueden leer")
+  void testFiltros_FechasInvalidas() {
+    // Act
+    List<CalendarioDto> eventos =
+        calendarioService.obtenerEventosConFiltros(
+            "admin", "ADMIN", "ayer", null, "2026-13-01", "", null);
+
+    // Assert
+    assertEquals(31, eventos.size());
+    assertEquals(
+        LocalDate.of(2026, 3, 1), LocalDateTime.parse(eventos.get(0).getStart()).toLocalDate());
+  }
+}
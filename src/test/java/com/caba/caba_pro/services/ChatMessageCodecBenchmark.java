@@ -0,0 +1,112 @@
+/**
+ * Archivo: ChatMessageCodecBenchmark.java Autores: Diego.Gonzalez Fecha última modificación:
+ * 17.10.2026 Descripción: Comparación de tamaño y tiempos de los formatos de mensajes de chat
+ * Proyecto: CABA Pro - Sistema de Gestión Integral de Arbitraje
+ */
+package com.caba.caba_pro.services;
+
+import com.caba.caba_pro.DTOs.ChatMessageDto;
+import com.caba.caba_pro.config.ChatStorageProperties;
+import com.caba.caba_pro.config.ChatStorageProperties.Codec;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Escribe y lee conversaciones de 10.000 y 100.000 mensajes con cada formato y muestra el tamaño en
+ * disco y los tiempos de escritura y de lectura completa. No forma parte de la suite de pruebas (la
+ * clase no termina en {@code Test}); se ejecuta a mano, por ejemplo:
+ *
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/classes:target/test-classes:$(cat target/cp.txt) \
+ *     com.caba.caba_pro.services.ChatMessageCodecBenchmark
+ * </pre>
+ */
+public class ChatMessageCodecBenchmark {
+
+  private static final int[] SIZES = {10_000, 100_000};
+  private static final int ROUNDS = 3;
+
+  public static void main(String[] args) throws IOException {
+    System.out.printf(
+        "%-6s %9s %12s %12s %12s%n", "codec", "mensajes", "bytes", "escritura ms", "lectura ms");
+    for (int size : SIZES) {
+      for (Codec codec : Codec.values()) {
+        run(codec, size);
+      }
+    }
+  }
+
+  private static void run(Codec codec, int size) throws IOException {
+    long bytes = 0;
+    long bestWrite = Long.MAX_VALUE;
+    long bestRead = Long.MAX_VALUE;
+    for (int round = 0; round < ROUNDS; round++) {
+      Path directory = Files.createTempDirectory("chat-bench");
+      try {
+        ChatStorageProperties properties = new ChatStorageProperties();
+        properties.setDirectory(directory.toString());
+        properties.setCodec(codec);
+        properties.setFsync(ChatStorageProperties.FsyncPolicy.NEVER);
+        properties.setWriteQueueCapacity(size);
+
+        JsonStorageService storage = new JsonStorageService(properties, new SimpleMeterRegistry());
+        long start = System.nanoTime();
+        for (int i = 0; i < size; i++) {
+          storage.saveMessage(1L, 2L, message(i));
+        }
+        storage.shutdown();
+        bestWrite = Math.min(bestWrite, System.nanoTime() - start);
+        bytes = segmentBytes(directory.resolve("admin1_arbitro2"));
+
+        JsonStorageService reader = new JsonStorageService(properties, new SimpleMeterRegistry());
+        start = System.nanoTime();
+        List<ChatMessageDto> messages = reader.loadMessages(1L, 2L);
+        bestRead = Math.min(bestRead, System.nanoTime() - start);
+        reader.shutdown();
+        if (messages.size() != size) {
+          throw new IllegalStateException("Se leyeron " + messages.size() + " de " + size);
+        }
+      } finally {
+        delete(directory);
+      }
+    }
+    System.out.printf(
+        "%-6s %9d %12d %12d %12d%n",
+        codec, size, bytes, bestWrite / 1_000_000, bestRead / 1_000_000);
+  }
+
+  private static ChatMessageDto message(int i) {
+    boolean fromAdmin = i % 2 == 0;
+    ChatMessageDto message =
+        new ChatMessageDto(
+            fromAdmin ? "ADMIN" : "ARBITRO",
+            fromAdmin ? "ARBITRO" : "ADMIN",
+            "Mensaje " + i + ": confirmo la asignación del partido del sábado a las 15:00",
+            LocalDateTime.now());
+    message.setSenderId(fromAdmin ? 1L : 2L);
+    message.setSenderUsername(fromAdmin ? "admin" : "arbitro.perez");
+    return message;
+  }
+
+  private static long segmentBytes(Path directory) throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files
+          .filter(path -> path.toString().endsWith(ChatSegmentLog.SEGMENT_SUFFIX))
+          .mapToLong(path -> path.toFile().length())
+          .sum();
+    }
+  }
+
+  private static void delete(Path directory) throws IOException {
+    try (Stream<Path> files = Files.walk(directory)) {
+      files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+    }
+  }
+}
@@ -0,0 +1,85 @@
+/**
+ * Archivo: ChatMessageCodecTest.java Autores: Diego.Gonzalez Fecha última modificación: 17.10.2026
+ * Descripción: Pruebas unitarias para ChatMessageCodec Proyecto: CABA Pro - Sistema de Gestión
+ * Integral de Arbitraje
+ */
+package com.caba.caba_pro.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.caba.caba_pro.DTOs.ChatMessageDto;
+import com.caba.caba_pro.config.ChatStorageProperties.Codec;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Pruebas unitarias - ChatMessageCodec")
+class ChatMessageCodecTest {
+
+  private ChatMessageDto mensaje() {
+    ChatMessageDto mensaje =
+        new ChatMessageDto(
+            "ADMIN", "ARBITRO", "Recuerde llegar 30 minutos antes", LocalDateTime.now());
+    mensaje.setId(42L);
+    mensaje.setSenderId(1L);
+    mensaje.setSenderUsername("admin");
+    return mensaje;
+  }
+
+  @Test
+  @DisplayName("Debe codificar y decodificar en ambos formatos sin perder campos")
+  void testEncodeDecode_RoundTrip() throws Exception {
+    for (Codec format : Codec.values()) {
+      // Arrange
+      ChatMessageCodec codec = new ChatMessageCodec(format);
+      ChatMessageDto original = mensaje();
+
+      // Act
+      ChatMessageDto leido = codec.decode(codec.encode(original));
+
+      // Assert
+      assertEquals(original.getId(), leido.getId());
+      assertEquals(original.getContent(), leido.getContent());
+      assertEquals(original.getTimestamp(), leido.getTimestamp());
+      assertEquals(original.getSenderUsername(), leido.getSenderUsername());
+
+      ChatMessageDto vacio = codec.decode(codec.encode(new ChatMessageDto()));
+      assertNull(vacio.getId());
+      assertNull(vacio.getContent());
+      assertNull(vacio.getTimestamp());
+    }
+  }
+
+  @Test
+  @DisplayName("Debe leer mensajes de cualquier formato y JSON anterior con 'contenido'")
+  void testDecode_DetectaFormato() throws Exception {
+    // Arrange
+    ChatMessageCodec smile = new ChatMessageCodec(Codec.SMILE);
+    ChatMessageCodec json = new ChatMessageCodec(Codec.JSON);
+    ChatMessageCodec binario = new ChatMessageCodec(Codec.BINARY);
+    byte[] anterior =
+        "{\"id\":1,\"remitente\":\"ARBITRO\",\"content\":\"hola\",\"contenido\":\"hola\"}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    // Act & Assert
+    assertEquals("hola", smile.decode(anterior).getContent());
+    assertEquals(mensaje().getContent(), json.decode(smile.encode(mensaje())).getContent());
+    assertEquals(mensaje().getContent(), json.decode(binario.encode(mensaje())).getContent());
+    assertEquals(mensaje().getContent(), binario.decode(smile.encode(mensaje())).getContent());
+  }
+
+  @Test
+  @DisplayName("Debe producir payloads más pequeños en binario y omitir el alias 'contenido'")
+  void testEncode_SmileMasCompacto() throws Exception {
+    // Act
+    byte[] json = new ChatMessageCodec(Codec.JSON).encode(mensaje());
+    byte[] smile = new ChatMessageCodec(Codec.SMILE).encode(mensaje());
+    byte[] binario = new ChatMessageCodec(Codec.BINARY).encode(mensaje());
+
+    // Assert
+    assertFalse(new String(json, StandardCharsets.UTF_8).contains("contenido"));
+    assertTrue(smile.length < json.length);
+    assertTrue(binario.length < smile.length);
+  }
+}
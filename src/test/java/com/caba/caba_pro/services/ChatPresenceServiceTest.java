@@ -0,0 +1,120 @@
+/**
+ * Archivo: ChatPresenceServiceTest.java Autores: Diego.Gonzalez Fecha última modificación:
+ * 17.10.2026 Descripción: Pruebas unitarias para ChatPresenceService Proyecto: CABA Pro - Sistema
+ * de Gestión Integral de Arbitraje
+ */
+package com.caba.caba_pro.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.caba.caba_pro.DTOs.ChatPresenceDto;
+import java.security.Principal;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Pruebas unitarias - ChatPresenceService")
+class ChatPresenceServiceTest {
+
+  @Mock private ChatIdentityService chatIdentityService;
+
+  @Mock private SimpMessagingTemplate messagingTemplate;
+
+  private ChatPresenceService chatPresenceService;
+
+  @BeforeEach
+  void setUp() {
+    chatPresenceService = new ChatPresenceService(chatIdentityService, messagingTemplate);
+    lenient()
+        .when(chatIdentityService.resolve("admin"))
+        .thenReturn(
+            new ChatIdentityService.ChatIdentity(ChatIdentityService.ROLE_ADMIN, 1L, "admin"));
+    lenient()
+        .when(chatIdentityService.resolve("arbitro.perez"))
+        .thenReturn(
+            new ChatIdentityService.ChatIdentity(
+                ChatIdentityService.ROLE_ARBITRO, 2L, "arbitro.perez"));
+  }
+
+  private SessionConnectedEvent conectado(String username, String sessionId) {
+    SimpMessageHeaderAccessor accessor =
+        SimpMessageHeaderAccessor.create(SimpMessageType.CONNECT_ACK);
+    accessor.setSessionId(sessionId);
+    Message<byte[]> message =
+        MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    Principal user = () -> username;
+    return new SessionConnectedEvent(this, message, user);
+  }
+
+  private SessionDisconnectEvent desconectado(String username, String sessionId) {
+    Message<byte[]> message = MessageBuilder.withPayload(new byte[0]).build();
+    Principal user = () -> username;
+    return new SessionDisconnectEvent(this, message, sessionId, CloseStatus.NORMAL, user);
+  }
+
+  @Test
+  @DisplayName("Debe avisar al otro rol solo con la primera y la última sesión de un usuario")
+  void testPresencia_PrimeraYUltimaSesion() {
+    // Arrange
+    chatPresenceService.onConnected(conectado("admin", "s-admin"));
+
+    // Act
+    chatPresenceService.onConnected(conectado("arbitro.perez", "s1"));
+    chatPresenceService.onConnected(conectado("arbitro.perez", "s2")); // otra pestaña
+    chatPresenceService.onDisconnected(desconectado("arbitro.perez", "s1"));
+    chatPresenceService.onDisconnected(desconectado("arbitro.perez", "s1")); // cierre repetido
+    boolean conectadoConUnaSesion = chatPresenceService.isOnline("arbitro.perez");
+    chatPresenceService.onDisconnected(desconectado("arbitro.perez", "s2"));
+
+    // Assert
+    assertTrue(conectadoConUnaSesion);
+    assertFalse(chatPresenceService.isOnline("arbitro.perez"));
+    ArgumentCaptor<ChatPresenceDto> avisos = ArgumentCaptor.forClass(ChatPresenceDto.class);
+    verify(messagingTemplate, times(2))
+        .convertAndSendToUser(
+            eq("admin"), eq(ChatPresenceService.PRESENCE_QUEUE), avisos.capture());
+    assertTrue(avisos.getAllValues().get(0).isOnline());
+    assertFalse(avisos.getAllValues().get(1).isOnline());
+    assertEquals(2L, avisos.getAllValues().get(1).getId());
+    // El árbitro se conectó después del admin: el admin no se le anuncia, lo pide al iniciar
+    verify(messagingTemplate, never())
+        .convertAndSendToUser(eq("arbitro.perez"), anyString(), any(Object.class));
+  }
+
+  @Test
+  @DisplayName("Debe listar solo a los usuarios conectados del otro rol")
+  void testGetOnlineCounterparts() {
+    // Arrange
+    chatPresenceService.onConnected(conectado("admin", "s-admin"));
+    chatPresenceService.onConnected(conectado("arbitro.perez", "s1"));
+
+    // Act
+    List<ChatPresenceDto> paraAdmin = chatPresenceService.getOnlineCounterparts("admin");
+    List<ChatPresenceDto> paraArbitro = chatPresenceService.getOnlineCounterparts("arbitro.perez");
+
+    // Assert
+    assertEquals(1, paraAdmin.size());
+    assertEquals("arbitro.perez", paraAdmin.get(0).getUsername());
+    assertEquals(ChatIdentityService.ROLE_ARBITRO, paraAdmin.get(0).getRole());
+    assertEquals(1, paraArbitro.size());
+    assertEquals("admin", paraArbitro.get(0).getUsername());
+  }
+}
@@ -0,0 +1,83 @@
+/**
+ * Archivo: ChatSearchIndexTest.java Autores: Diego.Gonzalez Fecha última modificación: 17.10.2026
+ * Descripción: Pruebas unitarias para ChatSearchIndex Proyecto: CABA Pro - Sistema de Gestión
+ * Integral de Arbitraje
+ */
+package com.caba.caba_pro.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.caba.caba_pro.DTOs.ChatMessageDto;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+@DisplayName("Pruebas unitarias - ChatSearchIndex")
+class ChatSearchIndexTest {
+
+  @TempDir Path tempDir;
+
+  private ChatMessageDto mensaje(long id, String contenido) {
+    ChatMessageDto mensaje = new ChatMessageDto("ADMIN", "ARBITRO", contenido, LocalDateTime.now());
+    mensaje.setId(id);
+    return mensaje;
+  }
+
+  @Test
+  @DisplayName("Debe normalizar tildes y mayúsculas y descartar palabras vacías")
+  void testTokenize() {
+    assertEquals(
+        Set.of("liquidacion", "partido", "123"),
+        ChatSearchIndex.tokenize("¿La LIQUIDACIÓN del partido 123?"));
+  }
+
+  @Test
+  @DisplayName("Debe ordenar por relevancia y respetar el filtro de conversaciones")
+  void testSearch_RankingYFiltro() {
+    // Arrange
+    ChatSearchIndex index = new ChatSearchIndex();
+    index.add(
+        "admin1_arbitro2",
+        List.of(
+            mensaje(1, "Hola, ¿cómo va todo?"),
+            mensaje(2, "Revise la liquidación del partido 123"),
+            mensaje(3, "El partido 124 se aplaza")));
+    index.add("admin9_arbitro2", List.of(mensaje(1, "Liquidación del partido 123 pendiente")));
+
+    // Act
+    List<ChatSearchIndex.Hit> hits =
+        index.search("partido 123 liquidación", key -> key.startsWith("admin1_"), 10);
+
+    // Assert
+    assertEquals(2, hits.size());
+    assertEquals(2L, hits.get(0).getMessageId());
+    assertEquals(3L, hits.get(1).getMessageId());
+    assertTrue(hits.get(0).getScore() > hits.get(1).getScore());
+    assertTrue(hits.stream().allMatch(h -> h.getConversationKey().equals("admin1_arbitro2")));
+  }
+
+  @Test
+  @DisplayName("Debe guardar y cargar el índice con el último id indexado por conversación")
+  void testSaveLoad() throws Exception {
+    // Arrange
+    ChatSearchIndex index = new ChatSearchIndex();
+    index.add("admin1_arbitro2", List.of(mensaje(1, "pago de tarifa"), mensaje(2, "tarifa ok")));
+    Path archivo = tempDir.resolve("index").resolve("search.idx");
+
+    // Act
+    index.save(archivo);
+    ChatSearchIndex cargado = new ChatSearchIndex();
+    boolean existia = cargado.load(archivo);
+    cargado.add("admin1_arbitro2", List.of(mensaje(2, "tarifa ok"))); // ya indexado: se ignora
+
+    // Assert
+    assertTrue(existia);
+    assertEquals(2, cargado.indexedUpTo("admin1_arbitro2"));
+    assertEquals(2, cargado.getMessageCount());
+    assertEquals(2, cargado.search("tarifa", key -> true, 10).size());
+  }
+}
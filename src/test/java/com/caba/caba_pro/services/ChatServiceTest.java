@@ -0,0 +1,204 @@
+/**
+ * Archivo: ChatServiceTest.java Autores: Diego.Gonzalez Fecha última modificación: 17.10.2026
+ * Descripción: Pruebas unitarias para ChatService Proyecto: CABA Pro - Sistema de Gestión Integral
+ * de Arbitraje
+ */
+package com.caba.caba_pro.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.caba.caba_pro.DTOs.ChatMessageDto;
+import com.caba.caba_pro.DTOs.ChatUnreadDto;
+import com.caba.caba_pro.models.Administrador;
+import com.caba.caba_pro.models.Arbitro;
+import com.caba.caba_pro.repositories.AdministradorRepository;
+import com.caba.caba_pro.repositories.ArbitroRepository;
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Pruebas unitarias - ChatService")
+class ChatServiceTest {
+
+  @Mock private JsonStorageService jsonStorageService;
+
+  @Mock private SimpMessagingTemplate messagingTemplate;
+
+  @Mock private AdministradorRepository administradorRepository;
+
+  @Mock private ArbitroRepository arbitroRepository;
+
+  private ChatIdentityService chatIdentityService;
+  private ChatService chatService;
+
+  private Administrador admin;
+  private Arbitro arbitro;
+
+  @BeforeEach
+  void setUp() {
+    chatIdentityService = new ChatIdentityService(administradorRepository, arbitroRepository);
+    chatService =
+        new ChatService(
+            jsonStorageService,
+            messagingTemplate,
+            administradorRepository,
+            arbitroRepository,
+            chatIdentityService);
+
+    admin = new Administrador();
+    admin.setId(1L);
+    admin.setUsername("admin");
+
+    arbitro = new Arbitro();
+    arbitro.setId(2L);
+    arbitro.setUsername("arbitro.perez");
+  }
+
+  @Test
+  @DisplayName("Debe enviar mensajes sin consultar la base de datos una vez resuelta la identidad")
+  void testProcessMessage_SinConsultas() {
+    // Arrange: el admin conecta (CONNECT) y el árbitro ya fue resuelto una vez
+    when(administradorRepository.findByUsername("admin")).thenReturn(admin);
+    ChatIdentityService.ChatIdentity sender = chatIdentityService.resolve("admin");
+    when(arbitroRepository.findById(2L)).thenReturn(Optional.of(arbitro));
+    chatIdentityService.usernameOf(ChatIdentityService.ROLE_ARBITRO, 2L);
+    clearInvocations(administradorRepository, arbitroRepository);
+    when(jsonStorageService.saveMessage(any(), any(), any()))
+        .thenReturn(CompletableFuture.completedFuture(1L));
+
+    // Act
+    for (int i = 0; i < 3; i++) {
+      chatService.processMessage(
+          new ChatMessageDto(null, null, "hola " + i, null), sender, arbitro.getId());
+    }
+
+    // Assert
+    verifyNoInteractions(administradorRepository, arbitroRepository);
+    verify(jsonStorageService, times(3)).saveMessage(eq(1L), eq(2L), any(ChatMessageDto.class));
+    verify(messagingTemplate, times(3))
+        .convertAndSendToUser(eq("arbitro.perez"), eq("/queue/private"), any(Object.class));
+  }
+
+  @Test
+  @DisplayName("Debe completar remitente y destinatario según el rol del árbitro")
+  void testProcessMessage_Arbitro() {
+    // Arrange
+    when(arbitroRepository.findByUsername("arbitro.perez")).thenReturn(arbitro);
+    when(administradorRepository.findById(1L)).thenReturn(Optional.of(admin));
+    ChatMessageDto mensaje = new ChatMessageDto(null, null, null, null);
+    mensaje.setContenido("buenas");
+    when(jsonStorageService.saveMessage(any(), any(), any()))
+        .thenReturn(CompletableFuture.completedFuture(1L));
+
+    // Act
+    chatService.processMessage(mensaje, "arbitro.perez", 1L);
+
+    // Assert
+    assertEquals("ARBITRO", mensaje.getRemitente());
+    assertEquals("ADMIN", mensaje.getDestinatario());
+    assertEquals(2L, mensaje.getSenderId());
+    assertEquals("buenas", mensaje.getContent());
+    assertNotNull(mensaje.getTimestamp());
+    verify(jsonStorageService).saveMessage(1L, 2L, mensaje);
+    verify(messagingTemplate).convertAndSendToUser("admin", "/queue/private", mensaje);
+  }
+
+  @Test
+  @DisplayName("Debe avisar un no leído al destinatario y descontarlos al abrir la conversación")
+  void testUnread_AvisosPorWebSocket() {
+    // Arrange
+    when(arbitroRepository.findByUsername("arbitro.perez")).thenReturn(arbitro);
+    when(administradorRepository.findById(1L)).thenReturn(Optional.of(admin));
+    ChatIdentityService.ChatIdentity sender = chatIdentityService.resolve("arbitro.perez");
+    when(administradorRepository.findByUsername("admin")).thenReturn(admin);
+    when(jsonStorageService.markConversationRead(1L, 2L, true)).thenReturn(1);
+    when(jsonStorageService.saveMessage(any(), any(), any()))
+        .thenReturn(CompletableFuture.completedFuture(1L));
+
+    // Act
+    chatService.processMessage(new ChatMessageDto(null, null, "hola", null), sender, 1L);
+    chatService.getChatHistory("admin", 2L, null, 50);
+
+    // Assert
+    ArgumentCaptor<ChatUnreadDto> avisos = ArgumentCaptor.forClass(ChatUnreadDto.class);
+    verify(messagingTemplate, times(2))
+        .convertAndSendToUser(eq("admin"), eq(ChatService.UNREAD_QUEUE), avisos.capture());
+    assertEquals(1, avisos.getAllValues().get(0).getDelta());
+    assertEquals(-1, avisos.getAllValues().get(1).getDelta());
+    assertEquals(2L, avisos.getAllValues().get(1).getArbitroId());
+  }
+
+  @Test
+  @DisplayName("Debe enviar el mensaje al destinatario solo cuando queda escrito y tiene id")
+  void testProcessMessage_EnviaTrasEscribir() {
+    // Arrange: escritura diferida todavía pendiente
+    when(arbitroRepository.findByUsername("arbitro.perez")).thenReturn(arbitro);
+    when(administradorRepository.findById(1L)).thenReturn(Optional.of(admin));
+    CompletableFuture<Long> escrito = new CompletableFuture<>();
+    ChatMessageDto mensaje = new ChatMessageDto(null, null, "hola", null);
+    when(jsonStorageService.saveMessage(1L, 2L, mensaje)).thenReturn(escrito);
+
+    // Act
+    chatService.processMessage(mensaje, "arbitro.perez", 1L);
+    verify(messagingTemplate, never()).convertAndSendToUser(any(), any(), any(Object.class));
+    mensaje.setId(7L);
+    escrito.complete(7L);
+
+    // Assert
+    ArgumentCaptor<Object> enviado = ArgumentCaptor.forClass(Object.class);
+    verify(messagingTemplate)
+        .convertAndSendToUser(eq("admin"), eq("/queue/private"), enviado.capture());
+    assertEquals(7L, ((ChatMessageDto) enviado.getValue()).getId());
+  }
+
+  @Test
+  @DisplayName("No debe enviar el mensaje si no se pudo guardar")
+  void testProcessMessage_NoEnviaSiFallaEscritura() {
+    // Arrange
+    when(arbitroRepository.findByUsername("arbitro.perez")).thenReturn(arbitro);
+    when(jsonStorageService.saveMessage(any(), any(), any()))
+        .thenReturn(CompletableFuture.failedFuture(new IOException("disco lleno")));
+
+    // Act
+    chatService.processMessage(new ChatMessageDto(null, null, "hola", null), "arbitro.perez", 1L);
+
+    // Assert
+    verifyNoInteractions(messagingTemplate);
+  }
+
+  @Test
+  @DisplayName("Debe descontar el no leído de un mensaje que llega a la conversación abierta")
+  void testMarkConversationRead_ConversacionAbierta() {
+    // Arrange
+    when(arbitroRepository.findByUsername("arbitro.perez")).thenReturn(arbitro);
+    when(administradorRepository.findById(1L)).thenReturn(Optional.of(admin));
+    ChatIdentityService.ChatIdentity sender = chatIdentityService.resolve("arbitro.perez");
+    when(administradorRepository.findByUsername("admin")).thenReturn(admin);
+    when(jsonStorageService.saveMessage(any(), any(), any()))
+        .thenReturn(CompletableFuture.completedFuture(1L));
+    when(jsonStorageService.markConversationRead(1L, 2L, true)).thenReturn(1);
+
+    // Act: el admin tiene abierta la conversación con el árbitro cuando llega el mensaje
+    chatService.processMessage(new ChatMessageDto(null, null, "hola", null), sender, 1L);
+    int leidos = chatService.markConversationRead("admin", 2L);
+
+    // Assert: el +1 y el -1 se compensan
+    assertEquals(1, leidos);
+    ArgumentCaptor<ChatUnreadDto> avisos = ArgumentCaptor.forClass(ChatUnreadDto.class);
+    verify(messagingTemplate, times(2))
+        .convertAndSendToUser(eq("admin"), eq(ChatService.UNREAD_QUEUE), avisos.capture());
+    assertEquals(0, avisos.getAllValues().stream().mapToInt(ChatUnreadDto::getDelta).sum());
+  }
+}
@@ -0,0 +1,97 @@
+/**
+ * Archivo: ChatTailCacheTest.java Autores: Diego.Gonzalez Fecha última modificación: 17.10.2026
+ * Descripción: Pruebas unitarias para ChatTailCache Proyecto: CABA Pro - Sistema de Gestión
+ * Integral de Arbitraje
+ */
+package com.caba.caba_pro.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.caba.caba_pro.DTOs.ChatMessageDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Pruebas unitarias - ChatTailCache")
+class ChatTailCacheTest {
+
+  private SimpleMeterRegistry meterRegistry;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+  }
+
+  private List<ChatMessageDto> mensajes(long desde, long hasta) {
+    List<ChatMessageDto> mensajes = new ArrayList<>();
+    for (long id = desde; id <= hasta; id++) {
+      ChatMessageDto mensaje =
+          new ChatMessageDto("ADMIN", "ARBITRO", "m" + id, LocalDateTime.now());
+      mensaje.setId(id);
+      mensajes.add(mensaje);
+    }
+    return mensajes;
+  }
+
+  @Test
+  @DisplayName("Debe servir páginas cubiertas por la cola y fallar las que no")
+  void testGetPage_HitsYMisses() {
+    // Arrange
+    ChatTailCache cache = new ChatTailCache(1_000_000, 10, meterRegistry);
+    cache.put("admin1_arbitro2", mensajes(11, 20), 20);
+
+    // Act
+    List<ChatMessageDto> ultimos = cache.getPage("admin1_arbitro2", null, 5);
+    List<ChatMessageDto> anteriores = cache.getPage("admin1_arbitro2", 16L, 5);
+    List<ChatMessageDto> fueraDeCola = cache.getPage("admin1_arbitro2", 12L, 5);
+
+    // Assert
+    assertEquals(16L, ultimos.get(0).getId());
+    assertEquals(11L, anteriores.get(0).getId());
+    assertNull(fueraDeCola);
+    assertEquals(2.0, meterRegistry.get("caba.chat.cache.hits").counter().count());
+    assertEquals(1.0, meterRegistry.get("caba.chat.cache.misses").counter().count());
+  }
+
+  @Test
+  @DisplayName("Debe mantener la cola coherente al anexar mensajes")
+  void testOnAppend_RecortaLaCola() {
+    // Arrange
+    ChatTailCache cache = new ChatTailCache(1_000_000, 10, meterRegistry);
+    cache.put("admin1_arbitro2", mensajes(1, 10), 10);
+
+    // Act
+    cache.onAppend("admin1_arbitro2", mensajes(11, 13));
+    cache.onAppend("admin9_arbitro9", mensajes(1, 1)); // no está en caché: se ignora
+
+    // Assert
+    List<ChatMessageDto> pagina = cache.getPage("admin1_arbitro2", null, 10);
+    assertEquals(4L, pagina.get(0).getId());
+    assertEquals(13L, pagina.get(9).getId());
+    assertEquals(1, cache.size());
+  }
+
+  @Test
+  @DisplayName("Debe expulsar la conversación menos usada al superar el límite de bytes")
+  void testPut_ExpulsaPorBytes() {
+    // Arrange
+    long bytesPorChat = 5 * ChatTailCache.estimateBytes(mensajes(1, 1).get(0));
+    ChatTailCache cache = new ChatTailCache(bytesPorChat * 2, 5, meterRegistry);
+    cache.put("a", mensajes(1, 5), 5);
+    cache.put("b", mensajes(1, 5), 5);
+    cache.getPage("a", null, 1); // "a" pasa a ser la más reciente
+
+    // Act
+    cache.put("c", mensajes(1, 5), 5);
+
+    // Assert
+    assertNotNull(cache.getPage("a", null, 1));
+    assertNull(cache.getPage("b", null, 1));
+    assertTrue(cache.getTotalBytes() <= bytesPorChat * 2);
+    assertEquals(1.0, meterRegistry.get("caba.chat.cache.evictions").counter().count());
+  }
+}
@@ -0,0 +1,141 @@
+/**
+ * Archivo: CierreLiquidacionConcurrenciaTest.java Autores: Diego.Gonzalez Fecha última
+ * modificación: 17.10.2026 Descripción: Prueba del cierre de período simultáneo con un cambio a lo
+ * pagado, con transacciones reales contra H2 en memoria Proyecto: CABA Pro - Sistema de Gestión
+ * Integral de Arbitraje
+ */
+package com.caba.caba_pro.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.caba.caba_pro.config.CacheConsultasProperties;
+import com.caba.caba_pro.dto.LiquidacionDTO;
+import com.caba.caba_pro.enums.AsignacionEstado;
+import com.caba.caba_pro.models.Asignacion;
+import com.caba.caba_pro.repositories.LiquidacionCerradaRepository;
+import com.caba.caba_pro.support.DatosDePrueba;
+import com.caba.caba_pro.support.PruebaJpa;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@PruebaJpa
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({
+  CierreLiquidacionService.class,
+  LiquidacionService.class,
+  CacheConsultas.class,
+  CacheConsultasProperties.class,
+  SimpleMeterRegistry.class
+})
+@DisplayName("Pruebas de integración - CierreLiquidacionService con transacciones simultáneas")
+class CierreLiquidacionConcurrenciaTest {
+
+  private static final LocalDate INICIO = LocalDate.of(2026, 3, 1);
+  private static final LocalDate FIN = LocalDate.of(2026, 3, 31);
+
+  @Autowired private CierreLiquidacionService cierreLiquidacionService;
+
+  @Autowired private LiquidacionCerradaRepository liquidacionCerradaRepository;
+
+  @Autowired private EntityManager entityManager;
+
+  @Autowired private PlatformTransactionManager transactionManager;
+
+  private TransactionTemplate transaccion;
+  private Long asignacionId;
+
+  @BeforeEach
+  void setUp() {
+    transaccion = new TransactionTemplate(transactionManager);
+    asignacionId =
+        transaccion.execute(
+            estado -> {
+              DatosDePrueba datos = new DatosDePrueba(entityManager);
+              return datos
+                  .asignar(
+                      datos.arbitro("arbitro.concurrencia"),
+                      datos.partido(LocalDateTime.of(2026, 3, 10, 18, 0), null),
+                      AsignacionEstado.ACEPTADA,
+                      new BigDecimal("100000"))
+                  .getId();
+            });
+  }
+
+  @AfterEach
+  void tearDown() {
+    // Las transacciones se confirmaron: se borra a mano lo que crearon
+    transaccion.executeWithoutResult(
+        estado -> {
+          liquidacionCerradaRepository.deleteAll();
+          entityManager.createQuery("DELETE FROM Asignacion").executeUpdate();
+          entityManager.createQuery("DELETE FROM Partido").executeUpdate();
+          entityManager.createQuery("DELETE FROM Arbitro").executeUpdate();
+        });
+  }
+
+  @Test
+  @DisplayName("Debe esperar a que se confirme un cambio ya verificado antes de congelar")
+  void testCerrarPeriodo_EsperaCambioVerificado() throws Exception {
+    // Arrange: una transacción verifica el período, completa la asignación y aún no confirma
+    CountDownLatch verificado = new CountDownLatch(1);
+    CountDownLatch confirmar = new CountDownLatch(1);
+    CompletableFuture<Void> completar =
+        CompletableFuture.runAsync(
+            () ->
+                transaccion.executeWithoutResult(
+                    estado -> {
+                      cierreLiquidacionService.verificarPeriodoAbierto(
+                          LocalDateTime.of(2026, 3, 10, 18, 0));
+                      entityManager
+                          .find(Asignacion.class, asignacionId)
+                          .setEstado(AsignacionEstado.COMPLETADA);
+                      entityManager.flush();
+                      verificado.countDown();
+                      esperar(confirmar);
+                    }));
+    esperar(verificado);
+
+    // Act: el cierre empieza mientras el cambio está en curso
+    CompletableFuture<LiquidacionDTO> cierre =
+        CompletableFuture.supplyAsync(
+            () ->
+                cierreLiquidacionService.leer(
+                    cierreLiquidacionService.cerrarPeriodo(INICIO, FIN, "admin")));
+    Thread.sleep(300);
+    confirmar.countDown();
+    completar.get(10, TimeUnit.SECONDS);
+
+    // Assert: sin el bloqueo compartido la copia se habría tomado sin la asignación completada
+    LiquidacionDTO copia = cierre.get(10, TimeUnit.SECONDS);
+    assertEquals(1, copia.getTotalAsignaciones());
+    assertEquals(0, new BigDecimal("100000").compareTo(copia.getTotalGeneral()));
+  }
+
+  private static void esperar(CountDownLatch latch) {
+    try {
+      assertTrue(latch.await(10, TimeUnit.SECONDS));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,162 @@
+/**
+ * Archivo: CierreLiquidacionServiceTest.java Autores: Diego.Gonzalez Fecha última modificación:
+ * 17.10.2026 Descripción: Pruebas de cierre de períodos de liquidación contra H2 en memoria
+ * Proyecto: CABA Pro - Sistema de Gestión Integral de Arbitraje
+ */
+package com.caba.caba_pro.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.caba.caba_pro.config.CacheConsultasProperties;
+import com.caba.caba_pro.dto.LiquidacionDTO;
+import com.caba.caba_pro.enums.AsignacionEstado;
+import com.caba.caba_pro.exceptions.BusinessException;
+import com.caba.caba_pro.models.Arbitro;
+import com.caba.caba_pro.models.LiquidacionCerrada;
+import com.caba.caba_pro.repositories.LiquidacionCerradaRepository;
+import com.caba.caba_pro.support.DatosDePrueba;
+import com.caba.caba_pro.support.PruebaJpa;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+
+@PruebaJpa
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({
+  CierreLiquidacionService.class,
+  LiquidacionService.class,
+  CacheConsultas.class,
+  CacheConsultasProperties.class,
+  SimpleMeterRegistry.class
+})
+@DisplayName("Pruebas de integración - CierreLiquidacionService")
+class CierreLiquidacionServiceTest {
+
+  private static final LocalDate INICIO = LocalDate.of(2026, 3, 1);
+  private static final LocalDate FIN = LocalDate.of(2026, 3, 31);
+
+  @Autowired private CierreLiquidacionService cierreLiquidacionService;
+
+  @Autowired private LiquidacionService liquidacionService;
+
+  @Autowired private LiquidacionCerradaRepository liquidacionCerradaRepository;
+
+  @Autowired private EntityManager entityManager;
+
+  private DatosDePrueba datos;
+  private Arbitro arbitro;
+
+  @BeforeEach
+  void setUp() {
+    datos = new DatosDePrueba(entityManager);
+    arbitro = datos.arbitro("arbitro.cierre");
+    completar(LocalDateTime.of(2026, 3, 10, 18, 0));
+    completar(LocalDateTime.of(2026, 3, 20, 18, 0));
+    entityManager.flush();
+  }
+
+  @Test
+  @DisplayName("Debe congelar la liquidación del período con su hash")
+  void testCerrarPeriodo_GuardaCopiaInmutable() {
+    // Act
+    LiquidacionCerrada cerrada = cierreLiquidacionService.cerrarPeriodo(INICIO, FIN, "admin");
+    // Una asignación completada después del cierre no cambia la copia
+    completar(LocalDateTime.of(2026, 3, 25, 18, 0));
+    entityManager.flush();
+    LiquidacionDTO copia =
+        cierreLiquidacionService.leer(cierreLiquidacionService.buscar(INICIO, FIN).orElseThrow());
+
+    // Assert
+    assertEquals(64, cerrada.getHash().length());
+    assertEquals("admin", cerrada.getCerradaPor());
+    assertEquals(2, copia.getTotalAsignaciones());
+    assertEquals(0, new BigDecimal("200000").compareTo(copia.getTotalGeneral()));
+    assertEquals(arbitro.getId(), copia.getArbitros().get(0).getArbitroId());
+    assertEquals(
+        LocalDateTime.of(2026, 3, 10, 18, 0),
+        copia.getArbitros().get(0).getPartidos().get(0).getFechaPartido());
+  }
+
+  @Test
+  @DisplayName("Debe congelar la liquidación recalculada aunque haya una en la caché")
+  void testCerrarPeriodo_NoUsaLaCache() {
+    // Arrange: queda en caché con 2 asignaciones y luego se completa otra sin publicar evento
+    liquidacionService.generarLiquidacion(INICIO.atStartOfDay(), FIN.atTime(23, 59, 59));
+    completar(LocalDateTime.of(2026, 3, 25, 18, 0));
+    entityManager.flush();
+
+    // Act
+    LiquidacionDTO copia =
+        cierreLiquidacionService.leer(cierreLiquidacionService.cerrarPeriodo(INICIO, FIN, "admin"));
+
+    // Assert
+    assertEquals(3, copia.getTotalAsignaciones());
+    assertEquals(0, new BigDecimal("300000").compareTo(copia.getTotalGeneral()));
+  }
+
+  @Test
+  @DisplayName("Debe impedir en la base dos períodos cerrados que comparten un día")
+  void testCerrarPeriodo_RestriccionPorDia() {
+    // Arrange
+    cierreLiquidacionService.cerrarPeriodo(INICIO, FIN, "admin");
+
+    // Act & Assert: un cierre simultáneo que ya pasó la verificación previa
+    assertThrows(
+        DataIntegrityViolationException.class,
+        () ->
+            liquidacionCerradaRepository.saveAndFlush(
+                new LiquidacionCerrada(
+                    LocalDate.of(2026, 3, 31), LocalDate.of(2026, 4, 30), "{}", "hash", "otro")));
+  }
+
+  @Test
+  @DisplayName("Debe rechazar un período que se solapa con otro cerrado")
+  void testCerrarPeriodo_Solapado() {
+    // Arrange
+    cierreLiquidacionService.cerrarPeriodo(INICIO, FIN, "admin");
+
+    // Act & Assert
+    assertThrows(
+        BusinessException.class,
+        () ->
+            cierreLiquidacionService.cerrarPeriodo(
+                LocalDate.of(2026, 3, 31), LocalDate.of(2026, 4, 30), "admin"));
+    assertDoesNotThrow(
+        () ->
+            cierreLiquidacionService.cerrarPeriodo(
+                LocalDate.of(2026, 4, 1), LocalDate.of(2026, 4, 30), "admin"));
+  }
+
+  @Test
+  @DisplayName("Debe rechazar cambios sobre partidos de un período cerrado")
+  void testVerificarPeriodoAbierto() {
+    // Arrange
+    cierreLiquidacionService.cerrarPeriodo(INICIO, FIN, "admin");
+
+    // Act & Assert
+    assertThrows(
+        BusinessException.class,
+        () ->
+            cierreLiquidacionService.verificarPeriodoAbierto(LocalDateTime.of(2026, 3, 31, 23, 0)));
+    assertDoesNotThrow(
+        () -> cierreLiquidacionService.verificarPeriodoAbierto(LocalDateTime.of(2026, 4, 1, 0, 0)));
+  }
+
+  private void completar(LocalDateTime fechaHora) {
+    datos.asignar(
+        arbitro,
+        datos.partido(fechaHora, null),
+        AsignacionEstado.COMPLETADA,
+        new BigDecimal("100000"));
+  }
+}
@@ -0,0 +1,159 @@
+/**
+ * Archivo: EstadisticaDiariaServiceTest.java Autores: Diego.Gonzalez Fecha última modificación:
+ * 17.10.2026 Descripción: Pruebas unitarias para EstadisticaDiariaService Proyecto: CABA Pro -
+ * Sistema de Gestión Integral de Arbitraje
+ */
+package com.caba.caba_pro.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.caba.caba_pro.enums.AsignacionEstado;
+import com.caba.caba_pro.models.EstadisticaDiaria;
+import com.caba.caba_pro.repositories.AsignacionRepository;
+import com.caba.caba_pro.repositories.EstadisticaDiariaRepository;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Pruebas unitarias - EstadisticaDiariaService")
+class EstadisticaDiariaServiceTest {
+
+  private static final LocalDate FECHA = LocalDate.of(2026, 3, 14);
+  private static final BigDecimal MONTO = new BigDecimal("150000");
+
+  @Mock private EstadisticaDiariaRepository estadisticaDiariaRepository;
+
+  @Mock private AsignacionRepository asignacionRepository;
+
+  @Mock private CacheConsultas cacheConsultas;
+
+  @Mock private PlatformTransactionManager transactionManager;
+
+  private EstadisticaDiariaService estadisticaDiariaService;
+
+  @BeforeEach
+  void setUp() {
+    estadisticaDiariaService =
+        new EstadisticaDiariaService(
+            estadisticaDiariaRepository, asignacionRepository, cacheConsultas, transactionManager);
+  }
+
+  @Test
+  @DisplayName("Debe crear la fila del día cuando la asignación nueva es la primera")
+  void testAplicar_AsignacionNuevaCreaFila() {
+    // Arrange
+    when(estadisticaDiariaRepository.incrementar(FECHA, 7L, AsignacionEstado.PENDIENTE, 1, MONTO))
+        .thenReturn(0);
+
+    // Act
+    estadisticaDiariaService.aplicar(
+        new AsignacionCambiadaEvent(1L, FECHA, 7L, null, AsignacionEstado.PENDIENTE, MONTO));
+
+    // Assert
+    ArgumentCaptor<EstadisticaDiaria> fila = ArgumentCaptor.forClass(EstadisticaDiaria.class);
+    verify(estadisticaDiariaRepository).save(fila.capture());
+    assertEquals(1, fila.getValue().getCantidad());
+    assertEquals(MONTO, fila.getValue().getMontoTotal());
+    verify(transactionManager).commit(any());
+  }
+
+  @Test
+  @DisplayName("Debe mover la asignación del estado anterior al nuevo")
+  void testAplicar_CambioDeEstadoMueveLaAsignacion() {
+    // Arrange
+    when(estadisticaDiariaRepository.incrementar(any(), anyLong(), any(), anyLong(), any()))
+        .thenReturn(1);
+
+    // Act
+    estadisticaDiariaService.aplicar(
+        new AsignacionCambiadaEvent(
+            1L, FECHA, 7L, AsignacionEstado.PENDIENTE, AsignacionEstado.ACEPTADA, MONTO));
+
+    // Assert
+    verify(estadisticaDiariaRepository)
+        .incrementar(FECHA, 7L, AsignacionEstado.PENDIENTE, -1, MONTO.negate());
+    verify(estadisticaDiariaRepository).incrementar(FECHA, 7L, AsignacionEstado.ACEPTADA, 1, MONTO);
+    verify(estadisticaDiariaRepository, never()).save(any());
+  }
+
+  @Test
+  @DisplayName("Debe reconstruir solo cuando el acumulado no cuadra con las asignaciones")
+  void testReconstruirSiDesfasado() {
+    // Arrange
+    // Mismo total en los dos casos, pero en el segundo se perdió un cambio de estado
+    when(estadisticaDiariaRepository.sumarCantidadYMontoPorEstado())
+        .thenReturn(
+            List.of(
+                conteo(AsignacionEstado.ACEPTADA, 6, "900000.00"),
+                conteo(AsignacionEstado.COMPLETADA, 4, "600000"),
+                conteo(AsignacionEstado.PENDIENTE, 0, "0")),
+            List.of(
+                conteo(AsignacionEstado.ACEPTADA, 7, "1050000"),
+                conteo(AsignacionEstado.COMPLETADA, 3, "450000")));
+    when(asignacionRepository.contarPorEstado())
+        .thenReturn(
+            List.of(
+                conteo(AsignacionEstado.ACEPTADA, 6, "900000"),
+                conteo(AsignacionEstado.COMPLETADA, 4, "600000")));
+
+    // Act
+    estadisticaDiariaService.reconstruirSiDesfasado();
+    estadisticaDiariaService.reconstruirSiDesfasado();
+
+    // Assert
+    verify(estadisticaDiariaRepository, times(1)).deleteAllInBatch();
+    verify(estadisticaDiariaRepository, times(1)).reconstruirDesdeAsignaciones();
+    verify(cacheConsultas, times(1)).invalidar(CacheConsultas.Dato.ASIGNACION, null);
+  }
+
+  @Test
+  @DisplayName("No debe fallar la petición si el acumulado no se puede actualizar")
+  void testOnAsignacionCambiada_ErrorNoSePropaga() {
+    // Arrange
+    when(estadisticaDiariaRepository.incrementar(any(), anyLong(), any(), anyLong(), any()))
+        .thenThrow(new IllegalStateException("base no disponible"));
+
+    // Act
+    estadisticaDiariaService.onAsignacionCambiada(
+        new AsignacionCambiadaEvent(1L, FECHA, 7L, null, AsignacionEstado.PENDIENTE, MONTO));
+
+    // Assert
+    verify(transactionManager).rollback(any());
+    verify(estadisticaDiariaRepository, never()).save(any());
+    verify(estadisticaDiariaRepository, never())
+        .incrementar(eq(FECHA), eq(7L), eq(AsignacionEstado.ACEPTADA), anyLong(), any());
+  }
+
+  private static AsignacionRepository.ConteoPorEstado conteo(
+      AsignacionEstado estado, long cantidad, String monto) {
+    return new AsignacionRepository.ConteoPorEstado() {
+      @Override
+      public AsignacionEstado getEstado() {
+        return estado;
+      }
+
+      @Override
+      public long getCantidad() {
+        return cantidad;
+      }
+
+      @Override
+      public BigDecimal getMonto() {
+        return new BigDecimal(monto);
+      }
+    };
+  }
+}
@@ -0,0 +1,206 @@
+/**
+ * Archivo: EstadisticasServiceTest.java Autores: Diego.Gonzalez Fecha última modificación:
+ * 17.10.2026 Descripción: Pruebas de EstadisticasService contra H2 en memoria, contando las
+ * sentencias SQL emitidas Proyecto: CABA Pro - Sistema de Gestión Integral de Arbitraje
+ */
+package com.caba.caba_pro.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.caba.caba_pro.DTOs.EstadisticasAsignacionesDto;
+import com.caba.caba_pro.DTOs.TopArbitrosDto;
+import com.caba.caba_pro.config.CacheConsultasProperties;
+import com.caba.caba_pro.enums.AsignacionEstado;
+import com.caba.caba_pro.models.Arbitro;
+import com.caba.caba_pro.support.DatosDePrueba;
+import com.caba.caba_pro.support.PruebaJpa;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+@PruebaJpa
+@Import({
+  EstadisticasService.class,
+  EstadisticaDiariaService.class,
+  CacheConsultas.class,
+  CacheConsultasProperties.class,
+  SimpleMeterRegistry.class
+})
+@DisplayName("Pruebas de integración - EstadisticasService")
+class EstadisticasServiceTest {
+
+  private static final LocalDate DESDE = LocalDate.of(2026, 3, 1);
+  private static final LocalDate HASTA = LocalDate.of(2026, 3, 31);
+
+  @Autowired private EstadisticasService estadisticasService;
+
+  @Autowired private EstadisticaDiariaService estadisticaDiariaService;
+
+  @Autowired private EntityManager entityManager;
+
+  private DatosDePrueba datos;
+  private Statistics statistics;
+  private final List<Arbitro> arbitros = new ArrayList<>();
+
+  @BeforeEach
+  void setUp() {
+    datos = new DatosDePrueba(entityManager);
+    // 8 árbitros; el árbitro i tiene i+1 asignaciones aceptadas en marzo
+    for (int i = 0; i < 8; i++) {
+      Arbitro arbitro = datos.arbitro("Nombre" + i, "Apellido" + i, "arbitro" + i);
+      arbitros.add(arbitro);
+      for (int j = 0; j <= i; j++) {
+        datos.asignar(
+            arbitro,
+            datos.partido(LocalDateTime.of(2026, 3, 1 + j, 18, 0), null),
+            AsignacionEstado.ACEPTADA,
+            null);
+      }
+    }
+    // Fuera de las aceptadas del período: rechazadas, pendientes y aceptadas de otros meses
+    datos.asignar(
+        arbitros.get(0),
+        datos.partido(LocalDateTime.of(2026, 3, 31, 23, 30), null),
+        AsignacionEstado.RECHAZADA,
+        null);
+    datos.asignar(
+        arbitros.get(1),
+        datos.partido(LocalDateTime.of(2026, 3, 15, 10, 0), null),
+        AsignacionEstado.PENDIENTE,
+        null);
+    datos.asignar(
+        arbitros.get(0),
+        datos.partido(LocalDateTime.of(2026, 4, 1, 0, 0), null),
+        AsignacionEstado.ACEPTADA,
+        null);
+    datos.asignar(
+        arbitros.get(0),
+        datos.partido(LocalDateTime.of(2026, 2, 28, 23, 59), null),
+        AsignacionEstado.ACEPTADA,
+        null);
+    entityManager.flush();
+    estadisticaDiariaService.reconstruir();
+    entityManager.clear();
+
+    statistics = datos.estadisticas();
+  }
+
+  @Test
+  @DisplayName("Debe agrupar el acumulado por día, árbitro y estado")
+  void testReconstruir_UnaFilaPorDiaArbitroEstado() {
+    // Act
+    int filas = estadisticaDiariaService.reconstruir();
+
+    // Assert: las 36 aceptadas de marzo caen en días distintos por árbitro, más 4 sueltas
+    assertEquals(40, filas);
+    assertEquals(0, estadisticaDiariaService.reconstruirSiDesfasado());
+  }
+
+  @Test
+  @DisplayName("Debe detectar un cambio de estado que no llegó al acumulado")
+  void testReconstruirSiDesfasado_CambioDeEstadoPerdido() {
+    // Arrange: el total de asignaciones no cambia, solo su reparto por estado
+    entityManager
+        .createQuery(
+            "UPDATE Asignacion a SET a.estado = :completada WHERE a.id ="
+                + " (SELECT MIN(b.id) FROM Asignacion b WHERE b.estado = :aceptada)")
+        .setParameter("completada", AsignacionEstado.COMPLETADA)
+        .setParameter("aceptada", AsignacionEstado.ACEPTADA)
+        .executeUpdate();
+
+    // Act
+    int filas = estadisticaDiariaService.reconstruirSiDesfasado();
+
+    // Assert
+    assertTrue(filas > 0);
+    assertEquals(0, estadisticaDiariaService.reconstruirSiDesfasado());
+  }
+
+  @Test
+  @DisplayName("Debe contar asignaciones por estado con una sola consulta")
+  void testEstadisticasAsignaciones_UnaConsulta() {
+    // Act
+    EstadisticasAsignacionesDto dto =
+        estadisticasService.obtenerEstadisticasAsignaciones(DESDE, HASTA);
+
+    // Assert
+    assertEquals(1, statistics.getPrepareStatementCount());
+    assertEquals(38, dto.getTotalAsignaciones()); // 36 aceptadas + 1 rechazada + 1 pendiente
+    assertEquals(36, dto.getAceptadas());
+    assertEquals(2, dto.getRechazadas());
+    assertEquals(36 * 100.0 / 38, dto.getPorcentajeAceptadas(), 0.0001);
+  }
+
+  @Test
+  @DisplayName("Debe calcular el top 5 de árbitros con una sola consulta")
+  void testTopArbitros_UnaConsulta() {
+    // Act
+    TopArbitrosDto dto = estadisticasService.obtenerTopArbitros(DESDE, HASTA);
+
+    // Assert
+    assertEquals(1, statistics.getPrepareStatementCount());
+    List<TopArbitrosDto.ArbitroActividadDto> top = dto.getTopArbitros();
+    assertEquals(5, top.size());
+    for (int k = 0; k < 5; k++) {
+      Arbitro esperado = arbitros.get(7 - k);
+      assertEquals(esperado.getId(), top.get(k).getIdArbitro());
+      assertEquals(esperado.getNombreCompleto(), top.get(k).getNombreCompleto());
+      assertEquals(8 - k, top.get(k).getCantidadAsignaciones());
+    }
+  }
+
+  @Test
+  @DisplayName("Debe emitir las mismas sentencias sin importar el número de asignaciones")
+  void testEstadisticas_SentenciasIndependientesDelVolumen() {
+    // Arrange: duplica las asignaciones del período
+    for (Arbitro arbitro : arbitros) {
+      for (int j = 0; j < 10; j++) {
+        datos.asignar(
+            arbitro,
+            datos.partido(LocalDateTime.of(2026, 3, 20, 12, j), null),
+            AsignacionEstado.ACEPTADA,
+            null);
+      }
+    }
+    entityManager.flush();
+    estadisticaDiariaService.reconstruir();
+    entityManager.clear();
+    statistics.clear();
+
+    // Act
+    estadisticasService.obtenerEstadisticasAsignaciones(DESDE, HASTA);
+    estadisticasService.obtenerEstadisticasAsignaciones(null, null);
+    estadisticasService.obtenerTopArbitros(DESDE, HASTA);
+
+    // Assert
+    assertEquals(3, statistics.getPrepareStatementCount());
+  }
+
+  @Test
+  @DisplayName("Debe responder desde la caché sin consultar la base la segunda vez")
+  void testEstadisticas_SegundaConsultaDesdeCache() {
+    // Arrange
+    estadisticasService.obtenerEstadisticasAsignaciones(DESDE, HASTA);
+    estadisticasService.obtenerTopArbitros(DESDE, HASTA);
+    statistics.clear();
+
+    // Act
+    EstadisticasAsignacionesDto dto =
+        estadisticasService.obtenerEstadisticasAsignaciones(DESDE, HASTA);
+    TopArbitrosDto top = estadisticasService.obtenerTopArbitros(DESDE, HASTA);
+
+    // Assert
+    assertEquals(0, statistics.getPrepareStatementCount());
+    assertEquals(36, dto.getAceptadas());
+    assertEquals(5, top.getTopArbitros().size());
+  }
+}
@@ -0,0 +1,133 @@
+/**
+ * Archivo: ExcelExportBenchmark.java Autores: Diego.Gonzalez Fecha última modificación: 17.10.2026
+ * Descripción: Memoria usada por la exportación a Excel en memoria y en streaming Proyecto: CABA
+ * Pro - Sistema de Gestión Integral de Arbitraje
+ */
+package com.caba.caba_pro.services;
+
+import com.caba.caba_pro.config.ExcelExportProperties;
+import com.caba.caba_pro.enums.Especialidad;
+import com.caba.caba_pro.models.Arbitro;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Exporta 10.000, 50.000 y 100.000 árbitros con el libro en memoria ({@code byte[]}) y con el libro
+ * en streaming, con un heap chico y fijo. Para el streaming muestra el heap vivo (tras un GC) en el
+ * momento en que el libro ya está armado y empieza a escribirse el archivo; debe quedar plano
+ * aunque crezcan las filas. El libro en memoria no expone ese momento, así que se informa solo si
+ * terminó o se quedó sin memoria. Los árbitros se generan al vuelo; en memoria se juntan en la
+ * lista que el método recibe, y eso es parte de su costo. No forma parte de la suite de pruebas; se
+ * ejecuta a mano, por ejemplo:
+ *
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -Xmx256m -cp target/classes:target/test-classes:$(cat target/cp.txt) \
+ *     com.caba.caba_pro.services.ExcelExportBenchmark
+ * </pre>
+ */
+public class ExcelExportBenchmark {
+
+  private static final int[] SIZES = {10_000, 50_000, 100_000};
+
+  public static void main(String[] args) throws IOException {
+    ExcelExportService service = new ExcelExportService(new ExcelExportProperties());
+    System.out.printf("%-9s %8s %14s %8s%n", "modo", "filas", "heap vivo MB", "ms");
+    for (int size : SIZES) {
+      HeapAlEscribir out = new HeapAlEscribir();
+      long start = System.nanoTime();
+      service.exportarArbitros(generados(size), out);
+      System.out.printf(
+          "%-9s %8d %14d %8d%n",
+          "streaming", size, out.heapVivo / (1024 * 1024), (System.nanoTime() - start) / 1_000_000);
+
+      System.gc();
+      start = System.nanoTime();
+      String resultado;
+      try {
+        List<Arbitro> lista = new ArrayList<>(size);
+        generados(size).forEach(lista::add);
+        resultado = service.exportarArbitros(lista).length > 0 ? "ok" : "vacío";
+      } catch (OutOfMemoryError | RuntimeException e) {
+        // Al cerrar el libro tras un OutOfMemoryError POI puede lanzar otra excepción que lo
+        // envuelve
+        if (!sinMemoria(e)) {
+          throw e;
+        }
+        resultado = "sin memoria";
+      }
+      System.out.printf(
+          "%-9s %8d %14s %8d%n",
+          "memoria", size, resultado, (System.nanoTime() - start) / 1_000_000);
+    }
+  }
+
+  private static boolean sinMemoria(Throwable e) {
+    for (Throwable t = e; t != null; t = t.getCause()) {
+      if (t instanceof OutOfMemoryError) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static Iterable<Arbitro> generados(int size) {
+    return () ->
+        new Iterator<>() {
+          private int i;
+
+          @Override
+          public boolean hasNext() {
+            return i < size;
+          }
+
+          @Override
+          public Arbitro next() {
+            return arbitro(i++);
+          }
+        };
+  }
+
+  private static Arbitro arbitro(int i) {
+    Arbitro arbitro = new Arbitro();
+    arbitro.setId((long) i);
+    arbitro.setNombre("Nombre" + i);
+    arbitro.setApellidos("Apellido Apellido" + i);
+    arbitro.setNumeroIdentificacion(String.valueOf(1_000_000_000L + i));
+    arbitro.setEmail("arbitro" + i + "@cabaproarbitraje.com");
+    arbitro.setTelefono("3001234567");
+    arbitro.setEspecialidad(Especialidad.values()[i % Especialidad.values().length]);
+    arbitro.setEscalafon("FIBA");
+    arbitro.setFechaNacimiento(LocalDate.of(1990, 1, 1).plusDays(i % 3650));
+    arbitro.setFechaCreacion(LocalDateTime.of(2026, 1, 1, 9, 0));
+    return arbitro;
+  }
+
+  // Descarta lo escrito y mide el heap vivo en la primera escritura
+  private static final class HeapAlEscribir extends OutputStream {
+    private long heapVivo = -1;
+
+    @Override
+    public void write(int b) {
+      medir();
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+      medir();
+    }
+
+    private void medir() {
+      if (heapVivo < 0) {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        heapVivo = runtime.totalMemory() - runtime.freeMemory();
+      }
+    }
+  }
+}
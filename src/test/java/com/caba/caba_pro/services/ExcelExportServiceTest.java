@@ -0,0 +1,157 @@
+/**
+ * Archivo: ExcelExportServiceTest.java Autores: Diego.Gonzalez Fecha última modificación:
+ * 17.10.2026 Descripción: Pruebas unitarias para ExcelExportService Proyecto: CABA Pro - Sistema de
+ * Gestión Integral de Arbitraje
+ */
+package com.caba.caba_pro.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.caba.caba_pro.config.ExcelExportProperties;
+import com.caba.caba_pro.dto.LiquidacionDTO;
+import com.caba.caba_pro.enums.Especialidad;
+import com.caba.caba_pro.models.Arbitro;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Pruebas unitarias - ExcelExportService")
+class ExcelExportServiceTest {
+
+  private final ExcelExportService excelExportService =
+      new ExcelExportService(new ExcelExportProperties());
+
+  @Test
+  @DisplayName("Debe generar en streaming las mismas celdas que el libro en memoria")
+  void testExportarArbitros_StreamingIgualAMemoria() throws Exception {
+    // Arrange: más filas que la ventana del libro en streaming
+    List<Arbitro> arbitros = new ArrayList<>();
+    for (int i = 0; i < 250; i++) {
+      arbitros.add(arbitro(i));
+    }
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    // Act
+    int filas = excelExportService.exportarArbitros(arbitros, out);
+    byte[] enMemoria = excelExportService.exportarArbitros(arbitros);
+
+    // Assert
+    assertEquals(250, filas);
+    try (Workbook streaming = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()));
+        Workbook memoria = new XSSFWorkbook(new ByteArrayInputStream(enMemoria))) {
+      Sheet a = streaming.getSheet("Árbitros");
+      Sheet b = memoria.getSheet("Árbitros");
+      assertEquals(b.getLastRowNum(), a.getLastRowNum());
+      for (int r = 0; r <= b.getLastRowNum(); r++) {
+        Row esperada = b.getRow(r);
+        Row obtenida = a.getRow(r);
+        for (int c = 0; c < esperada.getLastCellNum(); c++) {
+          assertEquals(
+              esperada.getCell(c).getStringCellValue(), obtenida.getCell(c).getStringCellValue());
+        }
+      }
+      assertTrue(a.getColumnWidth(4) > a.getColumnWidth(0)); // Email más ancho que el ID
+    }
+  }
+
+  @Test
+  @DisplayName("Debe recorrer los elementos una sola vez al exportar en streaming")
+  void testExportarArbitros_RecorreUnaVez() throws Exception {
+    // Arrange: un Iterable que solo se puede recorrer una vez, como un cursor
+    AtomicInteger recorridos = new AtomicInteger();
+    List<Arbitro> arbitros = List.of(arbitro(1), arbitro(2));
+    Iterable<Arbitro> cursor =
+        () -> {
+          assertEquals(1, recorridos.incrementAndGet());
+          return arbitros.iterator();
+        };
+
+    // Act
+    int filas = excelExportService.exportarArbitros(cursor, new ByteArrayOutputStream());
+
+    // Assert
+    assertEquals(2, filas);
+    assertEquals(1, recorridos.get());
+  }
+
+  @Test
+  @DisplayName("Debe rechazar una liquidación vacía sin escribir nada")
+  void testExportarLiquidacion_Vacia() {
+    // Arrange
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    // Act & Assert
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> excelExportService.exportarLiquidacion(new LiquidacionDTO(), out));
+    assertEquals(0, out.size());
+  }
+
+  @Test
+  @DisplayName("Debe estimar el ancho por el texto más largo de cada columna")
+  void testAnchoColumnas_Estimado() throws Exception {
+    // Arrange
+    List<Arbitro> arbitros = List.of(arbitro(1), arbitro(2));
+    arbitros.get(1).setEmail("un.correo.bastante.mas.largo@cabaproarbitraje.com");
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    // Act
+    excelExportService.exportarArbitros(arbitros, out);
+
+    // Assert: (caracteres + 2) * 256; en el ID manda el encabezado
+    try (Workbook libro = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+      Sheet sheet = libro.getSheet("Árbitros");
+      assertEquals((arbitros.get(1).getEmail().length() + 2) * 256, sheet.getColumnWidth(4));
+      assertEquals(("ID".length() + 2) * 256, sheet.getColumnWidth(0));
+    }
+  }
+
+  @Test
+  @DisplayName("Debe mirar solo las filas de la muestra y respetar el modo de cada exportación")
+  void testAnchoColumnas_MuestraYModoPorExportacion() throws Exception {
+    // Arrange: la fila larga queda fuera de la muestra de árbitros; partidos usa autoSizeColumn
+    ExcelExportProperties properties = new ExcelExportProperties();
+    properties.setAnchoColumnas(ExcelExportProperties.AnchoColumnas.MUESTRA);
+    properties.setFilasMuestra(2);
+    properties.getExportaciones().put("partidos", ExcelExportProperties.AnchoColumnas.AUTO);
+    ExcelExportService service = new ExcelExportService(properties);
+    List<Arbitro> arbitros = new ArrayList<>(List.of(arbitro(1), arbitro(2), arbitro(3)));
+    arbitros.get(2).setEmail("un.correo.bastante.mas.largo@cabaproarbitraje.com");
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    // Act
+    service.exportarArbitros(arbitros, out);
+
+    // Assert
+    assertEquals(
+        ExcelExportProperties.AnchoColumnas.AUTO, properties.anchoColumnasPara("partidos"));
+    try (Workbook libro = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+      Sheet sheet = libro.getSheet("Árbitros");
+      assertEquals((arbitros.get(0).getEmail().length() + 2) * 256, sheet.getColumnWidth(4));
+    }
+  }
+
+  private static Arbitro arbitro(int i) {
+    Arbitro arbitro = new Arbitro();
+    arbitro.setId((long) i);
+    arbitro.setNombre("Nombre" + i);
+    arbitro.setApellidos("Apellido" + i);
+    arbitro.setNumeroIdentificacion("10000" + i);
+    arbitro.setEmail("arbitro" + i + "@cabaproarbitraje.com");
+    arbitro.setEspecialidad(Especialidad.values()[0]);
+    arbitro.setEscalafon("FIBA");
+    arbitro.setFechaNacimiento(LocalDate.of(1990, 1, 1));
+    arbitro.setFechaCreacion(LocalDateTime.of(2026, 1, 1, 9, 0));
+    return arbitro;
+  }
+}
@@ -0,0 +1,242 @@
+/**
+ * Archivo: ExportacionCompletaServiceTest.java Autores: Diego.Gonzalez Fecha última modificación:
+ * 17.10.2026 Descripción: Pruebas de la exportación completa con lectura de partes en paralelo
+ * Proyecto: CABA Pro - Sistema de Gestión Integral de Arbitraje
+ */
+package com.caba.caba_pro.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.caba.caba_pro.config.ExcelExportProperties;
+import com.caba.caba_pro.config.ExportacionCompletaProperties;
+import com.caba.caba_pro.enums.AsignacionEstado;
+import com.caba.caba_pro.exceptions.BusinessException;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Pruebas unitarias - ExportacionCompletaService")
+class ExportacionCompletaServiceTest {
+
+  private static final LocalDate INICIO = LocalDate.of(2026, 3, 1);
+  private static final LocalDate FIN = LocalDate.of(2026, 3, 31);
+
+  @Mock private ExportacionDatosService exportacionDatosService;
+
+  private final ExportacionCompletaProperties properties = new ExportacionCompletaProperties();
+  private ExportacionCompletaService service;
+
+  @BeforeEach
+  void setUp() {
+    service =
+        new ExportacionCompletaService(
+            exportacionDatosService,
+            new ExcelExportService(new ExcelExportProperties()),
+            properties);
+  }
+
+  @AfterEach
+  void tearDown() {
+    service.detener();
+  }
+
+  @Test
+  @DisplayName("Debe leer las cinco partes a la vez y armar un zip con un CSV por parte")
+  void testZip_PartesEnParalelo() throws Exception {
+    // Arrange: cada parte espera a que las cinco estén leyendo a la vez
+    CyclicBarrier todasLeyendo = new CyclicBarrier(5);
+    when(exportacionDatosService.exportar(
+            any(), eq(ExportacionDatosService.Formato.CSV), eq(INICIO), eq(FIN), any()))
+        .thenAnswer(
+            invocation -> {
+              todasLeyendo.await(10, TimeUnit.SECONDS);
+              ExportacionDatosService.Conjunto conjunto = invocation.getArgument(0);
+              OutputStream out = invocation.getArgument(4);
+              out.write((conjunto.name() + "\r\n").getBytes(StandardCharsets.UTF_8));
+              return 1L;
+            });
+
+    // Act
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    long filas;
+    try (ExportacionCompletaService.Exportacion exportacion =
+        service.iniciar(ExportacionCompletaService.Formato.ZIP, INICIO, FIN)) {
+      filas = exportacion.escribir(out);
+    }
+
+    // Assert
+    assertEquals(5, filas);
+    List<String> entradas = new ArrayList<>();
+    try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+      ZipEntry entrada;
+      while ((entrada = zip.getNextEntry()) != null) {
+        String contenido = new String(zip.readAllBytes(), StandardCharsets.UTF_8);
+        assertEquals(entrada.getName().replace(".csv", "").toUpperCase() + "\r\n", contenido);
+        entradas.add(entrada.getName());
+      }
+    }
+    assertEquals(
+        List.of(
+            "arbitros.csv", "partidos.csv", "torneos.csv", "asignaciones.csv", "liquidacion.csv"),
+        entradas);
+  }
+
+  @Test
+  @DisplayName("Debe armar un libro con una hoja por parte y sin liquidación si no hay período")
+  void testExcel_UnaHojaPorParte() throws Exception {
+    // Arrange
+    when(exportacionDatosService.recorrer(any(), any(), any(), any()))
+        .thenAnswer(
+            invocation -> {
+              ExportacionDatosService.Conjunto conjunto = invocation.getArgument(0);
+              ExportacionDatosService.Destino destino = invocation.getArgument(3);
+              for (long id = 1; id <= 3; id++) {
+                Object[] valores = new Object[conjunto.getColumnas().length];
+                valores[0] = id;
+                valores[1] = LocalDateTime.of(2026, 3, 10, 18, 0);
+                valores[2] = new BigDecimal("1500.50");
+                valores[4] = AsignacionEstado.COMPLETADA;
+                destino.fila(valores);
+              }
+              return 3L;
+            });
+
+    // Act
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (ExportacionCompletaService.Exportacion exportacion =
+        service.iniciar(ExportacionCompletaService.Formato.EXCEL, null, null)) {
+      assertEquals(12, exportacion.escribir(out));
+    }
+
+    // Assert
+    try (Workbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+      assertEquals(4, workbook.getNumberOfSheets());
+      assertEquals("Árbitros", workbook.getSheetName(0));
+      assertEquals("Asignaciones", workbook.getSheetName(3));
+      Row fila = workbook.getSheet("Partidos").getRow(3);
+      assertEquals(3, fila.getCell(0).getNumericCellValue());
+      assertEquals("10/03/2026 18:00", fila.getCell(1).getStringCellValue());
+      assertEquals(1500.50, fila.getCell(2).getNumericCellValue());
+      assertEquals("", fila.getCell(3).getStringCellValue());
+      assertEquals("COMPLETADA", fila.getCell(4).getStringCellValue());
+    }
+  }
+
+  @Test
+  @DisplayName("Debe rechazar clases fuera de los valores escalares y borrar el temporal leído")
+  void testExcel_FiltroDeClases() throws Exception {
+    // Arrange: los árbitros traen una fila válida y luego un valor que no es escalar
+    when(exportacionDatosService.recorrer(any(), any(), any(), any()))
+        .thenAnswer(
+            invocation -> {
+              ExportacionDatosService.Destino destino = invocation.getArgument(3);
+              if (invocation.getArgument(0) == ExportacionDatosService.Conjunto.ARBITROS) {
+                destino.fila(new Object[] {1L, "Ana"});
+                destino.fila(new Object[] {2L, new HashMap<String, String>()});
+                return 2L;
+              }
+              return 0L;
+            });
+    long antes = temporales("exportacion-arbitros-");
+
+    // Act & Assert: la lectura se corta a mitad de la hoja y aun así el temporal se borra
+    try (ExportacionCompletaService.Exportacion exportacion =
+        service.iniciar(ExportacionCompletaService.Formato.EXCEL, null, null)) {
+      assertThrows(
+          InvalidClassException.class, () -> exportacion.escribir(new ByteArrayOutputStream()));
+      assertEquals(antes, temporales("exportacion-arbitros-"));
+    }
+  }
+
+  @Test
+  @DisplayName("Debe propagar el error de una parte al escribir")
+  void testEscribir_ErrorDeUnaParte() throws Exception {
+    // Arrange
+    when(exportacionDatosService.recorrer(any(), any(), any(), any()))
+        .thenAnswer(
+            invocation -> {
+              if (invocation.getArgument(0) == ExportacionDatosService.Conjunto.TORNEOS) {
+                throw new IOException("Conexión perdida");
+              }
+              return 0L;
+            });
+
+    // Act & Assert
+    try (ExportacionCompletaService.Exportacion exportacion =
+        service.iniciar(ExportacionCompletaService.Formato.EXCEL, null, null)) {
+      IOException error =
+          assertThrows(IOException.class, () -> exportacion.escribir(new ByteArrayOutputStream()));
+      assertEquals("Conexión perdida", error.getMessage());
+    }
+  }
+
+  @Test
+  @DisplayName("Debe rechazar la exportación cuando no quedan hilos ni lugar en la cola")
+  void testIniciar_ColaLlena() throws Exception {
+    // Arrange
+    service.detener();
+    properties.setPoolSize(1);
+    properties.setQueueCapacity(2);
+    service =
+        new ExportacionCompletaService(
+            exportacionDatosService,
+            new ExcelExportService(new ExcelExportProperties()),
+            properties);
+    CountDownLatch liberar = new CountDownLatch(1);
+    lenient()
+        .when(exportacionDatosService.recorrer(any(), any(), any(), any()))
+        .thenAnswer(
+            invocation -> {
+              liberar.await(10, TimeUnit.SECONDS);
+              return 0L;
+            });
+
+    // Act & Assert: cuatro partes no caben en un hilo más dos lugares de cola
+    assertThrows(
+        BusinessException.class,
+        () -> service.iniciar(ExportacionCompletaService.Formato.EXCEL, null, null));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> service.iniciar(ExportacionCompletaService.Formato.EXCEL, INICIO, null));
+    liberar.countDown();
+  }
+
+  private static long temporales(String prefijo) throws IOException {
+    try (Stream<Path> archivos = Files.list(Path.of(System.getProperty("java.io.tmpdir")))) {
+      return archivos
+          .filter(archivo -> archivo.getFileName().toString().startsWith(prefijo))
+          .count();
+    }
+  }
+}
@@ -0,0 +1,232 @@
+/**
+ * Archivo: ExportacionDatosServiceTest.java Autores: Diego.Gonzalez Fecha última modificación:
+ * 17.10.2026 Descripción: Pruebas de las exportaciones CSV y NDJSON contra H2 en memoria Proyecto:
+ * CABA Pro - Sistema de Gestión Integral de Arbitraje
+ */
+package com.caba.caba_pro.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.caba.caba_pro.config.CacheConsultasProperties;
+import com.caba.caba_pro.enums.AsignacionEstado;
+import com.caba.caba_pro.models.Arbitro;
+import com.caba.caba_pro.models.Torneo;
+import com.caba.caba_pro.support.DatosDePrueba;
+import com.caba.caba_pro.support.PruebaJpa;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.context.annotation.Import;
+
+@PruebaJpa(properties = "caba-pro.cache-consultas.enabled=false")
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({
+  ExportacionDatosService.class,
+  CierreLiquidacionService.class,
+  LiquidacionService.class,
+  CacheConsultas.class,
+  CacheConsultasProperties.class,
+  SimpleMeterRegistry.class
+})
+@DisplayName("Pruebas de integración - ExportacionDatosService")
+class ExportacionDatosServiceTest {
+
+  private static final LocalDate INICIO = LocalDate.of(2026, 3, 1);
+  private static final LocalDate FIN = LocalDate.of(2026, 3, 31);
+
+  @Autowired private ExportacionDatosService exportacionDatosService;
+
+  @Autowired private CierreLiquidacionService cierreLiquidacionService;
+
+  @Autowired private ObjectMapper objectMapper;
+
+  @Autowired private EntityManager entityManager;
+
+  private DatosDePrueba datos;
+  private Statistics statistics;
+  private Arbitro arbitro;
+  private Torneo torneo;
+
+  @BeforeEach
+  void setUp() {
+    datos = new DatosDePrueba(entityManager);
+    arbitro = datos.arbitro("Ana, \"La Jueza\"", "Pérez", "arbitro.exportacion");
+    torneo = datos.torneo("Liga", INICIO, FIN);
+    asignar(LocalDateTime.of(2026, 3, 10, 18, 0), AsignacionEstado.COMPLETADA, "100000.50");
+    asignar(LocalDateTime.of(2026, 3, 20, 18, 0), AsignacionEstado.ACEPTADA, null);
+    asignar(LocalDateTime.of(2026, 4, 2, 18, 0), AsignacionEstado.COMPLETADA, "100000");
+    entityManager.flush();
+    entityManager.clear();
+
+    statistics = datos.estadisticas();
+  }
+
+  @Test
+  @DisplayName("Debe escribir CSV con encabezado y escapar comas y comillas")
+  void testExportarCsv_EscapaCampos() throws Exception {
+    // Act
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    long filas =
+        exportacionDatosService.exportar(
+            ExportacionDatosService.Conjunto.ARBITROS,
+            ExportacionDatosService.Formato.CSV,
+            null,
+            null,
+            out);
+
+    // Assert
+    String[] lineas = out.toString(StandardCharsets.UTF_8).split("\r\n");
+    assertEquals(1, filas);
+    assertEquals(2, lineas.length);
+    assertEquals(
+        String.join(",", ExportacionDatosService.Conjunto.ARBITROS.getColumnas()), lineas[0]);
+    assertTrue(lineas[1].startsWith(arbitro.getId() + ",\"Ana, \"\"La Jueza\"\"\",Pérez,"));
+    assertTrue(lineas[1].endsWith(",true"));
+  }
+
+  @Test
+  @DisplayName("Debe neutralizar en CSV los campos que una hoja de cálculo tomaría como fórmula")
+  void testExportarCsv_NeutralizaFormulas() throws Exception {
+    // Arrange
+    Arbitro formula = datos.arbitro("=HYPERLINK(\"http://x\")", "@SUMA(A1)", "arbitro.formula");
+    entityManager.flush();
+
+    // Act
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    exportacionDatosService.exportar(
+        ExportacionDatosService.Conjunto.ARBITROS,
+        ExportacionDatosService.Formato.CSV,
+        null,
+        null,
+        out);
+
+    // Assert: apóstrofo antes del texto y luego las comillas de RFC 4180
+    String fila =
+        out.toString(StandardCharsets.UTF_8)
+            .lines()
+            .filter(linea -> linea.startsWith(formula.getId() + ","))
+            .findFirst()
+            .orElseThrow();
+    assertTrue(
+        fila.startsWith(formula.getId() + ",\"'=HYPERLINK(\"\"http://x\"\")\",'@SUMA(A1),"), fila);
+  }
+
+  @Test
+  @DisplayName("Debe escribir un objeto JSON por línea con fechas ISO y montos numéricos")
+  void testExportarNdjson_UnObjetoPorLinea() throws Exception {
+    // Act
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    long filas =
+        exportacionDatosService.exportar(
+            ExportacionDatosService.Conjunto.ASIGNACIONES,
+            ExportacionDatosService.Formato.NDJSON,
+            INICIO,
+            FIN,
+            out);
+
+    // Assert: la asignación de abril queda fuera del período
+    String[] lineas = out.toString(StandardCharsets.UTF_8).split("\n");
+    assertEquals(2, filas);
+    assertEquals(2, lineas.length);
+    JsonNode primera = objectMapper.readTree(lineas[0]);
+    assertEquals("COMPLETADA", primera.get("estado").asText());
+    assertEquals(
+        0, new BigDecimal("100000.50").compareTo(primera.get("monto_pago").decimalValue()));
+    assertEquals("2026-03-10T18:00", primera.get("fecha_partido").asText());
+    assertEquals("Liga", primera.get("torneo").asText());
+    assertTrue(objectMapper.readTree(lineas[1]).get("monto_pago").isNull());
+  }
+
+  @Test
+  @DisplayName("Debe emitir una sola sentencia sin importar el número de filas")
+  void testExportar_SentenciasIndependientesDelVolumen() throws Exception {
+    // Arrange
+    for (int i = 0; i < 50; i++) {
+      datos
+          .asignar(
+              arbitro,
+              datos.partido(LocalDateTime.of(2026, 3, 15, 10, i), torneo),
+              AsignacionEstado.PENDIENTE,
+              null)
+          .setPosicion("Auxiliar");
+    }
+    entityManager.flush();
+    entityManager.clear();
+    statistics.clear();
+
+    // Act
+    long asignaciones = exportar(ExportacionDatosService.Conjunto.ASIGNACIONES);
+    long partidos = exportar(ExportacionDatosService.Conjunto.PARTIDOS);
+    long torneos = exportar(ExportacionDatosService.Conjunto.TORNEOS);
+
+    // Assert
+    assertEquals(53, asignaciones);
+    assertEquals(53, partidos);
+    assertEquals(1, torneos);
+    assertEquals(3, statistics.getPrepareStatementCount());
+    assertEquals(0, statistics.getEntityLoadCount());
+  }
+
+  @Test
+  @DisplayName("Debe exportar la liquidación con una fila por asignación completada")
+  void testExportarLiquidacion_FilasPorAsignacion() throws Exception {
+    // Act
+    ByteArrayOutputStream abierta = new ByteArrayOutputStream();
+    exportacionDatosService.exportar(
+        ExportacionDatosService.Conjunto.LIQUIDACION,
+        ExportacionDatosService.Formato.CSV,
+        INICIO,
+        FIN,
+        abierta);
+    cierreLiquidacionService.cerrarPeriodo(INICIO, FIN, "admin");
+    ByteArrayOutputStream cerrada = new ByteArrayOutputStream();
+    exportacionDatosService.exportar(
+        ExportacionDatosService.Conjunto.LIQUIDACION,
+        ExportacionDatosService.Formato.CSV,
+        INICIO,
+        FIN,
+        cerrada);
+
+    // Assert: la copia congelada exporta lo mismo que el cálculo en vivo
+    String[] lineas = abierta.toString(StandardCharsets.UTF_8).split("\r\n");
+    assertEquals(2, lineas.length);
+    assertTrue(lineas[1].endsWith(",Liga,2026-03-10T18:00,Principal,100000.50"));
+    assertEquals(
+        abierta.toString(StandardCharsets.UTF_8), cerrada.toString(StandardCharsets.UTF_8));
+    assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            exportacionDatosService.exportar(
+                ExportacionDatosService.Conjunto.LIQUIDACION,
+                ExportacionDatosService.Formato.CSV,
+                null,
+                FIN,
+                new ByteArrayOutputStream()));
+  }
+
+  private long exportar(ExportacionDatosService.Conjunto conjunto) throws Exception {
+    return exportacionDatosService.exportar(
+        conjunto, ExportacionDatosService.Formato.CSV, null, null, new ByteArrayOutputStream());
+  }
+
+  private void asignar(LocalDateTime fechaHora, AsignacionEstado estado, String monto) {
+    datos.asignar(
+        arbitro,
+        datos.partido(fechaHora, torneo),
+        estado,
+        monto != null ? new BigDecimal(monto) : null);
+  }
+}
@@ -0,0 +1,485 @@
+/**
+ * Archivo: JsonStorageServiceTest.java Autores: Diego.Gonzalez Fecha última modificación:
+ * 17.10.2026 Descripción: Pruebas unitarias para JsonStorageService Proyecto: CABA Pro - Sistema de
+ * Gestión Integral de Arbitraje
+ */
+package com.caba.caba_pro.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.caba.caba_pro.DTOs.ChatMessageDto;
+import com.caba.caba_pro.DTOs.ChatSearchResultDto;
+import com.caba.caba_pro.config.ChatStorageProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+@DisplayName("Pruebas unitarias - JsonStorageService")
+class JsonStorageServiceTest {
+
+  @TempDir Path tempDir;
+
+  private ChatStorageProperties properties;
+  private SimpleMeterRegistry meterRegistry;
+  private JsonStorageService jsonStorageService;
+
+  @BeforeEach
+  void setUp() {
+    properties = new ChatStorageProperties();
+    properties.setDirectory(tempDir.toString());
+    properties.setSegmentMaxMessages(4);
+    properties.setFsync(ChatStorageProperties.FsyncPolicy.NEVER);
+    meterRegistry = new SimpleMeterRegistry();
+    jsonStorageService = new JsonStorageService(properties, meterRegistry);
+  }
+
+  @AfterEach
+  void tearDown() {
+    jsonStorageService.shutdown();
+  }
+
+  private ChatMessageDto mensaje(String contenido) {
+    return new ChatMessageDto("ADMIN", "ARBITRO", contenido, LocalDateTime.now());
+  }
+
+  private void guardar(int cantidad) {
+    for (int i = 1; i <= cantidad; i++) {
+      jsonStorageService.saveMessage(1L, 2L, mensaje("m" + i));
+    }
+  }
+
+  @Test
+  @DisplayName("Debe anexar mensajes en segmentos y leerlos en orden")
+  void testSaveMessage_RotaSegmentos() throws Exception {
+    // Act
+    guardar(10);
+
+    // Assert
+    List<ChatMessageDto> mensajes = jsonStorageService.loadMessages(1L, 2L);
+    assertEquals(10, mensajes.size());
+    for (int i = 0; i < 10; i++) {
+      assertEquals("m" + (i + 1), mensajes.get(i).getContent());
+      assertEquals(i + 1L, mensajes.get(i).getId());
+    }
+    try (Stream<Path> segmentos = Files.list(tempDir.resolve("admin1_arbitro2"))) {
+      assertEquals(
+          3, segmentos.filter(p -> p.toString().endsWith(ChatSegmentLog.SEGMENT_SUFFIX)).count());
+    }
+  }
+
+  @Test
+  @DisplayName("Debe leer solo la cola de la conversación cruzando segmentos")
+  void testLoadRecentMessages() {
+    // Arrange
+    guardar(10);
+
+    // Act
+    List<ChatMessageDto> cola = jsonStorageService.loadRecentMessages(1L, 2L, 7);
+
+    // Assert
+    assertEquals(7, cola.size());
+    assertEquals("m4", cola.get(0).getContent());
+    assertEquals("m10", cola.get(6).getContent());
+  }
+
+  @Test
+  @DisplayName("Debe paginar hacia atrás con el cursor 'before'")
+  void testLoadMessagesPage_Cursor() {
+    // Arrange
+    guardar(10);
+
+    // Act
+    List<ChatMessageDto> pagina = jsonStorageService.loadMessagesPage(1L, 2L, 6L, 3);
+    List<ChatMessageDto> primera = jsonStorageService.loadMessagesPage(1L, 2L, 3L, 5);
+    List<ChatMessageDto> vacia = jsonStorageService.loadMessagesPage(1L, 2L, 1L, 5);
+
+    // Assert
+    assertEquals(List.of(3L, 4L, 5L), pagina.stream().map(ChatMessageDto::getId).toList());
+    assertEquals(List.of(1L, 2L), primera.stream().map(ChatMessageDto::getId).toList());
+    assertTrue(vacia.isEmpty());
+  }
+
+  @Test
+  @DisplayName("Debe reconstruir el índice de offsets si falta")
+  void testLoadMessagesPage_ReconstruyeIndice() throws Exception {
+    // Arrange
+    guardar(10);
+    jsonStorageService.shutdown();
+    Files.delete(tempDir.resolve("admin1_arbitro2").resolve(ChatSegmentLog.INDEX_FILE));
+
+    // Act
+    JsonStorageService reabierto = new JsonStorageService(properties, new SimpleMeterRegistry());
+    List<ChatMessageDto> pagina = reabierto.loadMessagesPage(1L, 2L, 9L, 4);
+
+    // Assert
+    assertEquals(List.of(5L, 6L, 7L, 8L), pagina.stream().map(ChatMessageDto::getId).toList());
+    assertEquals("m8", pagina.get(3).getContent());
+    reabierto.shutdown();
+  }
+
+  @Test
+  @DisplayName("Debe descartar una trama incompleta al reabrir el log")
+  void testRecuperacion_TramaIncompleta() throws Exception {
+    // Arrange
+    guardar(2);
+    jsonStorageService.shutdown();
+    Path activo;
+    try (Stream<Path> segmentos = Files.list(tempDir.resolve("admin1_arbitro2"))) {
+      activo =
+          segmentos
+              .filter(p -> p.toString().endsWith(ChatSegmentLog.SEGMENT_SUFFIX))
+              .findFirst()
+              .orElseThrow();
+    }
+    try (RandomAccessFile file = new RandomAccessFile(activo.toFile(), "rw")) {
+      file.seek(file.length());
+      file.write(new byte[] {0, 0, 0, 50, 1, 2}); // cabecera cortada por una caída
+    }
+
+    // Act
+    JsonStorageService reabierto = new JsonStorageService(properties, new SimpleMeterRegistry());
+    reabierto.saveMessage(1L, 2L, mensaje("m3"));
+
+    // Assert
+    List<ChatMessageDto> mensajes = reabierto.loadMessages(1L, 2L);
+    assertEquals(3, mensajes.size());
+    assertEquals(3L, mensajes.get(2).getId());
+    reabierto.shutdown();
+  }
+
+  @Test
+  @DisplayName("Debe reconstruir el índice si sus últimas entradas no coinciden con las tramas")
+  void testRecuperacion_IndiceNoPersistido() throws Exception {
+    // Arrange: la última entrada quedó en ceros, como si el índice no hubiera llegado al disco
+    guardar(6);
+    jsonStorageService.shutdown();
+    Path indice = tempDir.resolve("admin1_arbitro2").resolve(ChatSegmentLog.INDEX_FILE);
+    try (RandomAccessFile file = new RandomAccessFile(indice.toFile(), "rw")) {
+      file.seek(5 * 8L);
+      file.writeLong(0);
+    }
+
+    // Act
+    JsonStorageService reabierto = new JsonStorageService(properties, new SimpleMeterRegistry());
+    List<ChatMessageDto> pagina = reabierto.loadMessagesPage(1L, 2L, 7L, 2);
+
+    // Assert
+    assertEquals(List.of("m5", "m6"), pagina.stream().map(ChatMessageDto::getContent).toList());
+    reabierto.shutdown();
+  }
+
+  @Test
+  @DisplayName("No debe perder mensajes concurrentes de la misma conversación")
+  void testSaveMessage_Concurrente() throws Exception {
+    // Arrange
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    // Act
+    for (int i = 0; i < 400; i++) {
+      String contenido = "c" + i;
+      executor.submit(() -> jsonStorageService.saveMessage(1L, 2L, mensaje(contenido)));
+    }
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+    // Assert
+    List<ChatMessageDto> mensajes = jsonStorageService.loadMessages(1L, 2L);
+    assertEquals(400, mensajes.size());
+    Set<Long> ids = mensajes.stream().map(ChatMessageDto::getId).collect(Collectors.toSet());
+    assertEquals(400, ids.size());
+    assertEquals(400L, mensajes.get(399).getId());
+  }
+
+  @Test
+  @DisplayName("Debe escribir los mensajes encolados al detener el servicio")
+  void testShutdown_VaciaLaCola() {
+    // Arrange
+    guardar(50);
+
+    // Act
+    jsonStorageService.shutdown();
+
+    // Assert
+    JsonStorageService reabierto = new JsonStorageService(properties, new SimpleMeterRegistry());
+    assertEquals(50, reabierto.loadMessages(1L, 2L).size());
+    assertEquals(0, jsonStorageService.getPendingWrites());
+    assertTrue(meterRegistry.get("caba.chat.write.flush").timer().count() > 0);
+    reabierto.shutdown();
+  }
+
+  @Test
+  @DisplayName("Debe migrar los archivos JSON del formato anterior una sola vez")
+  void testMigrateLegacyChats() throws Exception {
+    // Arrange
+    ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    List<ChatMessageDto> legacy = new ArrayList<>();
+    for (int i = 1; i <= 6; i++) {
+      legacy.add(mensaje("legacy" + i));
+    }
+    objectMapper.writeValue(tempDir.resolve("chat_admin3_arbitro4.json").toFile(), legacy);
+
+    // Act
+    int migrados = jsonStorageService.migrateLegacyChats();
+    int segundaVez = jsonStorageService.migrateLegacyChats();
+
+    // Assert
+    assertEquals(1, migrados);
+    assertEquals(0, segundaVez);
+    assertTrue(Files.exists(tempDir.resolve("chat_admin3_arbitro4.json.migrated")));
+    List<ChatMessageDto> mensajes = jsonStorageService.loadMessages(3L, 4L);
+    assertEquals(6, mensajes.size());
+    assertEquals("legacy6", mensajes.get(5).getContent());
+  }
+
+  @Test
+  @DisplayName("Debe mantener el índice de conversaciones con no leídos y persistirlo")
+  void testConversationIndex_NoLeidosYPersistencia() {
+    // Arrange
+    guardar(3);
+    jsonStorageService.saveMessage(
+        1L, 5L, new ChatMessageDto("ARBITRO", "ADMIN", "hola admin", LocalDateTime.now()));
+
+    // Act
+    jsonStorageService.markConversationRead(1L, 2L, false);
+    jsonStorageService.shutdown();
+    JsonStorageService reiniciado = new JsonStorageService(properties, new SimpleMeterRegistry());
+
+    // Assert
+    try {
+      List<ChatConversationIndex.ConversationSummary> deAdmin =
+          reiniciado.getConversationsForAdmin(1L);
+      assertEquals(2, deAdmin.size());
+      assertEquals(5L, deAdmin.get(0).getArbitroId());
+      assertEquals(1, deAdmin.get(0).getUnreadAdmin());
+      assertEquals("hola admin", deAdmin.get(0).getLastPreview());
+
+      ChatConversationIndex.ConversationSummary conArbitro =
+          reiniciado.getConversationsForArbitro(2L).get(0);
+      assertEquals(3, conArbitro.getMessageCount());
+      assertEquals(0, conArbitro.getUnreadArbitro());
+      assertEquals("m3", conArbitro.getLastPreview());
+    } finally {
+      reiniciado.shutdown();
+    }
+  }
+
+  @Test
+  @DisplayName("Debe llevar el total de no leídos por usuario y descontarlo al leer")
+  void testUnreadTotal_PorUsuario() {
+    // Arrange
+    guardar(3); // admin 1 -> árbitro 2
+    jsonStorageService.saveMessage(
+        1L, 5L, new ChatMessageDto("ARBITRO", "ADMIN", "hola admin", LocalDateTime.now()));
+    jsonStorageService.saveMessage(
+        1L, 6L, new ChatMessageDto("ARBITRO", "ADMIN", "otra vez", LocalDateTime.now()));
+
+    // Act
+    int leidos = jsonStorageService.markConversationRead(1L, 5L, true);
+    int sinCambios = jsonStorageService.markConversationRead(1L, 5L, true);
+
+    // Assert
+    assertEquals(1, leidos);
+    assertEquals(0, sinCambios);
+    assertEquals(1, jsonStorageService.getUnreadTotal(true, 1L));
+    assertEquals(3, jsonStorageService.getUnreadTotal(false, 2L));
+    assertEquals(0, jsonStorageService.getUnreadTotal(false, 5L));
+  }
+
+  @Test
+  @DisplayName("Debe seguir esperando el último mensaje encolado aunque se registre antes")
+  void testTrackPending_FueraDeOrden() {
+    // Arrange: el mensaje más nuevo se registra antes que el anterior
+    CompletableFuture<Long> anterior = new CompletableFuture<>();
+    CompletableFuture<Long> nuevo = new CompletableFuture<>();
+    jsonStorageService.trackPending("admin1_arbitro2", nuevo);
+    jsonStorageService.trackPending("admin1_arbitro2", anterior);
+    anterior.complete(1L);
+    CompletableFuture.delayedExecutor(300, TimeUnit.MILLISECONDS).execute(() -> nuevo.complete(2L));
+
+    // Act
+    long inicio = System.nanoTime();
+    jsonStorageService.markConversationRead(1L, 2L, true);
+    long esperado = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+
+    // Assert: la lectura esperó al mensaje nuevo, no solo al último registrado
+    assertTrue(esperado >= 250, "esperó " + esperado + " ms");
+  }
+
+  @Test
+  @DisplayName("Debe esperar solo los mensajes encolados de las conversaciones del usuario")
+  void testUnreadTotal_NoEsperaOtrasConversaciones() {
+    // Arrange: la escritura de otra conversación no termina
+    guardar(2);
+    jsonStorageService.trackPending("admin9_arbitro9", new CompletableFuture<>());
+
+    // Act
+    long inicio = System.nanoTime();
+    int total = jsonStorageService.getUnreadTotal(false, 2L);
+    List<ChatSearchResultDto> resultados = jsonStorageService.searchMessages("m1", 1L, null, 10);
+    long esperado = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+
+    // Assert
+    assertEquals(2, total);
+    assertEquals(1, resultados.size());
+    assertTrue(esperado < 1000, "esperó " + esperado + " ms");
+  }
+
+  @Test
+  @DisplayName("Debe reconstruir el índice de conversaciones desde los logs si no existe")
+  void testRebuildConversationIndexIfMissing() throws Exception {
+    // Arrange
+    guardar(5);
+    jsonStorageService.shutdown();
+    try (Stream<Path> archivos = Files.walk(tempDir.resolve("index"))) {
+      archivos.sorted((a, b) -> b.compareTo(a)).forEach(p -> p.toFile().delete());
+    }
+    JsonStorageService reiniciado = new JsonStorageService(properties, new SimpleMeterRegistry());
+
+    // Act
+    try {
+      int indexadas = reiniciado.rebuildConversationIndexIfMissing();
+
+      // Assert
+      assertEquals(1, indexadas);
+      assertEquals(List.of("admin1_arbitro2"), reiniciado.getExistingChatsForAdmin(1L));
+      assertEquals(5, reiniciado.getConversationsForAdmin(1L).get(0).getMessageCount());
+      assertEquals(0, reiniciado.rebuildConversationIndexIfMissing());
+    } finally {
+      reiniciado.shutdown();
+    }
+  }
+
+  @Test
+  @DisplayName("Debe leer un log con mensajes en JSON y en binario tras cambiar el formato")
+  void testCodec_CambioDeFormato() {
+    // Arrange
+    jsonStorageService.shutdown();
+    properties.setCodec(ChatStorageProperties.Codec.JSON);
+    JsonStorageService enJson = new JsonStorageService(properties, new SimpleMeterRegistry());
+    for (int i = 1; i <= 3; i++) {
+      enJson.saveMessage(1L, 2L, mensaje("json" + i));
+    }
+    enJson.shutdown();
+
+    // Act
+    properties.setCodec(ChatStorageProperties.Codec.BINARY);
+    jsonStorageService = new JsonStorageService(properties, meterRegistry);
+    for (int i = 1; i <= 3; i++) {
+      jsonStorageService.saveMessage(1L, 2L, mensaje("binario" + i));
+    }
+
+    // Assert
+    List<ChatMessageDto> mensajes = jsonStorageService.loadMessages(1L, 2L);
+    assertEquals(6, mensajes.size());
+    assertEquals("json3", mensajes.get(2).getContent());
+    assertEquals("binario3", mensajes.get(5).getContent());
+    assertEquals(6L, mensajes.get(5).getId());
+  }
+
+  @Test
+  @DisplayName("Debe archivar segmentos antiguos y seguir sirviéndolos en el historial")
+  void testArchiveOldConversations() throws Exception {
+    // Arrange: 8 mensajes antiguos (dos segmentos) y 2 recientes en el segmento activo
+    for (int i = 1; i <= 10; i++) {
+      ChatMessageDto mensaje = mensaje("m" + i);
+      mensaje.setTimestamp(LocalDateTime.now().minusDays(i <= 8 ? 60 : 1));
+      jsonStorageService.saveMessage(1L, 2L, mensaje);
+    }
+
+    // Act
+    long archivados = jsonStorageService.archiveOldConversations();
+
+    // Assert
+    assertEquals(8, archivados);
+    Path conversacion = tempDir.resolve("admin1_arbitro2");
+    try (Stream<Path> archivos = Files.list(conversacion)) {
+      Set<String> nombres =
+          archivos.map(p -> p.getFileName().toString()).collect(Collectors.toSet());
+      assertTrue(nombres.contains("00000000000000000001-00000000000000000008.arc.gz"));
+      assertFalse(nombres.contains("00000000000000000001.seg"));
+      assertFalse(nombres.contains("00000000000000000005.seg"));
+    }
+    assertEquals(0, jsonStorageService.archiveOldConversations());
+
+    // Al reiniciar, sin caché que cubra la página, el historial se lee del archivo
+    jsonStorageService.shutdown();
+    properties.setCacheTailMessages(2);
+    jsonStorageService = new JsonStorageService(properties, meterRegistry);
+    List<ChatMessageDto> pagina = jsonStorageService.loadMessagesPage(1L, 2L, 9L, 5);
+    assertEquals(List.of(4L, 5L, 6L, 7L, 8L), pagina.stream().map(m -> m.getId()).toList());
+    assertEquals("m4", pagina.get(0).getContent());
+    assertEquals(10, jsonStorageService.loadMessages(1L, 2L).size());
+
+    jsonStorageService.saveMessage(1L, 2L, mensaje("m11"));
+    assertEquals(11L, jsonStorageService.loadRecentMessages(1L, 2L, 1).get(0).getId());
+  }
+
+  @Test
+  @DisplayName("Debe archivar una conversación inactiva completa y reconstruir su índice")
+  void testArchive_ConversacionInactiva() throws Exception {
+    // Arrange
+    for (int i = 1; i <= 6; i++) {
+      ChatMessageDto mensaje = mensaje("m" + i);
+      mensaje.setTimestamp(LocalDateTime.now().minusDays(90));
+      jsonStorageService.saveMessage(1L, 2L, mensaje);
+    }
+
+    // Act
+    assertEquals(6, jsonStorageService.archiveOldConversations());
+    jsonStorageService.shutdown();
+    Files.delete(tempDir.resolve("admin1_arbitro2").resolve(ChatSegmentLog.INDEX_FILE));
+    jsonStorageService = new JsonStorageService(properties, meterRegistry);
+
+    // Assert
+    List<ChatMessageDto> ultimos = jsonStorageService.loadRecentMessages(1L, 2L, 3);
+    assertEquals(List.of("m4", "m5", "m6"), ultimos.stream().map(m -> m.getContent()).toList());
+    jsonStorageService.saveMessage(1L, 2L, mensaje("m7"));
+    assertEquals(7, jsonStorageService.loadMessages(1L, 2L).size());
+  }
+
+  @Test
+  @DisplayName("Debe buscar texto en las conversaciones del usuario y reindexar lo que falte")
+  void testSearchMessages() throws Exception {
+    // Arrange
+    jsonStorageService.saveMessage(1L, 2L, mensaje("Confirmo el partido 123"));
+    jsonStorageService.saveMessage(1L, 2L, mensaje("La liquidación llega el lunes"));
+    jsonStorageService.saveMessage(7L, 2L, mensaje("Liquidación de otro admin"));
+
+    // Act
+    List<ChatSearchResultDto> resultados =
+        jsonStorageService.searchMessages("liquidacion", 1L, null, 10);
+
+    // Assert
+    assertEquals(1, resultados.size());
+    assertEquals(2L, resultados.get(0).getMessage().getId());
+    assertEquals("La liquidación llega el lunes", resultados.get(0).getMessage().getContent());
+    assertEquals(2, jsonStorageService.searchMessages("liquidacion", null, 2L, 10).size());
+
+    // Sin el índice guardado, al iniciar se indexa todo desde los logs
+    jsonStorageService.shutdown();
+    Files.delete(tempDir.resolve("index").resolve("search.idx"));
+    jsonStorageService = new JsonStorageService(properties, meterRegistry);
+    assertEquals(3, jsonStorageService.catchUpSearchIndex());
+    assertEquals(0, jsonStorageService.catchUpSearchIndex());
+    assertEquals(
+        1L, jsonStorageService.searchMessages("partido 123", 1L, 2L, 10).get(0).getAdminId());
+  }
+}
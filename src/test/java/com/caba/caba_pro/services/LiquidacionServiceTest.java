@@ -0,0 +1,219 @@
+/**
+ * Archivo: LiquidacionServiceTest.java Autores: Diego.Gonzalez Fecha última modificación:
+ * 17.10.2026 Descripción: Pruebas de LiquidacionService contra H2 en memoria, contando las
+ * sentencias SQL emitidas Proyecto: CABA Pro - Sistema de Gestión Integral de Arbitraje
+ */
+package com.caba.caba_pro.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.caba.caba_pro.config.CacheConsultasProperties;
+import com.caba.caba_pro.config.ExcelExportProperties;
+import com.caba.caba_pro.dto.LiquidacionDTO;
+import com.caba.caba_pro.enums.AsignacionEstado;
+import com.caba.caba_pro.models.Arbitro;
+import com.caba.caba_pro.models.Torneo;
+import com.caba.caba_pro.support.DatosDePrueba;
+import com.caba.caba_pro.support.PruebaJpa;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+@PruebaJpa(properties = "caba-pro.cache-consultas.enabled=false")
+@Import({
+  LiquidacionService.class,
+  CacheConsultas.class,
+  CacheConsultasProperties.class,
+  SimpleMeterRegistry.class
+})
+@DisplayName("Pruebas de integración - LiquidacionService")
+class LiquidacionServiceTest {
+
+  private static final LocalDateTime INICIO = LocalDateTime.of(2026, 3, 1, 0, 0);
+  private static final LocalDateTime FIN = LocalDateTime.of(2026, 3, 31, 23, 59, 59);
+  private static final BigDecimal MONTO = new BigDecimal("100000");
+
+  @Autowired private LiquidacionService liquidacionService;
+
+  @Autowired private EntityManager entityManager;
+
+  private DatosDePrueba datos;
+  private Statistics statistics;
+  private final List<Arbitro> arbitros = new ArrayList<>();
+  private Torneo torneo;
+
+  @BeforeEach
+  void setUp() {
+    datos = new DatosDePrueba(entityManager);
+    torneo =
+        datos.torneo("Liga Metropolitana", LocalDate.of(2026, 3, 1), LocalDate.of(2026, 6, 30));
+
+    // 4 árbitros con 3 partidos completados cada uno (uno sin torneo) a 100.000 por partido
+    for (int i = 0; i < 4; i++) {
+      Arbitro arbitro = datos.arbitro("Nombre" + i, "Apellido" + i, "arbitro" + i);
+      arbitros.add(arbitro);
+      for (int j = 0; j < 3; j++) {
+        datos.asignar(
+            arbitro,
+            datos.partido(LocalDateTime.of(2026, 3, 2 + i * 3 + j, 18, 0), j == 2 ? null : torneo),
+            AsignacionEstado.COMPLETADA,
+            MONTO);
+      }
+    }
+    // Fuera de la liquidación: aceptadas del período y completadas de otro mes
+    datos.asignar(
+        arbitros.get(0),
+        datos.partido(LocalDateTime.of(2026, 3, 20, 18, 0), torneo),
+        AsignacionEstado.ACEPTADA,
+        MONTO);
+    datos.asignar(
+        arbitros.get(1),
+        datos.partido(LocalDateTime.of(2026, 4, 2, 18, 0), torneo),
+        AsignacionEstado.COMPLETADA,
+        MONTO);
+    entityManager.flush();
+    entityManager.clear();
+
+    statistics = datos.estadisticas();
+  }
+
+  @Test
+  @DisplayName("Debe armar la liquidación del período con una sola consulta")
+  void testGenerarLiquidacion_UnaConsulta() {
+    // Act
+    LiquidacionDTO liquidacion = liquidacionService.generarLiquidacion(INICIO, FIN);
+
+    // Assert
+    assertEquals(1, statistics.getPrepareStatementCount());
+    assertEquals(4, liquidacion.getArbitros().size());
+    assertEquals(12, liquidacion.getTotalAsignaciones());
+    assertEquals(12, liquidacion.getTotalPartidos());
+    assertEquals(0, new BigDecimal("1200000").compareTo(liquidacion.getTotalGeneral()));
+    LiquidacionDTO.LiquidacionArbitroDTO primero = liquidacion.getArbitros().get(0);
+    assertEquals(arbitros.get(0).getId(), primero.getArbitroId());
+    assertEquals("Nombre0 Apellido0", primero.getNombreCompleto());
+    assertEquals(3, primero.getCantidadPartidos());
+    assertEquals("Liga Metropolitana", primero.getPartidos().get(0).getTorneo());
+    assertEquals("Sin torneo", primero.getPartidos().get(2).getTorneo());
+  }
+
+  @Test
+  @DisplayName("Debe emitir las mismas sentencias sin importar el número de árbitros")
+  void testGenerarLiquidacion_SentenciasIndependientesDelVolumen() {
+    // Arrange: 10 árbitros más, cada uno con su propio partido
+    for (int i = 4; i < 14; i++) {
+      datos.asignar(
+          datos.arbitro("Nombre" + i, "Apellido" + i, "arbitro" + i),
+          datos.partido(LocalDateTime.of(2026, 3, 28, 10, i), torneo),
+          AsignacionEstado.COMPLETADA,
+          MONTO);
+    }
+    entityManager.flush();
+    entityManager.clear();
+    statistics.clear();
+
+    // Act
+    LiquidacionDTO liquidacion = liquidacionService.generarLiquidacion(INICIO, FIN);
+    LiquidacionDTO.LiquidacionArbitroDTO delArbitro =
+        liquidacionService.generarLiquidacionPorArbitro(arbitros.get(1).getId(), INICIO, FIN);
+
+    // Assert
+    assertEquals(2, statistics.getPrepareStatementCount());
+    assertEquals(14, liquidacion.getArbitros().size());
+    assertEquals(3, delArbitro.getCantidadPartidos());
+    assertEquals(0, new BigDecimal("300000").compareTo(delArbitro.getTotalAPagar()));
+  }
+
+  @Test
+  @DisplayName("Debe entregar en streaming los mismos árbitros que la liquidación en memoria")
+  void testExportarLiquidacion_MismoResultadoQueEnMemoria() throws IOException {
+    // Arrange
+    List<LiquidacionDTO.LiquidacionArbitroDTO> recibidos = new ArrayList<>();
+    LiquidacionDTO[] cabecera = new LiquidacionDTO[1];
+    LiquidacionEscritor escritor =
+        new LiquidacionEscritor() {
+          @Override
+          public void iniciar(LiquidacionDTO dto, long totalArbitros) {
+            assertEquals(4, totalArbitros);
+            cabecera[0] = dto;
+          }
+
+          @Override
+          public void escribirArbitro(LiquidacionDTO.LiquidacionArbitroDTO arbitro) {
+            recibidos.add(arbitro);
+          }
+
+          @Override
+          public void terminar() {}
+        };
+
+    // Act
+    long escritos = liquidacionService.exportarLiquidacion(INICIO, FIN, escritor);
+    long sentencias = statistics.getPrepareStatementCount();
+    LiquidacionDTO enMemoria = liquidacionService.generarLiquidacion(INICIO, FIN);
+
+    // Assert: totales + cursor
+    assertEquals(2, sentencias);
+    assertEquals(4, escritos);
+    assertEquals(enMemoria.getTotalAsignaciones(), cabecera[0].getTotalAsignaciones());
+    assertEquals(enMemoria.getTotalPartidos(), cabecera[0].getTotalPartidos());
+    assertEquals(0, enMemoria.getTotalGeneral().compareTo(cabecera[0].getTotalGeneral()));
+    assertEquals(enMemoria.getArbitros().size(), recibidos.size());
+    for (int i = 0; i < recibidos.size(); i++) {
+      LiquidacionDTO.LiquidacionArbitroDTO esperado = enMemoria.getArbitros().get(i);
+      assertEquals(esperado.getArbitroId(), recibidos.get(i).getArbitroId());
+      assertEquals(esperado.getCantidadPartidos(), recibidos.get(i).getCantidadPartidos());
+      assertEquals(0, esperado.getTotalAPagar().compareTo(recibidos.get(i).getTotalAPagar()));
+    }
+  }
+
+  @Test
+  @DisplayName("Debe escribir la liquidación en streaming como JSON y como Excel")
+  void testExportarLiquidacion_JsonYExcel() throws IOException {
+    // Arrange
+    ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    ByteArrayOutputStream json = new ByteArrayOutputStream();
+    ByteArrayOutputStream excel = new ByteArrayOutputStream();
+
+    // Act
+    try (LiquidacionEscritor escritor = new LiquidacionJsonEscritor(json, objectMapper)) {
+      liquidacionService.exportarLiquidacion(INICIO, FIN, escritor);
+    }
+    try (LiquidacionEscritor escritor =
+        new ExcelExportService(new ExcelExportProperties()).escritorLiquidacion(excel)) {
+      liquidacionService.exportarLiquidacion(INICIO, FIN, escritor);
+    }
+
+    // Assert
+    JsonNode documento = objectMapper.readTree(json.toByteArray());
+    assertEquals(12, documento.get("totalAsignaciones").asInt());
+    assertEquals(4, documento.get("arbitros").size());
+    assertEquals(3, documento.get("arbitros").get(0).get("partidos").size());
+    try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(excel.toByteArray()))) {
+      assertEquals(2, workbook.getNumberOfSheets());
+      // Resumen: 14 filas de encabezado y totales + 4 árbitros (la última es la 17)
+      assertEquals(17, workbook.getSheet("Resumen").getLastRowNum());
+      // Detalle: título, espacio y encabezado + por árbitro (nombre, 3 partidos, subtotal, espacio)
+      assertEquals(
+          "Subtotal:",
+          workbook.getSheet("Detalle por Árbitro").getRow(3 + 4).getCell(4).getStringCellValue());
+    }
+  }
+}
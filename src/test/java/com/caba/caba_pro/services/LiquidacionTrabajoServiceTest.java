@@ -0,0 +1,292 @@
+/**
+ * Archivo: LiquidacionTrabajoServiceTest.java Autores: Diego.Gonzalez Fecha última modificación:
+ * 17.10.2026 Descripción: Pruebas de los trabajos de liquidación en segundo plano Proyecto: CABA
+ * Pro - Sistema de Gestión Integral de Arbitraje
+ */
+package com.caba.caba_pro.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import com.caba.caba_pro.config.LiquidacionTrabajosProperties;
+import com.caba.caba_pro.dto.LiquidacionDTO;
+import com.caba.caba_pro.exceptions.BusinessException;
+import com.caba.caba_pro.models.LiquidacionCerrada;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Pruebas unitarias - LiquidacionTrabajoService")
+class LiquidacionTrabajoServiceTest {
+
+  private static final LocalDate INICIO = LocalDate.of(2026, 3, 1);
+  private static final LocalDate FIN = LocalDate.of(2026, 3, 31);
+
+  @Mock private LiquidacionService liquidacionService;
+
+  @Mock private CierreLiquidacionService cierreLiquidacionService;
+
+  @Mock private ExcelExportService excelExportService;
+
+  @TempDir Path directorio;
+
+  private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+  private final LiquidacionTrabajosProperties properties = new LiquidacionTrabajosProperties();
+  private Instant ahora = Instant.parse("2026-04-01T10:00:00Z");
+  private LiquidacionTrabajoService service;
+
+  @BeforeEach
+  void setUp() {
+    properties.setDirectory(directorio.toString());
+    properties.setPoolSize(1);
+    properties.setQueueCapacity(1);
+    properties.setTtl(Duration.ofHours(1));
+    lenient().when(cierreLiquidacionService.buscar(any(), any())).thenReturn(Optional.empty());
+  }
+
+  @AfterEach
+  void tearDown() {
+    if (service != null) {
+      service.detener();
+    }
+  }
+
+  @Test
+  @DisplayName("Debe generar el archivo en segundo plano e informar el progreso")
+  void testEnviar_GeneraArchivo() throws Exception {
+    // Arrange
+    doAnswer(
+            invocation -> {
+              LiquidacionEscritor escritor = invocation.getArgument(2);
+              escritor.iniciar(cabecera(), 2);
+              escritor.escribirArbitro(arbitro(1L));
+              escritor.escribirArbitro(arbitro(2L));
+              escritor.terminar();
+              return 2L;
+            })
+        .when(liquidacionService)
+        .exportarLiquidacion(any(), any(), any());
+    service = nuevoServicio();
+
+    // Act
+    LiquidacionTrabajoService.Trabajo trabajo =
+        service.enviar(INICIO, FIN, LiquidacionTrabajoService.Formato.JSON, "admin");
+    esperar(trabajo);
+
+    // Assert
+    assertEquals(LiquidacionTrabajoService.Estado.TERMINADO, trabajo.getEstado());
+    assertEquals(100, trabajo.getProgreso());
+    assertEquals(trabajos().resolve(trabajo.getId() + ".json"), trabajo.getArchivo());
+    assertFalse(Files.exists(trabajos().resolve(trabajo.getId() + ".tmp")));
+    JsonNode json = objectMapper.readTree(trabajo.getArchivo().toFile());
+    assertEquals(2, json.get("arbitros").size());
+    assertSame(trabajo, service.obtener(trabajo.getId()).orElseThrow());
+  }
+
+  @Test
+  @DisplayName("Debe escribir la copia congelada si el período está cerrado")
+  void testEnviar_PeriodoCerrado() throws Exception {
+    // Arrange
+    LiquidacionDTO congelada = cabecera();
+    congelada.setArbitros(List.of(arbitro(7L)));
+    when(cierreLiquidacionService.buscar(INICIO, FIN))
+        .thenReturn(Optional.of(mock(LiquidacionCerrada.class)));
+    when(cierreLiquidacionService.leer(any())).thenReturn(congelada);
+    service = nuevoServicio();
+
+    // Act
+    LiquidacionTrabajoService.Trabajo trabajo =
+        service.enviar(INICIO, FIN, LiquidacionTrabajoService.Formato.JSON, "admin");
+    esperar(trabajo);
+
+    // Assert
+    assertEquals(LiquidacionTrabajoService.Estado.TERMINADO, trabajo.getEstado());
+    JsonNode json = objectMapper.readTree(trabajo.getArchivo().toFile());
+    assertEquals(7, json.get("arbitros").get(0).get("arbitroId").asLong());
+    verify(liquidacionService, never()).exportarLiquidacion(any(), any(), any());
+  }
+
+  @Test
+  @DisplayName("Debe rechazar trabajos cuando el pool y la cola están llenos")
+  void testEnviar_ColaLlena() throws Exception {
+    // Arrange: el primer trabajo ocupa el único hilo hasta que se libera
+    CountDownLatch iniciado = new CountDownLatch(1);
+    CountDownLatch liberar = new CountDownLatch(1);
+    doAnswer(
+            invocation -> {
+              iniciado.countDown();
+              liberar.await(10, TimeUnit.SECONDS);
+              return 0L;
+            })
+        .when(liquidacionService)
+        .exportarLiquidacion(any(), any(), any());
+    service = nuevoServicio();
+    LiquidacionTrabajoService.Trabajo enCurso =
+        service.enviar(INICIO, FIN, LiquidacionTrabajoService.Formato.JSON, "admin");
+    assertTrue(iniciado.await(10, TimeUnit.SECONDS));
+    LiquidacionTrabajoService.Trabajo enCola =
+        service.enviar(INICIO, FIN, LiquidacionTrabajoService.Formato.JSON, "admin");
+
+    // Act & Assert
+    assertThrows(
+        BusinessException.class,
+        () -> service.enviar(INICIO, FIN, LiquidacionTrabajoService.Formato.JSON, "admin"));
+    assertEquals(LiquidacionTrabajoService.Estado.EN_CURSO, enCurso.getEstado());
+    assertEquals(LiquidacionTrabajoService.Estado.EN_COLA, enCola.getEstado());
+
+    liberar.countDown();
+    esperar(enCola);
+  }
+
+  @Test
+  @DisplayName("Debe marcar el trabajo como fallido y no dejar archivos a medias")
+  void testEnviar_Fallido() throws Exception {
+    // Arrange
+    doThrow(new IllegalStateException("Base no disponible"))
+        .when(liquidacionService)
+        .exportarLiquidacion(any(), any(), any());
+    service = nuevoServicio();
+
+    // Act
+    LiquidacionTrabajoService.Trabajo trabajo =
+        service.enviar(INICIO, FIN, LiquidacionTrabajoService.Formato.JSON, "admin");
+    esperar(trabajo);
+
+    // Assert
+    assertEquals(LiquidacionTrabajoService.Estado.FALLIDO, trabajo.getEstado());
+    assertEquals("Base no disponible", trabajo.getError());
+    assertNull(trabajo.getArchivo());
+    try (var archivos = Files.list(trabajos())) {
+      assertEquals(0, archivos.count());
+    }
+  }
+
+  @Test
+  @DisplayName("Debe borrar los trabajos y archivos vencidos")
+  void testPurgarVencidos() throws Exception {
+    // Arrange
+    service = nuevoServicio();
+    LiquidacionTrabajoService.Trabajo trabajo =
+        service.enviar(INICIO, FIN, LiquidacionTrabajoService.Formato.JSON, "admin");
+    esperar(trabajo);
+    Path archivo = trabajo.getArchivo();
+
+    // Act
+    int antes = service.purgarVencidos();
+    ahora = ahora.plus(Duration.ofHours(1)).plusSeconds(1);
+    int despues = service.purgarVencidos();
+
+    // Assert
+    assertEquals(0, antes);
+    assertEquals(1, despues);
+    assertTrue(service.obtener(trabajo.getId()).isEmpty());
+    assertFalse(Files.exists(archivo));
+  }
+
+  @Test
+  @DisplayName("Debe borrar al iniciar solo los archivos de trabajos que quedaron")
+  void testIniciar_BorraSoloArchivosDeTrabajos() throws Exception {
+    // Arrange: restos de trabajos junto con datos ajenos en el directorio compartido
+    Files.createDirectories(trabajos().resolve("otros"));
+    Path resto = trabajos().resolve("0b9c6a52-3f1e-4d8a-9a57-2f0c1d3e4b5a.tmp");
+    Path ajenoEnSubdirectorio = trabajos().resolve("notas.json");
+    Path ajeno = directorio.resolve("0b9c6a52-3f1e-4d8a-9a57-2f0c1d3e4b5a.json");
+    for (Path archivo : List.of(resto, ajenoEnSubdirectorio, ajeno)) {
+      Files.writeString(archivo, "x");
+    }
+
+    // Act
+    service = nuevoServicio();
+
+    // Assert
+    assertFalse(Files.exists(resto));
+    assertTrue(Files.exists(ajenoEnSubdirectorio));
+    assertTrue(Files.exists(ajeno));
+    assertTrue(Files.isDirectory(trabajos().resolve("otros")));
+  }
+
+  private Path trabajos() {
+    return directorio.resolve("trabajos");
+  }
+
+  private LiquidacionTrabajoService nuevoServicio() throws Exception {
+    Clock clock =
+        new Clock() {
+          @Override
+          public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+          }
+
+          @Override
+          public Clock withZone(ZoneId zone) {
+            return this;
+          }
+
+          @Override
+          public Instant instant() {
+            return ahora;
+          }
+        };
+    return new LiquidacionTrabajoService(
+        liquidacionService,
+        cierreLiquidacionService,
+        excelExportService,
+        objectMapper,
+        properties,
+        clock);
+  }
+
+  // Espera a que el trabajo termine (bien o mal)
+  private static void esperar(LiquidacionTrabajoService.Trabajo trabajo)
+      throws InterruptedException {
+    for (int i = 0; i < 100 && trabajo.getTerminadoEn() == null; i++) {
+      Thread.sleep(50);
+    }
+    assertNotNull(trabajo.getTerminadoEn(), "El trabajo no terminó a tiempo");
+  }
+
+  private static LiquidacionDTO cabecera() {
+    LiquidacionDTO cabecera = new LiquidacionDTO();
+    cabecera.setFechaGeneracion(LocalDateTime.of(2026, 4, 1, 10, 0));
+    cabecera.setFechaInicio(INICIO.atStartOfDay());
+    cabecera.setFechaFin(FIN.atTime(23, 59, 59));
+    cabecera.setTotalGeneral(BigDecimal.TEN);
+    cabecera.setTotalPartidos(1);
+    cabecera.setTotalAsignaciones(1);
+    return cabecera;
+  }
+
+  private static LiquidacionDTO.LiquidacionArbitroDTO arbitro(Long id) {
+    LiquidacionDTO.LiquidacionArbitroDTO arbitro = new LiquidacionDTO.LiquidacionArbitroDTO();
+    arbitro.setArbitroId(id);
+    arbitro.setNombreCompleto("Árbitro " + id);
+    arbitro.setPartidos(List.of());
+    arbitro.setTotalAPagar(BigDecimal.ONE);
+    arbitro.setCantidadPartidos(0);
+    return arbitro;
+  }
+}
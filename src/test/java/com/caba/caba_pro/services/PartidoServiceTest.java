@@ -12,6 +12,7 @@ import static org.mockito.Mockito.*;
 
 import com.caba.caba_pro.DTOs.AsignacionDto;
 import com.caba.caba_pro.DTOs.PartidoDto;
+import com.caba.caba_pro.enums.AsignacionEstado;
 import com.caba.caba_pro.enums.Especialidad;
 import com.caba.caba_pro.enums.PartidoEstado;
 import com.caba.caba_pro.exceptions.BusinessException;
@@ -36,6 +37,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("Pruebas unitarias - PartidoService")
@@ -57,6 +59,10 @@ class PartidoServiceTest {
 
   @Mock private AdministradorRepository administradorRepository;
 
+  @Mock private ApplicationEventPublisher eventPublisher;
+
+  @Mock private CierreLiquidacionService cierreLiquidacionService;
+
   @InjectMocks private PartidoService partidoService;
 
   private Partido partidoMock;
@@ -222,7 +228,8 @@ class PartidoServiceTest {
             anyLong(), any(), any()))
         .thenReturn(false);
     when(tarifaService.obtenerMontoPorEscalafon(anyString())).thenReturn(new BigDecimal("150000"));
-    when(asignacionRepository.save(any(Asignacion.class))).thenReturn(new Asignacion());
+    when(asignacionRepository.save(any(Asignacion.class)))
+        .thenAnswer(invocation -> invocation.getArgument(0));
 
     // Act
     Asignacion resultado = partidoService.asignarArbitro(1L, asignacionDto);
@@ -231,6 +238,7 @@ class PartidoServiceTest {
     assertNotNull(resultado);
     verify(asignacionRepository, times(1)).save(any(Asignacion.class));
     verify(notificacionService, times(1)).crearNotificacion(any());
+    verify(eventPublisher, times(1)).publishEvent(any(AsignacionCambiadaEvent.class));
   }
 
   @Test
@@ -252,6 +260,101 @@ class PartidoServiceTest {
     verify(asignacionRepository, never()).save(any(Asignacion.class));
   }
 
+  @Test
+  @DisplayName(
+      "Debe rechazar reprogramar un partido con asignaciones completadas en un período cerrado")
+  void testActualizar_CompletadasEnPeriodoCerrado() {
+    // Arrange
+    LocalDateTime fechaAnterior = partidoMock.getFechaHora();
+    partidoDtoMock.setFechaHora(fechaAnterior.plusDays(1));
+    when(partidoRepository.findByIdAndActivoTrue(1L)).thenReturn(Optional.of(partidoMock));
+    when(asignacionRepository.existsByPartidoIdAndEstadoAndActivoTrue(
+            1L, AsignacionEstado.COMPLETADA))
+        .thenReturn(true);
+    doThrow(new BusinessException("Período cerrado"))
+        .when(cierreLiquidacionService)
+        .verificarPeriodoAbierto(fechaAnterior);
+
+    // Act & Assert
+    BusinessException exception =
+        assertThrows(BusinessException.class, () -> partidoService.actualizar(1L, partidoDtoMock));
+
+    assertEquals("Período cerrado", exception.getMessage());
+    assertEquals(fechaAnterior, partidoMock.getFechaHora());
+    verify(partidoRepository, never()).save(any(Partido.class));
+  }
+
+  @Test
+  @DisplayName("Debe reprogramar sin consultar los períodos cerrados si no hay completadas")
+  void testActualizar_SinCompletadas() {
+    // Arrange
+    partidoDtoMock.setFechaHora(partidoMock.getFechaHora().plusDays(1));
+    when(partidoRepository.findByIdAndActivoTrue(1L)).thenReturn(Optional.of(partidoMock));
+    when(asignacionRepository.existsByPartidoIdAndEstadoAndActivoTrue(
+            1L, AsignacionEstado.COMPLETADA))
+        .thenReturn(false);
+    when(partidoRepository.save(partidoMock)).thenReturn(partidoMock);
+
+    // Act
+    Partido resultado = partidoService.actualizar(1L, partidoDtoMock);
+
+    // Assert
+    assertEquals(partidoDtoMock.getFechaHora(), resultado.getFechaHora());
+    verify(cierreLiquidacionService, never()).verificarPeriodoAbierto(any());
+  }
+
+  @Test
+  @DisplayName("Debe completar una asignación aceptada tras verificar el período abierto")
+  void testCompletarAsignacion() {
+    // Arrange
+    partidoMock.setFechaHora(LocalDateTime.now().minusDays(1));
+    Asignacion asignacion = asignacion(AsignacionEstado.ACEPTADA);
+    when(asignacionRepository.findById(5L)).thenReturn(Optional.of(asignacion));
+    when(asignacionRepository.save(asignacion)).thenReturn(asignacion);
+
+    // Act
+    Asignacion resultado = partidoService.completarAsignacion(5L, 1L);
+
+    // Assert
+    assertEquals(AsignacionEstado.COMPLETADA, resultado.getEstado());
+    verify(cierreLiquidacionService).verificarPeriodoAbierto(partidoMock.getFechaHora());
+    verify(eventPublisher).publishEvent(any(AsignacionCambiadaEvent.class));
+  }
+
+  @Test
+  @DisplayName("Debe rechazar completar una asignación de un período cerrado")
+  void testCompletarAsignacion_PeriodoCerrado() {
+    // Arrange
+    partidoMock.setFechaHora(LocalDateTime.now().minusDays(1));
+    Asignacion asignacion = asignacion(AsignacionEstado.ACEPTADA);
+    when(asignacionRepository.findById(5L)).thenReturn(Optional.of(asignacion));
+    doThrow(new BusinessException("Período cerrado"))
+        .when(cierreLiquidacionService)
+        .verificarPeriodoAbierto(partidoMock.getFechaHora());
+
+    // Act & Assert
+    BusinessException exception =
+        assertThrows(BusinessException.class, () -> partidoService.completarAsignacion(5L, 1L));
+
+    assertEquals("Período cerrado", exception.getMessage());
+    assertEquals(AsignacionEstado.ACEPTADA, asignacion.getEstado());
+    verify(asignacionRepository, never()).save(any(Asignacion.class));
+  }
+
+  @Test
+  @DisplayName("Debe rechazar completar la asignación de otro árbitro o de un partido futuro")
+  void testCompletarAsignacion_Rechazos() {
+    // Arrange: el partido del setUp es dentro de 7 días
+    Asignacion asignacion = asignacion(AsignacionEstado.ACEPTADA);
+    when(asignacionRepository.findById(5L)).thenReturn(Optional.of(asignacion));
+
+    // Act & Assert
+    assertThrows(BusinessException.class, () -> partidoService.completarAsignacion(5L, 2L));
+    assertThrows(BusinessException.class, () -> partidoService.completarAsignacion(5L, 1L));
+    assertEquals(AsignacionEstado.ACEPTADA, asignacion.getEstado());
+    verify(asignacionRepository, never()).save(any(Asignacion.class));
+  }
+
   @Test
   @DisplayName("Debe lanzar excepción cuando árbitro no está disponible")
   void testAsignarArbitro_ArbitroNoDisponible() {
@@ -289,4 +392,13 @@ class PartidoServiceTest {
     verify(partidoRepository, times(1)).save(partidoMock);
     assertFalse(partidoMock.getActivo());
   }
+
+  private Asignacion asignacion(AsignacionEstado estado) {
+    Asignacion asignacion = new Asignacion();
+    asignacion.setArbitro(arbitroMock);
+    asignacion.setPartido(partidoMock);
+    asignacion.setPosicion("Principal");
+    asignacion.setEstado(estado);
+    return asignacion;
+  }
 }
@@ -0,0 +1,107 @@
+/**
+ * Archivo: DatosDePrueba.java Autores: Diego.Gonzalez Fecha última modificación: 17.10.2026
+ * Descripción: Creación de árbitros, torneos, partidos y asignaciones para las pruebas contra H2
+ * Proyecto: CABA Pro - Sistema de Gestión Integral de Arbitraje
+ */
+package com.caba.caba_pro.support;
+
+import com.caba.caba_pro.enums.AsignacionEstado;
+import com.caba.caba_pro.enums.Especialidad;
+import com.caba.caba_pro.models.Arbitro;
+import com.caba.caba_pro.models.Asignacion;
+import com.caba.caba_pro.models.Partido;
+import com.caba.caba_pro.models.Torneo;
+import jakarta.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+/**
+ * Persiste entidades mínimas válidas con el {@link EntityManager} de la prueba. Las entidades
+ * recibidas pueden estar desasociadas (después de {@code clear()}): se enlazan por referencia.
+ */
+public class DatosDePrueba {
+
+  // 1. Constantes estáticas
+  private static final long PRIMERA_IDENTIFICACION = 1_000_000_000L;
+
+  // 2. Variables de instancia
+  private final EntityManager entityManager;
+  private long identificaciones;
+
+  // 3. Constructores
+  public DatosDePrueba(EntityManager entityManager) {
+    this.entityManager = entityManager;
+  }
+
+  // 4. Métodos públicos
+
+  public Arbitro arbitro(String username) {
+    return arbitro("Nombre", "Apellido", username);
+  }
+
+  public Arbitro arbitro(String nombre, String apellidos, String username) {
+    Arbitro arbitro = new Arbitro();
+    arbitro.setNombre(nombre);
+    arbitro.setApellidos(apellidos);
+    arbitro.setUsername(username);
+    arbitro.setPassword("x");
+    arbitro.setEmail(username + "@cabaproarbitraje.com");
+    arbitro.setNumeroIdentificacion(String.valueOf(PRIMERA_IDENTIFICACION + identificaciones++));
+    arbitro.setEspecialidad(Especialidad.values()[0]);
+    arbitro.setEscalafon("FIBA");
+    entityManager.persist(arbitro);
+    return arbitro;
+  }
+
+  public Torneo torneo(String nombre, LocalDate fechaInicio, LocalDate fechaFin) {
+    Torneo torneo = new Torneo();
+    torneo.setNombre(nombre);
+    torneo.setFechaInicio(fechaInicio);
+    torneo.setFechaFin(fechaFin);
+    entityManager.persist(torneo);
+    return torneo;
+  }
+
+  // Partido en el Coliseo; 'torneo' puede ser null
+  public Partido partido(LocalDateTime fechaHora, Torneo torneo) {
+    Partido partido = new Partido();
+    partido.setNombre("Partido " + fechaHora);
+    partido.setFechaHora(fechaHora);
+    partido.setSede("Coliseo");
+    partido.setEquipoLocal("Local");
+    partido.setEquipoVisitante("Visitante");
+    partido.setTorneo(torneo != null ? referencia(Torneo.class, torneo, torneo.getId()) : null);
+    entityManager.persist(partido);
+    return partido;
+  }
+
+  // Asignación activa como "Principal"; 'montoPago' puede ser null
+  public Asignacion asignar(
+      Arbitro arbitro, Partido partido, AsignacionEstado estado, BigDecimal montoPago) {
+    Asignacion asignacion = new Asignacion();
+    asignacion.setArbitro(referencia(Arbitro.class, arbitro, arbitro.getId()));
+    asignacion.setPartido(referencia(Partido.class, partido, partido.getId()));
+    asignacion.setPosicion("Principal");
+    asignacion.setEstado(estado);
+    asignacion.setMontoPago(montoPago);
+    entityManager.persist(asignacion);
+    return asignacion;
+  }
+
+  // Estadísticas de Hibernate puestas en cero; llamar después de preparar los datos
+  public Statistics estadisticas() {
+    Statistics statistics =
+        entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+    return statistics;
+  }
+
+  // 5. Métodos privados
+
+  private <T> T referencia(Class<T> tipo, T entidad, Object id) {
+    return entityManager.contains(entidad) ? entidad : entityManager.getReference(tipo, id);
+  }
+}
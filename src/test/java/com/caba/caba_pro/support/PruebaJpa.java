@@ -0,0 +1,35 @@
+/**
+ * Archivo: PruebaJpa.java Autores: Diego.Gonzalez Fecha última modificación: 17.10.2026
+ * Descripción: Configuración común de las pruebas de integración contra H2 en memoria Proyecto:
+ * CABA Pro - Sistema de Gestión Integral de Arbitraje
+ */
+package com.caba.caba_pro.support;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.core.annotation.AliasFor;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * {@link DataJpaTest} con las estadísticas de Hibernate activas (para contar sentencias con {@link
+ * DatosDePrueba#estadisticas()}) y sin registrar el SQL. {@code properties} agrega propiedades
+ * propias de cada prueba, por ejemplo desactivar la caché de consultas.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@DataJpaTest
+@TestPropertySource(
+    properties = {
+      "spring.jpa.properties.hibernate.generate_statistics=true",
+      "spring.jpa.show-sql=false"
+    })
+public @interface PruebaJpa {
+
+  @AliasFor(annotation = DataJpaTest.class, attribute = "properties")
+  String[] properties() default {};
+}